@@ -2,17 +2,36 @@ import animation.AnimationRunner;
 import animation.GameAnimation;
 import animation.HighScoresAnimation;
 import animation.KeyPressStoppableAnimation;
+import collidablesdata.GameEnvironment;
 import gamelogic.GameFlow;
+import indicators.FrameStatsOverlay;
 
+import levelsdata.DefinitionsSyntaxException;
+import levelsdata.DefinitionsWatcher;
 import levelsdata.LevelSetReader;
+import levelsdata.StressLevelGenerator;
 import menu.Menu;
 import menu.MenuAnimation;
 import menu.Task;
 import scoredata.HighScoresTable;
-import biuoop.GUI;
 import biuoop.KeyboardSensor;
+import display.Display;
+import display.FrameLimitReachedException;
+import display.HeadlessDisplay;
+import display.InputLog;
+import display.NullDrawSurface;
+import display.RecordingKeyboard;
+import display.ReplayKeyboard;
+import display.WindowDisplay;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -25,20 +44,85 @@ public class Ass6Game {
     /**
      * Function name: main.
      * Creating the game variables via different functions from different classes.
+     * The game can record the player's input to a file, and replay a recorded file without a window as fast as
+     * possible - the replay plays exactly the same session that was recorded, with the level sets and the stress
+     * level settings it was recorded with.
+     * In the developer mode, the definitions files are watched, and a played level is patched when they're saved.
+     * The main menu can also start a big generated level, for testing the game with many blocks and balls.
+     * <p>
+     * Usage: java Ass6Game [level sets file] [--record input file | --replay input file] [--dev]
+     * [--stress "rows:200 columns:250 width:3 height:2 balls:1000"]
      *
-     * @param args - an array of numbers entered by the user representing the levels the player wishes to play
+     * @param args - the level sets file to play, optionally a file to record the input to or to replay from,
+     *             optionally the developer mode, and optionally the settings of the generated stress level
      */
     public static void main(String[] args) {
         int gameWidth = 800;
         int gameHeight = 600;
-        GUI gui = new GUI("Arkanoid", gameWidth, gameHeight);
-        AnimationRunner animator = new AnimationRunner(gui);
-        KeyboardSensor keyboard = gui.getKeyboardSensor();
+        String levelSets = "";
+        String recordFile = null;
+        String replayFile = null;
+        boolean developerMode = false;
+        String stressSettings = "";
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--record") && i + 1 < args.length) {
+                recordFile = args[++i];
+            } else if (args[i].equals("--replay") && i + 1 < args.length) {
+                replayFile = args[++i];
+            } else if (args[i].equals("--dev")) {
+                developerMode = true;
+            } else if (args[i].equals("--stress") && i + 1 < args.length) {
+                stressSettings = args[++i];
+            } else {
+                levelSets = args[i];
+            }
+        }
 
-        // creating the game
+        // replaying a recorded session - with the level sets and the stress level it was recorded with
+        InputLog replayLog = null;
+        if (replayFile != null) {
+            try {
+                replayLog = InputLog.load(new File(replayFile));
+            } catch (IOException e) {
+                System.out.println("Can't read the input file: " + e.getMessage());
+                System.exit(1);
+            }
+            levelSets = replayLog.getLevelSets();
+            stressSettings = replayLog.getStressSettings();
+        }
+
+        StressLevelGenerator stressLevel = null;
+        try {
+            stressLevel = StressLevelGenerator.fromSettings(stressSettings);
+        } catch (DefinitionsSyntaxException e) {
+            System.out.println("Wrong stress level settings: " + e.getMessage());
+            System.exit(1);
+        }
+        final StressLevelGenerator stressGenerator = stressLevel;
+
+        Display display;
         File highScoresFile = new File("highscores");
+        if (replayLog != null) {
+            display = replayDisplay(replayLog, gameWidth, gameHeight);
+            // a replay doesn't change the real high scores
+            highScoresFile = new File(replayFile + ".highscores");
+            highScoresFile.deleteOnExit();
+        } else {
+            WindowDisplay window = new WindowDisplay("Arkanoid", gameWidth, gameHeight);
+            if (recordFile != null) {
+                recordInput(window, new File(recordFile), levelSets, stressSettings);
+            }
+            display = window;
+        }
+        AnimationRunner animator = new AnimationRunner(display);
+        KeyboardSensor keyboard = display.getKeyboardSensor();
+
+        // creating the game
         HighScoresTable highScores = HighScoresTable.loadFromFile(highScoresFile);
-        GameFlow fullGame = new GameFlow(animator, keyboard, gui, highScores, highScoresFile);
+        GameFlow fullGame = new GameFlow(animator, keyboard, display, highScores, highScoresFile);
+        if (developerMode) {
+            fullGame.setDefinitionsWatcher(watchDefinitions());
+        }
 
         // creating the menus and joining them together
         Menu<Task<Void>> menu = new MenuAnimation<>("Main Menu", keyboard, animator);
@@ -54,6 +138,16 @@ public class Ass6Game {
                 return null;
             }
         });
+        menu.addSelection("t", "T - Stress Test", new Task<Void>() {
+            @Override
+            public Void run() {
+                // the stress level is played with its own limit of sub-steps, the other levels with the default
+                fullGame.setMaxSubSteps(stressGenerator.getMaxSubSteps());
+                fullGame.runLevels(Collections.singletonList(stressGenerator.createLevel()));
+                fullGame.setMaxSubSteps(GameEnvironment.DEFAULT_MAX_SUB_STEPS);
+                return null;
+            }
+        });
         menu.addSelection("q", "Q - Quit", new Task<Void>() {
             @Override
             public Void run() {
@@ -63,12 +157,7 @@ public class Ass6Game {
         });
 
         // adding the levels options to the sub menu
-        LevelSetReader levelSetReader;
-        if (args.length == 0) {
-            levelSetReader = new LevelSetReader("");
-        } else {
-            levelSetReader = new LevelSetReader(args[0]);
-        }
+        LevelSetReader levelSetReader = new LevelSetReader(levelSets);
         Map<String, String> levelsDescriptions = levelSetReader.getCharToLevelNameMap();
         for (Map.Entry<String, String> entry : levelsDescriptions.entrySet()) {
             subMenu.addSelection(entry.getKey(), entry.getKey().toUpperCase() + " - " + entry.getValue(), new Task<Void>() {
@@ -81,10 +170,97 @@ public class Ass6Game {
         }
 
         // running the game
-        while (true) {
-            animator.run(menu);
-            Task<Void> task = menu.getStatus();
-            task.run();
+        try {
+            while (true) {
+                animator.run(menu);
+                Task<Void> task = menu.getStatus();
+                task.run();
+            }
+        } catch (FrameLimitReachedException e) {
+            // the replayed recording is over
+            return;
+        }
+    }
+
+    /**
+     * Function name: watchDefinitions.
+     * Starts watching the definitions directory of the class path, for the developer mode.
+     *
+     * @return the watcher, or null if the directory can't be watched
+     */
+    private static DefinitionsWatcher watchDefinitions() {
+        URL url = ClassLoader.getSystemClassLoader().getResource("definitions");
+        if (url == null || !url.getProtocol().equals("file")) {
+            System.out.println("Can't watch the definitions: the directory isn't in the class path");
+            return null;
+        }
+        try {
+            DefinitionsWatcher watcher = new DefinitionsWatcher(new File(url.toURI()));
+            watcher.start();
+            return watcher;
+        } catch (URISyntaxException | IOException e) {
+            System.out.println("Can't watch the definitions: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Function name: recordInput.
+     * Replaces the keyboard of the window with one that records the keys of every tick. The recording is saved to
+     * the given file when the game exits.
+     *
+     * @param window         - the window of the game
+     * @param file           - the file to save the recording to
+     * @param levelSets      - the level sets file the game is played with
+     * @param stressSettings - the settings of the stress level of the game
+     */
+    private static void recordInput(WindowDisplay window, File file, String levelSets, String stressSettings) {
+        // the keys of the game, of the frame stats overlay, of the menus and of the level sets
+        List<String> keys = new ArrayList<>(Arrays.asList(KeyboardSensor.LEFT_KEY, KeyboardSensor.RIGHT_KEY,
+                KeyboardSensor.SPACE_KEY, "p", FrameStatsOverlay.TOGGLE_KEY, "s", "h", "t", "q"));
+        for (String key : new LevelSetReader(levelSets).getCharToLevelNameMap().keySet()) {
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
         }
+        // the only random numbers of the game are the stress level's, and they come from the seed in its settings,
+        // which are recorded - the seed of the log isn't used, it's kept for random numbers that aren't seeded
+        InputLog log = new InputLog(levelSets, stressSettings, System.nanoTime(), keys);
+        window.setKeyboardSensor(new RecordingKeyboard(window.getKeyboardSensor(), log));
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                try {
+                    log.save(file);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Function name: replayDisplay.
+     * Creates a display without a window that plays back the keys of a recording, and stops the game when the
+     * recording is over. The time the replay took is printed when the game exits.
+     *
+     * @param log    - the recording to replay
+     * @param width  - the width of the display
+     * @param height - the height of the display
+     * @return the display of the replay
+     */
+    private static Display replayDisplay(InputLog log, int width, int height) {
+        HeadlessDisplay display = new HeadlessDisplay(new NullDrawSurface(width, height), new ReplayKeyboard(log));
+        // on a headless display every tick is a frame
+        display.setFrameLimit(log.getTicks());
+        long start = System.nanoTime();
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("Replayed %d ticks in %.2f s%n", display.getShownFrames(), seconds);
+            }
+        });
+        return display;
     }
 }
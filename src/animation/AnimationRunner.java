@@ -1,31 +1,55 @@
 package animation;
 
 import biuoop.DrawSurface;
-import biuoop.GUI;
 import biuoop.Sleeper;
+import biuoop.KeyboardSensor;
+import display.Display;
+import display.TickKeyboard;
+import profiling.FrameEvent;
+
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * The class displays on screen a given animation until the animation is terminated.
+ * On a display that isn't real time (a headless display) the animations run as fast as they can - nothing waits for
+ * real time to pass, and a simulated animation is advanced by exactly one step for every frame.
+ * Every frame of a regular animation and every step of a simulated animation is a tick of the game. If the keyboard
+ * of the display is a TickKeyboard, it is told when each tick starts. Since the ticks only depend on the animations
+ * and the fixed time steps (and not on how fast the machine is), the same keys in the same ticks always play the same
+ * game.
  *
  * @author Ariel Fenster
  */
 public class AnimationRunner {
 
+    // the rate (steps per second) in which simulated animations are advanced
+    private static final int PHYSICS_RATE = 120;
+    // the maximal amount of simulation steps done between two displayed frames - the rest are dropped
+    private static final int MAX_STEPS_PER_FRAME = 8;
+
     // members
-    private GUI gui;
+    private Display display;
     private int fps;
     private double dt;
+    private long nanosPerStep;
+    private long droppedSteps;
+    private FrameStats stats;
+    // the amount of regular animations run so far - to know when one was run in the middle of a step
+    private long animationsRun;
 
     /**
      * Function name: AnimationRunner.
      * Constructor for the class.
      *
-     * @param gui - the gui of the game
+     * @param display - the display the animations are shown on
      */
-    public AnimationRunner(GUI gui) {
-        this.gui = gui;
+    public AnimationRunner(Display display) {
+        this.display = display;
         this.fps = 60;
         this.dt = 1.0 / this.fps;
+        this.nanosPerStep = 1000000000L / PHYSICS_RATE;
+        this.droppedSteps = 0;
+        this.stats = new FrameStats();
     }
 
     /**
@@ -41,14 +65,21 @@ public class AnimationRunner {
         // how long each frame lasts
         int millisecondsPerFrame = 1000 / this.fps;
 
+        // the time before this animation isn't a frame of it
+        this.animationsRun++;
+        this.stats.breakFrames();
         while (!animation.shouldStop()) {
             // start measuring the time it takes to complete one cycle of actions
-            long startTime = System.currentTimeMillis();
+            long startTime = System.nanoTime();
+            FrameEvent event = startFrameEvent();
 
-            DrawSurface d = this.gui.getDrawSurface();
+            DrawSurface d = this.display.getDrawSurface();
             // continuously displaying the animation (each frame at a time) until the animation should stop
+            this.startTick();
             animation.doOneFrame(d, this.dt);
-            this.gui.show(d);
+            long drawnTime = System.nanoTime();
+            this.display.show(d);
+            long shownTime = System.nanoTime();
 
             /*
              * stop measuring time.
@@ -57,11 +88,240 @@ public class AnimationRunner {
              * Because of that, we take precaution by measuring the time and seeing how long we can delay the program,
              * to ensure a smooth and consistent animation.
              */
-            long usedTime = System.currentTimeMillis() - startTime;
+            long usedTime = (shownTime - startTime) / 1000000;
             long milliSecondLeftToSleep = millisecondsPerFrame - usedTime;
+            // a display that isn't real time doesn't wait
+            if (milliSecondLeftToSleep > 0 && this.display.isRealTime()) {
+                sleeper.sleepFor(milliSecondLeftToSleep);
+            }
+            long endTime = System.nanoTime();
+
+            // a regular animation advances and draws itself in the same call, so it's all counted as drawing
+            this.stats.record(FrameStats.DRAW, drawnTime - startTime);
+            this.stats.record(FrameStats.SHOW, shownTime - drawnTime);
+            this.stats.record(FrameStats.SLEEP, endTime - shownTime);
+            this.stats.endFrame(endTime);
+            this.commitFrameEvent(event, animation, 0, 0, drawnTime - startTime, shownTime - drawnTime,
+                    endTime - shownTime);
+        }
+    }
+
+    /**
+     * Function name: showProgress.
+     * Displays an animation that shows the progress of work done in the background, until the animation stops.
+     * Its frames aren't ticks of the game - the animation doesn't read the keyboard, and the amount of its frames
+     * depends on how long the work takes - so they don't change what the keys recorded in later ticks do.
+     * A display that isn't real time doesn't show the progress at all.
+     *
+     * @param animation - the animation that will be displayed
+     */
+    public void showProgress(Animation animation) {
+        if (!this.display.isRealTime()) {
+            return;
+        }
+        Sleeper sleeper = new Sleeper();
+        int millisecondsPerFrame = 1000 / this.fps;
+        this.animationsRun++;
+        this.stats.breakFrames();
+        while (!animation.shouldStop()) {
+            long startTime = System.nanoTime();
+            DrawSurface d = this.display.getDrawSurface();
+            animation.doOneFrame(d, this.dt);
+            this.display.show(d);
+            long milliSecondLeftToSleep = millisecondsPerFrame - (System.nanoTime() - startTime) / 1000000;
             if (milliSecondLeftToSleep > 0) {
                 sleeper.sleepFor(milliSecondLeftToSleep);
             }
         }
     }
+
+    /**
+     * Function name: runFixedTimestep.
+     * Plays the given animation where the simulation is advanced in fixed steps of time, separately from the drawing.
+     * The real time that passes is accumulated and spent in whole steps, so the simulation behaves the same on fast
+     * and slow machines and on any display rate. A frame is drawn as often as the display can show frames (its
+     * refresh rate), whether or not a step was done since the last frame - the moving sprites are drawn between
+     * their states of the last two steps, by how much of the next step's time has already accumulated, so the
+     * movement stays smooth on displays that are faster (or slower) than the steps.
+     * If the machine can't keep up, at most a few steps are done between frames and the rest of the late time is
+     * dropped (the game slows down instead of freezing while trying to catch up).
+     *
+     * @param animation - the animation that will be displayed
+     */
+    public void runFixedTimestep(SimulatedAnimation animation) {
+        double stepTime = this.nanosPerStep / 1000000000.0;
+        if (!this.display.isRealTime()) {
+            // no real time to keep up with - a step and a frame, as fast as possible
+            this.stats.breakFrames();
+            while (!animation.shouldStop()) {
+                long startTime = System.nanoTime();
+                FrameEvent event = startFrameEvent();
+                this.startTick();
+                animation.doOneStep(stepTime);
+                long updatedTime = System.nanoTime();
+                DrawSurface d = this.display.getDrawSurface();
+                animation.drawFrame(d, 1);
+                long drawnTime = System.nanoTime();
+                this.display.show(d);
+                long shownTime = System.nanoTime();
+                this.recordFrame(updatedTime - startTime, drawnTime - updatedTime, shownTime - drawnTime, 0,
+                        shownTime);
+                this.commitFrameEvent(event, animation, 1, updatedTime - startTime, drawnTime - updatedTime,
+                        shownTime - drawnTime, 0);
+            }
+            return;
+        }
+        // the time between two frames the display can show (0 if it has no limit)
+        int refreshRate = this.display.getRefreshRate();
+        long nanosPerFrame = refreshRate > 0 ? 1000000000L / refreshRate : 0;
+        long accumulated = 0;
+        long previousTime = System.nanoTime();
+        long nextFrameTime = previousTime;
+        // the time spent waiting since the last frame was shown
+        long sleptTime = 0;
+        this.stats.breakFrames();
+
+        while (!animation.shouldStop()) {
+            long currentTime = System.nanoTime();
+            // the display can't show the next frame yet - wait for it to be due
+            if (currentTime < nextFrameTime) {
+                LockSupport.parkNanos(nextFrameTime - currentTime);
+                sleptTime += System.nanoTime() - currentTime;
+                continue;
+            }
+            accumulated += currentTime - previousTime;
+            previousTime = currentTime;
+            FrameEvent event = startFrameEvent();
+
+            // spending the accumulated time in fixed steps
+            long animationsBefore = this.animationsRun;
+            int steps = 0;
+            while (accumulated >= this.nanosPerStep && steps < MAX_STEPS_PER_FRAME && !animation.shouldStop()) {
+                this.startTick();
+                animation.doOneStep(stepTime);
+                accumulated -= this.nanosPerStep;
+                steps++;
+            }
+            // too far behind - drop the whole steps that are left
+            if (accumulated >= this.nanosPerStep) {
+                this.droppedSteps += accumulated / this.nanosPerStep;
+                accumulated %= this.nanosPerStep;
+            }
+            long afterSteps = System.nanoTime();
+            // a step ran another animation (like the pause screen), the time it took isn't game time
+            boolean interrupted = this.animationsRun != animationsBefore;
+            if (interrupted) {
+                previousTime = afterSteps;
+                nextFrameTime = afterSteps;
+                this.stats.breakFrames();
+            }
+
+            // the frame is drawn between the last two steps, by the part of the next step that already passed
+            DrawSurface d = this.display.getDrawSurface();
+            animation.drawFrame(d, (double) accumulated / this.nanosPerStep);
+            long drawnTime = System.nanoTime();
+            this.display.show(d);
+            long shownTime = System.nanoTime();
+            if (interrupted) {
+                // the time of the steps includes another animation, only the end of the frame is kept
+                this.stats.endFrame(shownTime);
+            } else {
+                this.recordFrame(afterSteps - currentTime, drawnTime - afterSteps, shownTime - drawnTime, sleptTime,
+                        shownTime);
+            }
+            this.commitFrameEvent(event, animation, steps, afterSteps - currentTime, drawnTime - afterSteps,
+                    shownTime - drawnTime, sleptTime);
+            sleptTime = 0;
+            // the frames are kept evenly apart - after a late frame the next one is drawn right away, without trying to
+            // catch up with the frames that were missed
+            nextFrameTime = Math.max(nextFrameTime + nanosPerFrame, shownTime);
+        }
+    }
+
+    /**
+     * Function name: startTick.
+     * Tells the keyboard of the display (if it counts ticks) that a new tick of the game starts
+     */
+    private void startTick() {
+        KeyboardSensor keyboard = this.display.getKeyboardSensor();
+        if (keyboard instanceof TickKeyboard) {
+            ((TickKeyboard) keyboard).nextTick();
+        }
+    }
+
+    /**
+     * Function name: recordFrame.
+     * Adds the durations of the phases of a frame of a simulated animation to the frame stats.
+     *
+     * @param update  - the time spent advancing the simulation, in nanoseconds
+     * @param draw    - the time spent drawing the frame, in nanoseconds
+     * @param show    - the time spent showing the frame, in nanoseconds
+     * @param sleep   - the time spent waiting before the frame, in nanoseconds
+     * @param endTime - the time the frame ended
+     */
+    private void recordFrame(long update, long draw, long show, long sleep, long endTime) {
+        this.stats.record(FrameStats.UPDATE, update);
+        this.stats.record(FrameStats.DRAW, draw);
+        this.stats.record(FrameStats.SHOW, show);
+        this.stats.record(FrameStats.SLEEP, sleep);
+        this.stats.endFrame(endTime);
+    }
+
+    /**
+     * Function name: startFrameEvent.
+     * Starts the flight recorder event of a frame, if the flight recorder is recording frames. Otherwise no event is
+     * created, so a frame doesn't create an object only to throw it away.
+     *
+     * @return the started event, or null if frames aren't recorded
+     */
+    private static FrameEvent startFrameEvent() {
+        if (!FrameEvent.isRecorded()) {
+            return null;
+        }
+        FrameEvent event = new FrameEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Function name: commitFrameEvent.
+     * Records a frame for the flight recorder, if it's recording frames.
+     *
+     * @param event     - the event of the frame, started when the frame started (null if frames aren't recorded)
+     * @param animation - the animation the frame belongs to
+     * @param steps     - the amount of simulation steps done for the frame
+     * @param update    - the time spent advancing the simulation, in nanoseconds
+     * @param draw      - the time spent drawing the frame, in nanoseconds
+     * @param show      - the time spent showing the frame, in nanoseconds
+     * @param sleep     - the time spent waiting before the frame, in nanoseconds
+     */
+    private void commitFrameEvent(FrameEvent event, Object animation, int steps, long update, long draw, long show,
+                                  long sleep) {
+        if (event != null && event.shouldCommit()) {
+            event.setAnimation(animation);
+            // the frame stats already ended the frame, so its sub-steps are the last frame's
+            event.setPhases(steps, this.stats.getSubStepsLastFrame(), update, draw, show, sleep);
+            event.commit();
+        }
+    }
+
+    /**
+     * Function name: getFrameStats.
+     * Returns the timings of the frames shown by the runner
+     *
+     * @return the frame stats
+     */
+    public FrameStats getFrameStats() {
+        return this.stats;
+    }
+
+    /**
+     * Function name: getDroppedSteps.
+     * Returns the amount of simulation steps that were dropped because the simulation couldn't keep up
+     *
+     * @return amount of dropped steps
+     */
+    public long getDroppedSteps() {
+        return this.droppedSteps;
+    }
 }
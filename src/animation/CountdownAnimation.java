@@ -15,10 +15,11 @@ public class CountdownAnimation implements Animation {
 
     //members
     private SpriteCollection background;
-    private long miliSecondsRequested;
+    private double secondsRequested;
     private int countFrom;
-    private long miliSecondsPerCount;
-    private long totalTimePassed;
+    private double secondsPerCount;
+    private double timeInCurrentCount;
+    private double totalTimePassed;
 
     /**
      * Function name: CountdownAnimation.
@@ -30,35 +31,36 @@ public class CountdownAnimation implements Animation {
      */
     public CountdownAnimation(SpriteCollection levelBackground, double numOfSeconds, int countFrom) {
         this.background = levelBackground;
-        this.miliSecondsRequested = (long) numOfSeconds * 1000;
+        this.secondsRequested = numOfSeconds;
         this.countFrom = countFrom;
-        this.miliSecondsPerCount = this.miliSecondsRequested / countFrom;
+        this.secondsPerCount = this.secondsRequested / countFrom;
+        this.timeInCurrentCount = 0;
         this.totalTimePassed = 0;
     }
 
     /**
      * Function name: doOneFrame.
-     * The function performs one frame of the animation and displays it on the given draw surface
+     * The function performs one frame of the animation and displays it on the given draw surface.
+     * The time is counted using the time of the frames (and not by waiting inside the frame), so the count runs at
+     * the speed the animation is played at.
      *
      * @param d  - the platform on which the outcome of the action is displayed
      * @param dt - the time that passed since the last frame was shown
      */
     public void doOneFrame(DrawSurface d, double dt) {
-        long startTime = System.currentTimeMillis();
         // drawing the background
         this.background.drawAllOn(d);
 
         // drawing the number
         d.setColor(Color.RED);
         d.drawText(d.getWidth() / 2, d.getHeight() / 3 * 2, Integer.toString(this.countFrom), 30);
-        // delay
-        long endTime = System.currentTimeMillis() - startTime;
-        while (endTime < this.miliSecondsPerCount) {
-            endTime = System.currentTimeMillis() - startTime;
-        }
         // adjust
-        this.countFrom--;
-        this.totalTimePassed += this.miliSecondsPerCount;
+        this.timeInCurrentCount += dt;
+        this.totalTimePassed += dt;
+        if (this.timeInCurrentCount >= this.secondsPerCount) {
+            this.countFrom--;
+            this.timeInCurrentCount -= this.secondsPerCount;
+        }
     }
 
     /**
@@ -69,6 +71,6 @@ public class CountdownAnimation implements Animation {
      * @return true if the animation should stop, false otherwise
      */
     public boolean shouldStop() {
-        return this.totalTimePassed >= this.miliSecondsRequested;
+        return this.totalTimePassed >= this.secondsRequested;
     }
 }
\ No newline at end of file
@@ -0,0 +1,311 @@
+package animation;
+
+/**
+ * Keeps the timings of the frames the animation runner shows: how long each phase of a frame took (advancing the
+ * game, drawing, showing and waiting for the next frame), in a histogram for every phase, the time between
+ * consecutive frames, and the current frame rate. It also keeps how much work the simulation steps of a frame did (the
+ * sub-steps and collisions of the balls), the time it took to move from the end of a level to the next level being
+ * ready to play, and the last report of reloading the definitions of the levels (in the developer mode).
+ * The stats are kept all the time (it costs a few readings of the clock per frame) so that stutter can be seen while
+ * playing - the overlay that shows them can be turned on and off during the game.
+ *
+ * @author Ariel Fenster
+ */
+public class FrameStats {
+    // the phases of a frame
+    public static final int UPDATE = 0;
+    public static final int DRAW = 1;
+    public static final int SHOW = 2;
+    public static final int SLEEP = 3;
+    // the whole frame - the time from the end of the previous frame
+    public static final int FRAME = 4;
+    private static final String[] PHASE_NAMES = {"update", "draw", "show", "sleep", "frame"};
+    // the frame rate is measured over this much time
+    private static final long FPS_INTERVAL = 1000000000L;
+
+    // members
+    private TimeHistogram[] histograms;
+    private TimeHistogram transitions;
+    private long lastTransition;
+    private String lastReload;
+    private long lastFrameEnd;
+    private long intervalStart;
+    private int framesInInterval;
+    private double fps;
+    private boolean overlayVisible;
+    // the simulation steps of the current frame and of the last frame, and the most sub-steps done in a frame
+    private int stepsThisFrame;
+    private int subStepsThisFrame;
+    private int collisionsThisFrame;
+    private int stepsLastFrame;
+    private int subStepsLastFrame;
+    private int collisionsLastFrame;
+    private int maxSubStepsInFrame;
+
+    /**
+     * Function name: FrameStats.
+     * Constructor - creates empty stats.
+     */
+    public FrameStats() {
+        this.histograms = new TimeHistogram[PHASE_NAMES.length];
+        for (int i = 0; i < this.histograms.length; i++) {
+            this.histograms[i] = new TimeHistogram();
+        }
+        this.transitions = new TimeHistogram();
+        this.lastFrameEnd = -1;
+        this.intervalStart = -1;
+    }
+
+    /**
+     * Function name: record.
+     * Adds the duration of a phase of the current frame.
+     *
+     * @param phase - the phase (UPDATE, DRAW, SHOW or SLEEP)
+     * @param nanos - the duration of the phase, in nanoseconds
+     */
+    public void record(int phase, long nanos) {
+        this.histograms[phase].record(nanos);
+    }
+
+    /**
+     * Function name: countStep.
+     * Adds a simulation step of the current frame, with the sub-steps and the collisions of the balls in the step.
+     *
+     * @param subSteps   - the total amount of sub-steps all the balls did in the step
+     * @param collisions - the amount of collisions in which balls hit collidables in the step
+     */
+    public void countStep(int subSteps, int collisions) {
+        this.stepsThisFrame++;
+        this.subStepsThisFrame += subSteps;
+        this.collisionsThisFrame += collisions;
+    }
+
+    /**
+     * Function name: endFrame.
+     * Marks the end of a frame - the time since the end of the previous frame is added, the frame rate updated, and
+     * the steps counted so far become the last frame's steps.
+     *
+     * @param now - the time the frame ended (from System.nanoTime)
+     */
+    public void endFrame(long now) {
+        this.stepsLastFrame = this.stepsThisFrame;
+        this.subStepsLastFrame = this.subStepsThisFrame;
+        this.collisionsLastFrame = this.collisionsThisFrame;
+        this.maxSubStepsInFrame = Math.max(this.maxSubStepsInFrame, this.subStepsThisFrame);
+        this.stepsThisFrame = 0;
+        this.subStepsThisFrame = 0;
+        this.collisionsThisFrame = 0;
+
+        if (this.lastFrameEnd >= 0) {
+            this.histograms[FRAME].record(now - this.lastFrameEnd);
+        }
+        this.lastFrameEnd = now;
+
+        if (this.intervalStart < 0) {
+            this.intervalStart = now;
+            this.framesInInterval = 0;
+        }
+        this.framesInInterval++;
+        if (now - this.intervalStart >= FPS_INTERVAL) {
+            this.fps = this.framesInInterval * 1e9 / (now - this.intervalStart);
+            this.intervalStart = now;
+            this.framesInInterval = 0;
+        }
+    }
+
+    /**
+     * Function name: getSubStepsLastFrame.
+     * Returns the total amount of sub-steps all the balls did in the simulation steps of the last frame
+     *
+     * @return amount of sub-steps in the last frame
+     */
+    public int getSubStepsLastFrame() {
+        return this.subStepsLastFrame;
+    }
+
+    /**
+     * Function name: describeSteps.
+     * Describes the simulation steps of the last frame, in a single line.
+     *
+     * @param maxSubSteps - the maximal amount of sub-steps a ball can do in a step
+     * @return the description of the steps
+     */
+    public String describeSteps(int maxSubSteps) {
+        return String.format("steps in frame: %d   sub-steps: %d (max %d, %d per ball)   collisions: %d",
+                this.stepsLastFrame, this.subStepsLastFrame, this.maxSubStepsInFrame, maxSubSteps,
+                this.collisionsLastFrame);
+    }
+
+    /**
+     * Function name: recordTransition.
+     * Adds the time it took from the end of a level until the next level was ready to play.
+     *
+     * @param nanos - the duration of the transition, in nanoseconds
+     */
+    public void recordTransition(long nanos) {
+        this.transitions.record(nanos);
+        this.lastTransition = nanos;
+    }
+
+    /**
+     * Function name: getTransitions.
+     * Returns the histogram of the durations of the transitions between levels
+     *
+     * @return the histogram of the transitions
+     */
+    public TimeHistogram getTransitions() {
+        return this.transitions;
+    }
+
+    /**
+     * Function name: describeTransitions.
+     * Describes the transitions between levels in milliseconds, in a single line.
+     *
+     * @return the description of the transitions
+     */
+    public String describeTransitions() {
+        if (this.transitions.getCount() == 0) {
+            return "level transitions: none yet";
+        }
+        return String.format("level transitions: %d, last %.2f  max %.2f ms", this.transitions.getCount(),
+                this.lastTransition / 1e6, this.transitions.getMax() / 1e6);
+    }
+
+    /**
+     * Function name: recordReload.
+     * Keeps the report of the last reload of the definitions of the levels, to be shown by the overlay. Called on the
+     * thread of the game.
+     *
+     * @param report - what was reloaded, or why it couldn't be
+     */
+    public void recordReload(String report) {
+        this.lastReload = report;
+    }
+
+    /**
+     * Function name: describeReload.
+     * Describes the last reload of the definitions of the levels, in a single line.
+     *
+     * @return the description of the last reload, or null if nothing was reloaded
+     */
+    public String describeReload() {
+        return this.lastReload == null ? null : "last reload: " + this.lastReload;
+    }
+
+    /**
+     * Function name: breakFrames.
+     * Marks that the time until the next frame isn't the game's frame time (for example when another animation was
+     * shown in between), so it isn't added.
+     */
+    public void breakFrames() {
+        this.lastFrameEnd = -1;
+        this.intervalStart = -1;
+    }
+
+    /**
+     * Function name: getHistogram.
+     * Returns the histogram of the durations of a phase
+     *
+     * @param phase - the phase (UPDATE, DRAW, SHOW, SLEEP or FRAME)
+     * @return the histogram of the phase
+     */
+    public TimeHistogram getHistogram(int phase) {
+        return this.histograms[phase];
+    }
+
+    /**
+     * Function name: getPhaseName.
+     * Returns the name of a phase
+     *
+     * @param phase - the phase (UPDATE, DRAW, SHOW, SLEEP or FRAME)
+     * @return the name of the phase
+     */
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    /**
+     * Function name: getPhaseCount.
+     * Returns the amount of phases, including the whole frame
+     *
+     * @return amount of phases
+     */
+    public static int getPhaseCount() {
+        return PHASE_NAMES.length;
+    }
+
+    /**
+     * Function name: getFps.
+     * Returns the frame rate measured over the last second
+     *
+     * @return frames per second
+     */
+    public double getFps() {
+        return this.fps;
+    }
+
+    /**
+     * Function name: reset.
+     * Removes all the recorded durations
+     */
+    public void reset() {
+        for (TimeHistogram histogram : this.histograms) {
+            histogram.reset();
+        }
+        this.transitions.reset();
+        this.lastTransition = 0;
+        this.maxSubStepsInFrame = 0;
+        this.breakFrames();
+    }
+
+    /**
+     * Function name: isOverlayVisible.
+     * Returns whether the stats should be shown on the screen
+     *
+     * @return true if the overlay of the stats is visible
+     */
+    public boolean isOverlayVisible() {
+        return this.overlayVisible;
+    }
+
+    /**
+     * Function name: setOverlayVisible.
+     * Sets whether the stats should be shown on the screen
+     *
+     * @param visible - true to show the overlay of the stats
+     */
+    public void setOverlayVisible(boolean visible) {
+        this.overlayVisible = visible;
+    }
+
+    /**
+     * Function name: describe.
+     * Describes the percentiles of a phase in milliseconds, in a single line.
+     *
+     * @param phase - the phase (UPDATE, DRAW, SHOW, SLEEP or FRAME)
+     * @return the description of the phase
+     */
+    public String describe(int phase) {
+        TimeHistogram h = this.histograms[phase];
+        return String.format("%-6s p50 %6.2f  p99 %6.2f  p99.9 %6.2f  max %6.2f ms", PHASE_NAMES[phase],
+                h.getPercentile(50) / 1e6, h.getPercentile(99) / 1e6, h.getPercentile(99.9) / 1e6, h.getMax() / 1e6);
+    }
+
+    /**
+     * Function name: report.
+     * Describes the percentiles of all the phases, a line for each phase, the most sub-steps done in a frame and the
+     * transitions between levels.
+     *
+     * @return the description of the stats
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        for (int phase = 0; phase < PHASE_NAMES.length; phase++) {
+            report.append(this.describe(phase)).append(System.lineSeparator());
+        }
+        report.append("sub-steps: max ").append(this.maxSubStepsInFrame).append(" in a frame")
+                .append(System.lineSeparator());
+        report.append(this.describeTransitions()).append(System.lineSeparator());
+        return report.toString();
+    }
+}
@@ -48,12 +48,14 @@ public class GameAnimation implements Animation {
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
         if (this.levelsToPlay.isEmpty()) {
-            this.levelsToPlay.addAll(this.reader.getLevels(this.difficulty));
-        }
-        // if the returned value is null then there is missing information. play the default levels instead.
-        if (this.levelsToPlay == null) {
-            this.reader = new LevelSetReader("");
-            this.levelsToPlay.addAll(this.reader.getLevels(this.difficulty));
+            // the levels are loaded in the background while the progress is shown
+            List<LevelInformation> levels = this.game.waitForLevels(this.reader.loadLevels(this.difficulty));
+            // if the returned value is null then there is missing information. play the default levels instead.
+            if (levels == null) {
+                this.reader = new LevelSetReader("");
+                levels = this.game.waitForLevels(this.reader.loadLevels(this.difficulty));
+            }
+            this.levelsToPlay.addAll(levels);
         }
         this.game.runLevels(this.levelsToPlay);
         this.shouldAnimationStop = true;
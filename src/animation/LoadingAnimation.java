@@ -0,0 +1,78 @@
+package animation;
+
+import biuoop.DrawSurface;
+import levelsdata.LevelLoader;
+
+import java.awt.Color;
+
+/**
+ * Shown while the levels of the game are loaded in the background - a progress bar of the loading, and a spinner
+ * that keeps turning so it's clear the game didn't freeze.
+ *
+ * @author Ariel Fenster
+ */
+public class LoadingAnimation implements Animation {
+    private static final int BAR_WIDTH = 400;
+    private static final int BAR_HEIGHT = 20;
+    private static final int SPINNER_DOTS = 8;
+    private static final int SPINNER_RADIUS = 15;
+    // turns of the spinner per second
+    private static final double SPINNER_SPEED = 1;
+
+    // members
+    private LevelLoader loader;
+    private double time;
+
+    /**
+     * Function name: LoadingAnimation.
+     * Constructor for the class
+     *
+     * @param loader - the loader of the levels
+     */
+    public LoadingAnimation(LevelLoader loader) {
+        this.loader = loader;
+        this.time = 0;
+    }
+
+    /**
+     * Function name: doOneFrame.
+     * Displaying the progress of the loading
+     *
+     * @param d  - the platform on which the outcome of the action is displayed
+     * @param dt - the time that passed since the last frame was shown
+     */
+    public void doOneFrame(DrawSurface d, double dt) {
+        this.time += dt;
+        int centerX = d.getWidth() / 2;
+        int centerY = d.getHeight() / 2;
+        d.setColor(Color.BLACK);
+        d.fillRectangle(0, 0, d.getWidth(), d.getHeight());
+
+        double progress = this.loader.getProgress();
+        d.setColor(Color.WHITE);
+        d.drawText(centerX - BAR_WIDTH / 2, centerY - 20, "Loading levels... " + (int) (progress * 100) + "%", 20);
+        d.drawRectangle(centerX - BAR_WIDTH / 2, centerY, BAR_WIDTH, BAR_HEIGHT);
+        d.fillRectangle(centerX - BAR_WIDTH / 2, centerY, (int) (BAR_WIDTH * progress), BAR_HEIGHT);
+
+        // the dots of the spinner get brighter towards the leading dot
+        int spinnerY = centerY + BAR_HEIGHT + 50;
+        int leading = (int) (this.time * SPINNER_SPEED * SPINNER_DOTS) % SPINNER_DOTS;
+        for (int i = 0; i < SPINNER_DOTS; i++) {
+            double angle = 2 * Math.PI * i / SPINNER_DOTS;
+            int brightness = 255 - 200 * ((leading - i + SPINNER_DOTS) % SPINNER_DOTS) / SPINNER_DOTS;
+            d.setColor(new Color(brightness, brightness, brightness));
+            d.fillCircle(centerX + (int) (SPINNER_RADIUS * Math.sin(angle)),
+                    spinnerY - (int) (SPINNER_RADIUS * Math.cos(angle)), 3);
+        }
+    }
+
+    /**
+     * Function name: shouldStop.
+     * Returns whether the loading ended
+     *
+     * @return true if the loading ended, false otherwise
+     */
+    public boolean shouldStop() {
+        return this.loader.isDone();
+    }
+}
@@ -0,0 +1,30 @@
+package animation;
+
+import biuoop.DrawSurface;
+
+/**
+ * An animation whose simulation can be advanced separately from drawing it, so that the simulation can run at a
+ * fixed rate no matter how often the animation is displayed.
+ *
+ * @author Ariel Fenster
+ */
+public interface SimulatedAnimation extends Animation {
+
+    /**
+     * Function name: doOneStep.
+     * Advances the simulation of the animation by the given time, without drawing anything
+     *
+     * @param dt - the time (in seconds) to advance the simulation by
+     */
+    void doOneStep(double dt);
+
+    /**
+     * Function name: drawFrame.
+     * Draws the animation on the given draw surface, without advancing it. The moving parts are drawn between their
+     * state before the last step (alpha 0) and their current state (alpha 1), for frames drawn between two steps.
+     *
+     * @param d     - the platform on which the animation is displayed
+     * @param alpha - how far between the previous and the current state to draw the animation (0 to 1)
+     */
+    void drawFrame(DrawSurface d, double alpha);
+}
@@ -0,0 +1,142 @@
+package animation;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations (in nanoseconds) that can tell their percentiles, without keeping the durations
+ * themselves. Recording a duration only adds 1 to the count of its bucket, so it can be done every frame.
+ * The buckets grow with the durations (like in an HDR histogram): durations of the same power of 2 are split into 32
+ * buckets, so a percentile is always within about 3% of the real duration, from a nanosecond to hundreds of years.
+ *
+ * @author Ariel Fenster
+ */
+public class TimeHistogram {
+    // every power of 2 is split into 2^SUB_BUCKET_BITS buckets
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // members
+    private long[] counts;
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Function name: TimeHistogram.
+     * Constructor - creates an empty histogram.
+     */
+    public TimeHistogram() {
+        this.counts = new long[(Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+    }
+
+    /**
+     * Function name: record.
+     * Adds a duration to the histogram.
+     *
+     * @param nanos - the duration, in nanoseconds (negative durations are counted as 0)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts[bucketOf(value)]++;
+        this.count++;
+        this.total += value;
+        if (value > this.max) {
+            this.max = value;
+        }
+    }
+
+    /**
+     * Function name: getCount.
+     * Returns the amount of durations recorded
+     *
+     * @return amount of durations
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Function name: getMax.
+     * Returns the longest duration recorded (exactly)
+     *
+     * @return the longest duration, in nanoseconds, or 0 if the histogram is empty
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Function name: getMean.
+     * Returns the average of the durations recorded
+     *
+     * @return the average duration, in nanoseconds, or 0 if the histogram is empty
+     */
+    public double getMean() {
+        return this.count == 0 ? 0 : (double) this.total / this.count;
+    }
+
+    /**
+     * Function name: getPercentile.
+     * Returns the duration that the given percent of the recorded durations are shorter than or equal to.
+     *
+     * @param percentile - the percent of the durations (0 to 100)
+     * @return the duration at the percentile, in nanoseconds, or 0 if the histogram is empty
+     */
+    public long getPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * Function name: reset.
+     * Removes all the durations from the histogram
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.count = 0;
+        this.total = 0;
+        this.max = 0;
+    }
+
+    /**
+     * Function name: bucketOf.
+     * Returns the bucket a duration is counted in. Small durations have a bucket each; bigger ones share a bucket
+     * with the durations that have the same highest 6 bits.
+     *
+     * @param value - the duration (not negative)
+     * @return the index of the bucket
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Function name: highestValueOf.
+     * Returns the longest duration counted in a bucket.
+     *
+     * @param bucket - the index of the bucket
+     * @return the longest duration of the bucket
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long top = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,355 @@
+package benchmarks;
+
+import animation.AnimationRunner;
+import biuoop.DrawSurface;
+import collidablesdata.CollisionInfo;
+import collidablesdata.GameEnvironment;
+import collidablesdata.Velocity;
+import display.HeadlessDisplay;
+import display.NullDrawSurface;
+import display.ScriptedKeyboard;
+import gamelogic.GameLevel;
+import gameobjects.Ball;
+import gameobjects.BallSystem;
+import gameobjects.Block;
+import gameobjects.Point;
+import listeners.Counter;
+
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks that a simulation step allocates nothing: after warming up, the bytes the thread allocated are read before
+ * and after a run of steps of regular balls, of a group of balls (in both of its modes) and of collision searches,
+ * and must not change.
+ * The balls fly along lanes between long rows of blocks - every search walks cells full of blocks, but no ball ever
+ * hits one. The hits are checked in a whole level (the level of FrameBenchmark, with regular balls and with a group of
+ * balls): its balls bounce between the paddle and blocks that can't be destroyed, so almost every step has hits
+ * that change the velocities and the score. Its steps and the drawing of its frames (on a draw surface that draws
+ * nothing) must not allocate either. What isn't covered: removing a block or a ball changes the lists of the level,
+ * and a hit that changes the look of a block draws its area again in the cached image of the static layer.
+ * <p>
+ * Usage: java benchmarks.AllocationCheck [amount of measured steps]
+ *
+ * @author Ariel Fenster
+ */
+public class AllocationCheck {
+    // the rows of blocks and the lanes between them
+    private static final int ROWS = 10;
+    private static final int ROW_HEIGHT = 18;
+    private static final int LANE_HEIGHT = 20;
+    private static final int ROW_LENGTH = 5000;
+    private static final int BLOCK_WIDTH = 40;
+    // the balls start near the start of the lanes and fly along them
+    private static final int BALLS_PER_LANE = 10;
+    private static final int RADIUS = 3;
+    private static final double SPEED = 120;
+    // the simulation step, the same as the game's
+    private static final double STEP = 1.0 / 120;
+    // the checked level - the size of its screen, its blocks, and its amounts of balls (with regular balls and with a
+    // group of balls)
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int LEVEL_BLOCKS = 100;
+    private static final int LEVEL_BALLS = 10;
+    private static final int LEVEL_GROUP_BALLS = 60;
+    // steps done before measuring, so every class is loaded and the measured code is already compiled
+    private static final int WARMUP_STEPS = 1000;
+    // the steps are measured a few times - the compiler can still replace the code while a round is measured (which
+    // allocates a little, once), but code that allocates in its steps allocates in every round
+    private static final int ROUNDS = 3;
+
+    // members
+    private com.sun.management.ThreadMXBean threads;
+    private boolean failed;
+
+    /**
+     * Function name: AllocationCheck.
+     * Constructor
+     */
+    public AllocationCheck() {
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.failed = false;
+    }
+
+    /**
+     * Function name: main.
+     * Runs the check and prints the bytes allocated by every kind of step. Exits with an error if any of them
+     * allocated.
+     *
+     * @param args - the amount of measured steps (optional)
+     */
+    public static void main(String[] args) {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        AllocationCheck check = new AllocationCheck();
+        check.checkBalls(steps);
+        check.checkBallSystem(steps, false);
+        check.checkBallSystem(steps, true);
+        check.checkSearches(steps);
+        check.checkLevel(steps, LEVEL_BALLS);
+        check.checkLevel(steps, LEVEL_GROUP_BALLS);
+        if (check.failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Function name: checkBalls.
+     * Checks the steps of regular balls.
+     *
+     * @param steps - the amount of measured steps
+     */
+    private void checkBalls(int steps) {
+        GameEnvironment environment = createLanes();
+        Ball[] balls = new Ball[ROWS * BALLS_PER_LANE];
+        for (int i = 0; i < balls.length; i++) {
+            balls[i] = new Ball(startOf(i), RADIUS, Color.WHITE);
+            balls[i].setGameArea(environment);
+            balls[i].setVelocity(SPEED, 0);
+        }
+        long allocated = Long.MAX_VALUE;
+        // the warm-up and the measured steps go through the same calls, so nothing is linked while measuring
+        for (int round = 0; round <= ROUNDS; round++) {
+            long before = this.threads.getCurrentThreadAllocatedBytes();
+            stepBalls(balls, environment, round == 0 ? WARMUP_STEPS : steps);
+            allocated = this.smallest(allocated, before, round);
+        }
+        this.report("Ball.timePassed", allocated, steps);
+    }
+
+    /**
+     * Function name: checkBallSystem.
+     * Checks the steps of a group of balls. The group moves its balls on the thread that steps it.
+     *
+     * @param steps       - the amount of measured steps
+     * @param eventDriven - whether the group is event-driven
+     */
+    private void checkBallSystem(int steps, boolean eventDriven) {
+        GameEnvironment environment = createLanes();
+        ForkJoinPool pool = new ForkJoinPool(1);
+        BallSystem ballSystem = new BallSystem(Color.WHITE, pool);
+        ballSystem.setGameArea(environment);
+        for (int i = 0; i < ROWS * BALLS_PER_LANE; i++) {
+            ballSystem.addBall(startOf(i), RADIUS, new Velocity(SPEED, 0));
+        }
+        ballSystem.setEventDriven(eventDriven);
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long before = this.threads.getCurrentThreadAllocatedBytes();
+            stepBallSystem(ballSystem, environment, round == 0 ? WARMUP_STEPS : steps);
+            allocated = this.smallest(allocated, before, round);
+        }
+        pool.shutdown();
+        this.report(eventDriven ? "BallSystem.timePassed (event-driven)" : "BallSystem.timePassed", allocated, steps);
+    }
+
+    /**
+     * Function name: checkSearches.
+     * Checks the collision searches alone - a search along every lane, from its start to its end, in every step.
+     *
+     * @param steps - the amount of measured steps
+     */
+    private void checkSearches(int steps) {
+        GameEnvironment environment = createLanes();
+        int found = 0;
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long before = this.threads.getCurrentThreadAllocatedBytes();
+            found += searchLanes(environment, round == 0 ? WARMUP_STEPS : steps);
+            allocated = this.smallest(allocated, before, round);
+        }
+        // nothing is found - the sum is printed so the searches can't be skipped as having no effect
+        this.report("GameEnvironment.getClosestCollision (hits found: " + found + ")", allocated, steps);
+    }
+
+    /**
+     * Function name: checkLevel.
+     * Checks the steps of a whole level, in which the balls keep hitting the paddle and the blocks, and the drawing
+     * of its frames. A frame is drawn once before the drawing is measured, because the steps changed the score and
+     * its text is made again (once) when it is drawn.
+     *
+     * @param steps - the amount of measured steps (and of measured frames)
+     * @param balls - the amount of balls in the level
+     */
+    private void checkLevel(int steps, int balls) {
+        HeadlessDisplay display = new HeadlessDisplay(new NullDrawSurface(WIDTH, HEIGHT), new ScriptedKeyboard(0));
+        Counter lives = new Counter();
+        lives.increase(1);
+        GameLevel level = new GameLevel(FrameBenchmark.createLevel(balls, LEVEL_BLOCKS), display,
+                new AnimationRunner(display), new Counter(), lives);
+        level.initialize();
+        level.startTurn();
+        long stepsAllocated = Long.MAX_VALUE;
+        long framesAllocated = Long.MAX_VALUE;
+        int hits = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            int count = round == 0 ? WARMUP_STEPS : steps;
+            long before = this.threads.getCurrentThreadAllocatedBytes();
+            hits += stepLevel(level, count);
+            stepsAllocated = this.smallest(stepsAllocated, before, round);
+            drawLevel(level, display, 1);
+            before = this.threads.getCurrentThreadAllocatedBytes();
+            drawLevel(level, display, count);
+            framesAllocated = this.smallest(framesAllocated, before, round);
+        }
+        this.report("GameLevel.doOneStep, " + balls + " balls (hits: " + hits + ")", stepsAllocated, steps);
+        this.report("GameLevel.drawFrame, " + balls + " balls", framesAllocated, steps);
+    }
+
+    /**
+     * Function name: smallest.
+     * Returns the smallest amount of bytes allocated in a measured round so far, after a round ended.
+     *
+     * @param smallest - the smallest amount of bytes allocated in the previous rounds
+     * @param before   - the bytes the thread allocated before the round
+     * @param round    - the number of the round, 0 is the warm-up
+     * @return the smallest amount of bytes allocated in a measured round
+     */
+    private long smallest(long smallest, long before, int round) {
+        long allocated = this.threads.getCurrentThreadAllocatedBytes() - before;
+        return round == 0 ? smallest : Math.min(smallest, allocated);
+    }
+
+    /**
+     * Function name: report.
+     * Prints the bytes a kind of step allocated, and remembers if it allocated anything.
+     *
+     * @param name      - the name of the checked code
+     * @param allocated - the bytes allocated while it was measured
+     * @param steps     - the amount of measured steps
+     */
+    private void report(String name, long allocated, int steps) {
+        System.out.printf("%-60s %10d bytes in %d steps  %s%n", name, allocated, steps, allocated == 0 ? "OK"
+                : "ALLOCATES");
+        if (allocated != 0) {
+            this.failed = true;
+        }
+    }
+
+    /**
+     * Function name: stepBalls.
+     * Moves regular balls by the given amount of steps
+     *
+     * @param balls       - the balls
+     * @param environment - the game environment of the balls
+     * @param steps       - the amount of steps
+     */
+    private static void stepBalls(Ball[] balls, GameEnvironment environment, int steps) {
+        for (int i = 0; i < steps; i++) {
+            for (Ball ball : balls) {
+                ball.timePassed(STEP);
+            }
+            environment.endFrame();
+        }
+    }
+
+    /**
+     * Function name: stepBallSystem.
+     * Moves a group of balls by the given amount of steps
+     *
+     * @param ballSystem  - the group of balls
+     * @param environment - the game environment of the group
+     * @param steps       - the amount of steps
+     */
+    private static void stepBallSystem(BallSystem ballSystem, GameEnvironment environment, int steps) {
+        for (int i = 0; i < steps; i++) {
+            ballSystem.timePassed(STEP);
+            environment.endFrame();
+        }
+    }
+
+    /**
+     * Function name: stepLevel.
+     * Advances a level by the given amount of steps
+     *
+     * @param level - the level
+     * @param steps - the amount of steps
+     * @return the amount of hits in the steps
+     */
+    private static int stepLevel(GameLevel level, int steps) {
+        int hits = 0;
+        for (int i = 0; i < steps; i++) {
+            level.doOneStep(STEP);
+            hits += level.getEnvironment().getCollisionsLastFrame();
+        }
+        return hits;
+    }
+
+    /**
+     * Function name: drawLevel.
+     * Draws the given amount of frames of a level and shows them on its display
+     *
+     * @param level   - the level
+     * @param display - the display of the level
+     * @param frames  - the amount of frames
+     */
+    private static void drawLevel(GameLevel level, HeadlessDisplay display, int frames) {
+        for (int i = 0; i < frames; i++) {
+            DrawSurface d = display.getDrawSurface();
+            level.drawFrame(d, 0.5);
+            display.show(d);
+        }
+    }
+
+    /**
+     * Function name: searchLanes.
+     * Searches for a collision along the whole length of every lane, in every step.
+     *
+     * @param environment - the game environment of the lanes
+     * @param steps       - the amount of steps
+     * @return the amount of collisions found
+     */
+    private static int searchLanes(GameEnvironment environment, int steps) {
+        int found = 0;
+        for (int i = 0; i < steps; i++) {
+            for (int lane = 0; lane < ROWS; lane++) {
+                CollisionInfo info = environment.getClosestCollision(0, laneCenter(lane), RADIUS, ROW_LENGTH, 0);
+                if (info != null) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Function name: startOf.
+     * Returns the center a ball starts at - the balls are spread along the start of the lanes, evenly between them.
+     *
+     * @param i - the index of the ball
+     * @return the center of the ball
+     */
+    private static Point startOf(int i) {
+        return new Point(BLOCK_WIDTH + (i / ROWS) * BLOCK_WIDTH, laneCenter(i % ROWS));
+    }
+
+    /**
+     * Function name: laneCenter.
+     * Returns the Y coordinate of the middle of a lane - the lane under the row of blocks with the same index.
+     *
+     * @param lane - the index of the lane
+     * @return the Y coordinate of the middle of the lane
+     */
+    private static double laneCenter(int lane) {
+        return (lane + 1) * (ROW_HEIGHT + LANE_HEIGHT) - LANE_HEIGHT / 2.0;
+    }
+
+    /**
+     * Function name: createLanes.
+     * Builds the rows of blocks, with a lane under every row. With the default amount of steps, the lanes are longer
+     * than the balls fly in all the rounds (a ball that leaves its lane keeps flying without hitting anything).
+     *
+     * @return the game environment of the rows
+     */
+    private static GameEnvironment createLanes() {
+        GameEnvironment environment = new GameEnvironment();
+        for (int row = 0; row <= ROWS; row++) {
+            for (int x = 0; x < ROW_LENGTH; x += BLOCK_WIDTH) {
+                environment.addCollidable(new Block(new Point(x, row * (ROW_HEIGHT + LANE_HEIGHT)), BLOCK_WIDTH,
+                        ROW_HEIGHT, Color.GRAY, Double.MAX_VALUE));
+            }
+        }
+        return environment;
+    }
+}
@@ -0,0 +1,190 @@
+package benchmarks;
+
+import collidablesdata.GameEnvironment;
+import collidablesdata.Velocity;
+import gameobjects.BallSystem;
+import gameobjects.Block;
+import gameobjects.Point;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how long it takes to move a big group of balls by one simulation step, using a growing amount of threads
+ * (1, 2, 4... up to the amount of processors), to show how the ball stepping scales across cores, and using the
+ * event-driven mode of the group.
+ * The game runs without a window: a closed box with a field of blocks and the balls bouncing inside it.
+ * <p>
+ * In the benchmark suite, the parameter is the amount of threads of the pool the group uses (the results only show
+ * scaling when the machine has at least that many processors - the suite saves the amount of processors with its
+ * results). Run on its own, the benchmark prints the speedup of every amount of threads over a single thread.
+ * <p>
+ * Usage: java benchmarks.BallSteppingBenchmark [amount of balls] [amount of measured steps]
+ *
+ * @author Ariel Fenster
+ */
+public class BallSteppingBenchmark implements Benchmark {
+    // the size of the box the balls move in
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int WALL = 20;
+    // the simulation step, the same as the game's
+    private static final double STEP = 1.0 / 120;
+    // steps done before measuring, so the measured code is already compiled
+    private static final int WARMUP_STEPS = 1000;
+    // the amount of balls in the benchmark suite
+    private static final int SUITE_BALLS = 20000;
+
+    // members
+    private int balls;
+    private boolean eventDriven;
+    private ForkJoinPool pool;
+    private GameEnvironment environment;
+    private BallSystem ballSystem;
+
+    /**
+     * Function name: BallSteppingBenchmark.
+     * Constructor - a benchmark of the suite, stepping 20000 balls.
+     *
+     * @param eventDriven - whether the group is event-driven
+     */
+    public BallSteppingBenchmark(boolean eventDriven) {
+        this(SUITE_BALLS, eventDriven);
+    }
+
+    /**
+     * Function name: BallSteppingBenchmark.
+     * Constructor - a benchmark of the given amount of balls.
+     *
+     * @param balls       - the amount of balls
+     * @param eventDriven - whether the group is event-driven
+     */
+    private BallSteppingBenchmark(int balls, boolean eventDriven) {
+        this.balls = balls;
+        this.eventDriven = eventDriven;
+    }
+
+    /**
+     * Function name: main.
+     * Runs the benchmark and prints the average time of a step for every amount of threads.
+     *
+     * @param args - the amount of balls and the amount of measured steps (both optional)
+     */
+    public static void main(String[] args) {
+        int balls = args.length > 0 ? Integer.parseInt(args[0]) : SUITE_BALLS;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("balls: " + balls + ", steps: " + steps + ", processors: " + processors);
+        double singleThreaded = 0;
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            double millisPerStep = new BallSteppingBenchmark(balls, false).measure(threads, steps);
+            if (threads == 1) {
+                singleThreaded = millisPerStep;
+            }
+            System.out.printf("threads: %2d  %8.3f ms/step  speedup: %.2fx%n", threads, millisPerStep,
+                    singleThreaded / millisPerStep);
+        }
+        double millisPerStep = new BallSteppingBenchmark(balls, true).measure(1, steps);
+        System.out.printf("event-driven  %8.3f ms/step  speedup: %.2fx%n", millisPerStep,
+                singleThreaded / millisPerStep);
+    }
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return this.eventDriven ? "balls.step.events" : "balls.step.threads";
+    }
+
+    /**
+     * Function name: getParams.
+     * Returns the amounts of threads the benchmark is measured with
+     *
+     * @return the amounts of threads
+     */
+    @Override
+    public int[] getParams() {
+        return this.eventDriven ? new int[] {1} : new int[] {1, 2, 4, 8};
+    }
+
+    /**
+     * Function name: setUp.
+     * Builds a new game area and group of balls, moved on a pool with the given amount of threads.
+     *
+     * @param threads - the amount of threads of the pool
+     */
+    @Override
+    public void setUp(int threads) {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+        this.pool = new ForkJoinPool(threads);
+        // the same world for every amount of threads
+        Random random = new Random(1);
+        this.environment = new GameEnvironment();
+        this.environment.addCollidable(new Block(new Point(0, 0), WIDTH, WALL, Color.GRAY, Double.MAX_VALUE));
+        this.environment.addCollidable(new Block(new Point(0, HEIGHT - WALL), WIDTH, WALL, Color.GRAY,
+                Double.MAX_VALUE));
+        this.environment.addCollidable(new Block(new Point(0, WALL), WALL, HEIGHT - 2 * WALL, Color.GRAY,
+                Double.MAX_VALUE));
+        this.environment.addCollidable(new Block(new Point(WIDTH - WALL, WALL), WALL, HEIGHT - 2 * WALL,
+                Color.GRAY, Double.MAX_VALUE));
+        // a field of blocks from wall to wall, with gaps too narrow for the balls
+        for (int row = 0; row < 6; row++) {
+            for (int column = 0; column < 19; column++) {
+                this.environment.addCollidable(new Block(new Point(WALL + column * 40, 80 + row * 20), 38, 18,
+                        Color.RED, Double.MAX_VALUE));
+            }
+        }
+
+        this.ballSystem = new BallSystem(Color.WHITE, this.pool);
+        this.ballSystem.setGameArea(this.environment);
+        for (int i = 0; i < this.balls; i++) {
+            Point center = new Point(WALL + 10 + random.nextDouble() * (WIDTH - 2 * WALL - 20),
+                    260 + random.nextDouble() * (HEIGHT - 260 - WALL - 10));
+            this.ballSystem.addBall(center, 3, Velocity.fromAngleAndSpeed(random.nextDouble() * 360, 300));
+        }
+        this.ballSystem.setEventDriven(this.eventDriven);
+    }
+
+    /**
+     * Function name: run.
+     * Moves the group of balls by one simulation step.
+     *
+     * @return the amount of balls in the group
+     */
+    @Override
+    public double run() {
+        this.ballSystem.timePassed(STEP);
+        this.environment.endFrame();
+        return this.ballSystem.size();
+    }
+
+    /**
+     * Function name: measure.
+     * Sets the benchmark up and measures the average time of a step.
+     *
+     * @param threads - the amount of threads of the pool
+     * @param steps   - the amount of measured steps
+     * @return the average time of a step, in milliseconds
+     */
+    private double measure(int threads, int steps) {
+        this.setUp(threads);
+        for (int i = 0; i < WARMUP_STEPS; i++) {
+            this.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < steps; i++) {
+            this.run();
+        }
+        double millisPerStep = (System.nanoTime() - start) / 1e6 / steps;
+        this.pool.shutdown();
+        return millisPerStep;
+    }
+}
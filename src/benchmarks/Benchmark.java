@@ -0,0 +1,46 @@
+package benchmarks;
+
+/**
+ * A piece of the game's code that is measured by the BenchmarkRunner.
+ * A benchmark can be measured with several values of a parameter (for example the amount of blocks in the level) -
+ * it is set up again for every value, and then its operation is run over and over and timed.
+ *
+ * @author Ariel Fenster
+ */
+public interface Benchmark {
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark, as it is shown in the results
+     *
+     * @return the name of the benchmark
+     */
+    String getName();
+
+    /**
+     * Function name: getParams.
+     * Returns the values of the parameter the benchmark is measured with, or an empty array if it has no parameter
+     *
+     * @return the values of the parameter
+     */
+    int[] getParams();
+
+    /**
+     * Function name: setUp.
+     * Prepares everything the operation needs, before it is measured with the given value of the parameter.
+     *
+     * @param param - the value of the parameter (0 if the benchmark has no parameter)
+     * @throws Exception if the benchmark can't be prepared
+     */
+    void setUp(int param) throws Exception;
+
+    /**
+     * Function name: run.
+     * Runs the measured operation once.
+     * The operation returns a number computed from its results - the runner adds up all the numbers, so the work
+     * can't be skipped by the compiler as having no effect.
+     *
+     * @return a number computed from the results of the operation
+     */
+    double run();
+}
@@ -0,0 +1,279 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the benchmarks of the game's collision, geometry, level loading, high scores, image drawing and frame
+ * code, and prints the average time of each operation in nanoseconds.
+ * Every benchmark is measured with each value of its parameter: first it runs for a few warmup iterations (so the
+ * measured code is already compiled), then for a few measured iterations of a fixed time each. The result is the
+ * average time of an operation over the measured iterations, and the error is the standard deviation between them.
+ * <p>
+ * The results can be saved to a file, and compared to the results saved before (a baseline) - every result is
+ * printed along with its change from the baseline, and changes that are bigger than the noise are marked.
+ * <p>
+ * Usage: java benchmarks.BenchmarkRunner [--filter text] [--warmup n] [--iterations n] [--time millis]
+ * [--save file] [--baseline file]
+ * (the resources directory must be in the class path, like when running the game)
+ *
+ * @author Ariel Fenster
+ */
+public class BenchmarkRunner {
+    // the default amount and length of the iterations
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final long ITERATION_MILLIS = 500;
+    // the operations are timed in batches of at least this long, so reading the clock doesn't add to their time
+    private static final long BATCH_NANOS = 100000;
+    // a change from the baseline is only marked if it's bigger than this (and than the errors of both results)
+    private static final double CHANGE_THRESHOLD = 0.1;
+
+    // members
+    private int warmupIterations;
+    private int measuredIterations;
+    private long iterationNanos;
+    // the sum of the numbers returned by all the operations
+    private double sink;
+
+    /**
+     * Function name: BenchmarkRunner.
+     * Constructor - creates a runner with the given amount and length of iterations.
+     *
+     * @param warmupIterations   - the amount of iterations run before measuring
+     * @param measuredIterations - the amount of measured iterations
+     * @param iterationMillis    - the length of each iteration, in milliseconds
+     */
+    public BenchmarkRunner(int warmupIterations, int measuredIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+        this.iterationNanos = iterationMillis * 1000000;
+    }
+
+    /**
+     * Function name: main.
+     * Runs the benchmarks and prints their results, saving or comparing them as requested.
+     *
+     * @param args - the options of the run (see the class documentation)
+     * @throws Exception if a benchmark fails, or the results or baseline files can't be used
+     */
+    public static void main(String[] args) throws Exception {
+        String filter = "";
+        int warmup = WARMUP_ITERATIONS;
+        int iterations = MEASURED_ITERATIONS;
+        long millis = ITERATION_MILLIS;
+        File saveFile = null;
+        File baselineFile = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--filter")) {
+                filter = args[i + 1];
+            } else if (args[i].equals("--warmup")) {
+                warmup = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--iterations")) {
+                iterations = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--time")) {
+                millis = Long.parseLong(args[i + 1]);
+            } else if (args[i].equals("--save")) {
+                saveFile = new File(args[i + 1]);
+            } else if (args[i].equals("--baseline")) {
+                baselineFile = new File(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.add(new LineIntersectionBenchmark());
+        benchmarks.add(new RectangleIntersectionBenchmark());
+        benchmarks.add(new ClosestCollisionBenchmark());
+        benchmarks.add(new BallSteppingBenchmark(false));
+        benchmarks.add(new BallSteppingBenchmark(true));
+        benchmarks.add(new LevelLoadingBenchmark());
+        benchmarks.add(new DefinitionsParsingBenchmark(false));
+        benchmarks.add(new DefinitionsParsingBenchmark(true));
+        benchmarks.add(new LevelPackBenchmark(false));
+        benchmarks.add(new LevelPackBenchmark(true));
+        benchmarks.add(new LevelRestartBenchmark(false));
+        benchmarks.add(new LevelRestartBenchmark(true));
+        benchmarks.add(new HighScoresBenchmark());
+        benchmarks.add(new HighScoresLoadBenchmark());
+        benchmarks.add(new ImageDrawBenchmark("background_images/jungle.jpg", false));
+        benchmarks.add(new ImageDrawBenchmark("background_images/jungle.jpg", true));
+        benchmarks.add(new ImageDrawBenchmark("block_images/zebra.jpg", false));
+        benchmarks.add(new ImageDrawBenchmark("block_images/zebra.jpg", true));
+        benchmarks.add(new FrameBenchmark(true));
+        benchmarks.add(new FrameBenchmark(false));
+        benchmarks.add(new StressLevelBenchmark(false));
+        benchmarks.add(new StressLevelBenchmark(true));
+
+        Map<String, double[]> baseline = baselineFile == null ? null : loadResults(baselineFile);
+        Map<String, double[]> results = new LinkedHashMap<>();
+        BenchmarkRunner runner = new BenchmarkRunner(warmup, iterations, millis);
+        System.out.printf("%-28s %8s %14s %12s%s%n", "benchmark", "param", "ns/op", "error",
+                baseline == null ? "" : "   baseline ns/op   change");
+        for (Benchmark benchmark : benchmarks) {
+            if (!benchmark.getName().contains(filter)) {
+                continue;
+            }
+            int[] params = benchmark.getParams().length == 0 ? new int[] {0} : benchmark.getParams();
+            for (int param : params) {
+                String paramText = benchmark.getParams().length == 0 ? "-" : String.valueOf(param);
+                benchmark.setUp(param);
+                double[] result = runner.measure(benchmark);
+                String key = benchmark.getName() + " " + paramText;
+                results.put(key, result);
+                System.out.printf("%-28s %8s %14.1f %12.1f%s%n", benchmark.getName(), paramText, result[0],
+                        result[1], baseline == null ? "" : compare(result, baseline.get(key)));
+            }
+        }
+        if (saveFile != null) {
+            saveResults(saveFile, results);
+            System.out.println("results saved to " + saveFile);
+        }
+        // printed so the sum is used
+        System.out.println("(checksum " + runner.sink + ")");
+    }
+
+    /**
+     * Function name: measure.
+     * Runs the warmup iterations and the measured iterations of a benchmark that was already set up.
+     *
+     * @param benchmark - the benchmark to measure
+     * @return the average time of an operation in nanoseconds, and the standard deviation between the iterations
+     */
+    public double[] measure(Benchmark benchmark) {
+        // the warmup also finds how many operations fill a batch
+        int batch = 1;
+        for (int i = 0; i < this.warmupIterations; i++) {
+            long iterationStart = System.nanoTime();
+            while (System.nanoTime() - iterationStart < this.iterationNanos) {
+                long start = System.nanoTime();
+                this.runBatch(benchmark, batch);
+                if (System.nanoTime() - start < BATCH_NANOS && batch < Integer.MAX_VALUE / 2) {
+                    batch *= 2;
+                }
+            }
+        }
+
+        double[] nanosPerOp = new double[this.measuredIterations];
+        for (int i = 0; i < this.measuredIterations; i++) {
+            long operations = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                this.runBatch(benchmark, batch);
+                operations += batch;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < this.iterationNanos);
+            nanosPerOp[i] = (double) elapsed / operations;
+        }
+
+        double mean = 0;
+        for (double value : nanosPerOp) {
+            mean += value;
+        }
+        mean /= nanosPerOp.length;
+        double variance = 0;
+        for (double value : nanosPerOp) {
+            variance += (value - mean) * (value - mean);
+        }
+        double deviation = nanosPerOp.length > 1 ? Math.sqrt(variance / (nanosPerOp.length - 1)) : 0;
+        return new double[] {mean, deviation};
+    }
+
+    /**
+     * Function name: runBatch.
+     * Runs the operation of a benchmark the given amount of times.
+     *
+     * @param benchmark  - the benchmark to run
+     * @param operations - the amount of times to run its operation
+     */
+    private void runBatch(Benchmark benchmark, int operations) {
+        double sum = 0;
+        for (int i = 0; i < operations; i++) {
+            sum += benchmark.run();
+        }
+        this.sink += sum;
+    }
+
+    /**
+     * Function name: compare.
+     * Describes the change of a result from its baseline.
+     *
+     * @param result   - the average time of an operation and its error
+     * @param baseline - the average time and error in the baseline, or null if the baseline doesn't have it
+     * @return the baseline time and the change in percents, marked if it's bigger than the noise
+     */
+    private static String compare(double[] result, double[] baseline) {
+        if (baseline == null) {
+            return "   (not in baseline)";
+        }
+        double change = (result[0] - baseline[0]) / baseline[0];
+        String mark = "";
+        if (Math.abs(change) > CHANGE_THRESHOLD && Math.abs(result[0] - baseline[0]) > result[1] + baseline[1]) {
+            mark = change > 0 ? "  slower" : "  faster";
+        }
+        return String.format(" %16.1f %+7.1f%%%s", baseline[0], change * 100, mark);
+    }
+
+    /**
+     * Function name: saveResults.
+     * Writes results to a file - a line for every benchmark and parameter, with the time of an operation and its
+     * error.
+     *
+     * @param file    - the file to write to
+     * @param results - the results, by the name and parameter of the benchmark
+     * @throws IOException if the file can't be written
+     */
+    private static void saveResults(File file, Map<String, double[]> results) throws IOException {
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        try {
+            writer.println("# benchmark param ns/op error");
+            writer.println("# java " + System.getProperty("java.version") + ", " + System.getProperty("os.arch")
+                    + ", processors: " + Runtime.getRuntime().availableProcessors());
+            for (Map.Entry<String, double[]> entry : results.entrySet()) {
+                writer.printf("%s %.1f %.1f%n", entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Function name: loadResults.
+     * Reads results written by saveResults.
+     *
+     * @param file - the file to read from
+     * @return the results, by the name and parameter of the benchmark
+     * @throws IOException if the file can't be read or has a malformed line
+     */
+    private static Map<String, double[]> loadResults(File file) throws IOException {
+        Map<String, double[]> results = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    String[] fields = line.split("\\s+");
+                    if (fields.length != 4) {
+                        throw new IOException("Malformed line in " + file + ": " + line);
+                    }
+                    results.put(fields[0] + " " + fields[1],
+                            new double[] {Double.parseDouble(fields[2]), Double.parseDouble(fields[3])});
+                }
+                line = reader.readLine();
+            }
+        } finally {
+            reader.close();
+        }
+        return results;
+    }
+}
@@ -0,0 +1,121 @@
+package benchmarks;
+
+import collidablesdata.CollisionInfo;
+import collidablesdata.GameEnvironment;
+import gameobjects.Block;
+import gameobjects.Point;
+
+import java.awt.Color;
+import java.util.Random;
+
+/**
+ * Measures GameEnvironment.getClosestCollision - finding the first collidable a moving ball hits - in a closed box
+ * filled with a field of blocks. The parameter is the amount of blocks in the field; the balls start at random
+ * places in the box and move up to 20 pixels (a fast ball in one frame) in a random direction.
+ *
+ * @author Ariel Fenster
+ */
+public class ClosestCollisionBenchmark implements Benchmark {
+    // the size of the box
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int WALL = 20;
+    // the field of blocks takes the upper part of the box
+    private static final int FIELD_HEIGHT = 400;
+    private static final double RADIUS = 5;
+    private static final double MAX_MOVEMENT = 20;
+    // the amount of different movements the operation goes through
+    private static final int QUERIES = 1024;
+
+    // members
+    private GameEnvironment environment;
+    private double[] queries;
+    private int next;
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return "environment.closestCollision";
+    }
+
+    /**
+     * Function name: getParams.
+     * Returns the amounts of blocks the benchmark is measured with
+     *
+     * @return the amounts of blocks
+     */
+    @Override
+    public int[] getParams() {
+        return new int[] {10, 100, 10000};
+    }
+
+    /**
+     * Function name: setUp.
+     * Builds the box with the given amount of blocks, and the random movements of the balls.
+     *
+     * @param blocks - the amount of blocks in the field
+     */
+    @Override
+    public void setUp(int blocks) {
+        this.environment = createBox(blocks);
+        Random random = new Random(3);
+        this.queries = new double[QUERIES * 4];
+        for (int i = 0; i < QUERIES; i++) {
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double length = random.nextDouble() * MAX_MOVEMENT;
+            this.queries[i * 4] = WALL + RADIUS + random.nextDouble() * (WIDTH - 2 * WALL - 2 * RADIUS);
+            this.queries[i * 4 + 1] = WALL + RADIUS + random.nextDouble() * (HEIGHT - 2 * WALL - 2 * RADIUS);
+            this.queries[i * 4 + 2] = Math.cos(angle) * length;
+            this.queries[i * 4 + 3] = Math.sin(angle) * length;
+        }
+        this.next = 0;
+    }
+
+    /**
+     * Function name: run.
+     * Finds the closest collision of the next movement.
+     *
+     * @return the time of the collision (as a part of the movement), or 1 if the ball doesn't hit anything
+     */
+    @Override
+    public double run() {
+        int i = this.next * 4;
+        this.next = (this.next + 1) & (QUERIES - 1);
+        CollisionInfo info = this.environment.getClosestCollision(this.queries[i], this.queries[i + 1], RADIUS,
+                this.queries[i + 2], this.queries[i + 3]);
+        return info == null ? 1 : info.collisionTime();
+    }
+
+    /**
+     * Function name: createBox.
+     * Builds a closed box with a field of blocks in its upper part, in rows and columns with a pixel between them.
+     *
+     * @param blocks - the amount of blocks in the field
+     * @return the game environment of the box
+     */
+    private static GameEnvironment createBox(int blocks) {
+        GameEnvironment environment = new GameEnvironment();
+        environment.addCollidable(new Block(new Point(0, 0), WIDTH, WALL, Color.GRAY, Double.MAX_VALUE));
+        environment.addCollidable(new Block(new Point(0, HEIGHT - WALL), WIDTH, WALL, Color.GRAY, Double.MAX_VALUE));
+        environment.addCollidable(new Block(new Point(0, WALL), WALL, HEIGHT - 2 * WALL, Color.GRAY,
+                Double.MAX_VALUE));
+        environment.addCollidable(new Block(new Point(WIDTH - WALL, WALL), WALL, HEIGHT - 2 * WALL, Color.GRAY,
+                Double.MAX_VALUE));
+
+        int columns = (int) Math.ceil(Math.sqrt(blocks * 2.0));
+        int rows = (blocks + columns - 1) / columns;
+        double blockWidth = (double) (WIDTH - 2 * WALL) / columns;
+        double blockHeight = (double) (FIELD_HEIGHT - WALL) / rows;
+        for (int i = 0; i < blocks; i++) {
+            Point upperLeft = new Point(WALL + (i % columns) * blockWidth, WALL + (i / columns) * blockHeight);
+            environment.addCollidable(new Block(upperLeft, blockWidth - 1, blockHeight - 1, Color.RED,
+                    Double.MAX_VALUE));
+        }
+        return environment;
+    }
+}
@@ -0,0 +1,161 @@
+package benchmarks;
+
+import levelsdata.BlocksDefinitionReader;
+import levelsdata.BlocksFromSymbolsFactory;
+import levelsdata.DefinitionsLexer;
+import levelsdata.LevelSpecificationReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Measures parsing all the files of the definitions directory - the specifications of the levels in the level
+ * definitions files, and the block templates in the block definitions files (a block of every template is created,
+ * so the settings of the templates are read too). The files are read into memory once, and no level is created, so
+ * only the parsing is measured.
+ * The same files can also only be split into tokens, without reading anything from the tokens - the part of the
+ * parsing that every character of the files costs, which the parsing can't be faster than.
+ *
+ * @author Ariel Fenster
+ */
+public class DefinitionsParsingBenchmark implements Benchmark {
+    // the definitions files, in the class path
+    private static final String[] LEVEL_FILES = {"definitions/easy_level_definitions.txt",
+            "definitions/medium_level_definitions.txt", "definitions/hard_level_definitions.txt",
+            "definitions/level_definitions.txt"};
+    private static final String[] BLOCK_FILES = {"definitions/standard_block_definitions.txt",
+            "definitions/arrows_block_definitions.txt", "definitions/final_four_block_definitions.txt",
+            "definitions/jungle_block_definitions.txt", "definitions/moon_block_definitions.txt"};
+
+    // members
+    private boolean tokensOnly;
+    private String[] levelTexts;
+    private String[] blockTexts;
+
+    /**
+     * Function name: DefinitionsParsingBenchmark.
+     * Constructor - creates the benchmark that parses the files, or only splits them into tokens.
+     *
+     * @param tokensOnly - true to only split the files into tokens, false to parse them
+     */
+    public DefinitionsParsingBenchmark(boolean tokensOnly) {
+        this.tokensOnly = tokensOnly;
+    }
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return this.tokensOnly ? "definitions.lex" : "definitions.parse";
+    }
+
+    /**
+     * Function name: getParams.
+     * The benchmark has no parameter
+     *
+     * @return an empty array
+     */
+    @Override
+    public int[] getParams() {
+        return new int[0];
+    }
+
+    /**
+     * Function name: setUp.
+     * Reads the definitions files into memory.
+     *
+     * @param param - not used
+     * @throws IOException if a file can't be read
+     */
+    @Override
+    public void setUp(int param) throws IOException {
+        this.levelTexts = readAll(LEVEL_FILES);
+        this.blockTexts = readAll(BLOCK_FILES);
+    }
+
+    /**
+     * Function name: run.
+     * Parses all the files, or splits them into tokens.
+     *
+     * @return the total amount of levels and blocks hit points read, or the amount of tokens
+     */
+    @Override
+    public double run() {
+        if (this.tokensOnly) {
+            return countTokens(this.levelTexts) + countTokens(this.blockTexts);
+        }
+        double total = 0;
+        for (String text : this.levelTexts) {
+            total += new LevelSpecificationReader().readSpecifications(new StringReader(text)).size();
+        }
+        for (String text : this.blockTexts) {
+            BlocksFromSymbolsFactory factory = BlocksDefinitionReader.fromReader(new StringReader(text));
+            for (String symbol : factory.getBlockSymbols()) {
+                total += factory.getBlock(symbol, 0, 0).getHitPoints();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Function name: countTokens.
+     * Splits texts into tokens.
+     *
+     * @param texts - the texts of the files
+     * @return the amount of tokens in the texts
+     */
+    private static int countTokens(String[] texts) {
+        int tokens = 0;
+        try {
+            for (String text : texts) {
+                DefinitionsLexer lexer = new DefinitionsLexer(new StringReader(text), "definitions");
+                while (lexer.next() != DefinitionsLexer.Token.END_OF_FILE) {
+                    tokens++;
+                }
+            }
+        } catch (IOException e) {
+            // a string reader doesn't fail
+            throw new IllegalStateException(e);
+        }
+        return tokens;
+    }
+
+    /**
+     * Function name: readAll.
+     * Reads files from the class path into memory.
+     *
+     * @param files - the paths of the files in the class path
+     * @return the texts of the files
+     * @throws IOException if a file can't be read
+     */
+    private static String[] readAll(String[] files) throws IOException {
+        String[] texts = new String[files.length];
+        for (int i = 0; i < files.length; i++) {
+            InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(files[i]);
+            if (is == null) {
+                throw new IOException("Can't find " + files[i] + " in the class path");
+            }
+            StringBuilder text = new StringBuilder();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            try {
+                String line = reader.readLine();
+                while (line != null) {
+                    text.append(line).append('\n');
+                    line = reader.readLine();
+                }
+            } finally {
+                reader.close();
+            }
+            texts[i] = text.toString();
+        }
+        return texts;
+    }
+}
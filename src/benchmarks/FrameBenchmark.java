@@ -0,0 +1,194 @@
+package benchmarks;
+
+import animation.AnimationRunner;
+import biuoop.DrawSurface;
+import collidablesdata.Sprite;
+import collidablesdata.Velocity;
+import display.HeadlessDisplay;
+import display.ImageDrawSurface;
+import display.ScriptedKeyboard;
+import gamelogic.GameLevel;
+import gameobjects.Block;
+import gameobjects.Point;
+import levelsdata.LevelInformation;
+import listeners.Counter;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures GameLevel.doOneFrame - drawing a whole frame of a level (into an image, without a window) and advancing
+ * it by one simulation step. The parameter is either the amount of balls (with 100 blocks) or the amount of blocks
+ * (with 10 balls).
+ * The level is built so that it doesn't change while it's measured: the paddle covers the whole width of the screen
+ * so no ball is lost, and the blocks can't be destroyed.
+ *
+ * @author Ariel Fenster
+ */
+public class FrameBenchmark implements Benchmark {
+    // the size of the screen
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    // the amounts used when the other amount is the parameter
+    private static final int DEFAULT_BALLS = 10;
+    private static final int DEFAULT_BLOCKS = 100;
+    // the field of blocks is between the edges of the screen, from its top to its middle
+    private static final int EDGE = 25;
+    private static final int FIELD_TOP = 50;
+    private static final int FIELD_HEIGHT = 300;
+    // the simulation step, the same as the game's
+    private static final double STEP = 1.0 / 120;
+
+    // members
+    private boolean byBalls;
+    private HeadlessDisplay display;
+    private GameLevel level;
+
+    /**
+     * Function name: FrameBenchmark.
+     * Constructor - creates the benchmark with the amount of balls or the amount of blocks as the parameter.
+     *
+     * @param byBalls - true if the parameter is the amount of balls, false if it's the amount of blocks
+     */
+    public FrameBenchmark(boolean byBalls) {
+        this.byBalls = byBalls;
+    }
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return this.byBalls ? "level.doOneFrame.balls" : "level.doOneFrame.blocks";
+    }
+
+    /**
+     * Function name: getParams.
+     * Returns the amounts of balls or blocks the benchmark is measured with
+     *
+     * @return the amounts of balls or blocks
+     */
+    @Override
+    public int[] getParams() {
+        return this.byBalls ? new int[] {1, 10, 100, 1000} : new int[] {10, 100, 1000};
+    }
+
+    /**
+     * Function name: setUp.
+     * Builds the level on a headless display and starts a turn.
+     *
+     * @param param - the amount of balls or the amount of blocks
+     */
+    @Override
+    public void setUp(int param) {
+        int balls = this.byBalls ? param : DEFAULT_BALLS;
+        int blocks = this.byBalls ? DEFAULT_BLOCKS : param;
+        this.display = new HeadlessDisplay(new ImageDrawSurface(WIDTH, HEIGHT), new ScriptedKeyboard(0));
+        Counter lives = new Counter();
+        lives.increase(1);
+        this.level = new GameLevel(createLevel(balls, blocks), this.display, new AnimationRunner(this.display),
+                new Counter(), lives);
+        this.level.initialize();
+        this.level.startTurn();
+    }
+
+    /**
+     * Function name: run.
+     * Draws and advances one frame of the level.
+     *
+     * @return the amount of blocks destroyed (always 0, the blocks can't be destroyed)
+     */
+    @Override
+    public double run() {
+        DrawSurface d = this.display.getDrawSurface();
+        this.level.doOneFrame(d, STEP);
+        this.display.show(d);
+        return this.level.getNumBlocksDestroyed();
+    }
+
+    /**
+     * Function name: createLevel.
+     * Creates the settings of a level with the given amounts of balls and blocks.
+     *
+     * @param balls  - the amount of balls
+     * @param blocks - the amount of blocks
+     * @return the settings of the level
+     */
+    static LevelInformation createLevel(final int balls, int blocks) {
+        final List<Velocity> velocities = new ArrayList<>();
+        for (int i = 0; i < balls; i++) {
+            // spread the balls from 60 degrees to the left to 60 degrees to the right
+            double angle = balls == 1 ? 10 : -60 + 120.0 * i / (balls - 1);
+            velocities.add(Velocity.fromAngleAndSpeed(angle, 400));
+        }
+
+        int columns = (int) Math.ceil(Math.sqrt(blocks * 2.0));
+        int rows = (blocks + columns - 1) / columns;
+        double blockWidth = (double) (WIDTH - 2 * EDGE) / columns;
+        double blockHeight = (double) FIELD_HEIGHT / rows;
+        final List<Block> blockList = new ArrayList<>();
+        for (int i = 0; i < blocks; i++) {
+            Point upperLeft = new Point(EDGE + (i % columns) * blockWidth, FIELD_TOP + (i / columns) * blockHeight);
+            Color color = Color.getHSBColor((float) (i / columns) / rows, 0.8f, 0.9f);
+            blockList.add(new Block(upperLeft, blockWidth - 1, blockHeight - 1, color, Double.MAX_VALUE));
+        }
+
+        // creating an anonymous class for the level settings
+        return new LevelInformation() {
+            @Override
+            public int numberOfBalls() {
+                return balls;
+            }
+
+            @Override
+            public List<Velocity> initialBallVelocities() {
+                return velocities;
+            }
+
+            @Override
+            public int paddleSpeed() {
+                return 300;
+            }
+
+            @Override
+            public int paddleWidth() {
+                return WIDTH - 2 * EDGE;
+            }
+
+            @Override
+            public String levelName() {
+                return "Benchmark";
+            }
+
+            @Override
+            public Sprite getBackground() {
+                return new Sprite() {
+                    @Override
+                    public void drawOn(DrawSurface d) {
+                        d.setColor(Color.BLUE.darker());
+                        d.fillRectangle(0, 0, WIDTH, HEIGHT);
+                    }
+
+                    @Override
+                    public void timePassed(double dt) {
+                    }
+                };
+            }
+
+            @Override
+            public List<Block> blocks() {
+                return blockList;
+            }
+
+            @Override
+            public int numberOfBlocksToRemove() {
+                // more than there are, so the level never ends
+                return blockList.size() + 1;
+            }
+        };
+    }
+}
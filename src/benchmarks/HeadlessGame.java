@@ -0,0 +1,103 @@
+package benchmarks;
+
+import animation.AnimationRunner;
+import biuoop.KeyboardSensor;
+import display.FrameLimitReachedException;
+import display.HeadlessDisplay;
+import display.NullDrawSurface;
+import display.ScriptedKeyboard;
+import gamelogic.GameFlow;
+import levelsdata.ImageCache;
+import levelsdata.LevelInformation;
+import levelsdata.LevelSetReader;
+import levelsdata.StressLevelGenerator;
+import scoredata.HighScoresTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plays a whole set of levels without a screen and as fast as possible, and prints how many frames were played,
+ * how fast, and the percentiles of the time of each phase of a frame. Used to test and measure the game's logic on
+ * machines without a display.
+ * The paddle is moved by a repeating script (right, left, right) and the space key is pressed from time to time to
+ * close the screens that wait for it. The game is played until the script loses all the lives or wins, or until the
+ * limit of frames is reached (a ball can bounce on the same path forever and the game never ends).
+ * Instead of a level set, a big level generated by the stress level generator can be played.
+ * <p>
+ * Usage: java benchmarks.HeadlessGame [level sets file] [level set key] [frame limit]
+ * or: java benchmarks.HeadlessGame --stress "rows:200 columns:250 width:3 height:2 balls:1000" [frame limit]
+ * (the resources directory must be in the class path, like when running the game)
+ *
+ * @author Ariel Fenster
+ */
+public class HeadlessGame {
+    // the size of the game's display
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    // the amount of frames after which the keyboard's script starts over
+    private static final long SCRIPT_LENGTH = 240;
+    // the default limit of frames - about 30 minutes of playing in real time
+    private static final long FRAME_LIMIT = 200000;
+
+    /**
+     * Function name: main.
+     * Plays the requested levels and prints the amount of frames and the frame rate.
+     *
+     * @param args - the level sets file, the key of the level set to play and the limit of frames (all optional), or
+     *             the settings of a stress level and the limit of frames
+     * @throws IOException if the temporary high scores file can't be created
+     */
+    public static void main(String[] args) throws IOException {
+        boolean stress = args.length > 1 && args[0].equals("--stress");
+        String levelSets = args.length > 0 ? args[0] : "";
+        String key = args.length > 1 ? args[1] : null;
+        long frameLimit = args.length > 2 ? Long.parseLong(args[2]) : FRAME_LIMIT;
+
+        ScriptedKeyboard keyboard = new ScriptedKeyboard(SCRIPT_LENGTH);
+        keyboard.hold(KeyboardSensor.RIGHT_KEY, 0, 60);
+        keyboard.hold(KeyboardSensor.LEFT_KEY, 60, 180);
+        keyboard.hold(KeyboardSensor.RIGHT_KEY, 180, SCRIPT_LENGTH);
+        keyboard.hold(KeyboardSensor.SPACE_KEY, 200, 210);
+        HeadlessDisplay display = new HeadlessDisplay(new NullDrawSurface(WIDTH, HEIGHT), keyboard);
+        display.setFrameLimit(frameLimit);
+        AnimationRunner animator = new AnimationRunner(display);
+
+        // the high scores of a test run aren't kept
+        File scoresFile = File.createTempFile("highscores", null);
+        scoresFile.deleteOnExit();
+        GameFlow game = new GameFlow(animator, keyboard, display, HighScoresTable.loadFromFile(scoresFile),
+                scoresFile);
+
+        List<LevelInformation> levels;
+        if (stress) {
+            StressLevelGenerator generator = StressLevelGenerator.fromSettings(args[1]);
+            key = generator.getName();
+            game.setMaxSubSteps(generator.getMaxSubSteps());
+            levels = Collections.singletonList(generator.createLevel());
+        } else {
+            LevelSetReader reader = new LevelSetReader(levelSets);
+            if (key == null) {
+                key = reader.getCharToLevelNameMap().keySet().iterator().next();
+            } else {
+                reader.getCharToLevelNameMap();
+            }
+            levels = reader.getLevels(key);
+        }
+
+        long start = System.nanoTime();
+        String result = "finished";
+        try {
+            game.runLevels(levels);
+        } catch (FrameLimitReachedException e) {
+            result = "stopped at the frame limit";
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("level set: %s, levels: %d, %s, frames: %d, time: %.2f s, %.0f frames/s%n", key,
+                levels.size(), result, display.getShownFrames(), seconds, display.getShownFrames() / seconds);
+        System.out.print(animator.getFrameStats().report());
+        System.out.println(ImageCache.getShared().getStats());
+    }
+}
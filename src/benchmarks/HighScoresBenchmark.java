@@ -0,0 +1,77 @@
+package benchmarks;
+
+import scoredata.HighScoresTable;
+import scoredata.ScoreInfo;
+
+import java.util.Random;
+
+/**
+ * Measures HighScoresTable.add and HighScoresTable.getHighScores - adding a score to a full table and then getting
+ * the sorted table, as done at the end of every game. The parameter is the size of the table.
+ *
+ * @author Ariel Fenster
+ */
+public class HighScoresBenchmark implements Benchmark {
+    // the amount of different scores the operation goes through
+    private static final int SCORES = 1024;
+
+    // members
+    private HighScoresTable table;
+    private ScoreInfo[] scores;
+    private int next;
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return "highScores.addAndGet";
+    }
+
+    /**
+     * Function name: getParams.
+     * Returns the sizes of the table the benchmark is measured with
+     *
+     * @return the sizes of the table
+     */
+    @Override
+    public int[] getParams() {
+        return new int[] {10, 100, 1000};
+    }
+
+    /**
+     * Function name: setUp.
+     * Creates a full table of the given size, and the random scores to add to it.
+     *
+     * @param size - the size of the table
+     */
+    @Override
+    public void setUp(int size) {
+        Random random = new Random(4);
+        this.table = new HighScoresTable(size);
+        for (int i = 0; i < size; i++) {
+            this.table.add(new ScoreInfo("player" + i, random.nextInt(100000)));
+        }
+        this.scores = new ScoreInfo[SCORES];
+        for (int i = 0; i < SCORES; i++) {
+            this.scores[i] = new ScoreInfo("player", random.nextInt(100000));
+        }
+        this.next = 0;
+    }
+
+    /**
+     * Function name: run.
+     * Adds the next score to the table and gets the sorted table.
+     *
+     * @return the highest score in the table
+     */
+    @Override
+    public double run() {
+        this.table.add(this.scores[this.next]);
+        this.next = (this.next + 1) & (SCORES - 1);
+        return this.table.getHighScores().get(0).getScore();
+    }
+}
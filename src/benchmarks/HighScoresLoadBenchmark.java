@@ -0,0 +1,74 @@
+package benchmarks;
+
+import scoredata.HighScoresTable;
+import scoredata.ScoreInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Measures HighScoresTable.loadFromFile - reading a full high scores table from its file, like when the game starts.
+ * The parameter is the size of the table.
+ *
+ * @author Ariel Fenster
+ */
+public class HighScoresLoadBenchmark implements Benchmark {
+
+    // members
+    private File file;
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return "highScores.load";
+    }
+
+    /**
+     * Function name: getParams.
+     * Returns the sizes of the tables the benchmark is measured with
+     *
+     * @return the sizes of the tables
+     */
+    @Override
+    public int[] getParams() {
+        return new int[] {10, 1000, 10000};
+    }
+
+    /**
+     * Function name: setUp.
+     * Saves a full table with the given size to a temporary file.
+     *
+     * @param size - the size of the table
+     * @throws IOException if the file can't be created
+     */
+    @Override
+    public void setUp(int size) throws IOException {
+        Random random = new Random(4);
+        HighScoresTable table = new HighScoresTable(size);
+        for (int i = 0; i < size; i++) {
+            table.add(new ScoreInfo("player" + i, random.nextInt(100000)));
+        }
+        if (this.file == null) {
+            this.file = File.createTempFile("highscores", null);
+            this.file.deleteOnExit();
+        }
+        table.save(this.file);
+    }
+
+    /**
+     * Function name: run.
+     * Loads the table.
+     *
+     * @return the amount of scores loaded
+     */
+    @Override
+    public double run() {
+        return HighScoresTable.loadFromFile(this.file).getHighScores().size();
+    }
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import display.ImageDrawSurface;
+import levelsdata.ImageCache;
+
+import javax.imageio.ImageIO;
+import java.awt.Image;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Measures drawing an image of the game on a draw surface (an image in memory, like the game's frames), either as
+ * ImageIO decodes it or as the image cache keeps it - converted to the format that is fastest to draw. The parameter
+ * is the amount of times the image is drawn in an operation: once for the background of a level, many times for the
+ * images of blocks.
+ *
+ * @author Ariel Fenster
+ */
+public class ImageDrawBenchmark implements Benchmark {
+    // the size of the screen
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+
+    // members
+    private String path;
+    private boolean converted;
+    private ImageDrawSurface surface;
+    private Image image;
+    private int draws;
+
+    /**
+     * Function name: ImageDrawBenchmark.
+     * Constructor - creates the benchmark for the given image file.
+     *
+     * @param path      - the path of the image file in the class path
+     * @param converted - true to draw the image from the image cache, false to draw it as ImageIO decodes it
+     */
+    public ImageDrawBenchmark(String path, boolean converted) {
+        this.path = path;
+        this.converted = converted;
+    }
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        String file = this.path.substring(this.path.lastIndexOf('/') + 1, this.path.lastIndexOf('.'));
+        return "image.draw." + file + (this.converted ? ".cached" : ".decoded");
+    }
+
+    /**
+     * Function name: getParams.
+     * Returns the amounts of times the image is drawn in an operation
+     *
+     * @return the amounts of draws
+     */
+    @Override
+    public int[] getParams() {
+        return new int[] {1, 100};
+    }
+
+    /**
+     * Function name: setUp.
+     * Reads the image and creates the surface to draw on.
+     *
+     * @param param - the amount of times the image is drawn in an operation
+     * @throws IOException if the image can't be read
+     */
+    @Override
+    public void setUp(int param) throws IOException {
+        this.surface = new ImageDrawSurface(WIDTH, HEIGHT);
+        if (this.converted) {
+            this.image = ImageCache.getShared().getImage(this.path);
+        } else {
+            InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(this.path);
+            if (is == null) {
+                throw new IOException("Can't find " + this.path + " in the class path");
+            }
+            try {
+                this.image = ImageIO.read(is);
+            } finally {
+                is.close();
+            }
+        }
+        this.draws = param;
+    }
+
+    /**
+     * Function name: run.
+     * Draws the image the requested amount of times, across the surface.
+     *
+     * @return the width of the image
+     */
+    @Override
+    public double run() {
+        int width = this.image.getWidth(null);
+        int height = this.image.getHeight(null);
+        int columns = Math.max(1, WIDTH / width);
+        for (int i = 0; i < this.draws; i++) {
+            int x = (i % columns) * width;
+            int y = ((i / columns) * height) % HEIGHT;
+            this.surface.drawImage(x, y, this.image);
+        }
+        return width;
+    }
+}
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import levelsdata.LevelInformation;
+import levelsdata.LevelSpecificationReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Measures LevelSpecificationReader.fromReader - reading the levels of all the level definitions files of the game
+ * (including their block definitions and images). The files are read into memory once, so only the parsing and the
+ * creation of the levels is measured, not reading the disk.
+ *
+ * @author Ariel Fenster
+ */
+public class LevelLoadingBenchmark implements Benchmark {
+    // the level definitions files, in the class path
+    private static final String[] LEVEL_FILES = {"definitions/easy_level_definitions.txt",
+            "definitions/medium_level_definitions.txt", "definitions/hard_level_definitions.txt",
+            "definitions/level_definitions.txt"};
+
+    // members
+    private String[] texts;
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return "levels.fromReader";
+    }
+
+    /**
+     * Function name: getParams.
+     * The benchmark has no parameter
+     *
+     * @return an empty array
+     */
+    @Override
+    public int[] getParams() {
+        return new int[0];
+    }
+
+    /**
+     * Function name: setUp.
+     * Reads the level definitions files into memory.
+     *
+     * @param param - not used
+     * @throws IOException if a file can't be read
+     */
+    @Override
+    public void setUp(int param) throws IOException {
+        this.texts = new String[LEVEL_FILES.length];
+        for (int i = 0; i < LEVEL_FILES.length; i++) {
+            InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(LEVEL_FILES[i]);
+            if (is == null) {
+                throw new IOException("Can't find " + LEVEL_FILES[i] + " in the class path");
+            }
+            StringBuilder text = new StringBuilder();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            try {
+                String line = reader.readLine();
+                while (line != null) {
+                    text.append(line).append('\n');
+                    line = reader.readLine();
+                }
+            } finally {
+                reader.close();
+            }
+            this.texts[i] = text.toString();
+        }
+    }
+
+    /**
+     * Function name: run.
+     * Reads the levels of all the files.
+     *
+     * @return the total amount of blocks in the levels
+     */
+    @Override
+    public double run() {
+        int blocks = 0;
+        for (String text : this.texts) {
+            List<LevelInformation> levels = new LevelSpecificationReader().fromReader(new StringReader(text));
+            for (LevelInformation level : levels) {
+                blocks += level.blocks().size();
+            }
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,111 @@
+package benchmarks;
+
+import levelsdata.LevelPack;
+import levelsdata.LevelPackCompiler;
+import levelsdata.LevelSpecificationReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Measures loading a level with many blocks and creating its blocks - either from the text of its level definitions
+ * (LevelSpecificationReader.fromReader) or from a compiled level pack (mapping the pack file to memory). The level
+ * uses the standard block definitions, with rows of 15 blocks.
+ *
+ * @author Ariel Fenster
+ */
+public class LevelPackBenchmark implements Benchmark {
+    private static final int BLOCKS_IN_ROW = 15;
+
+    // members
+    private boolean fromPack;
+    private String text;
+    private File packFile;
+
+    /**
+     * Function name: LevelPackBenchmark.
+     * Constructor for the class
+     *
+     * @param fromPack - true to load the level from a compiled pack, false to load it from text
+     */
+    public LevelPackBenchmark(boolean fromPack) {
+        this.fromPack = fromPack;
+    }
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return this.fromPack ? "levels.fromPack" : "levels.fromText";
+    }
+
+    /**
+     * Function name: getParams.
+     * The parameter of the benchmark is the amount of blocks in the level
+     *
+     * @return the amounts of blocks
+     */
+    @Override
+    public int[] getParams() {
+        return new int[] {100, 10000};
+    }
+
+    /**
+     * Function name: setUp.
+     * Writes the text of a level with the given amount of blocks, and compiles it into a pack file.
+     *
+     * @param param - the amount of blocks in the level
+     * @throws IOException if the pack can't be written
+     */
+    @Override
+    public void setUp(int param) throws IOException {
+        StringBuilder level = new StringBuilder();
+        // the files of the game start with a comment, so the reader expects the level to start on a later line
+        level.append("# benchmark level\n").append("START_LEVEL\n").append("level_name:Benchmark\n")
+                .append("ball_velocities:0,500\n")
+                .append("background:color(black)\n").append("paddle_speed:650\n").append("paddle_width:160\n")
+                .append("block_definitions:definitions/standard_block_definitions.txt\n")
+                .append("blocks_start_x:25\n").append("blocks_start_y:80\n").append("row_height:25\n")
+                .append("num_blocks:").append(param).append('\n').append("START_BLOCKS\n");
+        for (int i = 0; i < param; i += BLOCKS_IN_ROW) {
+            for (int j = i; j < Math.min(param, i + BLOCKS_IN_ROW); j++) {
+                level.append(j % 2 == 0 ? 'r' : 'b');
+            }
+            level.append('\n');
+        }
+        level.append("END_BLOCKS\n").append("END_LEVEL\n");
+        this.text = level.toString();
+
+        LevelPackCompiler compiler = new LevelPackCompiler();
+        compiler.addSet("b", "Benchmark",
+                new LevelSpecificationReader().readSpecifications(new StringReader(this.text)));
+        if (this.packFile == null) {
+            this.packFile = File.createTempFile("benchmark", ".pack");
+            this.packFile.deleteOnExit();
+        }
+        compiler.write(this.packFile.getPath());
+    }
+
+    /**
+     * Function name: run.
+     * Loads the level and creates its blocks.
+     *
+     * @return the amount of blocks created
+     */
+    @Override
+    public double run() {
+        if (this.fromPack) {
+            try {
+                return LevelPack.open(this.packFile.getPath()).getLevel(0).blocks().size();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return new LevelSpecificationReader().fromReader(new StringReader(this.text)).get(0).blocks().size();
+    }
+}
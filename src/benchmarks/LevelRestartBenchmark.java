@@ -0,0 +1,151 @@
+package benchmarks;
+
+import gameobjects.Block;
+import levelsdata.BlocksDefinitionReader;
+import levelsdata.BlocksFromSymbolsFactory;
+import levelsdata.LevelGenerator;
+import levelsdata.LevelInformation;
+import levelsdata.LevelSpecification;
+import levelsdata.LevelSpecificationReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures creating the blocks of the levels of the hard level set again, like when it's played again from the menu
+ * (LevelInformation.blocks, without the rest of building the levels). The levels are read once; the blocks are
+ * created either from the prototypes compiled when the levels were read, or by reading the layouts of the levels
+ * and looking up every symbol in the blocks factory, like before the prototypes.
+ *
+ * @author Ariel Fenster
+ */
+public class LevelRestartBenchmark implements Benchmark {
+    // the level definitions file of the hard level set, in the class path
+    private static final String LEVEL_FILE = "definitions/hard_level_definitions.txt";
+
+    // members
+    private boolean fromPrototype;
+    private List<LevelSpecification> specifications;
+    private List<BlocksFromSymbolsFactory> factories;
+    private List<LevelInformation> levels;
+
+    /**
+     * Function name: LevelRestartBenchmark.
+     * Constructor - creates the benchmark with the blocks created from the prototypes or from the layouts.
+     *
+     * @param fromPrototype - true to create the blocks from the prototypes, false to read the layouts
+     */
+    public LevelRestartBenchmark(boolean fromPrototype) {
+        this.fromPrototype = fromPrototype;
+    }
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return this.fromPrototype ? "levels.blocks.prototype" : "levels.blocks.layout";
+    }
+
+    /**
+     * Function name: getParams.
+     * The benchmark has no parameter
+     *
+     * @return an empty array
+     */
+    @Override
+    public int[] getParams() {
+        return new int[0];
+    }
+
+    /**
+     * Function name: setUp.
+     * Reads the levels of the hard level set and the block definitions of every level.
+     *
+     * @param param - not used
+     * @throws IOException if a file can't be read
+     */
+    @Override
+    public void setUp(int param) throws IOException {
+        this.specifications = new LevelSpecificationReader().readSpecifications(
+                new InputStreamReader(open(LEVEL_FILE)));
+        this.factories = new ArrayList<>();
+        this.levels = new ArrayList<>();
+        for (LevelSpecification specification : this.specifications) {
+            String path = specification.getBlockDefinitions();
+            BlocksFromSymbolsFactory factory = BlocksDefinitionReader.fromReader(new InputStreamReader(open(path)),
+                    path);
+            this.factories.add(factory);
+            this.levels.add(new LevelGenerator().createLevel(specification, factory));
+        }
+    }
+
+    /**
+     * Function name: run.
+     * Creates the blocks of all the levels of the set.
+     *
+     * @return the total amount of created blocks
+     */
+    @Override
+    public double run() {
+        int created = 0;
+        for (int i = 0; i < this.levels.size(); i++) {
+            if (this.fromPrototype) {
+                created += this.levels.get(i).blocks().size();
+            } else {
+                created += layOut(this.specifications.get(i), this.factories.get(i)).size();
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Function name: open.
+     * Opens a file of the class path.
+     *
+     * @param path - the path of the file in the class path
+     * @return a stream of the file
+     * @throws IOException if the file isn't in the class path
+     */
+    private static InputStream open(String path) throws IOException {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            throw new IOException("Can't find " + path + " in the class path");
+        }
+        return is;
+    }
+
+    /**
+     * Function name: layOut.
+     * Creates the blocks of a level by reading its layout symbol by symbol, like the levels did before the
+     * prototypes.
+     *
+     * @param specification - the details of the level and the layout of its blocks
+     * @param factory       - the factory of the blocks of the level
+     * @return a list of the created blocks
+     */
+    private static List<Block> layOut(LevelSpecification specification, BlocksFromSymbolsFactory factory) {
+        List<Block> blocks = new ArrayList<>(specification.getNumBlocks());
+        List<char[]> layout = specification.getBlocksLayout();
+        for (int row = 0; row < layout.size(); row++) {
+            int x = specification.getBlocksStartX();
+            int y = specification.getBlocksStartY() + specification.getRowHeight() * row;
+            for (char symbol : layout.get(row)) {
+                if (factory.isBlockSymbol(symbol)) {
+                    Block block = factory.getBlock(symbol, x, y);
+                    x = (int) block.getCollisionRectangle().getRight();
+                    blocks.add(block);
+                } else if (factory.isSpaceSymbol(symbol)) {
+                    x += factory.getSpaceWidth(symbol);
+                }
+            }
+        }
+        return blocks;
+    }
+}
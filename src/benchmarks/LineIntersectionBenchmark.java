@@ -0,0 +1,88 @@
+package benchmarks;
+
+import gameobjects.Line;
+import gameobjects.Point;
+
+import java.util.Random;
+
+/**
+ * Measures Line.intersectionWith - finding the intersection point of two line segments, on random segments across
+ * the game's screen (some of them intersect and some don't).
+ *
+ * @author Ariel Fenster
+ */
+public class LineIntersectionBenchmark implements Benchmark {
+    // the amount of different pairs of segments the operation goes through
+    private static final int PAIRS = 1024;
+
+    // members
+    private Line[] first;
+    private Line[] second;
+    private int next;
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return "line.intersectionWith";
+    }
+
+    /**
+     * Function name: getParams.
+     * The benchmark has no parameter
+     *
+     * @return an empty array
+     */
+    @Override
+    public int[] getParams() {
+        return new int[0];
+    }
+
+    /**
+     * Function name: setUp.
+     * Creates the random pairs of segments.
+     *
+     * @param param - not used
+     */
+    @Override
+    public void setUp(int param) {
+        Random random = new Random(1);
+        this.first = new Line[PAIRS];
+        this.second = new Line[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            this.first[i] = randomLine(random);
+            this.second[i] = randomLine(random);
+        }
+        this.next = 0;
+    }
+
+    /**
+     * Function name: run.
+     * Intersects the next pair of segments.
+     *
+     * @return the x coordinate of the intersection point, or 0 if the segments don't intersect
+     */
+    @Override
+    public double run() {
+        int i = this.next;
+        this.next = (i + 1) & (PAIRS - 1);
+        Point p = this.first[i].intersectionWith(this.second[i]);
+        return p == null ? 0 : p.getX();
+    }
+
+    /**
+     * Function name: randomLine.
+     * Creates a random segment on the game's screen.
+     *
+     * @param random - the source of the random numbers
+     * @return a random segment
+     */
+    static Line randomLine(Random random) {
+        return new Line(new Point(random.nextDouble() * 800, random.nextDouble() * 600),
+                new Point(random.nextDouble() * 800, random.nextDouble() * 600));
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import gameobjects.Line;
+import gameobjects.Point;
+import gameobjects.Rectangle;
+
+import java.util.Random;
+
+/**
+ * Measures Rectangle.intersectionPoints - finding the points where a line segment crosses the sides of a rectangle,
+ * on random segments across the game's screen and a rectangle in its middle.
+ *
+ * @author Ariel Fenster
+ */
+public class RectangleIntersectionBenchmark implements Benchmark {
+    // the amount of different segments the operation goes through
+    private static final int LINES = 1024;
+
+    // members
+    private Rectangle rectangle;
+    private Line[] lines;
+    private int next;
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return "rectangle.intersectionPoints";
+    }
+
+    /**
+     * Function name: getParams.
+     * The benchmark has no parameter
+     *
+     * @return an empty array
+     */
+    @Override
+    public int[] getParams() {
+        return new int[0];
+    }
+
+    /**
+     * Function name: setUp.
+     * Creates the rectangle and the random segments.
+     *
+     * @param param - not used
+     */
+    @Override
+    public void setUp(int param) {
+        Random random = new Random(2);
+        this.rectangle = new Rectangle(new Point(250, 200), 300, 200);
+        this.lines = new Line[LINES];
+        for (int i = 0; i < LINES; i++) {
+            this.lines[i] = LineIntersectionBenchmark.randomLine(random);
+        }
+        this.next = 0;
+    }
+
+    /**
+     * Function name: run.
+     * Intersects the rectangle with the next segment.
+     *
+     * @return the amount of intersection points
+     */
+    @Override
+    public double run() {
+        int i = this.next;
+        this.next = (i + 1) & (LINES - 1);
+        return this.rectangle.intersectionPoints(this.lines[i]).size();
+    }
+}
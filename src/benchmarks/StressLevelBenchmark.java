@@ -0,0 +1,124 @@
+package benchmarks;
+
+import animation.AnimationRunner;
+import biuoop.DrawSurface;
+import display.HeadlessDisplay;
+import display.ImageDrawSurface;
+import display.ScriptedKeyboard;
+import gamelogic.GameLevel;
+import levelsdata.StressLevelGenerator;
+import listeners.Counter;
+
+/**
+ * Measures the game with the big generated levels of the stress level generator - either building a level (generating
+ * it and adding its objects, GameLevel.initialize), or drawing and advancing a frame of it (GameLevel.doOneFrame).
+ * The parameter is the amount of blocks, with 1000 balls. The blocks have 9 hit points, so hardly any block is
+ * destroyed while the frames are measured.
+ *
+ * @author Ariel Fenster
+ */
+public class StressLevelBenchmark implements Benchmark {
+    // the size of the screen
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    // the blocks fill the width between the edges of the screen, and up to the middle of the screen
+    private static final int FIELD_WIDTH = 750;
+    private static final int FIELD_HEIGHT = 300;
+    private static final int BALLS = 1000;
+    private static final long SEED = 1;
+    // the simulation step, the same as the game's
+    private static final double STEP = 1.0 / 120;
+
+    // members
+    private boolean frames;
+    private StressLevelGenerator generator;
+    private HeadlessDisplay display;
+    private GameLevel level;
+
+    /**
+     * Function name: StressLevelBenchmark.
+     * Constructor - creates the benchmark of building the levels or of their frames.
+     *
+     * @param frames - true to measure the frames of the level, false to measure building it
+     */
+    public StressLevelBenchmark(boolean frames) {
+        this.frames = frames;
+    }
+
+    /**
+     * Function name: getName.
+     * Returns the name of the benchmark
+     *
+     * @return the name of the benchmark
+     */
+    @Override
+    public String getName() {
+        return this.frames ? "level.stress.doOneFrame" : "level.stress.build";
+    }
+
+    /**
+     * Function name: getParams.
+     * Returns the amounts of blocks the benchmark is measured with
+     *
+     * @return the amounts of blocks
+     */
+    @Override
+    public int[] getParams() {
+        return new int[] {1000, 10000, 100000};
+    }
+
+    /**
+     * Function name: setUp.
+     * Sets the generator to a level with the given amount of blocks, and builds the level if its frames are measured.
+     *
+     * @param param - the amount of blocks
+     */
+    @Override
+    public void setUp(int param) {
+        int columns = (int) Math.ceil(Math.sqrt(param * 2.0));
+        int rows = (param + columns - 1) / columns;
+        this.generator = new StressLevelGenerator();
+        this.generator.setGrid(rows, columns);
+        this.generator.setBlockSize(Math.max(1, FIELD_WIDTH / columns), Math.max(1, FIELD_HEIGHT / rows));
+        this.generator.setHitPointsWeights(new int[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 1});
+        this.generator.setBalls(BALLS);
+        this.generator.setSeed(SEED);
+        this.display = new HeadlessDisplay(new ImageDrawSurface(WIDTH, HEIGHT), new ScriptedKeyboard(0));
+        if (this.frames) {
+            this.level = this.buildLevel();
+            this.level.startTurn();
+        }
+    }
+
+    /**
+     * Function name: run.
+     * Builds the level, or draws and advances one frame of it.
+     *
+     * @return the amount of objects added to the level
+     */
+    @Override
+    public double run() {
+        if (!this.frames) {
+            return this.buildLevel().getEnvironment().getAddedCount();
+        }
+        DrawSurface d = this.display.getDrawSurface();
+        this.level.doOneFrame(d, STEP);
+        this.display.show(d);
+        return this.level.getEnvironment().getAddedCount();
+    }
+
+    /**
+     * Function name: buildLevel.
+     * Generates the level and adds its objects.
+     *
+     * @return the level
+     */
+    private GameLevel buildLevel() {
+        Counter lives = new Counter();
+        lives.increase(1);
+        GameLevel gameLevel = new GameLevel(this.generator.createLevel(), this.display,
+                new AnimationRunner(this.display), new Counter(), lives);
+        gameLevel.initialize();
+        return gameLevel;
+    }
+}
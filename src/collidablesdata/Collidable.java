@@ -23,12 +23,13 @@ public interface Collidable {
 
     /**
      * Function name: hit.
-     * The function changes the ball's velocity based on where it hit the object
+     * The function changes the ball's velocity based on where it hit the object. The given velocity belongs to the
+     * hitting ball, so the object may change it in place and return it instead of creating a new one.
      *
      * @param collisionPoint  - where the ball and the object collided
      * @param currentVelocity - the ball's current velocity
      * @param hitter          - the object that is hitting the collidable object
-     * @return a new ball velocity based on the place of impact
+     * @return the ball's velocity after the hit, based on the place of impact
      */
     Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity);
 }
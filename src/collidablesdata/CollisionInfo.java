@@ -4,7 +4,10 @@ import gameobjects.Point;
 
 /**
  * The class holds information about a collision between the ball and a game object - brick or the player's paddle.
- * It holds the collision point and the collided object.
+ * It holds the collision point and the collided object, the time of the collision during the ball's movement and the
+ * normal of the surface that was hit.
+ * The information returned by a collision search belongs to the search and is filled again by its next query, so it
+ * should be used right away. Information that is kept for later is copied.
  *
  * @author Ariel Fenster
  */
@@ -12,17 +15,87 @@ public class CollisionInfo {
     // members
     private Point collPoint;
     private Collidable collObject;
+    private double collTime;
+    private double normalX;
+    private double normalY;
+    private double depth;
 
     /**
      * Function name: CollisionInfo.
-     * Constructor
+     * Constructor #1 - a collision at the start of the movement without a known surface normal
      *
      * @param collPoint  - the collision point
      * @param collObject - the object the ball collided with
      */
     public CollisionInfo(Point collPoint, Collidable collObject) {
+        this(collPoint, collObject, 0, 0, 0, 0);
+    }
+
+    /**
+     * Function name: CollisionInfo.
+     * Constructor #2
+     *
+     * @param collPoint  - the collision point (on the collided object)
+     * @param collObject - the object the ball collided with
+     * @param collTime   - the part of the ball's movement (0 to 1) done before the collision
+     * @param normalX    - the normal of the hit surface in the X axis
+     * @param normalY    - the normal of the hit surface in the Y axis
+     * @param depth      - how deep the ball was inside the object when the movement started (0 if it wasn't)
+     */
+    public CollisionInfo(Point collPoint, Collidable collObject, double collTime, double normalX, double normalY,
+                         double depth) {
         this.collPoint = collPoint;
         this.collObject = collObject;
+        this.collTime = collTime;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.depth = depth;
+    }
+
+    /**
+     * Function name: CollisionInfo.
+     * Constructor #3 - a copy of the given collision, with a collision point of its own
+     *
+     * @param other - the collision to copy
+     */
+    public CollisionInfo(CollisionInfo other) {
+        this(new Point(other.collPoint.getX(), other.collPoint.getY()), other.collObject, other.collTime,
+                other.normalX, other.normalY, other.depth);
+    }
+
+    /**
+     * Function name: set.
+     * Changes the information in place. The collision point is moved in place, so it must be a point of this
+     * information's own.
+     *
+     * @param object   - the object the ball collided with
+     * @param contactX - x coordinate of the collision point
+     * @param contactY - y coordinate of the collision point
+     * @param time     - the part of the ball's movement (0 to 1) done before the collision
+     * @param nX       - the normal of the hit surface in the X axis
+     * @param nY       - the normal of the hit surface in the Y axis
+     * @param overlap  - how deep the ball was inside the object when the movement started (0 if it wasn't)
+     */
+    void set(Collidable object, double contactX, double contactY, double time, double nX, double nY,
+             double overlap) {
+        this.collPoint.moveTo(contactX, contactY);
+        this.collObject = object;
+        this.collTime = time;
+        this.normalX = nX;
+        this.normalY = nY;
+        this.depth = overlap;
+    }
+
+    /**
+     * Function name: copy.
+     * Changes the information in place to a copy of the given collision. Like set, only for information with a
+     * collision point of its own.
+     *
+     * @param other - the collision to copy
+     */
+    void copy(CollisionInfo other) {
+        this.set(other.collObject, other.collPoint.getX(), other.collPoint.getY(), other.collTime, other.normalX,
+                other.normalY, other.depth);
     }
 
     /**
@@ -44,4 +117,44 @@ public class CollisionInfo {
     public Collidable collisionObject() {
         return this.collObject;
     }
+
+    /**
+     * Function name: collisionTime.
+     * Return the part of the ball's movement (0 to 1) done before the collision occurs
+     *
+     * @return the time of the collision
+     */
+    public double collisionTime() {
+        return this.collTime;
+    }
+
+    /**
+     * Function name: normalX.
+     * Return the X axis part of the unit normal of the surface that was hit
+     *
+     * @return normal in the X axis
+     */
+    public double normalX() {
+        return this.normalX;
+    }
+
+    /**
+     * Function name: normalY.
+     * Return the Y axis part of the unit normal of the surface that was hit
+     *
+     * @return normal in the Y axis
+     */
+    public double normalY() {
+        return this.normalY;
+    }
+
+    /**
+     * Function name: depth.
+     * Return how deep the ball was inside the collided object when the movement started (0 if it wasn't)
+     *
+     * @return overlap depth
+     */
+    public double depth() {
+        return this.depth;
+    }
 }
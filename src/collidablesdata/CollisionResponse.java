@@ -0,0 +1,50 @@
+package collidablesdata;
+
+/**
+ * The class calculates where a ball ends up after a collision that was found for it: at the place where its edge
+ * touches the collided object (or pushed out of the object if it was inside it), kept a tiny distance away from the
+ * object's surface so its next movement starts outside of it.
+ * Both the regular balls and the balls of a group of balls are moved to their collisions with it, so they move the
+ * same way.
+ *
+ * @author Ariel Fenster
+ */
+public final class CollisionResponse {
+    // the distance kept between a ball and the surface it hit
+    private static final double SURFACE_GAP = 0.001;
+
+    /**
+     * Function name: CollisionResponse.
+     * The class only holds calculations and can't be created.
+     */
+    private CollisionResponse() {
+    }
+
+    /**
+     * Function name: contactX.
+     * Returns the x coordinate of the center of a ball that moved until the collision.
+     *
+     * @param x     - x coordinate of the ball's center at the start of the movement
+     * @param moveX - the movement in the X axis the collision was searched in (0 if the ball is already at the
+     *              time of the collision)
+     * @param info  - the information about the collision
+     * @return x coordinate of the ball's center at the collision
+     */
+    public static double contactX(double x, double moveX, CollisionInfo info) {
+        return x + info.collisionTime() * moveX + info.normalX() * (info.depth() + SURFACE_GAP);
+    }
+
+    /**
+     * Function name: contactY.
+     * Returns the y coordinate of the center of a ball that moved until the collision.
+     *
+     * @param y     - y coordinate of the ball's center at the start of the movement
+     * @param moveY - the movement in the Y axis the collision was searched in (0 if the ball is already at the
+     *              time of the collision)
+     * @param info  - the information about the collision
+     * @return y coordinate of the ball's center at the collision
+     */
+    public static double contactY(double y, double moveY, CollisionInfo info) {
+        return y + info.collisionTime() * moveY + info.normalY() * (info.depth() + SURFACE_GAP);
+    }
+}
@@ -0,0 +1,100 @@
+package collidablesdata;
+
+import gameobjects.Point;
+import gameobjects.Rectangle;
+
+/**
+ * The working memory of a single search for the closest collision in the game environment: the solver that checks
+ * each collidable and the details of the closest hit found so far.
+ * The game environment has a search of its own for regular queries. Searches that run at the same time on different
+ * threads must each use a separate search object.
+ * The search fills one collision information of its own with every result, so a query doesn't allocate even when it
+ * finds a hit. The result is only valid until the next query with the same search.
+ *
+ * @author Ariel Fenster
+ */
+public class CollisionSearch {
+    // members - calculates the collision with each collidable
+    private SweptCircleSolver solver;
+
+    // the closest collision found so far
+    private Collidable closestObject;
+    private double closestTime;
+    private double closestContactX;
+    private double closestContactY;
+    private double closestNormalX;
+    private double closestNormalY;
+    private double closestDepth;
+
+    // the information that is returned as the result of every query
+    private CollisionInfo result;
+
+    /**
+     * Function name: CollisionSearch.
+     * Constructor
+     */
+    public CollisionSearch() {
+        this.solver = new SweptCircleSolver();
+        this.result = new CollisionInfo(new Point(0, 0), null);
+        this.start();
+    }
+
+    /**
+     * Function name: start.
+     * Forgets the closest collision of the previous search.
+     */
+    void start() {
+        this.closestObject = null;
+        this.closestTime = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Function name: check.
+     * Checks whether the moving circle hits the given collidable earlier than the closest collision found so far, and
+     * if so keeps it as the closest collision.
+     *
+     * @param x          - x coordinate of the circle's center at the start of the movement
+     * @param y          - y coordinate of the circle's center at the start of the movement
+     * @param radius     - the circle's radius
+     * @param dx         - the movement in the X axis
+     * @param dy         - the movement in the Y axis
+     * @param collObject - the collidable to check
+     */
+    void check(double x, double y, double radius, double dx, double dy, Collidable collObject) {
+        Rectangle rect = collObject.getCollisionRectangle();
+        if (this.solver.solve(x, y, radius, dx, dy, rect) && this.solver.getTime() < this.closestTime) {
+            this.closestObject = collObject;
+            this.closestTime = this.solver.getTime();
+            this.closestContactX = this.solver.getContactX();
+            this.closestContactY = this.solver.getContactY();
+            this.closestNormalX = this.solver.getNormalX();
+            this.closestNormalY = this.solver.getNormalY();
+            this.closestDepth = this.solver.getDepth();
+        }
+    }
+
+    /**
+     * Function name: getClosestTime.
+     * Returns the time (0 to 1 of the movement) of the closest collision found so far
+     *
+     * @return time of the closest collision, infinity if none was found
+     */
+    double getClosestTime() {
+        return this.closestTime;
+    }
+
+    /**
+     * Function name: getResult.
+     * Returns the information about the closest collision found in the search
+     *
+     * @return the closest collision's information (valid until the next query), or null if nothing was hit
+     */
+    CollisionInfo getResult() {
+        if (this.closestObject == null) {
+            return null;
+        }
+        this.result.set(this.closestObject, this.closestContactX, this.closestContactY, this.closestTime,
+                this.closestNormalX, this.closestNormalY, this.closestDepth);
+        return this.result;
+    }
+}
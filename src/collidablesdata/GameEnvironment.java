@@ -5,34 +5,107 @@ import gameobjects.Point;
 import gameobjects.Rectangle;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The program stores all the information about all the collidable objects in the game.
  * It can determine whether a moving object (ball) will hit any of the game objects and, if so, return its information.
+ * <p>
+ * Static collidables (blocks) are bucketed into a uniform grid of square cells. When looking for a collision, only
+ * the cells that the ball's center passes through are checked, walking them in order from the start of the trajectory
+ * (DDA traversal), so the cost of a query depends on the length of the trajectory and not on the amount of blocks.
+ * Moving collidables (the paddle) are kept aside and are checked on every query.
  *
  * @author Ariel Fenster
  */
 public class GameEnvironment {
-    // member - holds a list of all the collidable objects in the game
-    private List<Collidable> collidables;
+    // the length of each side of a grid cell - the width of a standard block
+    private static final double CELL_SIZE = 50;
+    // each collidable is added to all the cells it is this close to, so that a ball's center passing in a cell is
+    // enough to find every collidable the ball touches (for balls up to this radius)
+    private static final double CELL_PADDING = 10;
+    // the default for the maximal amount of collisions a single ball resolves in one frame
+    public static final int DEFAULT_MAX_SUB_STEPS = 4;
+
+    // members - the collidables that stay in place, in the order they were added (a set, so removing is quick)
+    private Set<Collidable> staticCollidables;
+    // collidables that change their position during the game and so can't be kept in the grid
+    private List<Collidable> movingCollidables;
+    // the user's paddle - the first moving collidable added to the environment
+    private Collidable paddle;
+
+    // the grid - each cell holds the static collidables whose rectangle overlaps it
+    private List<List<Collidable>> cells;
+    private int firstColumn;
+    private int firstRow;
+    private int columns;
+    private int rows;
+
+    // the working memory of the queries done through the environment itself
+    private CollisionSearch search;
+    // changes every time a collidable is added or removed, and the amount of collidables ever added
+    private int version;
+    private int addedCount;
+
+    // sub-stepping - the allowed amount of sub-steps per ball per frame and the amount of sub-steps done
+    private int maxSubSteps;
+    private int subStepsThisFrame;
+    private int subStepsLastFrame;
+    // the amount of collisions that hit a collidable
+    private int collisionsThisFrame;
+    private int collisionsLastFrame;
 
     /**
      * Function name: GameEnvironment.
      * Constructor
      */
     public GameEnvironment() {
-        this.collidables = new ArrayList<>();
+        this.staticCollidables = new LinkedHashSet<>();
+        this.movingCollidables = new ArrayList<>();
+        this.paddle = null;
+        this.cells = new ArrayList<>();
+        this.firstColumn = 0;
+        this.firstRow = 0;
+        this.columns = 0;
+        this.rows = 0;
+        this.search = new CollisionSearch();
+        this.version = 0;
+        this.addedCount = 0;
+        this.maxSubSteps = DEFAULT_MAX_SUB_STEPS;
+        this.subStepsThisFrame = 0;
+        this.subStepsLastFrame = 0;
     }
 
     /**
      * Function name: addCollidable.
-     * Add the given collidable to the game environment
+     * Add the given collidable to the game environment. The collidable is expected to stay in place for as long as it
+     * is a part of the environment.
      *
      * @param c - the collidable object we add to the game data
      */
     public void addCollidable(Collidable c) {
-        this.collidables.add(c);
+        this.staticCollidables.add(c);
+        this.insertToGrid(c);
+        this.version++;
+        this.addedCount++;
+    }
+
+    /**
+     * Function name: addMovingCollidable.
+     * Add the given collidable to the game environment as a collidable that can change its position (like the paddle).
+     * The first moving collidable that is added is the game paddle.
+     *
+     * @param c - the collidable object we add to the game data
+     */
+    public void addMovingCollidable(Collidable c) {
+        if (this.paddle == null) {
+            this.paddle = c;
+        }
+        this.movingCollidables.add(c);
+        this.version++;
+        this.addedCount++;
     }
 
     /**
@@ -42,40 +115,249 @@ public class GameEnvironment {
      * @param c - the collidable object we remove from the game data
      */
     public void removeCollidable(Collidable c) {
-        this.collidables.remove(c);
+        if (this.staticCollidables.remove(c)) {
+            this.removeFromGrid(c);
+        } else if (this.movingCollidables.remove(c) && c == this.paddle) {
+            this.paddle = null;
+        }
+        this.version++;
     }
 
     /**
-     * Function name: getClosestCollision.
-     * The function goes through all the collidable objects in the game and detects whether the game ball will
-     * hit any of them.
+     * Function name: getVersion.
+     * Returns a number that changes every time a collidable is added to or removed from the environment, so that a
+     * query result can be known to still be correct if the number hasn't changed since the query was done
      *
-     * @param trajectory - the ball's line of movement
+     * @return the version of the environment
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Function name: getAddedCount.
+     * Returns the amount of collidables that were ever added to the environment (removed ones included)
+     *
+     * @return amount of added collidables
+     */
+    public int getAddedCount() {
+        return this.addedCount;
+    }
+
+    /**
+     * Function name: contains.
+     * Checks whether the given collidable is a part of the environment. Only the grid cell at the collidable's corner
+     * is searched, so the check is quick.
+     *
+     * @param c - the collidable to look for
+     * @return true if the collidable is in the environment, false otherwise
+     */
+    public boolean contains(Collidable c) {
+        if (this.movingCollidables.contains(c)) {
+            return true;
+        }
+        Rectangle rect = c.getCollisionRectangle();
+        List<Collidable> cell = this.getCell(this.cellOf(rect.getLeft() - CELL_PADDING),
+                this.cellOf(rect.getTop() - CELL_PADDING));
+        return cell != null && cell.contains(c);
+    }
+
+    /**
+     * Function name: getMovingCollidables.
+     * Returns the collidables that change their position during the game (like the paddle)
+     *
+     * @return the moving collidables
+     */
+    public List<Collidable> getMovingCollidables() {
+        return this.movingCollidables;
+    }
+
+    /**
+     * Function name: getClosestCollision (#1).
+     * The function detects whether a point moving along the trajectory will hit any of the collidables.
+     *
+     * @param trajectory - the line of movement
      * @return if a collision will occur - the information about the closest collision that is going to occur,
      * otherwise null
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
-        // default creation - in case there won't be a collision
-        CollisionInfo collInfo = null;
-
-        // creating a copy of the existing list of collidables and iterating over them
-        List<Collidable> newCollidablesList = new ArrayList<>(this.collidables);
-
-        // going through all the game objects
-        for (Collidable collObject : newCollidablesList) {
-            // get the current rectangle from the list of collidables
-            Rectangle rect = collObject.getCollisionRectangle();
-            // get the intersection point between the trajectory line and the current rectangle.
-            Point collPoint = trajectory.closestIntersectionToStartOfLine(rect);
-
-            // if the point of intersection isn't null - meaning we hit an object
-            if (collPoint != null) {
-                collInfo = new CollisionInfo(collPoint, collObject);
-                break;
+        return this.getClosestCollision(trajectory, 0);
+    }
+
+    /**
+     * Function name: getClosestCollision (#2).
+     * The function detects whether a ball moving along the trajectory will hit any of the collidables.
+     *
+     * @param trajectory - the line of movement of the ball's center
+     * @param radius     - the ball's radius
+     * @return if a collision will occur - the information about the closest collision that is going to occur,
+     * otherwise null
+     */
+    public CollisionInfo getClosestCollision(Line trajectory, double radius) {
+        Point start = trajectory.start();
+        double dx = trajectory.end().getX() - start.getX();
+        double dy = trajectory.end().getY() - start.getY();
+        return this.getClosestCollision(start.getX(), start.getY(), radius, dx, dy);
+    }
+
+    /**
+     * Function name: getClosestCollision (#3).
+     * The function walks through the grid cells the ball's center passes in, from the start of its movement to its
+     * end, and detects whether the ball will hit any of the collidables in them. The walk stops as soon as the next
+     * cell is entered later than the closest collision found so far. The returned information belongs to the
+     * environment's own search and is filled again by the next query, so it has to be used (or copied) right away.
+     *
+     * @param x      - x coordinate of the ball's center at the start of the movement
+     * @param y      - y coordinate of the ball's center at the start of the movement
+     * @param radius - the ball's radius
+     * @param dx     - the movement in the X axis
+     * @param dy     - the movement in the Y axis
+     * @return if a collision will occur - the information about the closest collision that is going to occur,
+     * otherwise null
+     */
+    public CollisionInfo getClosestCollision(double x, double y, double radius, double dx, double dy) {
+        return this.getClosestCollision(x, y, radius, dx, dy, this.search);
+    }
+
+    /**
+     * Function name: getClosestCollision (#4).
+     * Same as getClosestCollision (#3), using the given search object as the working memory of the query. Queries
+     * that run at the same time on different threads must each be given their own search object, and no collidable
+     * may be added or removed while they run. The returned information belongs to the search object.
+     *
+     * @param x      - x coordinate of the ball's center at the start of the movement
+     * @param y      - y coordinate of the ball's center at the start of the movement
+     * @param radius - the ball's radius
+     * @param dx     - the movement in the X axis
+     * @param dy     - the movement in the Y axis
+     * @param search - the working memory of the query
+     * @return if a collision will occur - the information about the closest collision that is going to occur,
+     * otherwise null
+     */
+    public CollisionInfo getClosestCollision(double x, double y, double radius, double dx, double dy,
+                                             CollisionSearch search) {
+        search.start();
+
+        // the moving collidables aren't in the grid so they are checked first
+        for (int i = 0; i < this.movingCollidables.size(); i++) {
+            search.check(x, y, radius, dx, dy, this.movingCollidables.get(i));
+        }
+
+        // the collidables are padded in the grid, a bigger ball has to check the neighbouring cells as well
+        int reach = radius <= CELL_PADDING ? 0 : (int) Math.ceil((radius - CELL_PADDING) / CELL_SIZE);
+
+        // the cell in which the trajectory starts
+        int column = this.cellOf(x);
+        int row = this.cellOf(y);
+
+        // the direction of the walk in each axis and how far along the trajectory (0 to 1) the next cell border is
+        int stepColumn = dx > 0 ? 1 : -1;
+        int stepRow = dy > 0 ? 1 : -1;
+        double nextColumnT = this.firstBorderCrossing(x, dx, column);
+        double nextRowT = this.firstBorderCrossing(y, dy, row);
+        double columnDeltaT = dx == 0 ? Double.POSITIVE_INFINITY : CELL_SIZE / Math.abs(dx);
+        double rowDeltaT = dy == 0 ? Double.POSITIVE_INFINITY : CELL_SIZE / Math.abs(dy);
+
+        // how far along the trajectory the current cell is entered
+        double cellEntryT = 0;
+        while (cellEntryT <= 1 && cellEntryT <= search.getClosestTime()) {
+            for (int r = row - reach; r <= row + reach; r++) {
+                for (int c = column - reach; c <= column + reach; c++) {
+                    List<Collidable> cell = this.getCell(c, r);
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size(); i++) {
+                        search.check(x, y, radius, dx, dy, cell.get(i));
+                    }
+                }
+            }
+            // move to the neighbouring cell whose border is crossed first
+            if (nextColumnT < nextRowT) {
+                cellEntryT = nextColumnT;
+                nextColumnT += columnDeltaT;
+                column += stepColumn;
+            } else {
+                cellEntryT = nextRowT;
+                nextRowT += rowDeltaT;
+                row += stepRow;
             }
         }
-        // if won't hit anything - collInfo will be null, otherwise will be the collision information
-        return collInfo;
+        // if won't hit anything - return null, otherwise return the closest collision information
+        return search.getResult();
+    }
+
+    /**
+     * Function name: setMaxSubSteps.
+     * Sets the maximal amount of movements (each ending in a collision, except maybe the last) a ball can do in a
+     * single frame. Any movement left after the last allowed sub-step is dropped.
+     *
+     * @param maxSubSteps - the maximal amount of sub-steps per ball per frame (at least 1)
+     */
+    public void setMaxSubSteps(int maxSubSteps) {
+        this.maxSubSteps = Math.max(1, maxSubSteps);
+    }
+
+    /**
+     * Function name: getMaxSubSteps.
+     * Returns the maximal amount of sub-steps a ball can do in a single frame
+     *
+     * @return maximal amount of sub-steps per ball per frame
+     */
+    public int getMaxSubSteps() {
+        return this.maxSubSteps;
+    }
+
+    /**
+     * Function name: countSubSteps.
+     * Adds the sub-steps a ball did in the current frame to the frame's count
+     *
+     * @param amount - the amount of sub-steps done
+     */
+    public void countSubSteps(int amount) {
+        this.subStepsThisFrame += amount;
+    }
+
+    /**
+     * Function name: endFrame.
+     * Marks the end of a frame - the sub-steps and collisions counted so far become the last frame's counts and
+     * the counting starts over.
+     */
+    public void endFrame() {
+        this.subStepsLastFrame = this.subStepsThisFrame;
+        this.subStepsThisFrame = 0;
+        this.collisionsLastFrame = this.collisionsThisFrame;
+        this.collisionsThisFrame = 0;
+    }
+
+    /**
+     * Function name: getSubStepsLastFrame.
+     * Returns the total amount of sub-steps all the balls did in the last completed frame
+     *
+     * @return amount of sub-steps in the last frame
+     */
+    public int getSubStepsLastFrame() {
+        return this.subStepsLastFrame;
+    }
+
+    /**
+     * Function name: countCollisions.
+     * Adds the collisions in which balls hit collidables in the current frame to the frame's count
+     *
+     * @param amount - the amount of collisions
+     */
+    public void countCollisions(int amount) {
+        this.collisionsThisFrame += amount;
+    }
+
+    /**
+     * Function name: getCollisionsLastFrame.
+     * Returns the total amount of collisions in which balls hit collidables in the last completed frame
+     *
+     * @return amount of collisions in the last frame
+     */
+    public int getCollisionsLastFrame() {
+        return this.collisionsLastFrame;
     }
 
     /**
@@ -85,7 +367,134 @@ public class GameEnvironment {
      * @return game paddle
      */
     public Collidable getGamePaddle() {
-        // the paddle is the first collidable we add to the game
-        return this.collidables.get(0);
+        return this.paddle;
+    }
+
+    /**
+     * Function name: firstBorderCrossing.
+     * Calculates how far along a trajectory (0 to 1) it first crosses a border of the cell it starts in, on one axis.
+     *
+     * @param start - the start coordinate of the trajectory on the axis
+     * @param delta - the change of the trajectory on the axis
+     * @param cell  - the cell index the trajectory starts in on the axis
+     * @return the part of the trajectory that passes until the crossing, infinity if it never crosses on this axis
+     */
+    private double firstBorderCrossing(double start, double delta, int cell) {
+        if (delta > 0) {
+            return ((cell + 1) * CELL_SIZE - start) / delta;
+        } else if (delta < 0) {
+            return (cell * CELL_SIZE - start) / delta;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Function name: cellOf.
+     * Returns the index of the cell that contains the given coordinate (on either axis)
+     *
+     * @param coordinate - x or y coordinate
+     * @return the index of the cell on that axis
+     */
+    private int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    /**
+     * Function name: getCell.
+     * Returns the list of collidables in the given cell.
+     *
+     * @param column - the column of the cell
+     * @param row    - the row of the cell
+     * @return the collidables in the cell, or null if the cell is outside the grid
+     */
+    private List<Collidable> getCell(int column, int row) {
+        int c = column - this.firstColumn;
+        int r = row - this.firstRow;
+        if (c < 0 || r < 0 || c >= this.columns || r >= this.rows) {
+            return null;
+        }
+        return this.cells.get(r * this.columns + c);
+    }
+
+    /**
+     * Function name: insertToGrid.
+     * Adds the collidable to every cell its (padded) rectangle overlaps. If the rectangle is outside the current grid,
+     * the grid is rebuilt to cover it.
+     *
+     * @param c - the collidable to add (already in the set of static collidables)
+     */
+    private void insertToGrid(Collidable c) {
+        Rectangle rect = c.getCollisionRectangle();
+        int minColumn = this.cellOf(rect.getLeft() - CELL_PADDING);
+        int minRow = this.cellOf(rect.getTop() - CELL_PADDING);
+        int maxColumn = this.cellOf(rect.getRight() + CELL_PADDING);
+        int maxRow = this.cellOf(rect.getBottom() + CELL_PADDING);
+
+        // the rebuilt grid already contains all the collidables, including the new one
+        if (this.columns == 0 || minColumn < this.firstColumn || minRow < this.firstRow
+                || maxColumn >= this.firstColumn + this.columns || maxRow >= this.firstRow + this.rows) {
+            this.resizeGrid(minColumn, minRow, maxColumn, maxRow);
+            return;
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                this.getCell(column, row).add(c);
+            }
+        }
+    }
+
+    /**
+     * Function name: removeFromGrid.
+     * Removes the collidable from every cell its (padded) rectangle overlaps.
+     *
+     * @param c - the collidable to remove
+     */
+    private void removeFromGrid(Collidable c) {
+        Rectangle rect = c.getCollisionRectangle();
+        int minColumn = this.cellOf(rect.getLeft() - CELL_PADDING);
+        int minRow = this.cellOf(rect.getTop() - CELL_PADDING);
+        int maxColumn = this.cellOf(rect.getRight() + CELL_PADDING);
+        int maxRow = this.cellOf(rect.getBottom() + CELL_PADDING);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                List<Collidable> cell = this.getCell(column, row);
+                if (cell != null) {
+                    cell.remove(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function name: resizeGrid.
+     * Expands the grid so it covers both its current area and the given cells range, and re-inserts all the static
+     * collidables into the new grid.
+     *
+     * @param minColumn - the leftmost column that must be covered
+     * @param minRow    - the top row that must be covered
+     * @param maxColumn - the rightmost column that must be covered
+     * @param maxRow    - the bottom row that must be covered
+     */
+    private void resizeGrid(int minColumn, int minRow, int maxColumn, int maxRow) {
+        if (this.columns != 0) {
+            minColumn = Math.min(minColumn, this.firstColumn);
+            minRow = Math.min(minRow, this.firstRow);
+            maxColumn = Math.max(maxColumn, this.firstColumn + this.columns - 1);
+            maxRow = Math.max(maxRow, this.firstRow + this.rows - 1);
+        }
+        this.firstColumn = minColumn;
+        this.firstRow = minRow;
+        this.columns = maxColumn - minColumn + 1;
+        this.rows = maxRow - minRow + 1;
+
+        this.cells = new ArrayList<>(this.columns * this.rows);
+        for (int i = 0; i < this.columns * this.rows; i++) {
+            this.cells.add(new ArrayList<>());
+        }
+        // re-inserting all the static collidables into the new grid, in the order they were added
+        for (Collidable c : this.staticCollidables) {
+            this.insertToGrid(c);
+        }
     }
 }
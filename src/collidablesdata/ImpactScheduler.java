@@ -0,0 +1,442 @@
+package collidablesdata;
+
+import gameobjects.Rectangle;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An event-driven alternative to searching for the collisions of every moving body (ball) in every frame.
+ * The scheduler predicts the next time of impact of each body against the game environment, and keeps these events
+ * in a priority queue ordered by time - a binary heap of the indexes of the bodies that knows where each body is in
+ * it, so an event is replaced or removed in place and scheduling allocates nothing. A body only needs to be handled
+ * when its event is due, and its prediction is only made again when it bounces or when the environment changes in a
+ * way that may affect it:
+ * <ul>
+ * <li>the collidable it is predicted to hit was removed (like a block removed by the block remover)</li>
+ * <li>a moving collidable (the paddle) moved while the body is in the rows the moving collidable is in, or is
+ * predicted to hit it</li>
+ * <li>a collidable was added - every prediction is made again</li>
+ * </ul>
+ * Removing a collidable can't make any other body hit something earlier, so the other predictions stay correct.
+ * Moving collidables are expected to move sideways only, like the paddle.
+ * <p>
+ * The bodies are known by their index, and their position and velocity are kept by the user of the scheduler.
+ * A prediction looks a limited time ahead (the horizon). A body that hits nothing in that time gets an event without
+ * a collision at the end of the horizon, so it can be predicted again from there. In the same way, a body gets an
+ * event without a collision when it enters or leaves the rows of a moving collidable.
+ *
+ * @author Ariel Fenster
+ */
+public class ImpactScheduler {
+    // the default amount of time (in seconds) a prediction looks ahead
+    public static final double DEFAULT_HORIZON = 1.0;
+    // the amount of bodies the scheduler can hold when it is created
+    private static final int INITIAL_CAPACITY = 64;
+    // a body this close to a border of the rows of a moving collidable is considered to be on the border
+    private static final double BORDER_DISTANCE = 1e-6;
+
+    // members
+    private GameEnvironment gameArea;
+    private double horizon;
+    // the queue - the bodies that have an event, ordered by the times of their events, and the amount of them
+    private int[] heap;
+    private int heapSize;
+
+    // the prediction of body number i is kept in index i of each array
+    private double[] eventTimes;
+    // each body keeps a collision information of its own that its predictions are copied into, and whether its
+    // current prediction is a collision
+    private CollisionInfo[] predictions;
+    private boolean[] predicted;
+    // the place of the body in the heap, -1 if it has no event
+    private int[] heapIndexes;
+    private boolean[] inMovingRows;
+
+    // the state of the environment when it was last checked
+    private int version;
+    private int addedCount;
+    private double[] movingPositions;
+    private int movingCount;
+
+    // what has changed in the environment since it was last checked
+    private boolean allStale;
+    private boolean movingMoved;
+    private boolean collidablesRemoved;
+    private Map<Collidable, Boolean> stillInEnvironment;
+
+    /**
+     * Function name: ImpactScheduler.
+     * Constructor - creates a scheduler that looks ahead the default amount of time.
+     *
+     * @param gameArea - the game environment the bodies move in
+     */
+    public ImpactScheduler(GameEnvironment gameArea) {
+        this(gameArea, DEFAULT_HORIZON);
+    }
+
+    /**
+     * Function name: ImpactScheduler.
+     * Constructor - creates a scheduler that looks ahead the given amount of time.
+     *
+     * @param gameArea - the game environment the bodies move in
+     * @param horizon  - how far ahead (in seconds) a prediction looks
+     */
+    public ImpactScheduler(GameEnvironment gameArea, double horizon) {
+        this.gameArea = gameArea;
+        this.horizon = horizon;
+        this.heap = new int[INITIAL_CAPACITY];
+        this.heapSize = 0;
+        this.eventTimes = new double[INITIAL_CAPACITY];
+        this.predictions = new CollisionInfo[INITIAL_CAPACITY];
+        this.predicted = new boolean[INITIAL_CAPACITY];
+        this.heapIndexes = new int[INITIAL_CAPACITY];
+        Arrays.fill(this.heapIndexes, -1);
+        this.inMovingRows = new boolean[INITIAL_CAPACITY];
+        this.stillInEnvironment = new IdentityHashMap<>();
+        this.version = gameArea.getVersion();
+        this.addedCount = gameArea.getAddedCount();
+        this.movingPositions = new double[0];
+        this.movingCount = 0;
+        this.readMovingPositions();
+    }
+
+    /**
+     * Function name: ensureCapacity.
+     * Makes sure the scheduler can hold the given amount of bodies
+     *
+     * @param capacity - the amount of bodies
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > this.eventTimes.length) {
+            int oldCapacity = this.eventTimes.length;
+            this.heap = Arrays.copyOf(this.heap, capacity);
+            this.eventTimes = Arrays.copyOf(this.eventTimes, capacity);
+            this.predictions = Arrays.copyOf(this.predictions, capacity);
+            this.predicted = Arrays.copyOf(this.predicted, capacity);
+            this.heapIndexes = Arrays.copyOf(this.heapIndexes, capacity);
+            Arrays.fill(this.heapIndexes, oldCapacity, capacity, -1);
+            this.inMovingRows = Arrays.copyOf(this.inMovingRows, capacity);
+        }
+    }
+
+    /**
+     * Function name: schedule.
+     * Predicts the next impact of a body from the given time and adds it as the body's event, replacing the body's
+     * previous event.
+     *
+     * @param body   - the index of the body
+     * @param now    - the time the body is at the given position
+     * @param x      - x coordinate of the body's center
+     * @param y      - y coordinate of the body's center
+     * @param radius - the body's radius
+     * @param dx     - the body's velocity in the X axis (per second)
+     * @param dy     - the body's velocity in the Y axis (per second)
+     */
+    public void schedule(int body, double now, double x, double y, double radius, double dx, double dy) {
+        double moveX = dx * this.horizon;
+        double moveY = dy * this.horizon;
+        CollisionInfo info = this.gameArea.getClosestCollision(x, y, radius, moveX, moveY);
+        double t = info == null ? 1 : info.collisionTime();
+
+        // a body inside the rows of a moving collidable is predicted again whenever the collidable moves. The event
+        // of a body is cut where it enters or leaves these rows, so it is only affected by the collidable's movement
+        // while it is in them
+        this.inMovingRows[body] = false;
+        List<Collidable> moving = this.gameArea.getMovingCollidables();
+        for (int i = 0; i < moving.size(); i++) {
+            Rectangle rect = moving.get(i).getCollisionRectangle();
+            // a body that is predicted to hit the moving collidable is also affected by its movement
+            if (info != null && info.collisionObject() == moving.get(i)) {
+                this.inMovingRows[body] = true;
+            }
+            double top = rect.getTop() - radius;
+            double bottom = rect.getBottom() + radius;
+            // the distance ahead of the body to the border it enters the rows through and to the one it leaves through
+            double toEntry = moveY > 0 ? top - y : y - bottom;
+            double toExit = moveY > 0 ? bottom - y : y - top;
+            double crossing = Double.POSITIVE_INFINITY;
+            if (moveY == 0) {
+                this.inMovingRows[body] |= y >= top && y <= bottom;
+            } else if (toEntry > BORDER_DISTANCE) {
+                crossing = toEntry / Math.abs(moveY);
+            } else if (toExit > BORDER_DISTANCE) {
+                this.inMovingRows[body] = true;
+                crossing = toExit / Math.abs(moveY);
+            }
+            if (crossing < t) {
+                t = crossing;
+                info = null;
+            }
+        }
+
+        this.eventTimes[body] = now + t * this.horizon;
+        // the search fills its information again on the next query, so the prediction is copied
+        this.predicted[body] = info != null;
+        if (info != null && this.predictions[body] == null) {
+            this.predictions[body] = new CollisionInfo(info);
+        } else if (info != null) {
+            this.predictions[body].copy(info);
+        }
+        if (this.heapIndexes[body] < 0) {
+            this.heap[this.heapSize] = body;
+            this.heapIndexes[body] = this.heapSize;
+            this.heapSize++;
+        }
+        this.siftUp(this.heapIndexes[body]);
+        this.siftDown(this.heapIndexes[body]);
+    }
+
+    /**
+     * Function name: cancel.
+     * Removes the event of a body
+     *
+     * @param body - the index of the body
+     */
+    public void cancel(int body) {
+        this.removeEvent(body);
+        this.predicted[body] = false;
+    }
+
+    /**
+     * Function name: hasEventUntil.
+     * Checks whether there is an event due until (and including) the given time
+     *
+     * @param time - the time to check
+     * @return true if there is an event due, false otherwise
+     */
+    public boolean hasEventUntil(double time) {
+        return this.heapSize > 0 && this.eventTimes[this.heap[0]] <= time;
+    }
+
+    /**
+     * Function name: nextBody.
+     * Takes the earliest event out of the queue. Should only be called after hasEventUntil returned true.
+     * The time and collision of the event can be read with getEventTime and getPrediction until the body is scheduled
+     * again.
+     *
+     * @return the index of the body whose event it is
+     */
+    public int nextBody() {
+        int body = this.heap[0];
+        this.removeEvent(body);
+        return body;
+    }
+
+    /**
+     * Function name: getEventTime.
+     * Returns the time of the last event that was predicted for the body
+     *
+     * @param body - the index of the body
+     * @return the time of the event
+     */
+    public double getEventTime(int body) {
+        return this.eventTimes[body];
+    }
+
+    /**
+     * Function name: getPrediction.
+     * Returns the collision of the last event that was predicted for the body
+     *
+     * @param body - the index of the body
+     * @return the collision's information, or null if the event is the end of the prediction's horizon
+     */
+    public CollisionInfo getPrediction(int body) {
+        return this.predicted[body] ? this.predictions[body] : null;
+    }
+
+    /**
+     * Function name: refresh.
+     * Checks what has changed in the environment since it was last checked. If something has changed, isStale tells
+     * which bodies must be scheduled again.
+     *
+     * @return true if some bodies may have to be scheduled again, false otherwise
+     */
+    public boolean refresh() {
+        int previousCount = this.movingCount;
+        this.movingMoved = this.readMovingPositions();
+        this.allStale = this.gameArea.getAddedCount() != this.addedCount || this.movingCount != previousCount;
+        this.collidablesRemoved = this.gameArea.getVersion() != this.version;
+        this.stillInEnvironment.clear();
+
+        this.version = this.gameArea.getVersion();
+        this.addedCount = this.gameArea.getAddedCount();
+        return this.allStale || this.movingMoved || this.collidablesRemoved;
+    }
+
+    /**
+     * Function name: isStale.
+     * Checks whether the event of a body may have been changed by the changes found in the last refresh.
+     *
+     * @param body - the index of the body
+     * @return true if the body must be scheduled again, false otherwise
+     */
+    public boolean isStale(int body) {
+        if (this.heapIndexes[body] < 0) {
+            return false;
+        }
+        if (this.allStale || (this.movingMoved && this.inMovingRows[body])) {
+            return true;
+        }
+        if (this.collidablesRemoved && this.predicted[body]) {
+            Collidable target = this.predictions[body].collisionObject();
+            Boolean found = this.stillInEnvironment.get(target);
+            if (found == null) {
+                found = this.gameArea.contains(target);
+                this.stillInEnvironment.put(target, found);
+            }
+            return !found;
+        }
+        return false;
+    }
+
+    /**
+     * Function name: moveBody.
+     * Moves the event of a body to another index (when the bodies are rearranged). The queue has to be rebuilt
+     * afterwards.
+     *
+     * @param from - the current index of the body
+     * @param to   - the new index of the body
+     */
+    public void moveBody(int from, int to) {
+        this.eventTimes[to] = this.eventTimes[from];
+        // the collision information objects are swapped, so each body still has one of its own
+        CollisionInfo prediction = this.predictions[to];
+        this.predictions[to] = this.predictions[from];
+        this.predictions[from] = prediction;
+        this.predicted[to] = this.predicted[from];
+        this.heapIndexes[to] = this.heapIndexes[from];
+        this.inMovingRows[to] = this.inMovingRows[from];
+    }
+
+    /**
+     * Function name: rebuild.
+     * Rebuilds the queue from the events of the given amount of bodies, after the bodies were rearranged
+     *
+     * @param size - the amount of bodies
+     */
+    public void rebuild(int size) {
+        this.heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (this.heapIndexes[i] >= 0) {
+                this.heap[this.heapSize] = i;
+                this.heapIndexes[i] = this.heapSize;
+                this.heapSize++;
+            }
+        }
+        for (int i = size; i < this.heapIndexes.length; i++) {
+            this.heapIndexes[i] = -1;
+            this.predicted[i] = false;
+        }
+        for (int i = this.heapSize / 2 - 1; i >= 0; i--) {
+            this.siftDown(i);
+        }
+    }
+
+    /**
+     * Function name: readMovingPositions.
+     * Reads the positions of the moving collidables (the upper left corner of each of them) into the kept positions,
+     * to find out later if they have moved
+     *
+     * @return true if a moving collidable is in a different position than when they were last read
+     */
+    private boolean readMovingPositions() {
+        List<Collidable> moving = this.gameArea.getMovingCollidables();
+        this.movingCount = moving.size();
+        if (this.movingPositions.length < this.movingCount * 2) {
+            this.movingPositions = new double[this.movingCount * 2];
+        }
+        boolean moved = false;
+        for (int i = 0; i < this.movingCount; i++) {
+            Rectangle rect = moving.get(i).getCollisionRectangle();
+            moved |= this.movingPositions[2 * i] != rect.getLeft() || this.movingPositions[2 * i + 1] != rect.getTop();
+            this.movingPositions[2 * i] = rect.getLeft();
+            this.movingPositions[2 * i + 1] = rect.getTop();
+        }
+        return moved;
+    }
+
+    /**
+     * Function name: removeEvent.
+     * Takes the event of a body out of the queue, if it has one
+     *
+     * @param body - the index of the body
+     */
+    private void removeEvent(int body) {
+        int index = this.heapIndexes[body];
+        if (index < 0) {
+            return;
+        }
+        this.heapIndexes[body] = -1;
+        this.heapSize--;
+        if (index == this.heapSize) {
+            return;
+        }
+        // the last event of the heap takes the place of the removed one
+        int last = this.heap[this.heapSize];
+        this.heap[index] = last;
+        this.heapIndexes[last] = index;
+        this.siftUp(index);
+        this.siftDown(this.heapIndexes[last]);
+    }
+
+    /**
+     * Function name: siftUp.
+     * Moves the event in the given place of the heap up, until the event above it is earlier
+     *
+     * @param index - the place of the event in the heap
+     */
+    private void siftUp(int index) {
+        int body = this.heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!this.isEarlier(body, this.heap[parent])) {
+                break;
+            }
+            this.heap[index] = this.heap[parent];
+            this.heapIndexes[this.heap[index]] = index;
+            index = parent;
+        }
+        this.heap[index] = body;
+        this.heapIndexes[body] = index;
+    }
+
+    /**
+     * Function name: siftDown.
+     * Moves the event in the given place of the heap down, until the events below it are later
+     *
+     * @param index - the place of the event in the heap
+     */
+    private void siftDown(int index) {
+        int body = this.heap[index];
+        while (2 * index + 1 < this.heapSize) {
+            int child = 2 * index + 1;
+            if (child + 1 < this.heapSize && this.isEarlier(this.heap[child + 1], this.heap[child])) {
+                child++;
+            }
+            if (!this.isEarlier(this.heap[child], body)) {
+                break;
+            }
+            this.heap[index] = this.heap[child];
+            this.heapIndexes[this.heap[index]] = index;
+            index = child;
+        }
+        this.heap[index] = body;
+        this.heapIndexes[body] = index;
+    }
+
+    /**
+     * Function name: isEarlier.
+     * Orders the events by time, and events at the same time by the index of the body.
+     *
+     * @param body  - the index of a body
+     * @param other - the index of another body
+     * @return true if the event of the body comes before the event of the other body
+     */
+    private boolean isEarlier(int body, int other) {
+        int byTime = Double.compare(this.eventTimes[body], this.eventTimes[other]);
+        return byTime != 0 ? byTime < 0 : body < other;
+    }
+}
@@ -0,0 +1,22 @@
+package collidablesdata;
+
+import biuoop.DrawSurface;
+
+/**
+ * A sprite that moves, and can be drawn between where it was before the last time that passed and where it is now.
+ * When the game is advanced in fixed steps and drawn more often (or at other times) than the steps, drawing the
+ * moving sprites in between the steps keeps their movement smooth.
+ *
+ * @author Ariel Fenster
+ */
+public interface InterpolatedSprite extends Sprite {
+    /**
+     * Function name: drawOn (#2).
+     * The function draws the sprite object at a point between where it was before the last time that passed
+     * (alpha 0) and where it is now (alpha 1)
+     *
+     * @param d     - the draw surface on which we draw the object
+     * @param alpha - how far between the previous and the current position to draw the object (0 to 1)
+     */
+    void drawOn(DrawSurface d, double alpha);
+}
@@ -3,7 +3,6 @@ package collidablesdata;
 import biuoop.DrawSurface;
 
 import java.util.ArrayList;
-import java.util.List;
 
 /**
  * The program keeps a list of information of all the sprite objects in the game - objects that can be drawn
@@ -14,6 +13,9 @@ import java.util.List;
 public class SpriteCollection {
     // member - holds a list of all sprite objects in the game
     private ArrayList<Sprite> sprites;
+    // a copy of the list that is iterated over, so sprites can be added and removed while iterating. It is made
+    // again only after the list has changed
+    private Sprite[] snapshot;
 
     /**
      * Function name: SpriteCollection.
@@ -21,6 +23,7 @@ public class SpriteCollection {
      */
     public SpriteCollection() {
         this.sprites = new ArrayList<>();
+        this.snapshot = null;
     }
 
     /**
@@ -31,6 +34,7 @@ public class SpriteCollection {
      */
     public void addSprite(Sprite s) {
         this.sprites.add(s);
+        this.snapshot = null;
     }
 
     /**
@@ -40,7 +44,9 @@ public class SpriteCollection {
      * @param s - the object we remove from the game
      */
     public void removeSprite(Sprite s) {
-        this.sprites.remove(s);
+        if (this.sprites.remove(s)) {
+            this.snapshot = null;
+        }
     }
 
     /**
@@ -50,9 +56,8 @@ public class SpriteCollection {
      * @param dt - the time that passed since the last frame was shown
      */
     public void notifyAllTimePassed(double dt) {
-        // creating a copy of the sprites list and iterating over them
-        List<Sprite> newSpritesList = new ArrayList<>(this.sprites);
-        for (Sprite s : newSpritesList) {
+        // iterating over a copy of the sprites list
+        for (Sprite s : this.getSnapshot()) {
             s.timePassed(dt);
         }
     }
@@ -64,10 +69,41 @@ public class SpriteCollection {
      * @param d - the draw surface on which we draw the objects
      */
     public void drawAllOn(DrawSurface d) {
-        // creating a copy of the sprites list and iterating over them
-        List<Sprite> newSpritesList = new ArrayList<>(this.sprites);
-        for (Sprite s : newSpritesList) {
+        // iterating over a copy of the sprites list
+        for (Sprite s : this.getSnapshot()) {
             s.drawOn(d);
         }
     }
+
+    /**
+     * Function name: drawAllOn (#2).
+     * The function draws all the sprite objects, the moving ones between where they were before the last time that
+     * passed and where they are now.
+     *
+     * @param d     - the draw surface on which we draw the objects
+     * @param alpha - how far between the previous and the current positions to draw the moving objects (0 to 1)
+     */
+    public void drawAllOn(DrawSurface d, double alpha) {
+        // iterating over a copy of the sprites list
+        for (Sprite s : this.getSnapshot()) {
+            if (s instanceof InterpolatedSprite) {
+                ((InterpolatedSprite) s).drawOn(d, alpha);
+            } else {
+                s.drawOn(d);
+            }
+        }
+    }
+
+    /**
+     * Function name: getSnapshot.
+     * Returns a copy of the sprites list, making it again only if the list has changed since it was last made
+     *
+     * @return a copy of the sprites list
+     */
+    private Sprite[] getSnapshot() {
+        if (this.snapshot == null) {
+            this.snapshot = this.sprites.toArray(new Sprite[0]);
+        }
+        return this.snapshot;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+package collidablesdata;
+
+import gameobjects.Rectangle;
+
+/**
+ * The class calculates when a moving circle (a ball) first touches a rectangle during a single movement.
+ * The rectangle is expanded by the radius of the circle (a rectangle with rounded corners - the Minkowski sum of the
+ * rectangle and the circle), which turns the problem into finding where the circle's center line enters the expanded
+ * shape: the 4 faces are pushed outwards by the radius and each corner becomes a circle with the same radius.
+ * <p>
+ * The results of the last successful calculation are kept in the solver so that no objects are created per test.
+ *
+ * @author Ariel Fenster
+ */
+public class SweptCircleSolver {
+    // a circle that is closer than this to a rectangle is considered to be touching it, not overlapping it
+    private static final double EPSILON = 1e-9;
+
+    // members - the results of the last calculation that found a hit
+    private double time;
+    private double contactX;
+    private double contactY;
+    private double normalX;
+    private double normalY;
+    private double depth;
+
+    /**
+     * Function name: solve.
+     * Checks whether a circle moving by (dx, dy) hits the rectangle during the movement and, if so, stores the time
+     * of impact (0 to 1 of the movement), the contact point on the rectangle and the normal of the hit surface.
+     * If the circle already overlaps the rectangle at the start of the movement, the hit is at time 0 and the normal
+     * and depth describe the shortest way out of the rectangle.
+     *
+     * @param x      - x coordinate of the circle's center at the start of the movement
+     * @param y      - y coordinate of the circle's center at the start of the movement
+     * @param radius - the circle's radius
+     * @param dx     - the movement in the X axis
+     * @param dy     - the movement in the Y axis
+     * @param rect   - the rectangle to check
+     * @return true if the circle hits the rectangle during the movement, false otherwise
+     */
+    public boolean solve(double x, double y, double radius, double dx, double dy, Rectangle rect) {
+        double minX = rect.getLeft();
+        double minY = rect.getTop();
+        double maxX = rect.getRight();
+        double maxY = rect.getBottom();
+
+        // if the circle is already inside the expanded rectangle there is no time of impact to look for
+        if (this.solveOverlap(x, y, radius, minX, minY, maxX, maxY)) {
+            return true;
+        }
+
+        double bestTime = Double.POSITIVE_INFINITY;
+
+        // faces - each face is pushed out by the radius and is hit only when moving towards it
+        if (dy > 0) {
+            double t = this.timeToFace(minY - radius - y, dy);
+            double hitX = x + t * dx;
+            if (t >= 0 && t <= 1 && hitX >= minX && hitX <= maxX && t < bestTime) {
+                bestTime = t;
+                this.setHit(t, hitX, minY, 0, -1);
+            }
+        } else if (dy < 0) {
+            double t = this.timeToFace(y - maxY - radius, -dy);
+            double hitX = x + t * dx;
+            if (t >= 0 && t <= 1 && hitX >= minX && hitX <= maxX && t < bestTime) {
+                bestTime = t;
+                this.setHit(t, hitX, maxY, 0, 1);
+            }
+        }
+        if (dx > 0) {
+            double t = this.timeToFace(minX - radius - x, dx);
+            double hitY = y + t * dy;
+            if (t >= 0 && t <= 1 && hitY >= minY && hitY <= maxY && t < bestTime) {
+                bestTime = t;
+                this.setHit(t, minX, hitY, -1, 0);
+            }
+        } else if (dx < 0) {
+            double t = this.timeToFace(x - maxX - radius, -dx);
+            double hitY = y + t * dy;
+            if (t >= 0 && t <= 1 && hitY >= minY && hitY <= maxY && t < bestTime) {
+                bestTime = t;
+                this.setHit(t, maxX, hitY, 1, 0);
+            }
+        }
+
+        // corners - only a circle with an actual radius has rounded corners
+        if (radius > 0) {
+            bestTime = this.solveCorner(x, y, radius, dx, dy, minX, minY, bestTime);
+            bestTime = this.solveCorner(x, y, radius, dx, dy, maxX, minY, bestTime);
+            bestTime = this.solveCorner(x, y, radius, dx, dy, minX, maxY, bestTime);
+            bestTime = this.solveCorner(x, y, radius, dx, dy, maxX, maxY, bestTime);
+        }
+        if (bestTime != Double.POSITIVE_INFINITY) {
+            this.depth = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Function name: solveOverlap.
+     * Checks whether the circle already overlaps the rectangle and, if so, stores the shortest way out of it.
+     *
+     * @param x      - x coordinate of the circle's center
+     * @param y      - y coordinate of the circle's center
+     * @param radius - the circle's radius
+     * @param minX   - the left side of the rectangle
+     * @param minY   - the top side of the rectangle
+     * @param maxX   - the right side of the rectangle
+     * @param maxY   - the bottom side of the rectangle
+     * @return true if the circle overlaps the rectangle, false otherwise
+     */
+    private boolean solveOverlap(double x, double y, double radius, double minX, double minY, double maxX,
+                                 double maxY) {
+        // the closest point of the rectangle to the center of the circle
+        double closestX = Math.max(minX, Math.min(x, maxX));
+        double closestY = Math.max(minY, Math.min(y, maxY));
+        double distX = x - closestX;
+        double distY = y - closestY;
+        double distSquared = distX * distX + distY * distY;
+
+        // the center is outside the rectangle - push the circle away from the closest point
+        if (distSquared > 0) {
+            double dist = Math.sqrt(distSquared);
+            if (dist >= radius - EPSILON) {
+                return false;
+            }
+            this.setHit(0, closestX, closestY, distX / dist, distY / dist);
+            this.depth = radius - dist;
+            return true;
+        }
+
+        // the center is inside the rectangle - leave through the closest face
+        double toLeft = x - minX;
+        double toRight = maxX - x;
+        double toTop = y - minY;
+        double toBottom = maxY - y;
+        double shortest = Math.min(Math.min(toLeft, toRight), Math.min(toTop, toBottom));
+        if (shortest == toTop) {
+            this.setHit(0, x, minY, 0, -1);
+        } else if (shortest == toBottom) {
+            this.setHit(0, x, maxY, 0, 1);
+        } else if (shortest == toLeft) {
+            this.setHit(0, minX, y, -1, 0);
+        } else {
+            this.setHit(0, maxX, y, 1, 0);
+        }
+        this.depth = shortest + radius;
+        return true;
+    }
+
+    /**
+     * Function name: solveCorner.
+     * Checks when the circle's center line enters the circle around one of the rectangle's corners. A hit that is
+     * next to a face rather than the corner is found by the faces check at an earlier time, so it is ignored here.
+     *
+     * @param x        - x coordinate of the circle's center at the start of the movement
+     * @param y        - y coordinate of the circle's center at the start of the movement
+     * @param radius   - the circle's radius
+     * @param dx       - the movement in the X axis
+     * @param dy       - the movement in the Y axis
+     * @param cornerX  - x coordinate of the corner
+     * @param cornerY  - y coordinate of the corner
+     * @param bestTime - the earliest time of impact found so far
+     * @return the earliest time of impact, including the one with this corner
+     */
+    private double solveCorner(double x, double y, double radius, double dx, double dy, double cornerX,
+                               double cornerY, double bestTime) {
+        // solving |start + t * d - corner| = radius, a quadratic equation in t
+        double fromCornerX = x - cornerX;
+        double fromCornerY = y - cornerY;
+        double a = dx * dx + dy * dy;
+        double b = fromCornerX * dx + fromCornerY * dy;
+        double c = fromCornerX * fromCornerX + fromCornerY * fromCornerY - radius * radius;
+        // not moving, or moving away from the corner
+        if (a == 0 || b >= 0) {
+            return bestTime;
+        }
+        double discriminant = b * b - a * c;
+        if (discriminant < 0) {
+            return bestTime;
+        }
+        // a circle that is already touching the corner (and not overlapping it) hits it right away
+        double t = c <= 0 ? 0 : (-b - Math.sqrt(discriminant)) / a;
+        if (t < 0 || t > 1 || t >= bestTime) {
+            return bestTime;
+        }
+        double normalX = (fromCornerX + t * dx) / radius;
+        double normalY = (fromCornerY + t * dy) / radius;
+        this.setHit(t, cornerX, cornerY, normalX, normalY);
+        return t;
+    }
+
+    /**
+     * Function name: timeToFace.
+     * Calculates when the circle's center reaches a (pushed out) face, on the axis the face is across. A circle that
+     * is already touching the face - past it by less than the overlap tolerance - reaches it right away.
+     *
+     * @param distance - the distance ahead from the circle's center to the face (negative if the center is past it)
+     * @param delta    - the movement on the axis towards the face (positive)
+     * @return the time (part of the movement) the face is reached, negative if the face is behind the circle
+     */
+    private double timeToFace(double distance, double delta) {
+        if (distance <= 0 && distance > -EPSILON) {
+            return 0;
+        }
+        return distance / delta;
+    }
+
+    /**
+     * Function name: setHit.
+     * Stores the details of a found hit.
+     *
+     * @param t       - the time of impact
+     * @param x       - x coordinate of the contact point
+     * @param y       - y coordinate of the contact point
+     * @param normalX - the normal of the hit surface in the X axis
+     * @param normalY - the normal of the hit surface in the Y axis
+     */
+    private void setHit(double t, double x, double y, double normalX, double normalY) {
+        this.time = t;
+        this.contactX = x;
+        this.contactY = y;
+        this.normalX = normalX;
+        this.normalY = normalY;
+    }
+
+    /**
+     * Function name: getTime.
+     * Return the time of impact of the last hit - the part of the movement (0 to 1) done before the hit
+     *
+     * @return time of impact
+     */
+    public double getTime() {
+        return this.time;
+    }
+
+    /**
+     * Function name: getContactX.
+     * Return the x coordinate of the contact point (on the rectangle) of the last hit
+     *
+     * @return x coordinate of the contact point
+     */
+    public double getContactX() {
+        return this.contactX;
+    }
+
+    /**
+     * Function name: getContactY.
+     * Return the y coordinate of the contact point (on the rectangle) of the last hit
+     *
+     * @return y coordinate of the contact point
+     */
+    public double getContactY() {
+        return this.contactY;
+    }
+
+    /**
+     * Function name: getNormalX.
+     * Return the X axis part of the unit normal of the surface hit last
+     *
+     * @return normal in the X axis
+     */
+    public double getNormalX() {
+        return this.normalX;
+    }
+
+    /**
+     * Function name: getNormalY.
+     * Return the Y axis part of the unit normal of the surface hit last
+     *
+     * @return normal in the Y axis
+     */
+    public double getNormalY() {
+        return this.normalY;
+    }
+
+    /**
+     * Function name: getDepth.
+     * Return how deep the circle was inside the rectangle at the start of the movement (0 if it wasn't)
+     *
+     * @return overlap depth
+     */
+    public double getDepth() {
+        return this.depth;
+    }
+}
@@ -6,7 +6,9 @@ import gameobjects.Point;
  * The Velocity class is a pair of numbers representing the speed in the X and Y axes, respectively.
  * It can be set using two different ways:
  * by using a direct pair of numbers and by using an angle and a speed in a diagonal line.
- * Finally, the program moves a point and changes its position based on its velocity
+ * Finally, the program moves a point and changes its position based on its velocity.
+ * A velocity can be changed in place by the object that owns it (like a ball), so that a hit doesn't create a new
+ * one. Velocities that are shared, like the ones in the level settings, are never changed.
  *
  * @author Ariel Fenster
  */
@@ -34,10 +36,34 @@ public class Velocity {
      * @return velocity based on the angle and speed using trigonometric functions
      */
     public static Velocity fromAngleAndSpeed(double angle, double speed) {
+        Velocity velocity = new Velocity(0, 0);
+        velocity.setAngleAndSpeed(angle, speed);
+        return velocity;
+    }
+
+    /**
+     * Function name: set.
+     * Changes the velocity in place to the given speeds in the X and Y axes
+     *
+     * @param newDx - the new speed in the X axis
+     * @param newDy - the new speed in the Y axis
+     */
+    public void set(double newDx, double newDy) {
+        this.dx = newDx;
+        this.dy = newDy;
+    }
+
+    /**
+     * Function name: setAngleAndSpeed.
+     * Changes the velocity in place to the given angle and speed
+     *
+     * @param angle - the angle (in degrees) in which the ball is heading in
+     * @param speed - the speed in that angle
+     */
+    public void setAngleAndSpeed(double angle, double speed) {
         // 0 degrees is set to be straight up, so we calculate the speeds in each axis based on that
-        double dx = speed * Math.sin(Math.toRadians(180 - angle));
-        double dy = speed * Math.cos(Math.toRadians(180 - angle));
-        return (new Velocity(dx, dy));
+        this.dx = speed * Math.sin(Math.toRadians(180 - angle));
+        this.dy = speed * Math.cos(Math.toRadians(180 - angle));
     }
 
     /**
@@ -0,0 +1,81 @@
+package display;
+
+import biuoop.DialogManager;
+import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
+
+/**
+ * The place the game is shown on and gets its input from. Each frame is drawn on a new draw surface taken from the
+ * display and then shown.
+ * The game only talks to the display through this interface, so it can run in a window or without one (for example
+ * to test or measure the game without a screen).
+ *
+ * @author Ariel Fenster
+ */
+public interface Display {
+
+    /**
+     * Function name: getDrawSurface.
+     * Returns a draw surface to draw the next frame on
+     *
+     * @return a draw surface for the next frame
+     */
+    DrawSurface getDrawSurface();
+
+    /**
+     * Function name: show.
+     * Shows a frame that was drawn on a draw surface taken from the display
+     *
+     * @param d - the draw surface the frame was drawn on
+     */
+    void show(DrawSurface d);
+
+    /**
+     * Function name: getKeyboardSensor.
+     * Returns the keyboard the player controls the game with
+     *
+     * @return the keyboard of the display
+     */
+    KeyboardSensor getKeyboardSensor();
+
+    /**
+     * Function name: getDialogManager.
+     * Returns the object used to ask the player questions
+     *
+     * @return the dialog manager of the display
+     */
+    DialogManager getDialogManager();
+
+    /**
+     * Function name: getWidth.
+     * Returns the width of the display
+     *
+     * @return the width of the display
+     */
+    int getWidth();
+
+    /**
+     * Function name: getHeight.
+     * Returns the height of the display
+     *
+     * @return the height of the display
+     */
+    int getHeight();
+
+    /**
+     * Function name: isRealTime.
+     * Returns whether the display is watched by a player, so the animations should run at the speed of real time.
+     * Otherwise the animations run as fast as they can.
+     *
+     * @return true if the animations should run in real time, false otherwise
+     */
+    boolean isRealTime();
+
+    /**
+     * Function name: getRefreshRate.
+     * Returns how many frames per second the display can show - drawing frames faster than that is wasted
+     *
+     * @return the refresh rate of the display, or 0 if it has no limit
+     */
+    int getRefreshRate();
+}
@@ -0,0 +1,22 @@
+package display;
+
+/**
+ * Thrown by a headless display when the amount of frames it was allowed to show has been reached. A scripted game
+ * doesn't always end by itself (a ball can bounce on the same path forever), so the limit makes sure it stops.
+ *
+ * @author Ariel Fenster
+ */
+public class FrameLimitReachedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Function name: FrameLimitReachedException.
+     * Constructor
+     *
+     * @param frames - the amount of frames that were shown
+     */
+    public FrameLimitReachedException(long frames) {
+        super("Reached the limit of " + frames + " frames");
+    }
+}
@@ -0,0 +1,180 @@
+package display;
+
+import biuoop.DialogManager;
+import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
+
+/**
+ * A display without a screen. Every frame is drawn on the same given draw surface - an image (ImageDrawSurface), to
+ * look at the frames, or nothing (NullDrawSurface), when only the game's logic matters. The input comes from a
+ * given keyboard (usually a ScriptedKeyboard or a ReplayKeyboard), and dialogs are answered with their default
+ * answers.
+ * Animations on a headless display run as fast as they can, not in real time.
+ * The amount of frames can be limited - once it is reached, showing another frame throws a
+ * FrameLimitReachedException, which ends the game wherever it is.
+ *
+ * @author Ariel Fenster
+ */
+public class HeadlessDisplay implements Display {
+    // members
+    private DrawSurface surface;
+    private KeyboardSensor keyboard;
+    private DialogManager dialogs;
+    private long shownFrames;
+    private long frameLimit;
+
+    /**
+     * Function name: HeadlessDisplay.
+     * Constructor
+     *
+     * @param surface  - the draw surface all the frames are drawn on
+     * @param keyboard - the keyboard that says which keys are pressed during the game
+     */
+    public HeadlessDisplay(DrawSurface surface, KeyboardSensor keyboard) {
+        this.surface = surface;
+        this.keyboard = keyboard;
+        this.shownFrames = 0;
+        this.frameLimit = 0;
+        // there is no one to answer - every question gets its default answer
+        this.dialogs = new DialogManager() {
+            @Override
+            public String showQuestionDialog(String title, String question, String defaultAnswer) {
+                return defaultAnswer;
+            }
+
+            @Override
+            public void showInformationDialog(String title, String message) {
+            }
+
+            @Override
+            public void showWarningDialog(String title, String message) {
+            }
+
+            @Override
+            public void showErrorDialog(String title, String message) {
+            }
+
+            @Override
+            public boolean showConfirmationDialog(String title, String message) {
+                return false;
+            }
+
+            @Override
+            public boolean showYesNoDialog(String title, String message) {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Function name: setFrameLimit.
+     * Limits the amount of frames the display shows.
+     *
+     * @param limit - the maximal amount of frames, 0 for no limit
+     */
+    public void setFrameLimit(long limit) {
+        this.frameLimit = limit;
+    }
+
+    /**
+     * Function name: getDrawSurface.
+     * Returns the draw surface all the frames are drawn on
+     *
+     * @return the draw surface of the display
+     */
+    @Override
+    public DrawSurface getDrawSurface() {
+        return this.surface;
+    }
+
+    /**
+     * Function name: show.
+     * Counts the shown frame
+     *
+     * @param d - the draw surface the frame was drawn on
+     * @throws FrameLimitReachedException if the display already showed as many frames as it is allowed to
+     */
+    @Override
+    public void show(DrawSurface d) {
+        if (this.frameLimit > 0 && this.shownFrames >= this.frameLimit) {
+            throw new FrameLimitReachedException(this.shownFrames);
+        }
+        this.shownFrames++;
+    }
+
+    /**
+     * Function name: getKeyboardSensor.
+     * Returns the keyboard of the display
+     *
+     * @return the keyboard of the display
+     */
+    @Override
+    public KeyboardSensor getKeyboardSensor() {
+        return this.keyboard;
+    }
+
+    /**
+     * Function name: getDialogManager.
+     * Returns an object that answers every dialog with its default answer
+     *
+     * @return the dialog manager of the display
+     */
+    @Override
+    public DialogManager getDialogManager() {
+        return this.dialogs;
+    }
+
+    /**
+     * Function name: getWidth.
+     * Returns the width of the display's draw surface
+     *
+     * @return the width of the display
+     */
+    @Override
+    public int getWidth() {
+        return this.surface.getWidth();
+    }
+
+    /**
+     * Function name: getHeight.
+     * Returns the height of the display's draw surface
+     *
+     * @return the height of the display
+     */
+    @Override
+    public int getHeight() {
+        return this.surface.getHeight();
+    }
+
+    /**
+     * Function name: isRealTime.
+     * Nobody watches a headless display, so the animations run as fast as they can
+     *
+     * @return false
+     */
+    @Override
+    public boolean isRealTime() {
+        return false;
+    }
+
+    /**
+     * Function name: getRefreshRate.
+     * A headless display shows every frame as soon as it's drawn
+     *
+     * @return 0, the display has no limit
+     */
+    @Override
+    public int getRefreshRate() {
+        return 0;
+    }
+
+    /**
+     * Function name: getShownFrames.
+     * Returns the amount of frames shown on the display so far
+     *
+     * @return amount of shown frames
+     */
+    public long getShownFrames() {
+        return this.shownFrames;
+    }
+}
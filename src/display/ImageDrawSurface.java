@@ -0,0 +1,255 @@
+package display;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.image.BufferedImage;
+
+/**
+ * A draw surface that draws straight into an image, instead of onto the game's window.
+ * Everything drawn on it stays in the image, so the image can be drawn on another draw surface as a whole, and parts
+ * of it can be drawn again later. The drawing can be limited to a part of the image using setClip.
+ * The shapes are drawn the same way the game's window draws them.
+ *
+ * @author Ariel Fenster
+ */
+public class ImageDrawSurface implements DrawSurface {
+    // members
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    /**
+     * Function name: ImageDrawSurface.
+     * Constructor - creates a new image of the given size to draw on.
+     *
+     * @param width  - the width of the image
+     * @param height - the height of the image
+     */
+    public ImageDrawSurface(int width, int height) {
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.graphics = this.image.createGraphics();
+    }
+
+    /**
+     * Function name: getImage.
+     * Returns the image that is drawn on
+     *
+     * @return the image of the surface
+     */
+    public Image getImage() {
+        return this.image;
+    }
+
+    /**
+     * Function name: setClip.
+     * Limits the drawing to the given rectangle - nothing outside it is changed until the clip is set again.
+     *
+     * @param x      - x coordinate of the upper left corner of the rectangle
+     * @param y      - y coordinate of the upper left corner of the rectangle
+     * @param width  - the width of the rectangle
+     * @param height - the height of the rectangle
+     */
+    public void setClip(int x, int y, int width, int height) {
+        this.graphics.setClip(x, y, width, height);
+    }
+
+    /**
+     * Function name: clearClip.
+     * Allows drawing on the whole image again.
+     */
+    public void clearClip() {
+        this.graphics.setClip(null);
+    }
+
+    /**
+     * Function name: dispose.
+     * Releases the resources used for drawing. The surface can't be drawn on afterwards.
+     */
+    public void dispose() {
+        this.graphics.dispose();
+    }
+
+    /**
+     * Function name: getWidth.
+     * Returns the width of the image
+     *
+     * @return the width of the image
+     */
+    @Override
+    public int getWidth() {
+        return this.image.getWidth();
+    }
+
+    /**
+     * Function name: getHeight.
+     * Returns the height of the image
+     *
+     * @return the height of the image
+     */
+    @Override
+    public int getHeight() {
+        return this.image.getHeight();
+    }
+
+    /**
+     * Function name: setColor.
+     * Sets the color of everything drawn from now on
+     *
+     * @param color - the new drawing color
+     */
+    @Override
+    public void setColor(Color color) {
+        this.graphics.setColor(color);
+    }
+
+    /**
+     * Function name: drawLine.
+     * Draws a line between two points
+     *
+     * @param x1 - x coordinate of the first point
+     * @param y1 - y coordinate of the first point
+     * @param x2 - x coordinate of the second point
+     * @param y2 - y coordinate of the second point
+     */
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.graphics.drawLine(x1, y1, x2, y2);
+    }
+
+    /**
+     * Function name: drawOval.
+     * Draws the outline of an oval that fits in the given rectangle
+     *
+     * @param x      - x coordinate of the upper left corner of the rectangle
+     * @param y      - y coordinate of the upper left corner of the rectangle
+     * @param width  - the width of the oval
+     * @param height - the height of the oval
+     */
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        this.graphics.drawOval(x, y, width, height);
+    }
+
+    /**
+     * Function name: fillOval.
+     * Fills an oval that fits in the given rectangle
+     *
+     * @param x      - x coordinate of the upper left corner of the rectangle
+     * @param y      - y coordinate of the upper left corner of the rectangle
+     * @param width  - the width of the oval
+     * @param height - the height of the oval
+     */
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        this.graphics.fillOval(x, y, width, height);
+    }
+
+    /**
+     * Function name: drawRectangle.
+     * Draws the outline of a rectangle
+     *
+     * @param x      - x coordinate of the upper left corner
+     * @param y      - y coordinate of the upper left corner
+     * @param width  - the width of the rectangle
+     * @param height - the height of the rectangle
+     */
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        this.graphics.drawRect(x, y, width, height);
+    }
+
+    /**
+     * Function name: fillRectangle.
+     * Fills a rectangle
+     *
+     * @param x      - x coordinate of the upper left corner
+     * @param y      - y coordinate of the upper left corner
+     * @param width  - the width of the rectangle
+     * @param height - the height of the rectangle
+     */
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        this.graphics.fillRect(x, y, width, height);
+    }
+
+    /**
+     * Function name: drawImage.
+     * Draws an image with its upper left corner at the given point
+     *
+     * @param x   - x coordinate of the upper left corner
+     * @param y   - y coordinate of the upper left corner
+     * @param img - the image to draw
+     */
+    @Override
+    public void drawImage(int x, int y, Image img) {
+        this.graphics.drawImage(img, x, y, null);
+    }
+
+    /**
+     * Function name: drawCircle.
+     * Draws the outline of a circle
+     *
+     * @param x - x coordinate of the center
+     * @param y - y coordinate of the center
+     * @param r - the radius of the circle
+     */
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.graphics.drawOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    /**
+     * Function name: fillCircle.
+     * Fills a circle
+     *
+     * @param x - x coordinate of the center
+     * @param y - y coordinate of the center
+     * @param r - the radius of the circle
+     */
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.graphics.fillOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    /**
+     * Function name: drawText.
+     * Draws a text starting at the given point, in the given font size
+     *
+     * @param x        - x coordinate of the start of the text
+     * @param y        - y coordinate of the base line of the text
+     * @param text     - the text to draw
+     * @param fontSize - the size of the font
+     */
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        Font font = this.graphics.getFont();
+        this.graphics.setFont(new Font(font.getFontName(), font.getStyle(), fontSize));
+        this.graphics.drawString(text, x, y);
+    }
+
+    /**
+     * Function name: drawPolygon.
+     * Draws the outline of a polygon
+     *
+     * @param p - the polygon to draw
+     */
+    @Override
+    public void drawPolygon(Polygon p) {
+        this.graphics.drawPolygon(p);
+    }
+
+    /**
+     * Function name: fillPolygon.
+     * Fills a polygon
+     *
+     * @param p - the polygon to fill
+     */
+    @Override
+    public void fillPolygon(Polygon p) {
+        this.graphics.fillPolygon(p);
+    }
+}
@@ -0,0 +1,297 @@
+package display;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The input of a whole session of the game, kept so the session can be played again exactly the same way.
+ * For every tick of the game the log keeps which of the watched keys were held, as a bit mask (bit i is the i-th
+ * key). Keys usually stay the same for many ticks, so the masks are kept as runs - a mask and the amount of ticks in a
+ * row that had it. Along with the input, the log keeps the level sets file and the stress level settings the session
+ * was played with, and the seed of its random numbers.
+ * <p>
+ * The file starts with a header (a magic number, the format version, the level sets file, the stress level settings,
+ * the seed and the watched keys), followed by the amount of runs and the runs themselves. Logs of the first version,
+ * which had no stress level settings, are read with empty settings. Numbers in the runs are written in as few bytes as
+ * they need (7 bits in each byte, the top bit says whether another byte follows).
+ * A log can be saved while ticks are still being added to it from another thread (for example when the game is
+ * closed in the middle of a session).
+ *
+ * @author Ariel Fenster
+ */
+public class InputLog {
+    // "ARKI" - marks the file as an input log of the game
+    private static final int MAGIC = 0x41524B49;
+    private static final int VERSION = 2;
+    // the first version had no stress level settings
+    private static final int FIRST_VERSION = 1;
+    // at most 31 keys fit in the bits of a mask
+    private static final int MAX_KEYS = 31;
+
+    // members
+    private String levelSets;
+    private String stressSettings;
+    private long seed;
+    private List<String> keys;
+
+    // the runs of masks - runMasks[i] was held for runLengths[i] ticks in a row
+    private int[] runMasks;
+    private int[] runLengths;
+    private int runCount;
+    private long ticks;
+
+    /**
+     * Function name: InputLog.
+     * Constructor - creates an empty log.
+     *
+     * @param levelSets      - the level sets file the session is played with
+     * @param stressSettings - the settings of the stress level of the session
+     * @param seed           - the seed of the session's random numbers
+     * @param keys           - the keys whose state is kept in the log
+     */
+    public InputLog(String levelSets, String stressSettings, long seed, List<String> keys) {
+        if (keys.size() > MAX_KEYS) {
+            throw new IllegalArgumentException("An input log can watch at most " + MAX_KEYS + " keys");
+        }
+        this.levelSets = levelSets;
+        this.stressSettings = stressSettings;
+        this.seed = seed;
+        this.keys = new ArrayList<>(keys);
+        this.runMasks = new int[16];
+        this.runLengths = new int[16];
+        this.runCount = 0;
+        this.ticks = 0;
+    }
+
+    /**
+     * Function name: addTick.
+     * Adds the keys held in the next tick to the end of the log.
+     *
+     * @param mask - the keys held in the tick, as a bit mask
+     */
+    public synchronized void addTick(int mask) {
+        if (this.runCount > 0 && this.runMasks[this.runCount - 1] == mask
+                && this.runLengths[this.runCount - 1] < Integer.MAX_VALUE) {
+            this.runLengths[this.runCount - 1]++;
+            this.ticks++;
+        } else {
+            this.addRun(mask, 1);
+        }
+    }
+
+    /**
+     * Function name: addRun.
+     * Adds a run of ticks with the same keys to the end of the log.
+     *
+     * @param mask   - the keys held in the run, as a bit mask
+     * @param length - the amount of ticks in the run
+     */
+    private void addRun(int mask, int length) {
+        if (this.runCount == this.runMasks.length) {
+            this.runMasks = Arrays.copyOf(this.runMasks, this.runCount * 2);
+            this.runLengths = Arrays.copyOf(this.runLengths, this.runCount * 2);
+        }
+        this.runMasks[this.runCount] = mask;
+        this.runLengths[this.runCount] = length;
+        this.runCount++;
+        this.ticks += length;
+    }
+
+    /**
+     * Function name: getRunCount.
+     * Returns the amount of runs of the same keys in the log
+     *
+     * @return amount of runs
+     */
+    public int getRunCount() {
+        return this.runCount;
+    }
+
+    /**
+     * Function name: getRunMask.
+     * Returns the keys held during a run, as a bit mask
+     *
+     * @param run - the index of the run
+     * @return the keys held during the run
+     */
+    public int getRunMask(int run) {
+        return this.runMasks[run];
+    }
+
+    /**
+     * Function name: getRunLength.
+     * Returns the amount of ticks in a run
+     *
+     * @param run - the index of the run
+     * @return the length of the run
+     */
+    public int getRunLength(int run) {
+        return this.runLengths[run];
+    }
+
+    /**
+     * Function name: getTicks.
+     * Returns the amount of ticks in the log
+     *
+     * @return amount of ticks
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Function name: getKeys.
+     * Returns the keys whose state is kept in the log - the i-th key is bit i of the masks
+     *
+     * @return the watched keys
+     */
+    public List<String> getKeys() {
+        return this.keys;
+    }
+
+    /**
+     * Function name: getLevelSets.
+     * Returns the level sets file the session was played with
+     *
+     * @return the level sets file
+     */
+    public String getLevelSets() {
+        return this.levelSets;
+    }
+
+    /**
+     * Function name: getStressSettings.
+     * Returns the settings of the stress level the session was played with
+     *
+     * @return the stress level settings, empty for the default stress level
+     */
+    public String getStressSettings() {
+        return this.stressSettings;
+    }
+
+    /**
+     * Function name: getSeed.
+     * Returns the seed of the session's random numbers
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Function name: save.
+     * Writes the log to the given file
+     *
+     * @param file - the file to write to
+     * @throws IOException if the file can't be written
+     */
+    public synchronized void save(File file) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(this.levelSets);
+            out.writeUTF(this.stressSettings);
+            out.writeLong(this.seed);
+            out.writeByte(this.keys.size());
+            for (String key : this.keys) {
+                out.writeUTF(key);
+            }
+            writeVarInt(out, this.runCount);
+            for (int i = 0; i < this.runCount; i++) {
+                writeVarInt(out, this.runMasks[i]);
+                writeVarInt(out, this.runLengths[i]);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Function name: load.
+     * Reads a log from the given file
+     *
+     * @param file - the file to read from
+     * @return the log in the file
+     * @throws IOException if the file can't be read or isn't an input log
+     */
+    public static InputLog load(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not an input log");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION && version != FIRST_VERSION) {
+                throw new IOException("Unsupported input log version " + version + " in " + file);
+            }
+            String levelSets = in.readUTF();
+            String stressSettings = version == FIRST_VERSION ? "" : in.readUTF();
+            long seed = in.readLong();
+            int keyCount = in.readUnsignedByte();
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < keyCount; i++) {
+                keys.add(in.readUTF());
+            }
+            InputLog log = new InputLog(levelSets, stressSettings, seed, keys);
+            int runs = readVarInt(in);
+            for (int i = 0; i < runs; i++) {
+                int mask = readVarInt(in);
+                int length = readVarInt(in);
+                if (length <= 0) {
+                    throw new IOException("Malformed run in input log " + file);
+                }
+                log.addRun(mask, length);
+            }
+            return log;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Function name: writeVarInt.
+     * Writes a non-negative number in as few bytes as it needs - 7 bits in each byte, starting from the lowest bits.
+     *
+     * @param out   - the stream to write to
+     * @param value - the number to write
+     * @throws IOException if the stream can't be written
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Function name: readVarInt.
+     * Reads a number written by writeVarInt.
+     *
+     * @param in - the stream to read from
+     * @return the number that was read
+     * @throws IOException if the stream can't be read or the number is too long
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in input log");
+    }
+}
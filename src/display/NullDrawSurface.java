@@ -0,0 +1,103 @@
+package display;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+
+/**
+ * A draw surface of a given size that ignores everything drawn on it. Used to run the game without a screen when
+ * what the game looks like doesn't matter, so no time is spent on drawing.
+ *
+ * @author Ariel Fenster
+ */
+public class NullDrawSurface implements DrawSurface {
+    // members
+    private int width;
+    private int height;
+
+    /**
+     * Function name: NullDrawSurface.
+     * Constructor
+     *
+     * @param width  - the width of the surface
+     * @param height - the height of the surface
+     */
+    public NullDrawSurface(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Function name: getWidth.
+     * Returns the width of the surface
+     *
+     * @return the width of the surface
+     */
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Function name: getHeight.
+     * Returns the height of the surface
+     *
+     * @return the height of the surface
+     */
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    // the drawing functions do nothing:
+
+    @Override
+    public void setColor(Color color) {
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image img) {
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+    }
+}
@@ -0,0 +1,74 @@
+package display;
+
+import biuoop.KeyboardSensor;
+
+import java.util.List;
+
+/**
+ * A keyboard that passes on the keys of another (real) keyboard and records them in an input log, so the session
+ * can be replayed later with a ReplayKeyboard.
+ * Only the keys watched by the log are passed on - all other keys are never pressed, as they wouldn't be in the
+ * replay. The keys are read from the real keyboard once at the start of every tick, and stay the same during it.
+ *
+ * @author Ariel Fenster
+ */
+public class RecordingKeyboard implements TickKeyboard {
+    // members
+    private KeyboardSensor keyboard;
+    private InputLog log;
+    private List<String> keys;
+    private int mask;
+
+    /**
+     * Function name: RecordingKeyboard.
+     * Constructor
+     *
+     * @param keyboard - the keyboard the keys are read from
+     * @param log      - the log the keys of every tick are added to
+     */
+    public RecordingKeyboard(KeyboardSensor keyboard, InputLog log) {
+        this.keyboard = keyboard;
+        this.log = log;
+        this.keys = log.getKeys();
+        this.mask = 0;
+    }
+
+    /**
+     * Function name: nextTick.
+     * Reads the watched keys from the real keyboard and records them as the keys of the new tick
+     */
+    @Override
+    public void nextTick() {
+        int newMask = 0;
+        for (int i = 0; i < this.keys.size(); i++) {
+            if (this.keyboard.isPressed(this.keys.get(i))) {
+                newMask |= 1 << i;
+            }
+        }
+        this.mask = newMask;
+        this.log.addTick(newMask);
+    }
+
+    /**
+     * Function name: isPressed.
+     * Returns whether the given key was held at the start of the current tick
+     *
+     * @param key - the key to check
+     * @return true if the key is watched and was held, false otherwise
+     */
+    @Override
+    public boolean isPressed(String key) {
+        int index = this.keys.indexOf(key);
+        return index >= 0 && (this.mask & (1 << index)) != 0;
+    }
+
+    /**
+     * Function name: getLog.
+     * Returns the log the keys are recorded in
+     *
+     * @return the input log
+     */
+    public InputLog getLog() {
+        return this.log;
+    }
+}
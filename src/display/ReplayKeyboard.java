@@ -0,0 +1,67 @@
+package display;
+
+import java.util.List;
+
+/**
+ * A keyboard that plays back the keys recorded in an input log, tick after tick. Played with the same level sets
+ * and the same fixed time steps, the game goes through exactly the same session that was recorded.
+ * After the last tick of the log, no key is pressed.
+ *
+ * @author Ariel Fenster
+ */
+public class ReplayKeyboard implements TickKeyboard {
+    // members
+    private InputLog log;
+    private List<String> keys;
+    private int run;
+    private int ticksLeftInRun;
+    private int mask;
+
+    /**
+     * Function name: ReplayKeyboard.
+     * Constructor
+     *
+     * @param log - the log to play back
+     */
+    public ReplayKeyboard(InputLog log) {
+        this.log = log;
+        this.keys = log.getKeys();
+        // starting before the first run
+        this.run = -1;
+        this.ticksLeftInRun = 0;
+        this.mask = 0;
+    }
+
+    /**
+     * Function name: nextTick.
+     * Moves to the keys of the next tick in the log
+     */
+    @Override
+    public void nextTick() {
+        while (this.ticksLeftInRun == 0) {
+            this.run++;
+            if (this.run >= this.log.getRunCount()) {
+                // the log is over
+                this.run = this.log.getRunCount();
+                this.mask = 0;
+                return;
+            }
+            this.ticksLeftInRun = this.log.getRunLength(this.run);
+            this.mask = this.log.getRunMask(this.run);
+        }
+        this.ticksLeftInRun--;
+    }
+
+    /**
+     * Function name: isPressed.
+     * Returns whether the given key was held in the current tick of the log
+     *
+     * @param key - the key to check
+     * @return true if the key was held, false otherwise
+     */
+    @Override
+    public boolean isPressed(String key) {
+        int index = this.keys.indexOf(key);
+        return index >= 0 && (this.mask & (1 << index)) != 0;
+    }
+}
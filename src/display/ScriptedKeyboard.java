@@ -0,0 +1,89 @@
+package display;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A keyboard that is "pressed" by a script instead of a player, used to play the game without a screen.
+ * The script says which keys are held during which ticks of the game (on a headless display, every tick is also a
+ * frame). The keyboard counts the ticks as the animation runner moves it to the next one.
+ * The script can repeat itself every given amount of ticks, so a short script can play a long game.
+ *
+ * @author Ariel Fenster
+ */
+public class ScriptedKeyboard implements TickKeyboard {
+    // members - each entry of the script is a key and the ticks it is held in (the last tick is not included)
+    private List<String> keys;
+    private List<Long> fromTicks;
+    private List<Long> toTicks;
+    private long repeatLength;
+    private long tick;
+
+    /**
+     * Function name: ScriptedKeyboard.
+     * Constructor - creates a keyboard with an empty script, that repeats itself every given amount of ticks.
+     *
+     * @param repeatLength - the amount of ticks after which the script starts over, 0 to never repeat it
+     */
+    public ScriptedKeyboard(long repeatLength) {
+        this.keys = new ArrayList<>();
+        this.fromTicks = new ArrayList<>();
+        this.toTicks = new ArrayList<>();
+        this.repeatLength = repeatLength;
+        this.tick = -1;
+    }
+
+    /**
+     * Function name: hold.
+     * Adds to the script holding the given key from one tick until another.
+     *
+     * @param key      - the key to hold
+     * @param fromTick - the first tick the key is held in
+     * @param toTick   - the tick the key is released in
+     */
+    public void hold(String key, long fromTick, long toTick) {
+        if (fromTick < 0 || toTick < fromTick) {
+            throw new IllegalArgumentException("Invalid ticks for key " + key + ": " + fromTick + "-" + toTick);
+        }
+        this.keys.add(key);
+        this.fromTicks.add(fromTick);
+        this.toTicks.add(toTick);
+    }
+
+    /**
+     * Function name: nextTick.
+     * Moves the script to the next tick
+     */
+    @Override
+    public void nextTick() {
+        this.tick++;
+    }
+
+    /**
+     * Function name: getTick.
+     * Returns the current tick of the script (the first tick is 0)
+     *
+     * @return the current tick
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Function name: isPressed.
+     * Returns whether the script holds the given key in the current tick
+     *
+     * @param key - the key to check
+     * @return true if the key is held, false otherwise
+     */
+    @Override
+    public boolean isPressed(String key) {
+        long current = this.repeatLength > 0 ? this.tick % this.repeatLength : this.tick;
+        for (int i = 0; i < this.keys.size(); i++) {
+            if (this.keys.get(i).equals(key) && this.fromTicks.get(i) <= current && current < this.toTicks.get(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
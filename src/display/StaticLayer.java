@@ -0,0 +1,310 @@
+package display;
+
+import biuoop.DrawSurface;
+import collidablesdata.Sprite;
+import gameobjects.Ball;
+import gameobjects.Block;
+import gameobjects.BlockType;
+import gameobjects.Rectangle;
+import listeners.HitListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of a level that rarely change - the background and the blocks - drawn once into a cached image.
+ * Every frame only the cached image is drawn, so the time it takes doesn't depend on the amount of blocks.
+ * When a block is hit (and may change its look) or removed, only the area of the block is marked as changed, and
+ * before the next time the layer is drawn, the background and the blocks in the changed areas are drawn again into
+ * the cached image.
+ * The blocks are also kept in a uniform grid of square cells, so drawing a changed area only goes over the blocks
+ * in the cells it overlaps, and adding or removing a block only touches its own cells.
+ * The layer listens to the hits of its blocks by itself. The blocks of the layer don't change with time - only a hit
+ * changes their look - so only the background is told that time has passed.
+ *
+ * @author Ariel Fenster
+ */
+public class StaticLayer implements Sprite, HitListener {
+    // from this amount of changed areas in one frame, the whole layer is drawn again instead
+    private static final int MAX_DIRTY_REGIONS = 64;
+    // the length of each side of a grid cell - the width of a standard block
+    private static final int CELL_SIZE = 50;
+
+    // members
+    private Sprite background;
+    // the blocks of the layer, and the number of each block in the order they were added - the order they are drawn
+    private Map<Block, Integer> blocks;
+    private int addedCount;
+    // the grid - each cell (by its column and row packed in one number) holds the blocks that are drawn on it
+    private Map<Long, List<Block>> cells;
+    // the blocks of a changed area, in the order they are drawn
+    private List<Block> blocksToDraw;
+    private Comparator<Block> drawOrder;
+
+    // the cached image of the layer, created the first time the layer is drawn
+    private ImageDrawSurface cache;
+
+    // the areas (x, y, width, height) that changed since the layer was last drawn
+    private List<java.awt.Rectangle> dirtyRegions;
+    private boolean allDirty;
+
+    /**
+     * Function name: StaticLayer.
+     * Constructor - creates an empty layer.
+     */
+    public StaticLayer() {
+        this.background = null;
+        this.blocks = new HashMap<>();
+        this.addedCount = 0;
+        this.cells = new HashMap<>();
+        this.blocksToDraw = new ArrayList<>();
+        this.drawOrder = new Comparator<Block>() {
+            @Override
+            public int compare(Block first, Block second) {
+                return Integer.compare(StaticLayer.this.blocks.get(first), StaticLayer.this.blocks.get(second));
+            }
+        };
+        this.cache = null;
+        this.dirtyRegions = new ArrayList<>();
+        this.allDirty = true;
+    }
+
+    /**
+     * Function name: setBackground.
+     * Sets the background that is drawn under the blocks
+     *
+     * @param newBackground - the background of the level
+     */
+    public void setBackground(Sprite newBackground) {
+        this.background = newBackground;
+        this.allDirty = true;
+    }
+
+    /**
+     * Function name: addBlock.
+     * Adds a block to the layer and starts listening to its hits.
+     *
+     * @param block - the block to add
+     */
+    public void addBlock(Block block) {
+        if (this.blocks.containsKey(block)) {
+            return;
+        }
+        this.blocks.put(block, this.addedCount);
+        this.addedCount++;
+        java.awt.Rectangle region = regionOf(block.getCollisionRectangle());
+        for (int row = cellOf(region.y); row <= cellOf(region.y + region.height - 1); row++) {
+            for (int column = cellOf(region.x); column <= cellOf(region.x + region.width - 1); column++) {
+                Long key = cellKey(column, row);
+                List<Block> cell = this.cells.get(key);
+                if (cell == null) {
+                    cell = new ArrayList<>();
+                    this.cells.put(key, cell);
+                }
+                cell.add(block);
+            }
+        }
+        block.addHitListener(this);
+        this.markDirty(block);
+    }
+
+    /**
+     * Function name: removeBlock.
+     * Removes a block from the layer, so the area it covered is drawn again without it.
+     *
+     * @param block - the block to remove
+     */
+    public void removeBlock(Block block) {
+        if (this.blocks.remove(block) == null) {
+            return;
+        }
+        java.awt.Rectangle region = regionOf(block.getCollisionRectangle());
+        for (int row = cellOf(region.y); row <= cellOf(region.y + region.height - 1); row++) {
+            for (int column = cellOf(region.x); column <= cellOf(region.x + region.width - 1); column++) {
+                this.cells.get(cellKey(column, row)).remove(block);
+            }
+        }
+        block.removeHitListener(this);
+        this.markDirty(block);
+    }
+
+    /**
+     * Function name: hitEvent.
+     * A hit may change the look of a game block, so its area is marked to be drawn again if its fill for the hit
+     * points it has left isn't the same as before the hit. Edge blocks are hit all the time but always look the same.
+     *
+     * @param beingHit - the block that is hit
+     * @param hitter   - the ball that hit the block
+     */
+    public void hitEvent(Block beingHit, Ball hitter) {
+        if (beingHit.isEdgeBlock()) {
+            return;
+        }
+        // the block has lost one hit point
+        BlockType type = beingHit.getType();
+        int hitPoints = (int) beingHit.getHitPoints();
+        if (type.getColor(hitPoints) != type.getColor(hitPoints + 1)
+                || type.getImage(hitPoints) != type.getImage(hitPoints + 1)) {
+            this.markDirty(beingHit);
+        }
+    }
+
+    /**
+     * Function name: markDirty.
+     * Marks the area covered by the given block to be drawn again, unless it is already marked.
+     *
+     * @param block - the block whose area changed
+     */
+    private void markDirty(Block block) {
+        if (this.allDirty) {
+            return;
+        }
+        java.awt.Rectangle region = regionOf(block.getCollisionRectangle());
+        for (int i = 0; i < this.dirtyRegions.size(); i++) {
+            if (this.dirtyRegions.get(i).contains(region)) {
+                return;
+            }
+        }
+        if (this.dirtyRegions.size() == MAX_DIRTY_REGIONS) {
+            this.allDirty = true;
+            this.dirtyRegions.clear();
+            return;
+        }
+        this.dirtyRegions.add(region);
+    }
+
+    /**
+     * Function name: regionOf.
+     * Returns the pixels a block with the given rectangle is drawn on, including its outline.
+     *
+     * @param rect - the rectangle of the block
+     * @return the area the block is drawn on
+     */
+    private static java.awt.Rectangle regionOf(Rectangle rect) {
+        // the outline of a block is drawn one pixel past its width and height
+        return new java.awt.Rectangle((int) rect.getLeft(), (int) rect.getTop(), (int) rect.getWidth() + 1,
+                (int) rect.getHeight() + 1);
+    }
+
+    /**
+     * Function name: cellOf.
+     * Returns the index of the grid cell that contains the given pixel (on either axis)
+     *
+     * @param coordinate - x or y coordinate of the pixel
+     * @return the index of the cell on that axis
+     */
+    private static int cellOf(int coordinate) {
+        return Math.floorDiv(coordinate, CELL_SIZE);
+    }
+
+    /**
+     * Function name: cellKey.
+     * Returns the key of a grid cell in the map of the cells
+     *
+     * @param column - the column of the cell
+     * @param row    - the row of the cell
+     * @return the column and the row packed in one number
+     */
+    private static Long cellKey(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Function name: drawOn.
+     * Draws again the changed areas of the cached image, and draws the cached image on the given draw surface.
+     *
+     * @param d - the draw surface on which we draw the layer
+     */
+    public void drawOn(DrawSurface d) {
+        this.prepare(d.getWidth(), d.getHeight());
+        d.drawImage(0, 0, this.cache.getImage());
+    }
+
+    /**
+     * Function name: prepare.
+     * Brings the cached image up to date for a draw surface of the given size - creates it if needed and draws
+     * again its changed areas. Called before the layer is drawn, and can be called before the level is shown (even
+     * from another thread, as long as the level isn't played yet) so its first frame doesn't draw the whole layer.
+     *
+     * @param width  - the width of the draw surface the layer will be drawn on
+     * @param height - the height of the draw surface the layer will be drawn on
+     */
+    public void prepare(int width, int height) {
+        if (this.cache == null || this.cache.getWidth() != width || this.cache.getHeight() != height) {
+            if (this.cache != null) {
+                this.cache.dispose();
+            }
+            this.cache = new ImageDrawSurface(width, height);
+            this.allDirty = true;
+        }
+        if (this.allDirty) {
+            this.cache.clearClip();
+            this.redraw(0, 0, this.cache.getWidth(), this.cache.getHeight());
+            this.allDirty = false;
+            this.dirtyRegions.clear();
+        }
+        // an indexed loop, so a frame without changes doesn't create an iterator
+        for (int i = 0; i < this.dirtyRegions.size(); i++) {
+            java.awt.Rectangle region = this.dirtyRegions.get(i);
+            this.cache.setClip(region.x, region.y, region.width, region.height);
+            this.redraw(region.x, region.y, region.width, region.height);
+        }
+        this.dirtyRegions.clear();
+    }
+
+    /**
+     * Function name: redraw.
+     * Draws the background and the blocks that cover the given area into the cached image, in the order they were
+     * added. Only the blocks in the cells the area overlaps are checked - a block in a few of these cells is taken
+     * from the first of them (the one with the smallest column and row). The caller limits the drawing to the area.
+     *
+     * @param x      - x coordinate of the upper left corner of the area
+     * @param y      - y coordinate of the upper left corner of the area
+     * @param width  - the width of the area
+     * @param height - the height of the area
+     */
+    private void redraw(int x, int y, int width, int height) {
+        if (this.background != null) {
+            this.background.drawOn(this.cache);
+        }
+        int firstColumn = cellOf(x);
+        int firstRow = cellOf(y);
+        for (int row = firstRow; row <= cellOf(y + height - 1); row++) {
+            for (int column = firstColumn; column <= cellOf(x + width - 1); column++) {
+                List<Block> cell = this.cells.get(cellKey(column, row));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    Block block = cell.get(i);
+                    java.awt.Rectangle region = regionOf(block.getCollisionRectangle());
+                    if (Math.max(cellOf(region.x), firstColumn) == column && Math.max(cellOf(region.y), firstRow) == row
+                            && region.intersects(x, y, width, height)) {
+                        this.blocksToDraw.add(block);
+                    }
+                }
+            }
+        }
+        Collections.sort(this.blocksToDraw, this.drawOrder);
+        for (int i = 0; i < this.blocksToDraw.size(); i++) {
+            this.blocksToDraw.get(i).drawOn(this.cache);
+        }
+        this.blocksToDraw.clear();
+    }
+
+    /**
+     * Function name: timePassed.
+     * Notifies the background of the layer that time has passed. The blocks of the layer don't change with time.
+     *
+     * @param dt - the time that passed since the last frame was shown
+     */
+    public void timePassed(double dt) {
+        if (this.background != null) {
+            this.background.timePassed(dt);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package display;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * A keyboard whose keys only change between ticks of the game. A tick is one frame of a regular animation, or one
+ * step of a simulated animation (see AnimationRunner).
+ * The animation runner tells the keyboard of its display when each tick starts, so all the keys read during a tick
+ * are the same, and the keys of every tick can be scripted, recorded and replayed.
+ *
+ * @author Ariel Fenster
+ */
+public interface TickKeyboard extends KeyboardSensor {
+
+    /**
+     * Function name: nextTick.
+     * Moves the keyboard to the next tick of the game
+     */
+    void nextTick();
+}
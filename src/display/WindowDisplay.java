@@ -0,0 +1,143 @@
+package display;
+
+import biuoop.DialogManager;
+import biuoop.DrawSurface;
+import biuoop.GUI;
+import biuoop.KeyboardSensor;
+
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+
+/**
+ * Shows the game in a window on the screen, and takes the input from the window's keyboard.
+ *
+ * @author Ariel Fenster
+ */
+public class WindowDisplay implements Display {
+    // the refresh rate used when the screen doesn't tell its own
+    private static final int DEFAULT_REFRESH_RATE = 60;
+
+    // members
+    private GUI gui;
+    private KeyboardSensor keyboard;
+    private int width;
+    private int height;
+    private int refreshRate;
+
+    /**
+     * Function name: WindowDisplay.
+     * Constructor - opens a new window of the given size.
+     *
+     * @param title  - the title of the window
+     * @param width  - the width of the window
+     * @param height - the height of the window
+     */
+    public WindowDisplay(String title, int width, int height) {
+        this.gui = new GUI(title, width, height);
+        this.keyboard = this.gui.getKeyboardSensor();
+        this.width = width;
+        this.height = height;
+        DisplayMode mode = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDisplayMode();
+        this.refreshRate = mode.getRefreshRate() == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE
+                : mode.getRefreshRate();
+    }
+
+    /**
+     * Function name: setKeyboardSensor.
+     * Replaces the keyboard the game reads - for example with one that records the window's keyboard.
+     *
+     * @param newKeyboard - the keyboard the game reads from now on
+     */
+    public void setKeyboardSensor(KeyboardSensor newKeyboard) {
+        this.keyboard = newKeyboard;
+    }
+
+    /**
+     * Function name: getKeyboardSensor.
+     * Returns the keyboard the game reads - the keyboard of the window, unless it was replaced
+     *
+     * @return the keyboard of the display
+     */
+    @Override
+    public KeyboardSensor getKeyboardSensor() {
+        return this.keyboard;
+    }
+
+    /**
+     * Function name: getDrawSurface.
+     * Returns a draw surface to draw the next frame on
+     *
+     * @return a draw surface for the next frame
+     */
+    @Override
+    public DrawSurface getDrawSurface() {
+        return this.gui.getDrawSurface();
+    }
+
+    /**
+     * Function name: show.
+     * Shows the frame in the window
+     *
+     * @param d - the draw surface the frame was drawn on
+     */
+    @Override
+    public void show(DrawSurface d) {
+        this.gui.show(d);
+    }
+
+    /**
+     * Function name: getDialogManager.
+     * Returns the object that opens dialogs over the window
+     *
+     * @return the dialog manager of the window
+     */
+    @Override
+    public DialogManager getDialogManager() {
+        return this.gui.getDialogManager();
+    }
+
+    /**
+     * Function name: getWidth.
+     * Returns the width of the window
+     *
+     * @return the width of the window
+     */
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Function name: getHeight.
+     * Returns the height of the window
+     *
+     * @return the height of the window
+     */
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Function name: isRealTime.
+     * A window is watched by a player, so the animations run in real time
+     *
+     * @return true
+     */
+    @Override
+    public boolean isRealTime() {
+        return true;
+    }
+
+    /**
+     * Function name: getRefreshRate.
+     * Returns the refresh rate of the screen the window is on
+     *
+     * @return the refresh rate of the screen
+     */
+    @Override
+    public int getRefreshRate() {
+        return this.refreshRate;
+    }
+}
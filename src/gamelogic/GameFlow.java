@@ -4,17 +4,27 @@ import animation.AnimationRunner;
 import animation.EndScreen;
 import animation.HighScoresAnimation;
 import animation.KeyPressStoppableAnimation;
+import animation.LoadingAnimation;
+import collidablesdata.GameEnvironment;
 import listeners.Counter;
+import levelsdata.DefinitionsWatcher;
 import levelsdata.LevelInformation;
+import levelsdata.LevelLoader;
 import scoredata.HighScoresTable;
 import scoredata.ScoreInfo;
 import biuoop.DialogManager;
-import biuoop.GUI;
 import biuoop.KeyboardSensor;
+import display.Display;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * The class is the main running class that plays the levels entered by the user.
@@ -23,12 +33,27 @@ import java.util.List;
  */
 public class GameFlow {
 
+    // the next level is built by a single background thread, with a low priority so it doesn't slow down the game
+    private static final ExecutorService PREFETCHER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "level-prefetch");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+
     // members
     private AnimationRunner animator;
     private KeyboardSensor keyboard;
-    private GUI gui;
+    private Display display;
     private HighScoresTable table;
     private File highScoresFile;
+    // reloads the played levels when their definitions change, or null
+    private DefinitionsWatcher watcher;
+    // the maximal amount of collisions a ball resolves in a step of the levels
+    private int maxSubSteps;
 
     /**
      * Function name: GameFlow.
@@ -36,21 +61,57 @@ public class GameFlow {
      *
      * @param ar         - animation runner used to display each game animation
      * @param ks         - a keyboard connecting the player to the game
-     * @param gui        - the gui of the game
+     * @param display    - the display the game is shown on
      * @param table      - the high scores table of the game
      * @param scoresFile - the file of the high scores table
      */
-    public GameFlow(AnimationRunner ar, KeyboardSensor ks, GUI gui, HighScoresTable table, File scoresFile) {
+    public GameFlow(AnimationRunner ar, KeyboardSensor ks, Display display, HighScoresTable table, File scoresFile) {
         this.animator = ar;
         this.keyboard = ks;
-        this.gui = gui;
+        this.display = display;
         this.table = table;
         this.highScoresFile = scoresFile;
+        this.maxSubSteps = GameEnvironment.DEFAULT_MAX_SUB_STEPS;
+    }
+
+    /**
+     * Function name: setDefinitionsWatcher.
+     * Makes the played levels reload their blocks when their definitions files change (for developing levels).
+     *
+     * @param definitionsWatcher - the watcher of the definitions files, or null to stop reloading
+     */
+    public void setDefinitionsWatcher(DefinitionsWatcher definitionsWatcher) {
+        this.watcher = definitionsWatcher;
+    }
+
+    /**
+     * Function name: setMaxSubSteps.
+     * Sets the maximal amount of collisions a ball resolves in a step, in the levels built from now on.
+     *
+     * @param maxSubSteps - the maximal amount of sub-steps per ball per step (at least 1)
+     */
+    public void setMaxSubSteps(int maxSubSteps) {
+        this.maxSubSteps = maxSubSteps;
+    }
+
+    /**
+     * Function name: waitForLevels.
+     * Show the progress of levels that are loaded in the background until they are all created.
+     *
+     * @param loader - the loader of the levels
+     * @return the levels to play, or null if there is missing information
+     */
+    public List<LevelInformation> waitForLevels(LevelLoader loader) {
+        this.animator.showProgress(new LoadingAnimation(loader));
+        return loader.join();
     }
 
     /**
      * Function name: runLevels.
      * Play each level until all the levels are complete or the player has lost.
+     * While a level is played, the next level is built in the background (its blocks, listeners and the cached image
+     * of its background and blocks), so moving to it doesn't wait for it to be built. The time each move to the
+     * next level took is added to the frame stats.
      * When finished, display a 'game over' message.
      *
      * @param levelsToPlay - list of levels to play entered by the user
@@ -62,20 +123,38 @@ public class GameFlow {
         livesCounter.increase(7);
         boolean didWin = true;
 
-        // creating the current level
-        for (LevelInformation levelInfo : levelsToPlay) {
-            GameLevel level = new GameLevel(levelInfo, this.gui, this.animator, scoreCounter, livesCounter);
-            level.initialize();
+        Future<GameLevel> nextLevel = null;
+        long levelEndTime = -1;
+        for (int i = 0; i < levelsToPlay.size(); i++) {
+            LevelInformation levelInfo = levelsToPlay.get(i);
+            // creating the current level, unless it was already built in the background
+            GameLevel level;
+            if (nextLevel == null) {
+                level = this.buildLevel(levelInfo, scoreCounter, livesCounter);
+            } else {
+                level = this.takeLevel(nextLevel, levelInfo, scoreCounter, livesCounter);
+            }
+            if (levelEndTime >= 0) {
+                this.animator.getFrameStats().recordTransition(System.nanoTime() - levelEndTime);
+            }
+            nextLevel = null;
+            if (i + 1 < levelsToPlay.size()) {
+                nextLevel = this.prefetchLevel(levelsToPlay.get(i + 1), scoreCounter, livesCounter);
+            }
 
             // keep playing as long as the player didn't complete the level or lost all his lives
-            while (level.getNumBlocksDestroyed() != levelInfo.numberOfBlocksToRemove()
+            while (level.getNumBlocksDestroyed() != level.getNumBlocksToRemove()
                     && livesCounter.getValue() > 0) {
                 level.playOneTurn();
             }
+            levelEndTime = System.nanoTime();
 
             // if the loop above was stopped because the player lost all his lives - end the game
             if (livesCounter.getValue() == 0) {
                 didWin = false;
+                if (nextLevel != null) {
+                    nextLevel.cancel(false);
+                }
                 break;
             }
         }
@@ -83,6 +162,66 @@ public class GameFlow {
         this.showHighScores(scoreCounter.getValue());
     }
 
+    /**
+     * Function name: buildLevel.
+     * Creates a level and all its objects, ready to be played.
+     *
+     * @param levelInfo    - the settings of the level
+     * @param scoreCounter - the score counter of the game
+     * @param livesCounter - the lives counter of the game
+     * @return the level
+     */
+    private GameLevel buildLevel(LevelInformation levelInfo, Counter scoreCounter, Counter livesCounter) {
+        GameLevel level = new GameLevel(levelInfo, this.display, this.animator, scoreCounter, livesCounter);
+        level.setDefinitionsWatcher(this.watcher);
+        level.setMaxSubSteps(this.maxSubSteps);
+        level.initialize();
+        level.prepare();
+        return level;
+    }
+
+    /**
+     * Function name: prefetchLevel.
+     * Starts building a level in the background.
+     *
+     * @param levelInfo    - the settings of the level
+     * @param scoreCounter - the score counter of the game
+     * @param livesCounter - the lives counter of the game
+     * @return the level, when it's built
+     */
+    private Future<GameLevel> prefetchLevel(final LevelInformation levelInfo, final Counter scoreCounter,
+                                            final Counter livesCounter) {
+        return PREFETCHER.submit(new Callable<GameLevel>() {
+            @Override
+            public GameLevel call() {
+                return GameFlow.this.buildLevel(levelInfo, scoreCounter, livesCounter);
+            }
+        });
+    }
+
+    /**
+     * Function name: takeLevel.
+     * Waits for a level built in the background (usually it's already built). If building it failed, the level is
+     * built again here, so the failure is reported like when it's not built in the background.
+     *
+     * @param prefetched   - the level built in the background
+     * @param levelInfo    - the settings of the level
+     * @param scoreCounter - the score counter of the game
+     * @param livesCounter - the lives counter of the game
+     * @return the level
+     */
+    private GameLevel takeLevel(Future<GameLevel> prefetched, LevelInformation levelInfo, Counter scoreCounter,
+                                Counter livesCounter) {
+        try {
+            return prefetched.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+        return this.buildLevel(levelInfo, scoreCounter, livesCounter);
+    }
+
     /**
      * Function name: showEndScreen.
      * Display the game over message based on if the player won or lost the game.
@@ -111,7 +250,7 @@ public class GameFlow {
     private void showHighScores(int currentScore) {
         // checking if the player earned enough points to enter the table. if so - ask for name and add
         if (this.table.shouldAddScore(currentScore)) {
-            DialogManager dialog = this.gui.getDialogManager();
+            DialogManager dialog = this.display.getDialogManager();
             String playerName = dialog.showQuestionDialog("Name", "What is your name?", "");
             this.table.add(new ScoreInfo(playerName, currentScore));
         }
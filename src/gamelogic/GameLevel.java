@@ -1,18 +1,23 @@
 package gamelogic;
 
-import animation.Animation;
 import animation.AnimationRunner;
+import animation.FrameStats;
 import animation.CountdownAnimation;
 import animation.KeyPressStoppableAnimation;
 import animation.PauseScreen;
+import animation.SimulatedAnimation;
 import gameobjects.Ball;
+import gameobjects.BallSystem;
 import gameobjects.Block;
 import gameobjects.Point;
 import gameobjects.Paddle;
+import gameobjects.Rectangle;
 import collidablesdata.GameEnvironment;
 import collidablesdata.SpriteCollection;
 import collidablesdata.Collidable;
 import collidablesdata.Sprite;
+import display.Display;
+import display.StaticLayer;
 import listeners.Counter;
 import listeners.HitListener;
 import listeners.BallRemover;
@@ -21,13 +26,17 @@ import listeners.ScoreTrackingListener;
 import indicators.NameLevelIndicator;
 import indicators.LivesIndicator;
 import indicators.ScoreIndicator;
+import indicators.FrameStatsOverlay;
+import levelsdata.DefinitionsWatcher;
 import levelsdata.LevelInformation;
 import biuoop.DrawSurface;
-import biuoop.GUI;
 import biuoop.KeyboardSensor;
 
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The class is responsible for each level's logic and variables. It adds all the game objects to the game data
@@ -35,22 +44,36 @@ import java.util.List;
  *
  * @author Ariel Fenster
  */
-public class GameLevel implements Animation {
+public class GameLevel implements SimulatedAnimation {
+    // from this amount of balls, the balls of the level are kept in a single group of balls
+    private static final int BALL_SYSTEM_THRESHOLD = 50;
+
     // members
     private LevelInformation levelInfo;
     private SpriteCollection sprites;
+    // the background and the blocks, drawn from a cached image
+    private StaticLayer staticLayer;
     private GameEnvironment environment;
-    private biuoop.GUI gui;
+    private Display display;
     private Counter blocksDestroyedCounter;
     private Counter ballsCounter;
     private Counter scoreCounter;
     private Counter livesCounter;
+    private BallSystem ballSystem;
+    // the blocks of the layout of the level (also the destroyed ones), and the listeners every one of them has
+    private List<Block> layoutBlocks;
+    private HitListener blockRemover;
+    private HitListener scoreTracker;
+    // reloads the level when its definitions change, or null
+    private DefinitionsWatcher watcher;
+    // shows the frame timings and the amount of blocks, which a reload can change
+    private FrameStatsOverlay statsOverlay;
 
     // used for the animation
     private AnimationRunner animator;
     private boolean shouldAnimationContinue;
 
-    // the size of the GUI of the game
+    // the size of the display of the game
     private int maxWidth;
     private int maxHeight;
 
@@ -61,17 +84,18 @@ public class GameLevel implements Animation {
      * Constructor for the class.
      *
      * @param info         - the current level settings
-     * @param gui          - the gui of the game
+     * @param display      - the display the game is shown on
      * @param animator     - used to display each level
      * @param scoreCounter - an updating score counter across all the levels
      * @param livesCounter - an updating lives counter across all the levels
      */
-    public GameLevel(LevelInformation info, GUI gui, AnimationRunner animator, Counter scoreCounter,
+    public GameLevel(LevelInformation info, Display display, AnimationRunner animator, Counter scoreCounter,
                      Counter livesCounter) {
         this.levelInfo = info;
         this.sprites = new SpriteCollection();
+        this.staticLayer = new StaticLayer();
         this.environment = new GameEnvironment();
-        this.gui = gui;
+        this.display = display;
 
         this.blocksDestroyedCounter = new Counter();
         this.ballsCounter = new Counter();
@@ -79,8 +103,30 @@ public class GameLevel implements Animation {
         this.livesCounter = livesCounter;
 
         this.animator = animator;
-        this.maxWidth = this.gui.getDrawSurface().getWidth();
-        this.maxHeight = this.gui.getDrawSurface().getHeight();
+        this.maxWidth = this.display.getWidth();
+        this.maxHeight = this.display.getHeight();
+        this.layoutBlocks = new ArrayList<>();
+    }
+
+    /**
+     * Function name: setDefinitionsWatcher.
+     * Makes the level reload its blocks while it's played, when the definitions files of the level change.
+     *
+     * @param definitionsWatcher - the watcher of the definitions files, or null to stop reloading
+     */
+    public void setDefinitionsWatcher(DefinitionsWatcher definitionsWatcher) {
+        this.watcher = definitionsWatcher;
+    }
+
+    /**
+     * Function name: setMaxSubSteps.
+     * Sets the maximal amount of collisions a ball resolves in a single step of the level. The movement a ball has
+     * left after the last of them is dropped, so a lower amount bounds the work of a step with many collisions.
+     *
+     * @param maxSubSteps - the maximal amount of sub-steps per ball per step (at least 1)
+     */
+    public void setMaxSubSteps(int maxSubSteps) {
+        this.environment.setMaxSubSteps(maxSubSteps);
     }
 
     /**
@@ -93,6 +139,16 @@ public class GameLevel implements Animation {
         this.environment.addCollidable(c);
     }
 
+    /**
+     * Function name: addMovingCollidable.
+     * The function adds a collidable object that changes its position during the level to its data.
+     *
+     * @param c - the object we add to the game data
+     */
+    public void addMovingCollidable(Collidable c) {
+        this.environment.addMovingCollidable(c);
+    }
+
     /**
      * Function name: removeCollidable.
      * The function removes a collidable object from its data.
@@ -123,6 +179,28 @@ public class GameLevel implements Animation {
         this.sprites.removeSprite(s);
     }
 
+    /**
+     * Function name: addBlock.
+     * The function adds a block to the level data. The block is drawn as part of the level's cached static layer.
+     *
+     * @param b - the block we add to the game data
+     */
+    public void addBlock(Block b) {
+        this.staticLayer.addBlock(b);
+        this.environment.addCollidable(b);
+    }
+
+    /**
+     * Function name: removeBlock.
+     * The function removes a block from the level data and from the level's cached static layer.
+     *
+     * @param b - the block we remove from the game
+     */
+    public void removeBlock(Block b) {
+        this.environment.removeCollidable(b);
+        this.staticLayer.removeBlock(b);
+    }
+
     /**
      * Function name: createEdgeBlocks.
      * The function creates the 4 surrounding blocks that keep the game ball from going out of range and add them
@@ -167,14 +245,104 @@ public class GameLevel implements Animation {
      * @param scoreTracker - a listener that adds points to the score when a block is hit
      */
     private void addBlocksToGame(HitListener blockRemover, HitListener scoreTracker) {
+        this.blockRemover = blockRemover;
+        this.scoreTracker = scoreTracker;
         // adding each block from the list to the game and adding to it the required listeners
         List<Block> list = this.levelInfo.blocks();
 
         for (Block block : list) {
-            block.addToGame(this);
-            block.addHitListener(blockRemover);
-            block.addHitListener(scoreTracker);
+            this.addLayoutBlock(block);
+        }
+    }
+
+    /**
+     * Function name: addLayoutBlock.
+     * Adding a block of the layout of the level to the game data, with the game-managing listeners
+     *
+     * @param block - the block
+     */
+    private void addLayoutBlock(Block block) {
+        block.addToGame(this);
+        block.addHitListener(this.blockRemover);
+        block.addHitListener(this.scoreTracker);
+        this.layoutBlocks.add(block);
+    }
+
+    /**
+     * Function name: reload.
+     * Patches the blocks of the level to the blocks of a new version of the level, without building the level
+     * again. A block at the same position with the same type as in the new version is kept as it is (with its hit
+     * points, or destroyed); any other block is removed, and the blocks of the new version that weren't kept are
+     * added. The other settings of the new version (like the balls and the paddle) are used when the level is
+     * built again.
+     *
+     * @param newInfo - the new version of the level
+     * @return the amount of blocks added and removed
+     */
+    public int reload(LevelInformation newInfo) {
+        // the blocks of the layout by their positions
+        Map<Long, Block> oldBlocks = new HashMap<>();
+        for (Block block : this.layoutBlocks) {
+            oldBlocks.put(positionOf(block), block);
+        }
+        List<Block> kept = new ArrayList<>();
+        List<Block> added = new ArrayList<>();
+        int removed = 0;
+        for (Block block : newInfo.blocks()) {
+            Block old = oldBlocks.remove(positionOf(block));
+            if (old != null && old.getType().equals(block.getType())) {
+                kept.add(old);
+            } else {
+                if (old != null) {
+                    this.removeLayoutBlock(old);
+                    removed++;
+                }
+                added.add(block);
+            }
         }
+        // the blocks at positions the new version doesn't have
+        for (Block old : oldBlocks.values()) {
+            this.removeLayoutBlock(old);
+            removed++;
+        }
+        this.layoutBlocks = kept;
+        for (Block block : added) {
+            this.addLayoutBlock(block);
+        }
+        this.levelInfo = newInfo;
+        if (this.statsOverlay != null) {
+            this.statsOverlay.setBlocksToRemove(newInfo.numberOfBlocksToRemove());
+        }
+        return added.size() + removed;
+    }
+
+    /**
+     * Function name: removeLayoutBlock.
+     * Removes a block of the layout of the level that a reload doesn't keep. If the block was already destroyed,
+     * it isn't counted as destroyed anymore.
+     *
+     * @param block - the block
+     */
+    private void removeLayoutBlock(Block block) {
+        if (this.environment.contains(block)) {
+            block.removeFromGame(this);
+            block.removeHitListener(this.blockRemover);
+            block.removeHitListener(this.scoreTracker);
+        } else {
+            this.blocksDestroyedCounter.decrease(1);
+        }
+    }
+
+    /**
+     * Function name: positionOf.
+     * Returns the position of a block as a single number
+     *
+     * @param block - the block
+     * @return the position of the upper left corner of the block
+     */
+    private static long positionOf(Block block) {
+        Rectangle rect = block.getCollisionRectangle();
+        return ((long) rect.getLeft() << 32) | ((long) rect.getTop() & 0xFFFFFFFFL);
     }
 
     /**
@@ -190,6 +358,18 @@ public class GameLevel implements Animation {
         Point p = new Point(this.maxWidth / 2, paddleYPosition);
         int ballRadius = 5;
 
+        // a lot of balls are moved together as a group of balls
+        if (this.levelInfo.numberOfBalls() >= BALL_SYSTEM_THRESHOLD) {
+            if (this.ballSystem == null) {
+                this.ballSystem = new BallSystem(Color.WHITE);
+                this.ballSystem.addToGame(this);
+            }
+            for (int i = 0; i < this.levelInfo.numberOfBalls(); i++) {
+                this.ballSystem.addBall(p, ballRadius, this.levelInfo.initialBallVelocities().get(i));
+            }
+            this.ballsCounter.increase(this.levelInfo.numberOfBalls());
+            return;
+        }
         // creating each ball with the initially created velocity
         for (int i = 0; i < this.levelInfo.numberOfBalls(); i++) {
             Ball b = new Ball(p, ballRadius, Color.WHITE);
@@ -204,8 +384,8 @@ public class GameLevel implements Animation {
      * Creating the game paddle and adding to the level data - each level has different paddle settings.
      */
     private void createLevelPaddle() {
-        // creating the keyboard from the GUI
-        biuoop.KeyboardSensor keyboard = this.gui.getKeyboardSensor();
+        // creating the keyboard from the display
+        biuoop.KeyboardSensor keyboard = this.display.getKeyboardSensor();
         int paddleHeight = 30;
         int edgeBlockLength = 25;
 
@@ -216,7 +396,7 @@ public class GameLevel implements Animation {
         // creating the paddle and adding to the game data
         Paddle paddle = new Paddle(p, this.levelInfo.paddleWidth(), paddleHeight, this.levelInfo.paddleSpeed(),
                 keyboard);
-        paddle.setRangeOfMovement(this.gui, edgeBlockLength);
+        paddle.setRangeOfMovement(this.maxWidth, edgeBlockLength);
         paddle.addToGame(this);
     }
 
@@ -225,7 +405,9 @@ public class GameLevel implements Animation {
      * The function creates all the game objects - balls, paddle and blocks and adds them to the game.
      */
     public void initialize() {
-        this.sprites.addSprite(this.levelInfo.getBackground());
+        // the background and the blocks are drawn first, from the cached static layer
+        this.staticLayer.setBackground(this.levelInfo.getBackground());
+        this.sprites.addSprite(this.staticLayer);
         this.createLevelPaddle();
 
         // creating a block remover
@@ -247,26 +429,50 @@ public class GameLevel implements Animation {
         // creating all the blocks (with the added remover and score tracker)
         this.createEdgeBlocks();
         this.addBlocksToGame(blockRemover, scoreTracker);
+
+        // creating the overlay of the frame timings (hidden until its key is pressed)
+        this.statsOverlay = new FrameStatsOverlay(this.animator.getFrameStats(), this.display.getKeyboardSensor(),
+                this.environment, this.ballsCounter, this.blocksDestroyedCounter,
+                this.levelInfo.numberOfBlocksToRemove());
+        this.sprites.addSprite(this.statsOverlay);
     }
 
     /**
-     * Function name: playOneTurn.
-     * The function starts the animation loop
+     * Function name: prepare.
+     * Draws ahead the cached image of the background and the blocks, so the first frame of the level doesn't.
+     * Can be called from another thread after initialize, as long as the level isn't played yet.
      */
-    public void playOneTurn() {
+    public void prepare() {
+        this.staticLayer.prepare(this.maxWidth, this.maxHeight);
+    }
+
+    /**
+     * Function name: startTurn.
+     * The function prepares the level for a new turn - creates the balls and places the paddle in the center.
+     * Called by playOneTurn, and by code that advances the level frame by frame itself (like the benchmarks).
+     */
+    public void startTurn() {
         // creating balls
         this.createLevelBalls();
         // placing the paddle in the center
         double upperLeftX = (this.maxWidth / 2) - (this.levelInfo.paddleWidth() / 2);
         this.environment.getGamePaddle().getCollisionRectangle().setUpperLeftXPosTo(upperLeftX);
+        this.shouldAnimationContinue = true;
+    }
+
+    /**
+     * Function name: playOneTurn.
+     * The function starts the animation loop
+     */
+    public void playOneTurn() {
+        this.startTurn();
 
         // displaying the counting down animation before each turn
         CountdownAnimation countDownScreen = new CountdownAnimation(this.sprites, 2, 3);
         this.animator.run(countDownScreen);
 
-        // run the actual play animation
-        this.shouldAnimationContinue = true;
-        this.animator.run(this);
+        // run the actual play animation - the game itself is advanced in fixed time steps
+        this.animator.runFixedTimestep(this);
     }
 
     /**
@@ -287,9 +493,49 @@ public class GameLevel implements Animation {
      * @param dt - the time that passed since the last frame was shown
      */
     public void doOneFrame(DrawSurface d, double dt) {
-        // drawing all the sprite objects and 'notifying' them that time has passed - act their respective actions
-        this.sprites.drawAllOn(d);
+        this.drawFrame(d, 1);
+        this.doOneStep(dt);
+    }
+
+    /**
+     * Function name: drawFrame.
+     * The function draws all the sprite objects of the level on the given draw surface, the moving ones between their
+     * positions before the last step and their current positions
+     *
+     * @param d     - the platform on which the level is displayed
+     * @param alpha - how far between the previous and the current positions to draw the moving objects (0 to 1)
+     */
+    public void drawFrame(DrawSurface d, double alpha) {
+        this.sprites.drawAllOn(d, alpha);
+    }
+
+    /**
+     * Function name: doOneStep.
+     * The function 'notifies' all the sprite objects that time has passed so they act their respective actions,
+     * and checks whether the turn is over.
+     *
+     * @param dt - the time (in seconds) to advance the level by
+     */
+    public void doOneStep(double dt) {
+        // the blocks are patched between two steps, if the definitions of the level changed
+        if (this.watcher != null) {
+            // the reports of the watcher are shown by the frame stats overlay, and so is the patch of the level
+            FrameStats stats = this.animator.getFrameStats();
+            for (String report = this.watcher.takeReport(); report != null; report = this.watcher.takeReport()) {
+                stats.recordReload(report);
+            }
+            LevelInformation changed = this.watcher.takeChangedLevel(this.levelInfo.levelName());
+            if (changed != null) {
+                long start = System.nanoTime();
+                int patched = this.reload(changed);
+                stats.recordReload(String.format("level '%s': %d blocks changed in %.3f ms", changed.levelName(),
+                        patched, (System.nanoTime() - start) / 1e6));
+            }
+        }
         this.sprites.notifyAllTimePassed(dt);
+        this.environment.endFrame();
+        this.animator.getFrameStats().countStep(this.environment.getSubStepsLastFrame(),
+                this.environment.getCollisionsLastFrame());
 
         // if there aren't any more balls - you lose a life
         if (this.ballsCounter.getValue() == 0) {
@@ -302,8 +548,8 @@ public class GameLevel implements Animation {
             this.shouldAnimationContinue = false;
         }
         // if the user pressed 'p' in the keyboard to pause the game - do it
-        if (this.gui.getKeyboardSensor().isPressed("p")) {
-            this.animator.run(new KeyPressStoppableAnimation(new PauseScreen(), this.gui.getKeyboardSensor(),
+        if (this.display.getKeyboardSensor().isPressed("p")) {
+            this.animator.run(new KeyPressStoppableAnimation(new PauseScreen(), this.display.getKeyboardSensor(),
                     KeyboardSensor.SPACE_KEY));
         }
     }
@@ -318,6 +564,17 @@ public class GameLevel implements Animation {
         return this.blocksDestroyedCounter.getValue();
     }
 
+    /**
+     * Function name: getNumBlocksToRemove.
+     * Returns the amount of blocks that have to be destroyed to complete the level (it can change when the level
+     * is reloaded)
+     *
+     * @return amount of blocks to remove
+     */
+    public int getNumBlocksToRemove() {
+        return this.levelInfo.numberOfBlocksToRemove();
+    }
+
     /**
      * Function name: getEnvironment.
      * The function returns the object that stores the information about all the collidable objects
@@ -1,11 +1,12 @@
 package gameobjects;
 
-import collidablesdata.Sprite;
+import collidablesdata.InterpolatedSprite;
 import collidablesdata.Velocity;
 import collidablesdata.GameEnvironment;
-import collidablesdata.Collidable;
 import collidablesdata.CollisionInfo;
+import collidablesdata.CollisionResponse;
 import gamelogic.GameLevel;
+import profiling.CollisionEvent;
 import biuoop.DrawSurface;
 
 import java.awt.Color;
@@ -18,14 +19,22 @@ import java.awt.Color;
  *
  * @author Ariel Fenster
  */
-public class Ball implements Sprite {
+public class Ball implements InterpolatedSprite {
     // members
-    private Point center;
+    private double centerX;
+    private double centerY;
+    // the center before the last time that passed, for drawing the ball in between
+    private double previousX;
+    private double previousY;
     private int radius;
     private java.awt.Color color;
+    // the ball's own velocity, which the collidables it hits may change in place
     private Velocity velocity;
     private GameEnvironment gameArea;
-    private boolean wasSpeedAdjusted;
+
+    // when the ball represents a ball of a group of balls - the group and the index of the represented ball
+    private BallSystem system;
+    private int systemIndex;
 
     /**
      * Function name: Ball.
@@ -36,10 +45,13 @@ public class Ball implements Sprite {
      * @param color  - the color of the ball
      */
     public Ball(Point center, int r, java.awt.Color color) {
-        this.center = center;
+        this.centerX = center.getX();
+        this.centerY = center.getY();
+        this.previousX = this.centerX;
+        this.previousY = this.centerY;
         this.radius = r;
         this.color = color;
-        this.wasSpeedAdjusted = false;
+        this.velocity = new Velocity(0, 0);
     }
 
     /**
@@ -49,8 +61,20 @@ public class Ball implements Sprite {
      * @param surface - a tool used to draw circles (balls) and color them
      */
     public void drawOn(DrawSurface surface) {
-        int x = (int) center.getX();
-        int y = (int) center.getY();
+        this.drawOn(surface, 1);
+    }
+
+    /**
+     * Function name: drawOn (#2).
+     * The function draws the ball on the given DrawSurface, between its center before the last time that passed and
+     * its current center
+     *
+     * @param surface - a tool used to draw circles (balls) and color them
+     * @param alpha   - how far between the previous and the current center to draw the ball (0 to 1)
+     */
+    public void drawOn(DrawSurface surface, double alpha) {
+        int x = (int) (this.previousX + (this.centerX - this.previousX) * alpha);
+        int y = (int) (this.previousY + (this.centerY - this.previousY) * alpha);
         int r = this.radius;
 
         surface.setColor(this.color);
@@ -66,12 +90,8 @@ public class Ball implements Sprite {
      * @param dt - the time that passed since the last frame was shown
      */
     public void timePassed(double dt) {
-        // error correcting - if the ball is inside the paddle - fix its position
-        Collidable paddle = this.gameArea.getGamePaddle();
-        if (this.isBallInsidePaddle(paddle)) {
-            this.moveBallOutsidePaddle(paddle);
-        }
-        // regardless if the ball was inside the paddle - call the moving function to continue the movement
+        this.previousX = this.centerX;
+        this.previousY = this.centerY;
         this.moveOneStep(dt);
     }
 
@@ -94,134 +114,108 @@ public class Ball implements Sprite {
      * @param gameLevel - the level which we remove the ball from
      */
     public void removeFromGame(GameLevel gameLevel) {
-        gameLevel.removeSprite(this);
-    }
-
-    /**
-     * Function name: moveOneStep.
-     * The function moves the ball according to its velocity and checks if it will hit a brick in the game due to its
-     * trajectory.
-     *
-     * @param dt - the time that passed since the last frame was shown
-     */
-    private void moveOneStep(double dt) {
-        // first adjusting the ball's speed based on the frame-rate of the game (only once)
-        if (!wasSpeedAdjusted) {
-            this.adjustVelocity(dt);
-            this.wasSpeedAdjusted = true;
+        // a ball of a group of balls is removed from its group
+        if (this.system != null) {
+            this.system.removeBall(this.systemIndex);
+            return;
         }
-        CollisionInfo info = this.gameArea.getClosestCollision(this.getTrajectory());
-        // if there won't be a collision
-        if (info == null) {
-            // move the ball as normal
-            this.center = this.velocity.applyToPoint(this.center);
-            // if there will be a collision
-        } else {
-            Point collisionPoint = info.collisionPoint();
-            this.center = moveToAlmostCollisionPoint(collisionPoint, this.velocity);
-            this.setVelocity(info.collisionObject().hit(this, collisionPoint, this.velocity));
-        }
-    }
-
-    /**
-     * Function name: moveToAlmostCollisionPoint.
-     * The function is called when a collision has been detected by moveOneStep due to the ball's current trajectory.
-     * The function receives the calculated collision point to be and, based on the direction the ball is moving,
-     * sets the ball's next position to be right next to the collision object to ensure the ball won't get stuck and
-     * maintain a smooth play animation.
-     *
-     * @param collPoint - calculated collision point with a game object
-     * @param v         - the ball's current velocity
-     * @return a point right next to the calculated collision point
-     */
-    private Point moveToAlmostCollisionPoint(Point collPoint, Velocity v) {
-        double newX;
-        double newY;
-        // the ball goes right
-        if (v.getVelocityDx() > 0) {
-            newX = collPoint.getX() - 2;
-            // the ball goes left
-        } else {
-            newX = collPoint.getX() + 2;
-        }
-        // the ball goes down
-        if (v.getVelocityDy() > 0) {
-            newY = collPoint.getY() - 2;
-            // the ball goes up
-        } else {
-            newY = collPoint.getY() + 2;
-        }
-        return new Point(newX, newY);
+        gameLevel.removeSprite(this);
     }
 
     /**
-     * Function name: isBallInsidePaddle.
-     * The function checks whether the ball is inside the boundaries of the paddle due to the paddle's movement
-     * and the ball not detecting it, resulting in the ball getting stuck in the paddle.
+     * Function name: joinSystem.
+     * Makes this ball the object that represents the balls of the given group when they hit collidables
      *
-     * @param paddle - the game paddle
-     * @return true if the ball is inside the paddle, false otherwise
+     * @param ballSystem - the group of balls
      */
-    private boolean isBallInsidePaddle(Collidable paddle) {
-        // if x is between the side edges
-        return (this.center.getX() < paddle.getCollisionRectangle().getUpperRight().getX()
-                && this.center.getX() > paddle.getCollisionRectangle().getUpperLeft().getX()
-                // if y is between top and bottom edges
-                && this.center.getY() < paddle.getCollisionRectangle().getDownRight().getY()
-                && this.center.getY() > paddle.getCollisionRectangle().getUpperRight().getY());
+    void joinSystem(BallSystem ballSystem) {
+        this.system = ballSystem;
     }
 
     /**
-     * Function name: moveBallOutsidePaddle.
-     * The function frees the ball from the paddle by changing the ball's position to be the middle
-     * of the top edge of the paddle. In addition, because the ball didn't detect the collision, adjust the
-     * direction of the ball's speed as if a collision would have been detected
+     * Function name: representBall.
+     * Sets this ball to represent a specific ball of its group, right before that ball hits a collidable
      *
-     * @param paddle - the game paddle
+     * @param index    - the index of the ball in the group
+     * @param velocity - the ball's current velocity
      */
-    private void moveBallOutsidePaddle(Collidable paddle) {
-        // moving outside the paddle - placing the ball in the middle of the top edge of the paddle
-        this.center = paddle.getCollisionRectangle().getTopLine().middle();
-
-        // changing the y speed direction to send the ball on its merry way
-        this.setVelocity(this.velocity.getVelocityDx(), -1 * this.velocity.getVelocityDy());
+    void representBall(int index, Velocity velocity) {
+        this.systemIndex = index;
+        this.setVelocity(velocity);
     }
 
     /**
-     * Function name: getTrajectory.
-     * Setting the trajectory of the ball based on its current position and velocity and return it
+     * Function name: moveOneStep.
+     * The function moves the ball according to its velocity (in pixels per second) and checks if it will hit a brick
+     * in the game due to its trajectory. The ball's radius is taken into account, so the ball stops at the exact
+     * moment its edge touches the object it hits. After a hit, the ball keeps moving with its new velocity for the
+     * rest of the frame's time, which may lead to more hits - up to the maximal amount of sub-steps the game area
+     * allows.
      *
-     * @return the ball's trajectory - direction of movement
+     * @param dt - the time that passed since the last frame was shown
      */
-    private Line getTrajectory() {
-        // the start is where the ball is now
-        Point start = this.center;
-        // the end is where the ball will be at the next frame
-        Point end = this.velocity.applyToPoint(this.center);
-        // the trajectory is the line connecting between these two points
-        return new Line(start, end);
+    private void moveOneStep(double dt) {
+        // the time of the frame that is left to move in
+        double remainingTime = dt;
+        int subSteps = 0;
+        int hits = 0;
+        while (remainingTime > 0 && subSteps < this.gameArea.getMaxSubSteps()) {
+            subSteps++;
+            // the ball's movement (trajectory) for the rest of the frame
+            double moveX = remainingTime * this.velocity.getVelocityDx();
+            double moveY = remainingTime * this.velocity.getVelocityDy();
+            CollisionInfo info = this.gameArea.getClosestCollision(this.centerX, this.centerY, this.radius, moveX,
+                    moveY);
+            // if there won't be a collision - move the ball as normal for the rest of the frame
+            if (info == null) {
+                this.centerX += moveX;
+                this.centerY += moveY;
+                break;
+            }
+            // if there will be a collision - move to it and spend the rest of the time with the new velocity
+            this.centerX = CollisionResponse.contactX(this.centerX, moveX, info);
+            this.centerY = CollisionResponse.contactY(this.centerY, moveY, info);
+            remainingTime -= info.collisionTime() * remainingTime;
+            // an object the ball is already moving away from (after being pushed out of it) isn't hit again
+            double dx = this.velocity.getVelocityDx();
+            double dy = this.velocity.getVelocityDy();
+            if (dx * info.normalX() + dy * info.normalY() < 0) {
+                this.setVelocity(info.collisionObject().hit(this, info.collisionPoint(), this.velocity));
+                hits++;
+                // the hit is recorded for the flight recorder
+                if (CollisionEvent.isRecorded()) {
+                    CollisionEvent event = new CollisionEvent();
+                    event.set(info.collisionObject(), subSteps, this.gameArea.getMaxSubSteps());
+                    event.commit();
+                }
+            }
+        }
+        this.gameArea.countSubSteps(subSteps);
+        this.gameArea.countCollisions(hits);
     }
 
     // set functions:
 
     /**
      * Function name: setGameArea.
-     * The function links between the ball object and the game data
+     * The function links between the ball object and the game data. A ball that is added to a level is linked to
+     * the game environment of the level.
      *
      * @param area - the game which we link the ball to
      */
-    private void setGameArea(GameEnvironment area) {
+    public void setGameArea(GameEnvironment area) {
         this.gameArea = area;
     }
 
     /**
      * Function name: setVelocity (#1).
-     * Setting the ball's speed using a given velocity object
+     * Setting the ball's speed using a given velocity object. The speeds are copied into the ball's own velocity, so
+     * the given object isn't changed by the ball's hits.
      *
      * @param v - a velocity object
      */
     public void setVelocity(Velocity v) {
-        this.velocity = v;
+        this.velocity.set(v.getVelocityDx(), v.getVelocityDy());
     }
 
     /**
@@ -232,7 +226,7 @@ public class Ball implements Sprite {
      * @param dy - speed in Y axis
      */
     public void setVelocity(double dx, double dy) {
-        this.velocity = new Velocity(dx, dy);
+        this.velocity.set(dx, dy);
     }
 
     /**
@@ -244,14 +238,4 @@ public class Ball implements Sprite {
     public double getDiagonalSpeed() {
         return Math.sqrt(Math.pow(this.velocity.getVelocityDx(), 2) + Math.pow(this.velocity.getVelocityDy(), 2));
     }
-
-    /**
-     * Function name: adjustVelocity.
-     * Adjusting the ball's velocity based on the frame-rate of the game
-     *
-     * @param dt - the time that passed since the last frame was shown
-     */
-    private void adjustVelocity(double dt) {
-        this.setVelocity(this.velocity.getVelocityDx() * dt, this.velocity.getVelocityDy() * dt);
-    }
-}
\ No newline at end of file
+}
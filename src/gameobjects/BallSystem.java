@@ -0,0 +1,581 @@
+package gameobjects;
+
+import collidablesdata.CollisionInfo;
+import collidablesdata.CollisionResponse;
+import collidablesdata.CollisionSearch;
+import collidablesdata.GameEnvironment;
+import collidablesdata.ImpactScheduler;
+import collidablesdata.InterpolatedSprite;
+import collidablesdata.Velocity;
+import gamelogic.GameLevel;
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A group of balls that is stored as arrays of numbers instead of a separate object per ball, used when a level has
+ * a very large amount of balls. The whole group is a single sprite in the game and all the balls move in one loop,
+ * each ball behaving exactly like a regular ball.
+ * <p>
+ * When a ball hits a collidable, the collidable receives a single shared ball object that represents the hitting
+ * ball. Removing that object from the game removes the ball it represents from the group.
+ * <p>
+ * A big group is moved in two phases. First, the first collision of every ball is searched for in parallel (on a
+ * fork-join pool), without changing anything. Then the balls are moved one by one in the order of their indexes,
+ * and only then are the collidables hit and their listeners notified. A ball whose search result may have been
+ * changed by the balls before it (a collidable was added or removed in the meantime) searches again, so the result
+ * is exactly the same as moving all the balls one by one.
+ * <p>
+ * Alternatively, the group can be event-driven (see setEventDriven): the next impact of every ball is predicted
+ * ahead of time by an impact scheduler, and a ball is only handled when its impact is due.
+ *
+ * @author Ariel Fenster
+ */
+public class BallSystem implements InterpolatedSprite {
+    // the amount of balls the arrays can hold when the group is created
+    private static final int INITIAL_CAPACITY = 64;
+    // from this amount of balls, the first collisions of the balls are searched for in parallel
+    private static final int PARALLEL_THRESHOLD = 1024;
+    // the amount of balls each parallel task searches for (at most)
+    private static final int BALLS_PER_TASK = 256;
+
+    // members - the state of ball number i is kept in index i of each array
+    private double[] xs;
+    private double[] ys;
+    private double[] dxs;
+    private double[] dys;
+    private double[] radii;
+    private boolean[] removed;
+    // the centers of the balls before the last time that passed, for drawing the balls in between
+    private double[] previousXs;
+    private double[] previousYs;
+    private int size;
+    private boolean hasRemovedBalls;
+
+    // the first collision of each ball in the current frame, found in the parallel phase
+    private CollisionInfo[] firstHits;
+    private ForkJoinPool pool;
+
+    // the event-driven mode - the scheduler (null when not event-driven), the time that passed since the mode was
+    // turned on, the time each ball's position is at (a ball moves in a straight line from there), the amount of
+    // collisions of each ball in the current frame and the balls that collided in the current frame
+    private ImpactScheduler scheduler;
+    private double clock;
+    private double[] times;
+    private int[] frameCollisions;
+    private int[] collided;
+    private int collidedCount;
+    // the last time that passed, for drawing the balls of the event-driven mode in between
+    private double lastStep;
+
+    private java.awt.Color color;
+    private GameEnvironment gameArea;
+
+    // the ball object that is given to the collidables the balls hit, and the velocity it is given with (the
+    // collidable may change it in place)
+    private Ball hitter;
+    private Velocity hitVelocity;
+
+    /**
+     * Function name: BallSystem.
+     * Constructor - creates an empty group of balls, that uses the common fork-join pool to move its balls.
+     *
+     * @param color - the color of all the balls in the group
+     */
+    public BallSystem(java.awt.Color color) {
+        this(color, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Function name: BallSystem.
+     * Constructor - creates an empty group of balls, that uses the given pool to move its balls.
+     *
+     * @param color - the color of all the balls in the group
+     * @param pool  - the pool in which the first collisions of the balls are searched for
+     */
+    public BallSystem(java.awt.Color color, ForkJoinPool pool) {
+        this.xs = new double[INITIAL_CAPACITY];
+        this.ys = new double[INITIAL_CAPACITY];
+        this.dxs = new double[INITIAL_CAPACITY];
+        this.dys = new double[INITIAL_CAPACITY];
+        this.radii = new double[INITIAL_CAPACITY];
+        this.removed = new boolean[INITIAL_CAPACITY];
+        this.previousXs = new double[INITIAL_CAPACITY];
+        this.previousYs = new double[INITIAL_CAPACITY];
+        this.firstHits = new CollisionInfo[INITIAL_CAPACITY];
+        this.pool = pool;
+        this.scheduler = null;
+        this.clock = 0;
+        this.times = new double[INITIAL_CAPACITY];
+        this.frameCollisions = new int[INITIAL_CAPACITY];
+        this.collided = new int[INITIAL_CAPACITY];
+        this.collidedCount = 0;
+        this.lastStep = 0;
+        this.size = 0;
+        this.hasRemovedBalls = false;
+        this.color = color;
+        this.hitter = new Ball(new Point(0, 0), 0, color);
+        this.hitter.joinSystem(this);
+        this.hitVelocity = new Velocity(0, 0);
+    }
+
+    /**
+     * Function name: addToGame.
+     * Adds the group to the level data
+     *
+     * @param gameLevel - the level which we add the group to
+     */
+    public void addToGame(GameLevel gameLevel) {
+        this.setGameArea(gameLevel.getEnvironment());
+        gameLevel.addSprite(this);
+    }
+
+    /**
+     * Function name: setGameArea.
+     * Links the group to the game environment its balls move in
+     *
+     * @param area - the game environment
+     */
+    public void setGameArea(GameEnvironment area) {
+        this.gameArea = area;
+    }
+
+    /**
+     * Function name: setEventDriven.
+     * Turns the event-driven mode on or off. In this mode the next impact of each ball is predicted once and kept
+     * until it is due, instead of searching for the collisions of every ball in every frame, and is only predicted
+     * again when the ball bounces, the collidable it is heading to is removed or the paddle moves in front of it.
+     * The balls move along the same trajectories in both modes, except that when two balls hit the same block in the
+     * same frame, the hits happen in the order of their times instead of the order of the balls. The group must be
+     * linked to its game environment first.
+     *
+     * @param eventDriven - true to turn the event-driven mode on, false to turn it off
+     */
+    public void setEventDriven(boolean eventDriven) {
+        if (eventDriven == (this.scheduler != null)) {
+            return;
+        }
+        if (!eventDriven) {
+            for (int i = 0; i < this.size; i++) {
+                this.moveTo(i, this.clock);
+            }
+            System.arraycopy(this.xs, 0, this.previousXs, 0, this.size);
+            System.arraycopy(this.ys, 0, this.previousYs, 0, this.size);
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = new ImpactScheduler(this.gameArea);
+        this.scheduler.ensureCapacity(this.xs.length);
+        this.clock = 0;
+        for (int i = 0; i < this.size; i++) {
+            this.times[i] = 0;
+            this.frameCollisions[i] = 0;
+            if (!this.removed[i]) {
+                this.schedule(i);
+            }
+        }
+    }
+
+    /**
+     * Function name: addBall.
+     * Adds a ball to the group.
+     *
+     * @param center   - the center point of the ball
+     * @param radius   - the radius of the ball
+     * @param velocity - the velocity of the ball (in pixels per second)
+     * @return the index of the added ball
+     */
+    public int addBall(Point center, double radius, Velocity velocity) {
+        if (this.size == this.xs.length) {
+            int capacity = this.xs.length * 2;
+            this.xs = Arrays.copyOf(this.xs, capacity);
+            this.ys = Arrays.copyOf(this.ys, capacity);
+            this.dxs = Arrays.copyOf(this.dxs, capacity);
+            this.dys = Arrays.copyOf(this.dys, capacity);
+            this.radii = Arrays.copyOf(this.radii, capacity);
+            this.removed = Arrays.copyOf(this.removed, capacity);
+            this.previousXs = Arrays.copyOf(this.previousXs, capacity);
+            this.previousYs = Arrays.copyOf(this.previousYs, capacity);
+            this.firstHits = Arrays.copyOf(this.firstHits, capacity);
+            this.times = Arrays.copyOf(this.times, capacity);
+            this.frameCollisions = Arrays.copyOf(this.frameCollisions, capacity);
+            this.collided = Arrays.copyOf(this.collided, capacity);
+            if (this.scheduler != null) {
+                this.scheduler.ensureCapacity(capacity);
+            }
+        }
+        this.xs[this.size] = center.getX();
+        this.ys[this.size] = center.getY();
+        this.dxs[this.size] = velocity.getVelocityDx();
+        this.dys[this.size] = velocity.getVelocityDy();
+        this.radii[this.size] = radius;
+        this.removed[this.size] = false;
+        this.previousXs[this.size] = center.getX();
+        this.previousYs[this.size] = center.getY();
+        this.times[this.size] = this.clock;
+        this.frameCollisions[this.size] = 0;
+        this.size++;
+        if (this.scheduler != null) {
+            this.schedule(this.size - 1);
+        }
+        return this.size - 1;
+    }
+
+    /**
+     * Function name: removeBall.
+     * Removes the ball with the given index from the group. The ball stops moving right away and is taken out of
+     * the arrays at the end of the current frame, after which the indexes of the balls after it move down by one.
+     *
+     * @param index - the index of the ball to remove
+     */
+    public void removeBall(int index) {
+        if (index >= 0 && index < this.size && !this.removed[index]) {
+            this.removed[index] = true;
+            this.hasRemovedBalls = true;
+            if (this.scheduler != null) {
+                this.scheduler.cancel(index);
+            }
+        }
+    }
+
+    /**
+     * Function name: size.
+     * Returns the amount of balls in the group
+     *
+     * @return amount of balls
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Function name: drawOn.
+     * Draws all the balls of the group on the given draw surface
+     *
+     * @param surface - the draw surface on which we draw the balls
+     */
+    public void drawOn(DrawSurface surface) {
+        this.drawOn(surface, 1);
+    }
+
+    /**
+     * Function name: drawOn (#2).
+     * Draws all the balls of the group on the given draw surface, between their centers before the last time that
+     * passed and their current centers
+     *
+     * @param surface - the draw surface on which we draw the balls
+     * @param alpha   - how far between the previous and the current centers to draw the balls (0 to 1)
+     */
+    public void drawOn(DrawSurface surface, double alpha) {
+        double drawTime = this.clock - (1 - alpha) * this.lastStep;
+        for (int i = 0; i < this.size; i++) {
+            if (this.removed[i]) {
+                continue;
+            }
+            double centerX;
+            double centerY;
+            if (this.scheduler != null) {
+                // in the event-driven mode the ball has moved in a straight line since the time of its position
+                // (before that time it may have bounced, so it's drawn at its position)
+                double time = Math.max(drawTime, this.times[i]);
+                centerX = this.xs[i] + this.dxs[i] * (time - this.times[i]);
+                centerY = this.ys[i] + this.dys[i] * (time - this.times[i]);
+            } else {
+                centerX = this.previousXs[i] + (this.xs[i] - this.previousXs[i]) * alpha;
+                centerY = this.previousYs[i] + (this.ys[i] - this.previousYs[i]) * alpha;
+            }
+            int x = (int) centerX;
+            int y = (int) centerY;
+            int r = (int) this.radii[i];
+            surface.setColor(this.color);
+            surface.fillCircle(x, y, r);
+            surface.setColor(Color.BLACK);
+            surface.drawCircle(x, y, r);
+        }
+    }
+
+    /**
+     * Function name: timePassed.
+     * Moves all the balls of the group by the time that passed
+     *
+     * @param dt - the time that passed since the last frame was shown
+     */
+    public void timePassed(double dt) {
+        this.lastStep = dt;
+        // the balls that are stepped are drawn between where they were and where they are (the event-driven balls
+        // are drawn from their straight lines)
+        if (this.scheduler == null) {
+            System.arraycopy(this.xs, 0, this.previousXs, 0, this.size);
+            System.arraycopy(this.ys, 0, this.previousYs, 0, this.size);
+        }
+        if (this.scheduler != null) {
+            this.moveByEvents(dt);
+        } else if (this.size >= PARALLEL_THRESHOLD && this.pool.getParallelism() > 1) {
+            // the parallel phase - only searching, nothing is changed
+            int version = this.gameArea.getVersion();
+            int searched = this.size;
+            this.pool.invoke(new FirstHitsTask(0, searched, dt));
+            // the merge phase - moving the balls and hitting the collidables in the order of the balls
+            for (int i = 0; i < this.size; i++) {
+                if (!this.removed[i]) {
+                    this.moveBall(i, dt, i < searched && this.gameArea.getVersion() == version);
+                }
+                this.firstHits[i] = null;
+            }
+        } else {
+            for (int i = 0; i < this.size; i++) {
+                if (!this.removed[i]) {
+                    this.moveBall(i, dt, false);
+                }
+            }
+        }
+        if (this.hasRemovedBalls) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Function name: moveBall.
+     * Moves a single ball of the group for the given time, the same way a regular ball moves: it stops where its
+     * edge touches an object and spends the rest of the time with its new velocity, up to the maximal amount of
+     * sub-steps the game area allows.
+     *
+     * @param i            - the index of the ball
+     * @param dt           - the time to move the ball for
+     * @param useFirstHits - whether the ball's first collision was already found in the parallel phase
+     */
+    private void moveBall(int i, double dt, boolean useFirstHits) {
+        double remainingTime = dt;
+        int subSteps = 0;
+        int hits = 0;
+        while (remainingTime > 0 && subSteps < this.gameArea.getMaxSubSteps()) {
+            subSteps++;
+            double moveX = this.dxs[i] * remainingTime;
+            double moveY = this.dys[i] * remainingTime;
+            CollisionInfo info;
+            if (subSteps == 1 && useFirstHits) {
+                info = this.firstHits[i];
+            } else {
+                info = this.gameArea.getClosestCollision(this.xs[i], this.ys[i], this.radii[i], moveX, moveY);
+            }
+            // if there won't be a collision - move the ball as normal for the rest of the time
+            if (info == null) {
+                this.xs[i] += moveX;
+                this.ys[i] += moveY;
+                break;
+            }
+            // if there will be a collision - move to it and spend the rest of the time with the new velocity
+            this.xs[i] = CollisionResponse.contactX(this.xs[i], moveX, info);
+            this.ys[i] = CollisionResponse.contactY(this.ys[i], moveY, info);
+            remainingTime -= info.collisionTime() * remainingTime;
+            // an object the ball is already moving away from (after being pushed out of it) isn't hit again
+            if (this.dxs[i] * info.normalX() + this.dys[i] * info.normalY() < 0) {
+                this.hitVelocity.set(this.dxs[i], this.dys[i]);
+                this.hitter.representBall(i, this.hitVelocity);
+                Velocity newVelocity = info.collisionObject().hit(this.hitter, info.collisionPoint(),
+                        this.hitVelocity);
+                this.dxs[i] = newVelocity.getVelocityDx();
+                this.dys[i] = newVelocity.getVelocityDy();
+                hits++;
+                // the hit may have removed the ball from the game
+                if (this.removed[i]) {
+                    break;
+                }
+            }
+        }
+        this.gameArea.countSubSteps(subSteps);
+        this.gameArea.countCollisions(hits);
+    }
+
+    /**
+     * Function name: moveByEvents.
+     * Moves the balls in the event-driven mode: the impacts that are due until the end of the frame are handled in
+     * the order of their times. The other balls aren't touched at all - they keep moving in a straight line from the
+     * time of their position. Like in the regular mode, a ball that reached the maximal amount of collisions in a
+     * frame doesn't move for the rest of the frame.
+     *
+     * @param dt - the time that passed since the last frame was shown
+     */
+    private void moveByEvents(double dt) {
+        double end = this.clock + dt;
+        int maxCollisions = this.gameArea.getMaxSubSteps();
+        int events = 0;
+        int hits = 0;
+        if (this.scheduler.refresh()) {
+            this.scheduleStale(this.clock, maxCollisions);
+        }
+        while (this.scheduler.hasEventUntil(end)) {
+            int i = this.scheduler.nextBody();
+            double eventTime = this.scheduler.getEventTime(i);
+            CollisionInfo info = this.scheduler.getPrediction(i);
+            this.moveTo(i, eventTime);
+            events++;
+            // the end of the prediction's horizon - nothing was hit
+            if (info == null) {
+                this.schedule(i);
+                continue;
+            }
+            // the ball is already at the time of the impact, it's only kept away from the surface
+            this.xs[i] = CollisionResponse.contactX(this.xs[i], 0, info);
+            this.ys[i] = CollisionResponse.contactY(this.ys[i], 0, info);
+            if (this.frameCollisions[i] == 0) {
+                this.collided[this.collidedCount] = i;
+                this.collidedCount++;
+            }
+            this.frameCollisions[i]++;
+            // an object the ball is already moving away from (after being pushed out of it) isn't hit again
+            if (this.dxs[i] * info.normalX() + this.dys[i] * info.normalY() < 0) {
+                this.hitVelocity.set(this.dxs[i], this.dys[i]);
+                this.hitter.representBall(i, this.hitVelocity);
+                Velocity newVelocity = info.collisionObject().hit(this.hitter, info.collisionPoint(),
+                        this.hitVelocity);
+                this.dxs[i] = newVelocity.getVelocityDx();
+                this.dys[i] = newVelocity.getVelocityDy();
+                hits++;
+            }
+            if (!this.removed[i] && this.frameCollisions[i] < maxCollisions) {
+                this.schedule(i);
+            }
+            // the hit may have removed a block that other balls are heading to
+            if (this.scheduler.refresh()) {
+                this.scheduleStale(eventTime, maxCollisions);
+            }
+        }
+        for (int k = 0; k < this.collidedCount; k++) {
+            int i = this.collided[k];
+            if (this.frameCollisions[i] >= maxCollisions && !this.removed[i]) {
+                // the rest of the frame is dropped and the ball continues from where it stopped
+                this.times[i] = end;
+                this.schedule(i);
+            }
+            this.frameCollisions[i] = 0;
+        }
+        this.collidedCount = 0;
+        this.clock = end;
+        this.gameArea.countSubSteps(events);
+        this.gameArea.countCollisions(hits);
+    }
+
+    /**
+     * Function name: scheduleStale.
+     * Predicts again the impacts of the balls whose predictions were affected by changes in the game environment.
+     *
+     * @param time          - the current time
+     * @param maxCollisions - the maximal amount of collisions of a ball in a frame
+     */
+    private void scheduleStale(double time, int maxCollisions) {
+        for (int i = 0; i < this.size; i++) {
+            if (!this.removed[i] && this.frameCollisions[i] < maxCollisions && this.scheduler.isStale(i)) {
+                this.moveTo(i, time);
+                this.schedule(i);
+            }
+        }
+    }
+
+    /**
+     * Function name: schedule.
+     * Predicts the next impact of a ball from its current position
+     *
+     * @param i - the index of the ball
+     */
+    private void schedule(int i) {
+        this.scheduler.schedule(i, this.times[i], this.xs[i], this.ys[i], this.radii[i], this.dxs[i], this.dys[i]);
+    }
+
+    /**
+     * Function name: moveTo.
+     * Moves a ball (in the event-driven mode) to where it is at the given time
+     *
+     * @param i    - the index of the ball
+     * @param time - the time to move the ball to
+     */
+    private void moveTo(int i, double time) {
+        this.xs[i] += this.dxs[i] * (time - this.times[i]);
+        this.ys[i] += this.dys[i] * (time - this.times[i]);
+        this.times[i] = time;
+    }
+
+    /**
+     * A task that searches for the first collision of a range of balls, splitting the range between smaller tasks
+     * when it is too big.
+     */
+    private class FirstHitsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // members - the range of balls (from the first index up to the last index, not included) and the frame time
+        private int from;
+        private int to;
+        private double dt;
+
+        /**
+         * Function name: FirstHitsTask.
+         * Constructor for the class
+         *
+         * @param from - the index of the first ball in the range
+         * @param to   - the index after the last ball in the range
+         * @param dt   - the time the balls move for
+         */
+        FirstHitsTask(int from, int to, double dt) {
+            this.from = from;
+            this.to = to;
+            this.dt = dt;
+        }
+
+        /**
+         * Function name: compute.
+         * Searches for the first collisions of the range, or splits it in two if it is too big.
+         */
+        @Override
+        protected void compute() {
+            if (this.to - this.from > BALLS_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new FirstHitsTask(this.from, middle, this.dt), new FirstHitsTask(middle, this.to, this.dt));
+                return;
+            }
+            CollisionSearch search = new CollisionSearch();
+            for (int i = this.from; i < this.to; i++) {
+                if (!removed[i]) {
+                    CollisionInfo info = gameArea.getClosestCollision(xs[i], ys[i], radii[i], dxs[i] * this.dt,
+                            dys[i] * this.dt, search);
+                    // the search fills its information again for the next ball, so each ball keeps a copy
+                    firstHits[i] = info == null ? null : new CollisionInfo(info);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function name: compact.
+     * Takes the removed balls out of the arrays, keeping the order of the remaining balls.
+     */
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < this.size; i++) {
+            if (this.removed[i]) {
+                continue;
+            }
+            this.xs[kept] = this.xs[i];
+            this.ys[kept] = this.ys[i];
+            this.dxs[kept] = this.dxs[i];
+            this.dys[kept] = this.dys[i];
+            this.radii[kept] = this.radii[i];
+            this.removed[kept] = false;
+            this.previousXs[kept] = this.previousXs[i];
+            this.previousYs[kept] = this.previousYs[i];
+            this.times[kept] = this.times[i];
+            this.frameCollisions[kept] = this.frameCollisions[i];
+            if (this.scheduler != null) {
+                this.scheduler.moveBody(i, kept);
+            }
+            kept++;
+        }
+        this.size = kept;
+        if (this.scheduler != null) {
+            this.scheduler.rebuild(kept);
+        }
+        this.hasRemovedBalls = false;
+    }
+}
@@ -10,9 +10,7 @@ import biuoop.DrawSurface;
 
 import java.awt.Color;
 import java.awt.Image;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * The block is a game object that a ball hits.
@@ -23,23 +21,22 @@ import java.util.Map;
  * @author Ariel Fenster
  */
 public class Block implements Collidable, Sprite, HitNotifier {
+    // the listeners of all the blocks without listeners
+    private static final HitListener[] NO_LISTENERS = new HitListener[0];
+
     // members:
 
     // the block itself is an instance of the Rectangle class
     private Rectangle block;
 
-    // each block has display options and an amount of hit points
-    private Map<Integer, Color> fillColors;
-    private Map<Integer, Image> fillImages;
-    private Color currentColor;
-    private Image currentImage;
-    private java.awt.Color outlineColor;
+    // the look and size of the block are shared by all the blocks of its type, only the hit points are its own
+    private BlockType type;
     private double hitPoints;
-    private java.awt.Color color;
-    private boolean isEdgeBlock;
 
-    // a list of listeners that are notified when the block is hit
-    private List<HitListener> hitListeners;
+    // the listeners that are notified when the block is hit. The array is never changed - adding or removing a
+    // listener replaces it, so a hit iterates over it as it is while listeners remove themselves, and a block without
+    // listeners shares the empty array
+    private HitListener[] hitListeners;
 
     /**
      * Function name: Block.
@@ -52,37 +49,37 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @param hitPoints - amount of hits before the block will disappear
      */
     public Block(Point upperLeft, double width, double height, java.awt.Color color, double hitPoints) {
-        this.block = new Rectangle(upperLeft, width, height);
-        this.hitPoints = hitPoints;
-        this.color = color;
-        this.hitListeners = new ArrayList<>();
-        this.isEdgeBlock = true;
-        this.currentColor = null;
-        this.currentImage = null;
+        this(upperLeft, new BlockType(width, height, color, hitPoints));
     }
 
     /**
-     * Function name: Block.
+     * Function name: Block (#2).
      * Constructor for the game blocks.
      *
-     * @param upperLeft    - the upper left corner of the block
-     * @param width        - the block's width
-     * @param height       - the block's height
-     * @param fillColors   - a map of colors to fill the block with
-     * @param fillImages   - a map of images to fill the block with
-     * @param outlineColor - the block's outline color
-     * @param hitPoints    - amount of hits before the block will disappear
+     * @param upperLeft - the upper left corner of the block
+     * @param type      - the type of the block, with its size, fills, outline and hit points
+     */
+    public Block(Point upperLeft, BlockType type) {
+        this.block = new Rectangle(upperLeft, type.getWidth(), type.getHeight());
+        this.type = type;
+        this.hitPoints = type.getHitPoints();
+        this.hitListeners = NO_LISTENERS;
+    }
+
+    /**
+     * Function name: Block (#3).
+     * Constructor for blocks that are stamped from the compiled blocks of a level.
+     *
+     * @param left      - the x coordinate of the left side of the block
+     * @param top       - the y coordinate of the top side of the block
+     * @param type      - the type of the block, with its size, fills and outline
+     * @param hitPoints - amount of hits before the block will disappear
      */
-    public Block(Point upperLeft, double width, double height, Map<Integer, Color> fillColors,
-                 Map<Integer, Image> fillImages, java.awt.Color outlineColor, double hitPoints) {
-        this.block = new Rectangle(upperLeft, width, height);
+    public Block(double left, double top, BlockType type, double hitPoints) {
+        this.block = new Rectangle(left, top, type.getWidth(), type.getHeight());
+        this.type = type;
         this.hitPoints = hitPoints;
-        this.fillColors = fillColors;
-        this.fillImages = fillImages;
-        this.outlineColor = outlineColor;
-        this.hitListeners = new ArrayList<>();
-        this.isEdgeBlock = false;
-        this.changeCurrentFill();
+        this.hitListeners = NO_LISTENERS;
     }
 
     /**
@@ -92,9 +89,8 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @param level - the level which we add the block to
      */
     public void addToGame(GameLevel level) {
-        // adding to the game's variables and data
-        level.addSprite(this);
-        level.addCollidable(this);
+        // adding to the game's variables and data - the level draws its blocks together as a static layer
+        level.addBlock(this);
     }
 
     /**
@@ -105,8 +101,7 @@ public class Block implements Collidable, Sprite, HitNotifier {
      */
     public void removeFromGame(GameLevel level) {
         // removing the the block from the game data
-        level.removeCollidable(this);
-        level.removeSprite(this);
+        level.removeBlock(this);
     }
 
     /**
@@ -122,46 +117,27 @@ public class Block implements Collidable, Sprite, HitNotifier {
         int height = (int) this.block.getHeight();
 
         // edge blocks are only painted with their given color
-        if (this.isEdgeBlock) {
-            surface.setColor(this.color);
+        if (this.type.isEdge()) {
+            surface.setColor(this.type.getColor(0));
             surface.fillRectangle(xPos, yPos, width, height);
             return;
         }
         // if the current fill is a color
-        if (this.currentImage == null) {
-            surface.setColor(this.currentColor);
+        Image image = this.type.getImage((int) this.hitPoints);
+        if (image == null) {
+            surface.setColor(this.type.getColor((int) this.hitPoints));
             surface.fillRectangle(xPos, yPos, width, height);
             // if the current fill is an image
         } else {
-            surface.drawImage(xPos, yPos, this.currentImage);
+            surface.drawImage(xPos, yPos, image);
         }
         // draw the outline frame of the block (if exists)
-        if (this.outlineColor != null) {
-            surface.setColor(this.outlineColor);
+        if (this.type.getStroke() != null) {
+            surface.setColor(this.type.getStroke());
             surface.drawRectangle(xPos, yPos, width, height);
         }
     }
 
-    /**
-     * Function name: changeCurrentFill.
-     * Changing the fill color/image based on the amount of hit points it has left
-     */
-    private void changeCurrentFill() {
-        // resetting the values
-        this.currentColor = null;
-        this.currentImage = null;
-        // getting the new values
-        if (this.fillColors.containsKey((int) this.hitPoints)) {
-            this.currentColor = this.fillColors.get((int) this.hitPoints);
-        } else if (this.fillColors.containsKey(1)) {
-            this.currentColor = this.fillColors.get(1);
-        } else if (this.fillImages.containsKey((int) this.hitPoints)) {
-            this.currentImage = this.fillImages.get((int) this.hitPoints);
-        } else {
-            this.currentImage = this.fillImages.get(1);
-        }
-    }
-
     /**
      * Function name: timePassed.
      * In this assignment this function does nothing. We will add to it in the future.
@@ -189,27 +165,28 @@ public class Block implements Collidable, Sprite, HitNotifier {
      *
      * @param hitter          - the ball that is hitting the block
      * @param collisionPoint  - the collision point of the ball with the block
-     * @param currentVelocity - the velocity of the ball
-     * @return a new velocity based on where the ball hit the block
+     * @param currentVelocity - the velocity of the ball (changed in place)
+     * @return the ball's velocity, changed based on where the ball hit the block
      */
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
-        Velocity newVelocity;
         // if the collision point is on the top or bottom of the block - change Y speed
-        if (this.block.getTopLine().isPointOnSegment(collisionPoint)
-                || this.block.getBottomLine().isPointOnSegment(collisionPoint)) {
-            newVelocity = new Velocity(currentVelocity.getVelocityDx(), -1 * currentVelocity.getVelocityDy());
+        double x = collisionPoint.getX();
+        double y = collisionPoint.getY();
+        double left = this.block.getLeft();
+        double right = this.block.getRight();
+        if (Geometry.isPointOnSegment(x, y, left, this.block.getTop(), right, this.block.getTop())
+                || Geometry.isPointOnSegment(x, y, left, this.block.getBottom(), right, this.block.getBottom())) {
+            currentVelocity.set(currentVelocity.getVelocityDx(), -1 * currentVelocity.getVelocityDy());
             // if the collision is on the side of the block - change X speed
         } else {
-            newVelocity = new Velocity(-1 * currentVelocity.getVelocityDx(), currentVelocity.getVelocityDy());
+            currentVelocity.set(-1 * currentVelocity.getVelocityDx(), currentVelocity.getVelocityDy());
         }
+        // the fill of the remaining hit points is looked up in the type when the block is drawn
         this.hitPoints--;
-        if (!this.isEdgeBlock) {
-            this.changeCurrentFill();
-        }
         // notifying all the hit listeners related to this block that it has been hit
         this.notifyHit(hitter);
-        // return the new velocity
-        return newVelocity;
+        // return the changed velocity
+        return currentVelocity;
     }
 
     /**
@@ -219,10 +196,8 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @param hitter - the object that hit the block
      */
     private void notifyHit(Ball hitter) {
-        // Make a copy of the hitListeners before iterating over them.
-        List<HitListener> listeners = new ArrayList<>(this.hitListeners);
-        // Notify all listeners about a hit event:
-        for (HitListener listener : listeners) {
+        // Notify all listeners about a hit event (a listener that is removed meanwhile replaces the array):
+        for (HitListener listener : this.hitListeners) {
             listener.hitEvent(this, hitter);
         }
     }
@@ -234,7 +209,9 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @param listener - a listener we add to the list
      */
     public void addHitListener(HitListener listener) {
-        this.hitListeners.add(listener);
+        HitListener[] listeners = Arrays.copyOf(this.hitListeners, this.hitListeners.length + 1);
+        listeners[this.hitListeners.length] = listener;
+        this.hitListeners = listeners;
     }
 
     /**
@@ -244,7 +221,15 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @param listener - a listener we remove from the list
      */
     public void removeHitListener(HitListener listener) {
-        this.hitListeners.remove(listener);
+        for (int i = 0; i < this.hitListeners.length; i++) {
+            if (this.hitListeners[i].equals(listener)) {
+                HitListener[] listeners = new HitListener[this.hitListeners.length - 1];
+                System.arraycopy(this.hitListeners, 0, listeners, 0, i);
+                System.arraycopy(this.hitListeners, i + 1, listeners, i, listeners.length - i);
+                this.hitListeners = listeners.length == 0 ? NO_LISTENERS : listeners;
+                return;
+            }
+        }
     }
 
     /**
@@ -254,7 +239,27 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @return block's color
      */
     public java.awt.Color getColor() {
-        return this.fillColors.get((int) this.hitPoints);
+        return this.type.getColor((int) this.hitPoints);
+    }
+
+    /**
+     * Function name: getType.
+     * Returns the type of the block, which it shares with the other blocks of its kind
+     *
+     * @return block's type
+     */
+    public BlockType getType() {
+        return this.type;
+    }
+
+    /**
+     * Function name: isEdgeBlock.
+     * Returns whether the block is one of the edges of the level - edge blocks always look the same, even when hit
+     *
+     * @return true if the block is an edge block, false otherwise
+     */
+    public boolean isEdgeBlock() {
+        return this.type.isEdge();
     }
 
     /**
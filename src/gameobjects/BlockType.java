@@ -0,0 +1,196 @@
+package gameobjects;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The look and size of a kind of block, shared by all the blocks of that kind in a level - a block only keeps its
+ * own position and remaining hit points, and a reference to its type.
+ * The fills of the type are resolved when it's created, into arrays indexed by the number of hit points: the fill
+ * shown at a number of hit points is a single array read, instead of looking it up in the fill maps on every hit.
+ * A type never changes after it's created, so it can be shared by blocks of different levels and threads.
+ *
+ * @author Ariel Fenster
+ */
+public class BlockType {
+
+    // members
+    private double width;
+    private double height;
+    private double hitPoints;
+    private Color stroke;
+    private boolean isEdge;
+    // the fill shown at every number of hit points - a color, or an image if the color is null
+    private Color[] colors;
+    private Image[] images;
+    // the fill shown at a number of hit points outside the arrays
+    private Color defaultColor;
+    private Image defaultImage;
+
+    /**
+     * Function name: BlockType.
+     * Constructor for the type of the game blocks - resolves the fill of every number of hit points.
+     *
+     * @param width      - the width of the blocks
+     * @param height     - the height of the blocks
+     * @param fillColors - the colors to fill the blocks with, by the number of hit points they are shown at
+     * @param fillImages - the images to fill the blocks with, by the number of hit points they are shown at
+     * @param stroke     - the outline color of the blocks, or null if they don't have an outline
+     * @param hitPoints  - amount of hits before a block will disappear
+     */
+    public BlockType(double width, double height, Map<Integer, Color> fillColors, Map<Integer, Image> fillImages,
+                     Color stroke, double hitPoints) {
+        this.width = width;
+        this.height = height;
+        this.hitPoints = hitPoints;
+        this.stroke = stroke;
+        this.isEdge = false;
+
+        // a color fill for the number of hit points comes first, then the color of fill-1, then the images
+        this.defaultColor = fillColors.get(1);
+        this.defaultImage = this.defaultColor == null ? fillImages.get(1) : null;
+
+        // hit points only go down, so the arrays don't need numbers above the hit points (or above the last fill)
+        int lastFill = 1;
+        for (int number : fillColors.keySet()) {
+            lastFill = Math.max(lastFill, number);
+        }
+        for (int number : fillImages.keySet()) {
+            lastFill = Math.max(lastFill, number);
+        }
+        int length = (int) Math.max(0, Math.min(hitPoints, lastFill)) + 1;
+        this.colors = new Color[length];
+        this.images = new Image[length];
+        for (int i = 0; i < length; i++) {
+            if (fillColors.containsKey(i)) {
+                this.colors[i] = fillColors.get(i);
+            } else if (this.defaultColor == null && fillImages.containsKey(i)) {
+                this.images[i] = fillImages.get(i);
+            } else {
+                this.colors[i] = this.defaultColor;
+                this.images[i] = this.defaultImage;
+            }
+        }
+    }
+
+    /**
+     * Function name: BlockType (#2).
+     * Constructor for the type of an edge block - edge blocks are only painted with their color.
+     *
+     * @param width     - the width of the block
+     * @param height    - the height of the block
+     * @param color     - the color of the block
+     * @param hitPoints - amount of hits before the block will disappear
+     */
+    public BlockType(double width, double height, Color color, double hitPoints) {
+        this.width = width;
+        this.height = height;
+        this.hitPoints = hitPoints;
+        this.stroke = null;
+        this.isEdge = true;
+        this.defaultColor = color;
+        this.defaultImage = null;
+        this.colors = new Color[0];
+        this.images = new Image[0];
+    }
+
+    /**
+     * Function name: getWidth.
+     * Returns the width of the blocks of the type
+     *
+     * @return the width
+     */
+    public double getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Function name: getHeight.
+     * Returns the height of the blocks of the type
+     *
+     * @return the height
+     */
+    public double getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Function name: getHitPoints.
+     * Returns the hit points a block of the type starts with
+     *
+     * @return amount of hits before a block will disappear
+     */
+    public double getHitPoints() {
+        return this.hitPoints;
+    }
+
+    /**
+     * Function name: getStroke.
+     * Returns the outline color of the blocks of the type
+     *
+     * @return the outline color, or null if the blocks don't have an outline
+     */
+    public Color getStroke() {
+        return this.stroke;
+    }
+
+    /**
+     * Function name: isEdge.
+     * Returns whether the type is of an edge block - edge blocks always look the same, even when hit
+     *
+     * @return true if the type is of an edge block
+     */
+    public boolean isEdge() {
+        return this.isEdge;
+    }
+
+    /**
+     * Function name: getColor.
+     * Returns the color a block of the type is filled with when it has the given number of hit points
+     *
+     * @param hitPoints - the hit points the block has left
+     * @return the color, or null if the block is filled with an image
+     */
+    public Color getColor(int hitPoints) {
+        if (hitPoints >= 0 && hitPoints < this.colors.length) {
+            return this.colors[hitPoints];
+        }
+        return this.defaultColor;
+    }
+
+    /**
+     * Function name: getImage.
+     * Returns the image a block of the type is filled with when it has the given number of hit points
+     *
+     * @param hitPoints - the hit points the block has left
+     * @return the image, or null if the block is filled with a color
+     */
+    public Image getImage(int hitPoints) {
+        if (hitPoints >= 0 && hitPoints < this.images.length) {
+            return this.images[hitPoints];
+        }
+        return this.defaultImage;
+    }
+
+    /**
+     * Function name: equals.
+     * Checks if two block types are equal (meaning their blocks look and act the same). Images are equal only if
+     * they are the same image object, like the images of the shared image cache.
+     *
+     * @param other - the block type which we compare to
+     * @return true if the types are equal, false otherwise
+     */
+    public boolean equals(BlockType other) {
+        // if the other type doesn't even exist
+        if (other == null) {
+            return false;
+        }
+        return this.width == other.width && this.height == other.height && this.hitPoints == other.hitPoints
+                && this.isEdge == other.isEdge && Objects.equals(this.stroke, other.stroke)
+                && Objects.equals(this.defaultColor, other.defaultColor) && this.defaultImage == other.defaultImage
+                && Arrays.equals(this.colors, other.colors) && Arrays.equals(this.images, other.images);
+    }
+}
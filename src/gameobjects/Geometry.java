@@ -0,0 +1,201 @@
+package gameobjects;
+
+/**
+ * The geometric calculations of the game, done on plain numbers (coordinates) instead of points and lines, so that
+ * no objects are created while calculating. The Point, Line and Rectangle classes use these calculations and wrap
+ * their results.
+ * <p>
+ * A segment is given by its start point and its change (dx, dy) - the point at 't' on the segment is
+ * (x + t * dx, y + t * dy), where 't' goes from 0 (the start) to 1 (the end).
+ * A rectangle (box) is given by its sides - minX (left), minY (top), maxX (right) and maxY (bottom).
+ *
+ * @author Ariel Fenster
+ */
+public final class Geometry {
+
+    /**
+     * Function name: Geometry.
+     * The class only holds calculations and can't be created.
+     */
+    private Geometry() {
+    }
+
+    /**
+     * Function name: segmentBoxEntry.
+     * Returns where along the segment it enters the box (slab test), if it starts outside the box.
+     *
+     * @param x    - x coordinate of the segment's start
+     * @param y    - y coordinate of the segment's start
+     * @param dx   - the change of the segment in the X axis
+     * @param dy   - the change of the segment in the Y axis
+     * @param minX - the left side of the box
+     * @param minY - the top side of the box
+     * @param maxX - the right side of the box
+     * @param maxY - the bottom side of the box
+     * @return the 't' (0 to 1) of the entry point, or NaN if the segment doesn't enter the box
+     */
+    public static double segmentBoxEntry(double x, double y, double dx, double dy, double minX, double minY,
+                                         double maxX, double maxY) {
+        double tEnter = Double.NEGATIVE_INFINITY;
+        double tExit = Double.POSITIVE_INFINITY;
+        // the X axis slab
+        if (dx == 0) {
+            if (x < minX || x > maxX) {
+                return Double.NaN;
+            }
+        } else {
+            double t1 = (minX - x) / dx;
+            double t2 = (maxX - x) / dx;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+        // the Y axis slab
+        if (dy == 0) {
+            if (y < minY || y > maxY) {
+                return Double.NaN;
+            }
+        } else {
+            double t1 = (minY - y) / dy;
+            double t2 = (maxY - y) / dy;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+        if (tEnter > tExit || tEnter < 0 || tEnter > 1) {
+            return Double.NaN;
+        }
+        return tEnter;
+    }
+
+    /**
+     * Function name: segmentBoxExit.
+     * Returns where along the segment it leaves the box (slab test), if it ends outside the box.
+     *
+     * @param x    - x coordinate of the segment's start
+     * @param y    - y coordinate of the segment's start
+     * @param dx   - the change of the segment in the X axis
+     * @param dy   - the change of the segment in the Y axis
+     * @param minX - the left side of the box
+     * @param minY - the top side of the box
+     * @param maxX - the right side of the box
+     * @param maxY - the bottom side of the box
+     * @return the 't' (0 to 1) of the exit point, or NaN if the segment doesn't leave the box
+     */
+    public static double segmentBoxExit(double x, double y, double dx, double dy, double minX, double minY,
+                                        double maxX, double maxY) {
+        double tEnter = Double.NEGATIVE_INFINITY;
+        double tExit = Double.POSITIVE_INFINITY;
+        if (dx == 0) {
+            if (x < minX || x > maxX) {
+                return Double.NaN;
+            }
+        } else {
+            double t1 = (minX - x) / dx;
+            double t2 = (maxX - x) / dx;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (y < minY || y > maxY) {
+                return Double.NaN;
+            }
+        } else {
+            double t1 = (minY - y) / dy;
+            double t2 = (maxY - y) / dy;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+        if (tEnter > tExit || tExit < 0 || tExit > 1) {
+            return Double.NaN;
+        }
+        return tExit;
+    }
+
+    /**
+     * Function name: segmentBoxFirstCrossing.
+     * Returns where along the segment it first crosses the sides of the box - the entry point if the segment starts
+     * outside the box, or the exit point if it starts inside it.
+     *
+     * @param x    - x coordinate of the segment's start
+     * @param y    - y coordinate of the segment's start
+     * @param dx   - the change of the segment in the X axis
+     * @param dy   - the change of the segment in the Y axis
+     * @param minX - the left side of the box
+     * @param minY - the top side of the box
+     * @param maxX - the right side of the box
+     * @param maxY - the bottom side of the box
+     * @return the 't' (0 to 1) of the first crossing, or NaN if the segment doesn't cross the sides of the box
+     */
+    public static double segmentBoxFirstCrossing(double x, double y, double dx, double dy, double minX, double minY,
+                                                 double maxX, double maxY) {
+        double t = segmentBoxEntry(x, y, dx, dy, minX, minY, maxX, maxY);
+        if (Double.isNaN(t)) {
+            t = segmentBoxExit(x, y, dx, dy, minX, minY, maxX, maxY);
+        }
+        return t;
+    }
+
+    /**
+     * Function name: segmentsIntersection.
+     * Returns where along the first segment it crosses the second segment. Parallel segments are treated as having
+     * no intersection.
+     *
+     * @param x1  - x coordinate of the first segment's start
+     * @param y1  - y coordinate of the first segment's start
+     * @param dx1 - the change of the first segment in the X axis
+     * @param dy1 - the change of the first segment in the Y axis
+     * @param x2  - x coordinate of the second segment's start
+     * @param y2  - y coordinate of the second segment's start
+     * @param dx2 - the change of the second segment in the X axis
+     * @param dy2 - the change of the second segment in the Y axis
+     * @return the 't' (0 to 1) of the intersection on the first segment, or NaN if there isn't one
+     */
+    public static double segmentsIntersection(double x1, double y1, double dx1, double dy1, double x2, double y2,
+                                              double dx2, double dy2) {
+        double denominator = dx1 * dy2 - dy1 * dx2;
+        if (denominator == 0) {
+            return Double.NaN;
+        }
+        double startsDx = x2 - x1;
+        double startsDy = y2 - y1;
+        double t = (startsDx * dy2 - startsDy * dx2) / denominator;
+        double u = (startsDx * dy1 - startsDy * dx1) / denominator;
+        if (t < 0 || t > 1 || u < 0 || u > 1) {
+            return Double.NaN;
+        }
+        return t;
+    }
+
+    /**
+     * Function name: isPointOnSegment.
+     * Determines if a point is on a segment by checking that its distance from each of the edge points of the
+     * segment isn't longer than the length of the segment itself.
+     *
+     * @param px - x coordinate of the point
+     * @param py - y coordinate of the point
+     * @param x1 - x coordinate of the segment's start
+     * @param y1 - y coordinate of the segment's start
+     * @param x2 - x coordinate of the segment's end
+     * @param y2 - y coordinate of the segment's end
+     * @return true if the point is on the segment, false otherwise
+     */
+    public static boolean isPointOnSegment(double px, double py, double x1, double y1, double x2, double y2) {
+        double maxDist = Math.max(distance(px, py, x1, y1), distance(px, py, x2, y2));
+        return maxDist <= distance(x1, y1, x2, y2);
+    }
+
+    /**
+     * Function name: distance.
+     * Calculates the distance between two points.
+     *
+     * @param x1 - x coordinate of the first point
+     * @param y1 - y coordinate of the first point
+     * @param x2 - x coordinate of the second point
+     * @param y2 - y coordinate of the second point
+     * @return the distance between the points
+     */
+    public static double distance(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return Math.sqrt((dx * dx) + (dy * dy));
+    }
+}
@@ -1,11 +1,10 @@
 package gameobjects;
 
 import collidablesdata.Collidable;
-import collidablesdata.Sprite;
+import collidablesdata.InterpolatedSprite;
 import collidablesdata.Velocity;
 import gamelogic.GameLevel;
 import biuoop.DrawSurface;
-import biuoop.GUI;
 import biuoop.KeyboardSensor;
 
 import java.awt.Color;
@@ -16,7 +15,7 @@ import java.awt.Color;
  * the ball hit the paddle (the paddle is divided into 5 regions where each region changes the velocity differently).
  * The program adds the paddle to the game data and draws it.
  */
-public class Paddle implements Sprite, Collidable {
+public class Paddle implements InterpolatedSprite, Collidable {
     // members:
 
     // connecting between the user's actions and the paddle's movement
@@ -24,16 +23,16 @@ public class Paddle implements Sprite, Collidable {
 
     // the paddle is an instance of the Rectangle class
     private Rectangle paddle;
+    // the x coordinate of the left side before the last time that passed, for drawing the paddle in between
+    private double previousLeft;
 
     // the paddle's movement speed every time the user presses an arrow key
     private int paddleSpeed;
 
-    // dividing the paddle into 5 equally-spaced regions: all of the regions are part of the top line of the paddle
-    private Line region1;
-    private Line region2;
-    private Line region3;
-    private Line region4;
-    private Line region5;
+    // the paddle is divided into 5 equally-spaced regions along its top line
+    private static final int REGIONS = 5;
+    // the angle the ball bounces at from each region, from left to right
+    private static final double[] REGION_ANGLES = {-60, -30, 0, 30, 60};
 
     // the allowed range of movement for the paddle (specific for the paddle's upper left corner)
     private double minX;
@@ -53,21 +52,21 @@ public class Paddle implements Sprite, Collidable {
      */
     public Paddle(Point upperLeft, double width, double height, int speed, KeyboardSensor keyboard) {
         this.paddle = new Rectangle(upperLeft, width, height);
+        this.previousLeft = this.paddle.getLeft();
         this.paddleSpeed = speed;
         this.keyboard = keyboard;
-        this.updateRegions();
     }
 
     /**
      * Function name: setRangeOfMovement.
      * The function assigns the maximum and minimum 'x' values for the upper left corner of the paddle
      *
-     * @param gui              - the gui of the game - holds the game size dimensions
+     * @param screenWidth      - the width of the game's display
      * @param distanceFromEdge - width of the edge block
      */
-    public void setRangeOfMovement(GUI gui, int distanceFromEdge) {
+    public void setRangeOfMovement(int screenWidth, int distanceFromEdge) {
         this.minX = distanceFromEdge;
-        this.maxX = gui.getDrawSurface().getWidth() - distanceFromEdge - this.paddle.getWidth();
+        this.maxX = screenWidth - distanceFromEdge - this.paddle.getWidth();
     }
 
     /**
@@ -77,14 +76,12 @@ public class Paddle implements Sprite, Collidable {
      * @param dt - the time that passed since the last frame was shown
      */
     public void timePassed(double dt) {
+        this.previousLeft = this.paddle.getLeft();
         if (this.keyboard.isPressed(KeyboardSensor.LEFT_KEY)) {
             moveLeft(dt);
         } else if (this.keyboard.isPressed(KeyboardSensor.RIGHT_KEY)) {
             moveRight(dt);
         }
-        // every time we move the paddle we update its corners (and by so its regions) positions
-        this.paddle.updateCorners();
-        this.updateRegions();
     }
 
     /**
@@ -94,8 +91,20 @@ public class Paddle implements Sprite, Collidable {
      * @param d - the draw surface on which we draw the paddle
      */
     public void drawOn(DrawSurface d) {
-        int x = (int) this.paddle.getUpperLeft().getX();
-        int y = (int) this.paddle.getUpperLeft().getY();
+        this.drawOn(d, 1);
+    }
+
+    /**
+     * Function name: drawOn (#2).
+     * The function draws the paddle on the given draw surface, between its position before the last time that
+     * passed and its current position
+     *
+     * @param d     - the draw surface on which we draw the paddle
+     * @param alpha - how far between the previous and the current position to draw the paddle (0 to 1)
+     */
+    public void drawOn(DrawSurface d, double alpha) {
+        int x = (int) (this.previousLeft + (this.paddle.getLeft() - this.previousLeft) * alpha);
+        int y = (int) this.paddle.getTop();
         int width = (int) this.paddle.getWidth();
         int height = (int) this.paddle.getHeight();
 
@@ -121,39 +130,25 @@ public class Paddle implements Sprite, Collidable {
      *
      * @param hitter          - the ball that is hitting the paddle
      * @param collisionPoint  - where the ball and the object collided
-     * @param currentVelocity - the ball's current velocity
-     * @return a new ball's velocity
+     * @param currentVelocity - the ball's current velocity (changed in place)
+     * @return the ball's changed velocity
      */
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
-        Velocity newVelocity;
         double ballSpeed = hitter.getDiagonalSpeed();
-        double regOneAngle = -60;
-        double regTwoAngle = -30;
-        double regThreeAngle = 0;
-        double regFourAngle = 30;
-        double regFiveAngle = 60;
-
-        // checking each region and changing the angle based on that hit
-        if (this.region1.isPointOnSegment(collisionPoint)) {
-            newVelocity = Velocity.fromAngleAndSpeed(regOneAngle, ballSpeed);
-
-        } else if (this.region2.isPointOnSegment(collisionPoint)) {
-            newVelocity = Velocity.fromAngleAndSpeed(regTwoAngle, ballSpeed);
-
-        } else if (this.region3.isPointOnSegment(collisionPoint)) {
-            newVelocity = Velocity.fromAngleAndSpeed(regThreeAngle, ballSpeed);
-
-        } else if (this.region4.isPointOnSegment(collisionPoint)) {
-            newVelocity = Velocity.fromAngleAndSpeed(regFourAngle, ballSpeed);
-
-        } else if (this.region5.isPointOnSegment(collisionPoint)) {
-            newVelocity = Velocity.fromAngleAndSpeed(regFiveAngle, ballSpeed);
+        double x = collisionPoint.getX();
+        double y = collisionPoint.getY();
+        double left = this.paddle.getLeft();
+        double top = this.paddle.getTop();
+        // checking which region of the top line was hit and changing the angle based on that hit
+        if (Geometry.isPointOnSegment(x, y, left, top, this.paddle.getRight(), top)) {
+            int region = (int) ((x - left) / (this.paddle.getWidth() / REGIONS));
+            currentVelocity.setAngleAndSpeed(REGION_ANGLES[Math.min(region, REGIONS - 1)], ballSpeed);
 
             // if hitting one of the sides of the paddle
         } else {
-            newVelocity = new Velocity(currentVelocity.getVelocityDx() * -1, currentVelocity.getVelocityDy());
+            currentVelocity.set(currentVelocity.getVelocityDx() * -1, currentVelocity.getVelocityDy());
         }
-        return newVelocity;
+        return currentVelocity;
     }
 
     /**
@@ -163,13 +158,14 @@ public class Paddle implements Sprite, Collidable {
      * @param gameLevel - the level which we add the paddle to
      */
     public void addToGame(GameLevel gameLevel) {
-        gameLevel.addCollidable(this);
+        // the paddle moves during the level so it is added as a moving collidable
+        gameLevel.addMovingCollidable(this);
         gameLevel.addSprite(this);
     }
 
     /**
      * Function name: moveLeft.
-     * Move the paddle right. Ensures that the paddle does not exceed the range of the screen
+     * Move the paddle left. Ensures that the paddle does not exceed the range of the screen
      *
      * @param dt - the time that passed since the last frame was shown
      */
@@ -202,9 +198,7 @@ public class Paddle implements Sprite, Collidable {
      * @param amount - the amount we change the position of the corner by
      */
     private void movePaddleBy(double amount) {
-        double x = this.paddle.getUpperLeft().getX() + amount;
-        double y = this.paddle.getUpperLeft().getY();
-        this.paddle = new Rectangle(new Point(x, y), this.paddle.getWidth(), this.paddle.getHeight());
+        this.paddle.setUpperLeftXPosTo(this.paddle.getLeft() + amount);
     }
 
     /**
@@ -214,7 +208,7 @@ public class Paddle implements Sprite, Collidable {
      * @return true if the paddle is outside of the left side of the frame, false otherwise
      */
     private boolean isHittingLeftEdge() {
-        return (this.paddle.getUpperLeft().getX() <= this.minX);
+        return (this.paddle.getLeft() <= this.minX);
     }
 
     /**
@@ -224,81 +218,6 @@ public class Paddle implements Sprite, Collidable {
      * @return true if the paddle is outside of the right side of the frame, false otherwise
      */
     private boolean isHittingRightEdge() {
-        return (this.paddle.getUpperLeft().getX() >= this.maxX);
-    }
-
-    // set functions for the rectangle's top line regions
-
-    /**
-     * Function name: updateRegions.
-     * The function updates the positions of the regions of the paddle every time the paddle has moved.
-     */
-    private void updateRegions() {
-        // calling the setting function to update new positions
-        this.divideToRegions();
-    }
-
-    /**
-     * Function name: divideToRegions.
-     * A collection of setting functions.
-     */
-    private void divideToRegions() {
-        this.setRegion1();
-        this.setRegion2();
-        this.setRegion3();
-        this.setRegion4();
-        this.setRegion5();
-    }
-
-    /**
-     * Function name: setRegion1.
-     * The function assigns the first region of the top of the paddle.
-     */
-    private void setRegion1() {
-        // the X value for the end point is a 1/5 of the paddle's width away from the start X value
-        Point start = this.paddle.getUpperLeft();
-        Point end = new Point(start.getX() + this.paddle.getWidth() / 5, start.getY());
-        this.region1 = new Line(start, end);
-    }
-
-    /**
-     * Function name: setRegion2.
-     * The function assigns the second region of the top of the paddle.
-     * Each new starting region point is the end point of the previous region.
-     */
-    private void setRegion2() {
-        Point start = this.region1.end();
-        Point end = new Point(start.getX() + this.paddle.getWidth() / 5, start.getY());
-        this.region2 = new Line(start, end);
-    }
-
-    /**
-     * Function name: setRegion3.
-     * The function assigns the third region of the top of the paddle.
-     */
-    private void setRegion3() {
-        Point start = this.region2.end();
-        Point end = new Point(start.getX() + this.paddle.getWidth() / 5, start.getY());
-        this.region3 = new Line(start, end);
-    }
-
-    /**
-     * Function name: setRegion4.
-     * The function assigns the fourth region of the top of the paddle.
-     */
-    private void setRegion4() {
-        Point start = this.region3.end();
-        Point end = new Point(start.getX() + this.paddle.getWidth() / 5, start.getY());
-        this.region4 = new Line(start, end);
-    }
-
-    /**
-     * Function name: setRegion5.
-     * The function assigns the fifth and final region of the top of the paddle.
-     */
-    private void setRegion5() {
-        Point start = this.region4.end();
-        Point end = new Point(start.getX() + this.paddle.getWidth() / 5, start.getY());
-        this.region5 = new Line(start, end);
+        return (this.paddle.getLeft() >= this.maxX);
     }
-}
\ No newline at end of file
+}
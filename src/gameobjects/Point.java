@@ -30,11 +30,7 @@ public class Point {
      * @return the distance to the other point (no declared variable)
      */
     public double distance(Point other) {
-        // the difference in the x and y coordinates, respectively
-        double dx = this.x - other.x;
-        double dy = this.y - other.y;
-
-        return Math.sqrt((dx * dx) + (dy * dy));
+        return Geometry.distance(this.x, this.y, other.x, other.y);
     }
 
     /**
@@ -52,6 +48,19 @@ public class Point {
         return ((this.x == other.getX()) && (this.y == other.getY()));
     }
 
+    /**
+     * Function name: moveTo.
+     * Moves the point to the given coordinates. Only for points that aren't shared, like the collision point that a
+     * collision search fills again for every result.
+     *
+     * @param newX - the new x coordinate of the point
+     * @param newY - the new y coordinate of the point
+     */
+    public void moveTo(double newX, double newY) {
+        this.x = newX;
+        this.y = newY;
+    }
+
     /**
      * Function name: getX.
      * Returns the x coordinate.
@@ -7,16 +7,22 @@ import java.util.ArrayList;
  * A rectangle has a position on the screen, height and width.
  * The program checks if a given line intersects with the rectangle and sets each of its corners every time it changes
  * position.
- * The program grants access to each line and each corner of the rectangle
+ * The program grants access to each corner and to the top and bottom lines of the rectangle
+ * <p>
+ * The position and size are kept as plain numbers, and can be read without creating any objects using getLeft,
+ * getTop, getRight and getBottom. The corner points are only created when they are asked for.
  *
  * @author Ariel Fenster
  */
 public class Rectangle {
     //members
-    private Point upperLeft;
+    private double left;
+    private double top;
     private double width;
     private double height;
 
+    // the corner points, created when they are asked for after the rectangle has changed
+    private Point upperLeft;
     private Point upperRight;
     private Point downLeft;
     private Point downRight;
@@ -30,40 +36,57 @@ public class Rectangle {
      * @param height    - the height of the rectangle
      */
     public Rectangle(Point upperLeft, double width, double height) {
+        this.left = upperLeft.getX();
+        this.top = upperLeft.getY();
+        this.width = width;
+        this.height = height;
         this.upperLeft = upperLeft;
+    }
+
+    /**
+     * Function name: Rectangle (#2).
+     * Constructor - create a new rectangle at a specific location with width and height, without a corner point
+     * (it's created when it's asked for).
+     *
+     * @param left   - the x coordinate of the left side of the rectangle
+     * @param top    - the y coordinate of the top side of the rectangle
+     * @param width  - the width of the rectangle
+     * @param height - the height of the rectangle
+     */
+    public Rectangle(double left, double top, double width, double height) {
+        this.left = left;
+        this.top = top;
         this.width = width;
         this.height = height;
-        // used to "create" all the other edge points of the rectangle
-        this.updateCorners();
     }
 
     /**
      * Function name: intersectionPoints.
-     * The function checks if a given line intersects the rectangle.
+     * The function checks if a given line intersects the rectangle: the point where the line segment enters the
+     * rectangle (if it starts outside it) and the point where it leaves the rectangle (if it ends outside it).
+     * A segment that only touches a corner gives that corner once, and a segment along a side gives the ends of the
+     * part of it that is on the side.
      *
      * @param line - the line we check if it intersects the rectangle
-     * @return a (possibly empty) list of intersection points with the specific line
+     * @return a (possibly empty) list of at most two intersection points with the specific line, in the order of
+     * the line
      */
     public java.util.List<Point> intersectionPoints(Line line) {
-        ArrayList<Point> list = new ArrayList<>();
-        Point interPoint;
-
-        // check intersections with all the sides of the rectangle and if exists such a point - add to the list
-        interPoint = line.intersectionWith(this.getTopLine());
-        if (interPoint != null) {
-            list.add(interPoint);
-        }
-        interPoint = line.intersectionWith(this.getLeftLine());
-        if (interPoint != null) {
-            list.add(interPoint);
-        }
-        interPoint = line.intersectionWith(this.getBottomLine());
-        if (interPoint != null) {
-            list.add(interPoint);
+        ArrayList<Point> list = new ArrayList<>(2);
+        double x = line.start().getX();
+        double y = line.start().getY();
+        double dx = line.end().getX() - x;
+        double dy = line.end().getY() - y;
+
+        // the line can cross the sides of the rectangle when entering it and when leaving it
+        double tEnter = Geometry.segmentBoxEntry(x, y, dx, dy, this.left, this.top, this.getRight(),
+                this.getBottom());
+        if (!Double.isNaN(tEnter)) {
+            list.add(new Point(x + tEnter * dx, y + tEnter * dy));
         }
-        interPoint = line.intersectionWith(this.getRightLine());
-        if (interPoint != null) {
-            list.add(interPoint);
+        double tExit = Geometry.segmentBoxExit(x, y, dx, dy, this.left, this.top, this.getRight(), this.getBottom());
+        if (!Double.isNaN(tExit) && tExit != tEnter) {
+            list.add(new Point(x + tExit * dx, y + tExit * dy));
         }
         return list;
     }
@@ -72,12 +95,13 @@ public class Rectangle {
 
     /**
      * Function name: updateCorners.
-     * A collection of setting functions
+     * Marks the corner points to be created again the next time they are asked for
      */
     public void updateCorners() {
-        this.setUpperRight();
-        this.setDownRight();
-        this.setDownLeft();
+        this.upperLeft = null;
+        this.upperRight = null;
+        this.downLeft = null;
+        this.downRight = null;
     }
 
     /**
@@ -87,37 +111,50 @@ public class Rectangle {
      * @param newXPosition - the new value for the upper left corner's X coordinate
      */
     public void setUpperLeftXPosTo(double newXPosition) {
-        this.upperLeft = new Point(newXPosition, this.upperLeft.getY());
+        this.left = newXPosition;
+        this.updateCorners();
+    }
+
+    // get functions for the sides of the rectangle:
+
+    /**
+     * Function name: getLeft.
+     * Return the x coordinate of the left side of the rectangle
+     *
+     * @return x coordinate of the left side
+     */
+    public double getLeft() {
+        return this.left;
     }
 
     /**
-     * Function name: setUpperRight.
-     * Setting the values of the upper right corner point of the rectangle
+     * Function name: getTop.
+     * Return the y coordinate of the top side of the rectangle
+     *
+     * @return y coordinate of the top side
      */
-    private void setUpperRight() {
-        double x = this.upperLeft.getX() + this.getWidth();
-        double y = this.upperLeft.getY();
-        this.upperRight = new Point(x, y);
+    public double getTop() {
+        return this.top;
     }
 
     /**
-     * Function name: setDownLeft.
-     * Setting the values for the down left corner point of the rectangle
+     * Function name: getRight.
+     * Return the x coordinate of the right side of the rectangle
+     *
+     * @return x coordinate of the right side
      */
-    private void setDownLeft() {
-        double x = this.upperLeft.getX();
-        double y = this.upperLeft.getY() + this.getHeight();
-        this.downLeft = new Point(x, y);
+    public double getRight() {
+        return this.left + this.width;
     }
 
     /**
-     * Function name: setDownRight.
-     * Setting the values for the down right corner point of the rectangle
+     * Function name: getBottom.
+     * Return the y coordinate of the bottom side of the rectangle
+     *
+     * @return y coordinate of the bottom side
      */
-    private void setDownRight() {
-        double x = this.upperLeft.getX() + this.getWidth();
-        double y = this.upperLeft.getY() + this.getHeight();
-        this.downRight = new Point(x, y);
+    public double getBottom() {
+        return this.top + this.height;
     }
 
     // get functions for all the corner points of the rectangle:
@@ -129,6 +166,9 @@ public class Rectangle {
      * @return upper left corner point
      */
     public Point getUpperLeft() {
+        if (this.upperLeft == null) {
+            this.upperLeft = new Point(this.left, this.top);
+        }
         return this.upperLeft;
     }
 
@@ -139,6 +179,9 @@ public class Rectangle {
      * @return upper right corner point
      */
     public Point getUpperRight() {
+        if (this.upperRight == null) {
+            this.upperRight = new Point(this.getRight(), this.top);
+        }
         return this.upperRight;
     }
 
@@ -149,6 +192,9 @@ public class Rectangle {
      * @return down left corner point
      */
     private Point getDownLeft() {
+        if (this.downLeft == null) {
+            this.downLeft = new Point(this.left, this.getBottom());
+        }
         return this.downLeft;
     }
 
@@ -159,6 +205,9 @@ public class Rectangle {
      * @return down right corner point
      */
     public Point getDownRight() {
+        if (this.downRight == null) {
+            this.downRight = new Point(this.getRight(), this.getBottom());
+        }
         return this.downRight;
     }
 
@@ -174,16 +223,6 @@ public class Rectangle {
         return new Line(this.getUpperLeft(), this.getUpperRight());
     }
 
-    /**
-     * Function name: getLeftLine.
-     * Return the left line of the rectangle
-     *
-     * @return left line of rectangle
-     */
-    private Line getLeftLine() {
-        return new Line(this.getUpperLeft(), this.getDownLeft());
-    }
-
     /**
      * Function name: getBottomLine.
      * Return the bottom line of the rectangle
@@ -194,16 +233,6 @@ public class Rectangle {
         return new Line(this.getDownLeft(), this.getDownRight());
     }
 
-    /**
-     * Function name: getRightLine.
-     * Return the right line of the rectangle
-     *
-     * @return right line of rectangle
-     */
-    private Line getRightLine() {
-        return new Line(this.getUpperRight(), this.getDownRight());
-    }
-
     /**
      * Function name: getWidth.
      * Return the width of the rectangle
@@ -223,4 +252,4 @@ public class Rectangle {
     public double getHeight() {
         return this.height;
     }
-}
\ No newline at end of file
+}
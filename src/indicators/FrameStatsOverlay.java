@@ -0,0 +1,129 @@
+package indicators;
+
+import animation.FrameStats;
+import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
+import collidablesdata.GameEnvironment;
+import collidablesdata.Sprite;
+import listeners.Counter;
+
+import java.awt.Color;
+
+/**
+ * Displaying the timings of the frames over the game - the frame rate, the percentiles of the time of each phase of
+ * a frame, the amount of balls and blocks, the simulation steps, ball sub-steps and collisions of the last frame, the
+ * time the last level transition took and the last reload of the definitions of the levels - to see stutter while
+ * playing.
+ * The overlay is turned on and off with the 'f' key. Turning it on starts the timings over, so the percentiles show
+ * what happened since.
+ *
+ * @author Ariel Fenster
+ */
+public class FrameStatsOverlay implements Sprite {
+    // the key that turns the overlay on and off
+    public static final String TOGGLE_KEY = "f";
+    private static final int LEFT = 35;
+    private static final int TOP = 45;
+    private static final int LINE_HEIGHT = 15;
+    private static final int FONT_SIZE = 12;
+
+    // members
+    private FrameStats stats;
+    private KeyboardSensor keyboard;
+    private GameEnvironment environment;
+    private Counter balls;
+    private Counter blocksDestroyed;
+    private int blocksToRemove;
+    private boolean wasKeyPressed;
+
+    /**
+     * Function name: FrameStatsOverlay.
+     * Constructor for the class
+     *
+     * @param stats           - the timings of the frames
+     * @param keyboard        - the keyboard the overlay is turned on and off with
+     * @param environment     - the collidable objects of the level, that limit the sub-steps of the balls
+     * @param balls           - a counter that keeps track of the amount of balls
+     * @param blocksDestroyed - a counter that keeps track of the amount of blocks destroyed
+     * @param blocksToRemove  - the amount of blocks in the level
+     */
+    public FrameStatsOverlay(FrameStats stats, KeyboardSensor keyboard, GameEnvironment environment, Counter balls,
+                             Counter blocksDestroyed, int blocksToRemove) {
+        this.stats = stats;
+        this.keyboard = keyboard;
+        this.environment = environment;
+        this.balls = balls;
+        this.blocksDestroyed = blocksDestroyed;
+        this.blocksToRemove = blocksToRemove;
+        // a key held when the level starts doesn't toggle the overlay
+        this.wasKeyPressed = true;
+    }
+
+    /**
+     * Function name: drawOn.
+     * Drawing the timings on the given draw surface, if the overlay is on
+     *
+     * @param surface - the platform on which we draw the timings
+     */
+    public void drawOn(DrawSurface surface) {
+        if (!this.stats.isOverlayVisible()) {
+            return;
+        }
+
+        String reload = this.stats.describeReload();
+        int lines = FrameStats.getPhaseCount() + (reload == null ? 4 : 5);
+        surface.setColor(new Color(0, 0, 0, 170));
+        surface.fillRectangle(LEFT - 5, TOP - LINE_HEIGHT + 2, 420, lines * LINE_HEIGHT + 6);
+        surface.setColor(Color.WHITE);
+        int y = TOP;
+        String title = String.format("FPS: %.1f   ('%s' to hide)", this.stats.getFps(), TOGGLE_KEY);
+        surface.drawText(LEFT, y, title, FONT_SIZE);
+        // the whole frame first, then its phases
+        y += LINE_HEIGHT;
+        surface.drawText(LEFT, y, this.stats.describe(FrameStats.FRAME), FONT_SIZE);
+        for (int phase = 0; phase < FrameStats.getPhaseCount(); phase++) {
+            if (phase != FrameStats.FRAME) {
+                y += LINE_HEIGHT;
+                surface.drawText(LEFT, y, this.stats.describe(phase), FONT_SIZE);
+            }
+        }
+        y += LINE_HEIGHT;
+        surface.drawText(LEFT, y, "balls: " + this.balls.getValue() + "   blocks: "
+                + (this.blocksToRemove - this.blocksDestroyed.getValue()), FONT_SIZE);
+        y += LINE_HEIGHT;
+        surface.drawText(LEFT, y, this.stats.describeSteps(this.environment.getMaxSubSteps()), FONT_SIZE);
+        y += LINE_HEIGHT;
+        surface.drawText(LEFT, y, this.stats.describeTransitions(), FONT_SIZE);
+        if (reload != null) {
+            y += LINE_HEIGHT;
+            surface.drawText(LEFT, y, reload, FONT_SIZE);
+        }
+    }
+
+    /**
+     * Function name: setBlocksToRemove.
+     * Sets the amount of blocks in the level, when the level is reloaded with a different amount
+     *
+     * @param amount - the amount of blocks in the level
+     */
+    public void setBlocksToRemove(int amount) {
+        this.blocksToRemove = amount;
+    }
+
+    /**
+     * Function name: timePassed.
+     * Turns the overlay on or off when the key is pressed.
+     *
+     * @param dt - the time that passed since the last frame was shown
+     */
+    public void timePassed(double dt) {
+        boolean keyPressed = this.keyboard.isPressed(TOGGLE_KEY);
+        if (keyPressed && !this.wasKeyPressed) {
+            this.stats.setOverlayVisible(!this.stats.isOverlayVisible());
+            if (this.stats.isOverlayVisible()) {
+                this.stats.reset();
+            }
+        }
+        this.wasKeyPressed = keyPressed;
+    }
+}
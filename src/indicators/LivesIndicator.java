@@ -15,6 +15,9 @@ public class LivesIndicator implements Sprite {
 
     // member - holds a reference to the lives counter
     private Counter currentLives;
+    // the shown text and the number of lives it shows - the text is made again only when the number changes
+    private String displayLives;
+    private int shownLives;
 
     /**
      * Function name: LivesIndicator.
@@ -24,6 +27,7 @@ public class LivesIndicator implements Sprite {
      */
     public LivesIndicator(Counter livesCounter) {
         this.currentLives = livesCounter;
+        this.displayLives = null;
     }
 
     /**
@@ -37,9 +41,12 @@ public class LivesIndicator implements Sprite {
         surface.setColor(Color.LIGHT_GRAY);
         surface.fillRectangle(0, 0, surface.getWidth(), 30);
 
-        String displayLives = "Lives: " + this.currentLives.getValue();
+        if (this.displayLives == null || this.shownLives != this.currentLives.getValue()) {
+            this.shownLives = this.currentLives.getValue();
+            this.displayLives = "Lives: " + this.shownLives;
+        }
         surface.setColor(Color.BLACK);
-        surface.drawText(75, 20, displayLives, 18);
+        surface.drawText(75, 20, this.displayLives, 18);
     }
 
     /**
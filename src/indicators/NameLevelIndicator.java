@@ -12,8 +12,8 @@ import java.awt.Color;
  */
 public class NameLevelIndicator implements Sprite {
 
-    // member
-    private String name;
+    // member - the shown text, made once from the name of the level
+    private String displayName;
 
     /**
      * Function name: NameLevelIndicator.
@@ -22,7 +22,7 @@ public class NameLevelIndicator implements Sprite {
      * @param levelName - the name of the current level
      */
     public NameLevelIndicator(String levelName) {
-        this.name = levelName;
+        this.displayName = "Level Name: " + levelName;
     }
 
     /**
@@ -32,9 +32,8 @@ public class NameLevelIndicator implements Sprite {
      * @param surface - the platform on which we draw the name of the level
      */
     public void drawOn(DrawSurface surface) {
-        String displayScore = "Level Name: " + this.name;
         surface.setColor(Color.BLACK);
-        surface.drawText(475, 20, displayScore, 18);
+        surface.drawText(475, 20, this.displayName, 18);
     }
 
     /**
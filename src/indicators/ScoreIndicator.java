@@ -15,6 +15,9 @@ public class ScoreIndicator implements Sprite {
 
     // member - holding a reference to the score counter
     private Counter currentScore;
+    // the shown text and the score it shows - the text is made again only when the score changes
+    private String displayScore;
+    private int shownScore;
 
     /**
      * Function name: ScoreIndicator.
@@ -24,6 +27,7 @@ public class ScoreIndicator implements Sprite {
      */
     public ScoreIndicator(Counter scoreCounter) {
         this.currentScore = scoreCounter;
+        this.displayScore = null;
     }
 
     /**
@@ -33,9 +37,12 @@ public class ScoreIndicator implements Sprite {
      * @param surface - the platform on which we draw the player's score
      */
     public void drawOn(DrawSurface surface) {
-        String displayScore = "Score: " + this.currentScore.getValue();
+        if (this.displayScore == null || this.shownScore != this.currentScore.getValue()) {
+            this.shownScore = this.currentScore.getValue();
+            this.displayScore = "Score: " + this.shownScore;
+        }
         surface.setColor(Color.BLACK);
-        surface.drawText(275, 20, displayScore, 18);
+        surface.drawText(275, 20, this.displayScore, 18);
     }
 
     /**
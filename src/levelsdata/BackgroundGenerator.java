@@ -15,6 +15,8 @@ public class BackgroundGenerator implements Sprite {
 
     private Image image;
     private Color color;
+    // the path of the image file in the class path, or null if the background is a color
+    private String imagePath;
 
     /**
      * Function name: BackgroundGenerator.
@@ -25,9 +27,23 @@ public class BackgroundGenerator implements Sprite {
     public BackgroundGenerator(String background) {
         this.image = null;
         this.color = null;
+        this.imagePath = null;
         this.setBackground(background);
     }
 
+    /**
+     * Function name: BackgroundGenerator (#2).
+     * Constructor - for a background that was already parsed (like in a level pack)
+     *
+     * @param color     - the color of the background, or null if it's an image
+     * @param imagePath - the path of the image file in the class path, or null if the background is a color
+     */
+    public BackgroundGenerator(Color color, String imagePath) {
+        this.color = color;
+        this.imagePath = imagePath;
+        this.image = imagePath == null ? null : ImageCache.getShared().getImage(imagePath);
+    }
+
     /**
      * Function name: setBackground.
      * Sets the background for the level.
@@ -37,7 +53,9 @@ public class BackgroundGenerator implements Sprite {
     private void setBackground(String background) {
         this.color = new ColorsParser().colorFromString(background);
         if (this.color == null) {
-            this.image = new ImageParser().imageFromString(background);
+            // the path is written inside the parentheses of 'image(...)'
+            this.imagePath = background.substring(background.indexOf('(') + 1, background.length() - 1);
+            this.image = ImageCache.getShared().getImage(this.imagePath);
         }
     }
 
@@ -55,6 +73,10 @@ public class BackgroundGenerator implements Sprite {
             d.fillRectangle(0, 0, d.getWidth(), d.getHeight());
             // if the background is an image
         } else {
+            // the image is scaled to the size of the screen the first time it's drawn
+            if (this.image.getWidth(null) != d.getWidth() || this.image.getHeight(null) != d.getHeight()) {
+                this.image = ImageCache.getShared().getImage(this.imagePath, d.getWidth(), d.getHeight());
+            }
             d.drawImage(0, 0, this.image);
         }
     }
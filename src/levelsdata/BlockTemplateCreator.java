@@ -1,17 +1,19 @@
 package levelsdata;
 
 import gameobjects.Block;
+import gameobjects.BlockType;
 import gameobjects.Point;
 
 import java.awt.Color;
 import java.awt.Image;
+import java.util.Collections;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * The class is a blueprint that holds information regarding different block type and their information.
+ * The settings of a 'bdef' line are set on the template as they are read, already as numbers and colors. A setting
+ * the line doesn't have is taken from the template of the 'default' line before it (if there is one).
  *
  * @author Ariel Fenster
  */
@@ -19,36 +21,40 @@ public class BlockTemplateCreator implements BlockCreator {
 
     private static final String ERROR_MSG = "Missing block information: ";
 
-    // contain all the necessary information - retrieved by reading the text
-    private Map<String, String> defaultDetails;
-    private Map<String, String> blockTypeDetails;
+    // the settings of the 'default' line, or null if the block has none
+    private BlockTemplateCreator defaults;
 
-    // distribute the information to different variables
+    // the settings of the line - the numbers are NaN and the stroke isn't set if the line doesn't have them, and
+    // the fill maps are only created for the first fill
     private String symbol;
-    private Map<Integer, Color> fillColors;
-    private Map<Integer, Image> fillImages;
-    private Color stroke;
     private double width;
     private double height;
     private double hitPoints;
+    private Color stroke;
+    private boolean hasStroke;
+    private Map<Integer, Color> fillColors;
+    private Map<Integer, String> fillImages;
+
+    // the type shared by all the blocks the template creates, made when the first block is created
+    private BlockType type;
 
     /**
      * Function name: BlockTemplateCreator.
-     * Constructor.
+     * Constructor - creates a template without settings.
      *
-     * @param defaultDetails   - the information listed in the 'default' section of the information file
-     * @param blockTypeDetails - the information listed in a single block information line
+     * @param defaults - the template of the 'default' line before the block's line, or null if there is none
      */
-    public BlockTemplateCreator(Map<String, String> defaultDetails, Map<String, String> blockTypeDetails) {
-        this.defaultDetails = defaultDetails;
-        this.blockTypeDetails = blockTypeDetails;
-        this.fillColors = new TreeMap<>();
-        this.fillImages = new TreeMap<>();
+    public BlockTemplateCreator(BlockTemplateCreator defaults) {
+        this.defaults = defaults;
+        this.width = Double.NaN;
+        this.height = Double.NaN;
+        this.hitPoints = Double.NaN;
     }
 
     /**
      * Function name: create.
-     * Creates a block at the specified location.
+     * Creates a block at the specified location. The type of the blocks is made for the first block, the next
+     * blocks share it.
      *
      * @param xPos - x coordinate
      * @param yPos - y coordinate
@@ -56,11 +62,12 @@ public class BlockTemplateCreator implements BlockCreator {
      */
     @Override
     public Block create(int xPos, int yPos) {
-        // try to set the members. if there is missing data, catch the thrown exception and return null to notify error
+        // try to make the type. if there is missing data, catch the thrown exception and return null to notify error
         try {
-            this.setMembers();
-            Point p = new Point(xPos, yPos);
-            return new Block(p, this.width, this.height, this.fillColors, this.fillImages, this.stroke, this.hitPoints);
+            if (this.type == null) {
+                this.type = this.createType();
+            }
+            return new Block(new Point(xPos, yPos), this.type);
         } catch (NullPointerException e) {
             e.printStackTrace();
             return null;
@@ -68,175 +75,220 @@ public class BlockTemplateCreator implements BlockCreator {
     }
 
     /**
-     * Function name: setMembers.
-     * Setting all the members in the class
+     * Function name: createType.
+     * Creates the type of the blocks from the settings, with the images scaled to the size of the blocks
      *
-     * @throws NullPointerException - if one of the maps don't contain the appropriate information
+     * @return the type of the blocks
+     * @throws NullPointerException - if a setting is missing from both the block and the defaults
      */
-    private void setMembers() throws NullPointerException {
-        this.setSymbol();
-        this.setBlockFillMaps();
-        this.setStroke();
-        this.setWidth();
-        this.setHeight();
-        this.setHitPoints();
+    private BlockType createType() throws NullPointerException {
+        double blockWidth = this.getWidth();
+        double blockHeight = this.getHeight();
+        double blockHitPoints = this.getHitPoints();
+        if (Double.isNaN(blockWidth)) {
+            throw new NullPointerException(ERROR_MSG + "'width'");
+        }
+        if (Double.isNaN(blockHeight)) {
+            throw new NullPointerException(ERROR_MSG + "'height'");
+        }
+        if (Double.isNaN(blockHitPoints)) {
+            throw new NullPointerException(ERROR_MSG + "'hit_points'");
+        }
+        Map<Integer, Color> colors = this.getFillColors();
+        Map<Integer, String> paths = this.getFillImages();
+        Map<Integer, Image> images = paths.isEmpty() ? Collections.<Integer, Image>emptyMap() : new TreeMap<>();
+        for (Map.Entry<Integer, String> fill : paths.entrySet()) {
+            images.put(fill.getKey(), ImageCache.getShared().getImage(fill.getValue(), (int) blockWidth,
+                    (int) blockHeight));
+        }
+        // if the design maps are empty, meaning there is missing information, throw an exception to notify an error
+        if (colors.size() == 0 && images.size() == 0) {
+            throw new NullPointerException(ERROR_MSG + "'fill'");
+        }
+        return new BlockType(blockWidth, blockHeight, colors, images, this.getStroke(), blockHitPoints);
     }
 
     /**
      * Function name: setSymbol.
-     * Gets the symbol from the information maps and sets as a member
+     * Sets the symbol of the block in the layouts
      *
-     * @throws NullPointerException - if the map doesn't contain the appropriate information
+     * @param s - the symbol
      */
-    private void setSymbol() throws NullPointerException {
-        try {
-            this.symbol = this.blockTypeDetails.get("symbol");
-        } catch(Exception e) {
-            throw new NullPointerException(ERROR_MSG + "'symbol'");
-        }
+    void setSymbol(String s) {
+        this.symbol = s;
     }
 
     /**
-     * Function name: setBlockFillMaps.
-     * Getting the mapped information from the maps and if is fill information - add to the appropriate map
+     * Function name: setWidth.
+     * Sets the width of the blocks
      *
-     * @throws NullPointerException - if both of the maps don't contain the appropriate information
+     * @param w - the width
      */
-    private void setBlockFillMaps() throws NullPointerException {
-        if (this.defaultDetails != null) {
-            for (Map.Entry<String, String> entry : this.defaultDetails.entrySet()) {
-                this.addToFillMaps(entry.getKey() + ":" + entry.getValue());
-            }
-        }
-        for (Map.Entry<String, String> entry : this.blockTypeDetails.entrySet()) {
-            this.addToFillMaps(entry.getKey() + ":" + entry.getValue());
-        }
-        // if the design maps are empty, meaning there is missing information, throw an exception to notify an error
-        if (this.fillImages.size() == 0 && this.fillColors.size() == 0) {
-            throw new NullPointerException(ERROR_MSG + "'fill'");
-        }
+    void setWidth(double w) {
+        this.width = w;
+    }
+
+    /**
+     * Function name: setHeight.
+     * Sets the height of the blocks
+     *
+     * @param h - the height
+     */
+    void setHeight(double h) {
+        this.height = h;
     }
 
     /**
-     * Function name: addToFillMaps.
-     * Checking if the given string is regarding fill information about the block. If so, add the information to the
-     * appropriate map
+     * Function name: setHitPoints.
+     * Sets the amount of hits before a block will disappear
      *
-     * @param data - string representation of a key:value from the maps
+     * @param points - the hit points
      */
-    private void addToFillMaps(String data) {
-        if (data.startsWith("fill")) {
-            String key = data.substring(0, data.indexOf(':'));
-            String value = data.substring(data.indexOf(':') + 1);
+    void setHitPoints(double points) {
+        this.hitPoints = points;
+    }
 
-            // if it's a color
-            if (value.contains("color")) {
-                ColorsParser parser = new ColorsParser();
-                this.fillColors.put(this.getFillNumberFrom(key), parser.colorFromString(value));
-                // if it's an image
-            } else {
-                ImageParser parser = new ImageParser();
-                this.fillImages.put(this.getFillNumberFrom(key), parser.imageFromString(value));
-            }
-        }
+    /**
+     * Function name: setStroke.
+     * Sets the outline color of the blocks
+     *
+     * @param color - the color, or null for no outline
+     */
+    void setStroke(Color color) {
+        this.stroke = color;
+        this.hasStroke = true;
     }
 
     /**
-     * Function name: getFillNumberFrom.
-     * Receives a 'fill-k' string and checks what is the value of 'k' - an integer
+     * Function name: addFillColor.
+     * Sets the color a block is filled with when it has the given number of hit points
      *
-     * @param s - 'fill-k' string
-     * @return the number written in the given string
+     * @param number - the number of hit points
+     * @param color  - the color
      */
-    private int getFillNumberFrom(String s) {
-        // if the 'fill' isn't followed by a number, we treat it as being fill-1 as default
-        int fillNumber = 1;
-        Pattern fillNumberPattern = Pattern.compile("\\d+");
-        Matcher fillNumberMatcher = fillNumberPattern.matcher(s);
+    void addFillColor(int number, Color color) {
+        if (this.fillColors == null) {
+            this.fillColors = new TreeMap<>();
+        }
+        this.fillColors.put(number, color);
+    }
 
-        if (fillNumberMatcher.find()) {
-            // get only the number of the fill without the '-' sign
-            fillNumber = Integer.parseInt(s.substring(fillNumberMatcher.start(), fillNumberMatcher.end()));
+    /**
+     * Function name: addFillImage.
+     * Sets the image a block is filled with when it has the given number of hit points
+     *
+     * @param number - the number of hit points
+     * @param path   - the path of the image in the class path
+     */
+    void addFillImage(int number, String path) {
+        if (this.fillImages == null) {
+            this.fillImages = new TreeMap<>();
         }
-        return fillNumber;
+        this.fillImages.put(number, path);
     }
 
     /**
-     * Function name: setStroke.
-     * Get the stroke color from the information maps and set as a member
+     * Function name: getSymbol.
+     * Returns the symbol of the block in the layouts
+     *
+     * @return the symbol, or null if it isn't set
      */
-    private void setStroke() {
-        ColorsParser parser = new ColorsParser();
-        this.stroke = parser.colorFromString(this.getValueFromMapsOf("stroke"));
+    String getSymbol() {
+        return this.symbol;
     }
 
     /**
-     * Function name: setWidth.
-     * Get the width value from the information maps and set as a member
+     * Function name: getWidth.
+     * Returns the width of the blocks, from the block's settings or from the defaults
      *
-     * @throws NullPointerException - if both of the maps don't contain appropriate information
+     * @return the width, or NaN if it isn't set
      */
-    private void setWidth() throws NullPointerException {
-        try {
-            this.width = Double.parseDouble(this.getValueFromMapsOf("width"));
-        } catch (Exception e) {
-            throw new NullPointerException(ERROR_MSG + "'width'");
+    double getWidth() {
+        if (Double.isNaN(this.width) && this.defaults != null) {
+            return this.defaults.getWidth();
         }
-
+        return this.width;
     }
 
     /**
-     * Function name: setHeight.
-     * Get the height value from the information maps and set as a member
+     * Function name: getHeight.
+     * Returns the height of the blocks, from the block's settings or from the defaults
      *
-     * @throws NullPointerException - if both of the maps don't contain appropriate information
+     * @return the height, or NaN if it isn't set
      */
-    private void setHeight() throws NullPointerException {
-        try {
-            this.height = Double.parseDouble(this.getValueFromMapsOf("height"));
-        } catch (Exception e) {
-            throw new NullPointerException(ERROR_MSG + "'height'");
+    double getHeight() {
+        if (Double.isNaN(this.height) && this.defaults != null) {
+            return this.defaults.getHeight();
         }
+        return this.height;
+    }
 
+    /**
+     * Function name: getHitPoints.
+     * Returns the hit points of the blocks, from the block's settings or from the defaults
+     *
+     * @return the hit points, or NaN if they aren't set
+     */
+    double getHitPoints() {
+        if (Double.isNaN(this.hitPoints) && this.defaults != null) {
+            return this.defaults.getHitPoints();
+        }
+        return this.hitPoints;
     }
 
     /**
-     * Function name: setHitPoints.
-     * Get the hit points value from the information maps and set as a member
+     * Function name: getStroke.
+     * Returns the outline color of the blocks, from the block's settings or from the defaults
      *
-     * @throws NullPointerException - if both of the maps don't contain appropriate information
+     * @return the outline color, or null if the blocks don't have an outline
      */
-    private void setHitPoints() throws NullPointerException {
-        try {
-            this.hitPoints = Double.parseDouble(this.getValueFromMapsOf("hit_points"));
-        } catch (Exception e) {
-            throw new NullPointerException(ERROR_MSG + "'hit_points'");
+    Color getStroke() {
+        if (!this.hasStroke && this.defaults != null) {
+            return this.defaults.getStroke();
         }
+        return this.stroke;
+    }
+
+    /**
+     * Function name: getFillColors.
+     * Returns the color fills of the block by the number of hit points they are shown at. The settings of the block
+     * replace the defaults.
+     *
+     * @return the color fills (only to be read)
+     */
+    Map<Integer, Color> getFillColors() {
+        return merge(this.defaults == null ? null : this.defaults.fillColors, this.fillColors);
+    }
 
+    /**
+     * Function name: getFillImages.
+     * Returns the image fills of the block by the number of hit points they are shown at. The settings of the block
+     * replace the defaults.
+     *
+     * @return the paths of the images in the class path (only to be read)
+     */
+    Map<Integer, String> getFillImages() {
+        return merge(this.defaults == null ? null : this.defaults.fillImages, this.fillImages);
     }
 
     /**
-     * Function name: getValueFromMapsOf.
-     * Returns the value of the given attribute (key) from the information maps.
+     * Function name: merge.
+     * Returns the fills of the defaults with the fills of the block on top of them. Most blocks only have fills of
+     * their own (or only the defaults have fills), and then the fills are returned as they are, without a copy.
      *
-     * @param attribute - the type of information to receive the value of
-     * @return value of the given key
-     * @throws NullPointerException - if both of the maps don't contain the appropriate information
+     * @param defaultFills - the fills of the defaults, or null if there are none
+     * @param fills        - the fills of the block, or null if there are none
+     * @param <T>          - the type of the fills
+     * @return the merged fills (only to be read)
      */
-    private String getValueFromMapsOf(String attribute) throws NullPointerException {
-        // check both the maps and return the value of the attribute
-        if (this.blockTypeDetails.containsKey(attribute)) {
-            return this.blockTypeDetails.get(attribute);
-        }
-        if (this.defaultDetails == null) {
-            // the stroke can be null which means there is no outline frame for the block
-            if (attribute.equals("stroke")) {
-                return null;
-            } else {
-                // if the attribute isn't defined in any of the maps throw an exception to notify an error
-                throw new NullPointerException();
-            }
+    private static <T> Map<Integer, T> merge(Map<Integer, T> defaultFills, Map<Integer, T> fills) {
+        if (defaultFills == null && fills == null) {
+            return Collections.emptyMap();
+        } else if (defaultFills == null || fills == null) {
+            return fills == null ? defaultFills : fills;
         }
-        return this.defaultDetails.get(attribute);
+        Map<Integer, T> merged = new TreeMap<>(defaultFills);
+        merged.putAll(fills);
+        return merged;
     }
 }
@@ -1,15 +1,14 @@
 package levelsdata;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * The class receives a file containing information regarding blocks construction and returns a mapped information of
  * the details in the file.
+ * The file is read in a single pass, token by token, and the settings of every line are set on the block templates
+ * as numbers and colors, without keeping their text.
  *
  * @author Ariel Fenster
  */
@@ -23,106 +22,175 @@ public class BlocksDefinitionReader {
      * @return a blocks creator factory
      */
     public static BlocksFromSymbolsFactory fromReader(java.io.Reader reader) {
+        return fromReader(reader, "block definitions");
+    }
+
+    /**
+     * Function name: fromReader (#2).
+     * Creates a blocks creator factory based on the information written in a file linked by given a reader object
+     *
+     * @param reader - the object that is linked to the information file
+     * @param source - the name of the file, for error messages
+     * @return a blocks creator factory
+     * @throws DefinitionsSyntaxException if a line in the file can't be read
+     */
+    public static BlocksFromSymbolsFactory fromReader(java.io.Reader reader, String source)
+            throws DefinitionsSyntaxException {
         // used to access the non static methods in the class
         BlocksDefinitionReader defReader = new BlocksDefinitionReader();
 
         // used as members for the to-be-created factory
-        Map<String, Integer> spacerWidthsMap = null;
-        Map<String, BlockCreator> blockCreatorsMap = new TreeMap<>();
+        Map<String, Integer> spacerWidthsMap = new HashMap<>();
+        Map<String, BlockCreator> blockCreatorsMap = new HashMap<>();
 
-        Map<String, String> defaultBlocksSettings = null;
-        Map<String, String> specificBlockSettings;
+        BlockTemplateCreator defaultBlocksSettings = null;
 
-        BufferedReader br = null;
+        DefinitionsLexer lexer = new DefinitionsLexer(reader, source);
         try {
-            br = new BufferedReader(reader);
-            String currentLine = br.readLine();
-
             // go through the whole text
-            while (currentLine != null) {
-                if (currentLine.startsWith("default")) {                       // mapping the default settings
-                    defaultBlocksSettings = defReader.getSettingsFromLine(currentLine);
+            DefinitionsLexer.Token token = lexer.next();
+            while (token != DefinitionsLexer.Token.END_OF_FILE) {
+                if (token != DefinitionsLexer.Token.WORD) {
+                    // empty lines, and lines that don't start with a word, aren't definitions
+                    lexer.skipLine();
+                } else if (lexer.textEquals("default")) {                        // the default settings
+                    defaultBlocksSettings = new BlockTemplateCreator(null);
+                    defReader.readSettings(lexer, defaultBlocksSettings);
 
-                } else if (currentLine.startsWith("bdef")) {                   // mapping a specific block settings
-                    // once we have a defaults settings and a block settings, we can create a block generator
-                    specificBlockSettings = defReader.getSettingsFromLine(currentLine);
-                    // generating a block creator and adding to the map of creators
-                    BlockCreator creator = new BlockTemplateCreator(defaultBlocksSettings, specificBlockSettings);
-                    blockCreatorsMap.put(specificBlockSettings.get("symbol"), creator);
-
-                } else if (currentLine.startsWith("sdef")) {                   // mapping the spacers widths settings
-                    // if the spacers map is null - create it, otherwise expand it
-                    if (spacerWidthsMap == null) {
-                        spacerWidthsMap = defReader.getSpacersValues(currentLine);
-                    } else {
-                        spacerWidthsMap.putAll(defReader.getSpacersValues(currentLine));
+                } else if (lexer.textEquals("bdef")) {                           // a specific block settings
+                    int line = lexer.getLine();
+                    // the block settings are read on top of the defaults settings before them
+                    BlockTemplateCreator creator = new BlockTemplateCreator(defaultBlocksSettings);
+                    defReader.readSettings(lexer, creator);
+                    if (creator.getSymbol() == null) {
+                        throw new DefinitionsSyntaxException(source, line, 1, "a block definition without a symbol");
                     }
+                    blockCreatorsMap.put(creator.getSymbol(), creator);
+
+                } else if (lexer.textEquals("sdef")) {                           // a spacer width settings
+                    defReader.readSpacer(lexer, spacerWidthsMap);
+                } else {
+                    lexer.skipLine();
                 }
                 // go to the next line
-                currentLine = br.readLine();
+                token = lexer.next();
             }
         } catch (IOException i) {
             i.printStackTrace();
         } finally {
-            if (br != null) {
-                try {
-                    br.close();
-                } catch (IOException i) {
-                    i.printStackTrace();
-                }
+            try {
+                lexer.close();
+            } catch (IOException i) {
+                i.printStackTrace();
             }
         }
         return new BlocksFromSymbolsFactory(spacerWidthsMap, blockCreatorsMap);
     }
 
     /**
-     * Function name: getSettingsFromLine.
-     * Map all the information in the line to a map in the form of key:value
+     * Function name: readSettings.
+     * Reads the 'key:value' settings until the end of the line, and sets them on a block template. Settings that
+     * blocks don't have are ignored.
      *
-     * @param currLine - the current line
-     * @return a mapped information
+     * @param lexer   - the lexer that reads through the file
+     * @param creator - the template to set the settings on
+     * @throws IOException if the file can't be read
      */
-    private Map<String, String> getSettingsFromLine(String currLine) {
-        Map<String, String> map = new TreeMap<>();
-
-        // pattern of 'key:value'
-        Pattern keyValuePattern = Pattern.compile("\\b[[\\w][_|-]]*:\\S*|\\)\\b");
-        Matcher matcher = keyValuePattern.matcher(currLine);
-
-        // mapping all the definitions in the current line
-        while (matcher.find()) {
-            // get the position of the ':' in the current match to distinguish between the key and the value
-            int indexOfColon = currLine.indexOf(":", matcher.start());
-            String defType = currLine.substring(matcher.start(), indexOfColon);
-            String defValue = currLine.substring(indexOfColon + 1, matcher.end());
-            map.put(defType, defValue);
+    private void readSettings(DefinitionsLexer lexer, BlockTemplateCreator creator) throws IOException {
+        ColorsParser colors = new ColorsParser();
+        DefinitionsLexer.Token token = lexer.next();
+        while (token == DefinitionsLexer.Token.KEY) {
+            if (lexer.textEquals("symbol")) {
+                lexer.next();
+                creator.setSymbol(lexer.getText());
+            } else if (lexer.textEquals("width")) {
+                lexer.next();
+                creator.setWidth(lexer.getDouble());
+            } else if (lexer.textEquals("height")) {
+                lexer.next();
+                creator.setHeight(lexer.getDouble());
+            } else if (lexer.textEquals("hit_points")) {
+                lexer.next();
+                creator.setHitPoints(lexer.getDouble());
+            } else if (lexer.textEquals("stroke")) {
+                lexer.next();
+                creator.setStroke(colors.colorFromString(lexer.getCharSequence()));
+            } else if (lexer.textStartsWith("fill")) {
+                int number = this.getFillNumber(lexer);
+                lexer.next();
+                // if it's a color
+                if (lexer.textContains("color")) {
+                    creator.addFillColor(number, colors.colorFromString(lexer.getCharSequence()));
+                    // if it's an image
+                } else {
+                    creator.addFillImage(number, new ImageParser().pathFromString(lexer.getText()));
+                }
+            } else {
+                lexer.next();
+            }
+            token = lexer.next();
+        }
+        if (token == DefinitionsLexer.Token.WORD) {
+            throw lexer.error("expected a setting like 'name:value', found '" + lexer.getText() + "'");
         }
-        return map;
     }
 
     /**
-     * Function name: getSpacersValues.
-     * Map the information in the line regarding spacers definitions to symbol:width pattern
+     * Function name: getFillNumber.
+     * Reads the number 'k' of a 'fill-k' key - the number of hit points the fill is shown at
      *
-     * @param line - the current line
-     * @return a mapped information
+     * @param lexer - the lexer, at the key
+     * @return the number written in the key, or 1 if the key has no number
      */
-    private Map<String, Integer> getSpacersValues(String line) {
-        Map<String, Integer> map = new TreeMap<>();
-        // get only the spacer symbol and width
-        Pattern patt = Pattern.compile(":\\S*");
-        Matcher matcher = patt.matcher(line);
+    private int getFillNumber(DefinitionsLexer lexer) {
+        // if the 'fill' isn't followed by a number, we treat it as being fill-1 as default
+        int fillNumber = 0;
+        boolean found = false;
+        for (int i = 0; i < lexer.getLength(); i++) {
+            char c = lexer.getChar(i);
+            if (c >= '0' && c <= '9') {
+                fillNumber = fillNumber * 10 + (c - '0');
+                found = true;
+            } else if (found) {
+                break;
+            }
+        }
+        return found ? fillNumber : 1;
+    }
 
-        while (matcher.find()) {
-            String symbol = Character.toString(line.charAt(matcher.start() + 1));
-            // checking that the line also contains the width associated with the spacer symbol
-            if (matcher.find()) {
-                int width = Integer.parseInt(line.substring(matcher.start() + 1));
-                map.put(symbol, width);
-            } else {
-                map.put(symbol, null);
+    /**
+     * Function name: readSpacer.
+     * Reads the symbol and the width of a spacer until the end of the line, and adds them to the spacers map
+     *
+     * @param lexer   - the lexer that reads through the file
+     * @param spacers - the widths of the spacers, by their symbols
+     * @throws IOException if the file can't be read
+     */
+    private void readSpacer(DefinitionsLexer lexer, Map<String, Integer> spacers) throws IOException {
+        String symbol = null;
+        int width = -1;
+        DefinitionsLexer.Token token = lexer.next();
+        while (token == DefinitionsLexer.Token.KEY) {
+            boolean isSymbol = lexer.textEquals("symbol");
+            boolean isWidth = lexer.textEquals("width");
+            lexer.next();
+            if (isSymbol && !lexer.isEmpty()) {
+                // a spacer is a single character in the layouts
+                symbol = String.valueOf(lexer.getChar(0));
+            } else if (isWidth) {
+                width = lexer.getInt();
+                if (width < 0) {
+                    throw lexer.error("a spacer can't have a negative width");
+                }
             }
+            token = lexer.next();
+        }
+        if (token == DefinitionsLexer.Token.WORD) {
+            throw lexer.error("expected a setting like 'name:value', found '" + lexer.getText() + "'");
+        }
+        if (symbol == null || width < 0) {
+            throw lexer.error("a spacer definition needs a symbol and a width");
         }
-        return map;
+        spacers.put(symbol, width);
     }
 }
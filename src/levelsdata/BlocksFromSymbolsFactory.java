@@ -3,10 +3,13 @@ package levelsdata;
 import gameobjects.Block;
 
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A blocks creating factory. Each block has a specific and unique symbol, where when called, creates the block
  * with the associated information mapped from the information files.
+ * The symbols in the layouts of the levels are single characters - the creators and spacers of the ASCII symbols are
+ * also kept in arrays indexed by the character, so going over a layout doesn't look up a string for every cell.
  *
  * @author Ariel Fenster
  */
@@ -15,6 +18,9 @@ public class BlocksFromSymbolsFactory {
     // members
     private Map<String, Integer> spacerWidths;
     private Map<String, BlockCreator> blockCreators;
+    // the creators and the widths of the spacers (-1 if the symbol isn't a spacer) by their ASCII symbols
+    private BlockCreator[] creatorsByChar;
+    private int[] spacerWidthsByChar;
 
     /**
      * Function name: BlocksFromSymbolsFactory.
@@ -26,6 +32,66 @@ public class BlocksFromSymbolsFactory {
     public BlocksFromSymbolsFactory(Map<String, Integer> spacerWidths, Map<String, BlockCreator> blockCreators) {
         this.spacerWidths = spacerWidths;
         this.blockCreators = blockCreators;
+        this.creatorsByChar = new BlockCreator[128];
+        this.spacerWidthsByChar = new int[128];
+        java.util.Arrays.fill(this.spacerWidthsByChar, -1);
+        for (Map.Entry<String, BlockCreator> entry : blockCreators.entrySet()) {
+            if (entry.getKey().length() == 1 && entry.getKey().charAt(0) < 128) {
+                this.creatorsByChar[entry.getKey().charAt(0)] = entry.getValue();
+            }
+        }
+        for (Map.Entry<String, Integer> entry : spacerWidths.entrySet()) {
+            if (entry.getKey().length() == 1 && entry.getKey().charAt(0) < 128 && entry.getValue() != null) {
+                this.spacerWidthsByChar[entry.getKey().charAt(0)] = entry.getValue();
+            }
+        }
+    }
+
+    /**
+     * Function name: isSpaceSymbol (#2).
+     * Checks whether the given character of a layout is the symbol of a defined spacer.
+     *
+     * @param c - the character to check
+     * @return true if the character is of a game spacer, false otherwise
+     */
+    public boolean isSpaceSymbol(char c) {
+        return c < 128 ? this.spacerWidthsByChar[c] >= 0 : this.isSpaceSymbol(String.valueOf(c));
+    }
+
+    /**
+     * Function name: isBlockSymbol (#2).
+     * Checks whether the given character of a layout is the symbol of a defined block
+     *
+     * @param c - the character to check
+     * @return true if the character is of a game block, false otherwise
+     */
+    public boolean isBlockSymbol(char c) {
+        return c < 128 ? this.creatorsByChar[c] != null : this.isBlockSymbol(String.valueOf(c));
+    }
+
+    /**
+     * Function name: getBlock (#2).
+     * Return a block according to the definitions associated with the given character of a layout. The block will
+     * be located at position (xPos, yPos)
+     *
+     * @param c    - the symbol of the block to create
+     * @param xPos - x coordinate to generate the block in
+     * @param yPos - y coordinate to generate the block in
+     * @return a block at the given location
+     */
+    public Block getBlock(char c, int xPos, int yPos) {
+        return c < 128 ? this.creatorsByChar[c].create(xPos, yPos) : this.getBlock(String.valueOf(c), xPos, yPos);
+    }
+
+    /**
+     * Function name: getSpaceWidth (#2).
+     * Returns the width in pixels associated with the given character of a layout.
+     *
+     * @param c - the symbol of the spacer
+     * @return spacer's width
+     */
+    public int getSpaceWidth(char c) {
+        return c < 128 ? this.spacerWidthsByChar[c] : this.getSpaceWidth(String.valueOf(c));
     }
 
     /**
@@ -64,6 +130,17 @@ public class BlocksFromSymbolsFactory {
         return this.blockCreators.get(blockSymbol).create(xPos, yPos);
     }
 
+    /**
+     * Function name: getBlockCreator.
+     * Returns the creator of the blocks of the given symbol
+     *
+     * @param blockSymbol - the symbol of the block
+     * @return the block creator, or null if the symbol isn't of a block
+     */
+    BlockCreator getBlockCreator(String blockSymbol) {
+        return this.blockCreators.get(blockSymbol);
+    }
+
     /**
      * Function name: getSpaceWidth.
      * Returns the width in pixels associated with the given spacer-symbol.
@@ -74,4 +151,24 @@ public class BlocksFromSymbolsFactory {
     public int getSpaceWidth(String s) {
         return this.spacerWidths.get(s);
     }
+
+    /**
+     * Function name: getBlockSymbols.
+     * Returns the symbols of the blocks the factory can create
+     *
+     * @return the symbols of the blocks
+     */
+    public Set<String> getBlockSymbols() {
+        return this.blockCreators.keySet();
+    }
+
+    /**
+     * Function name: getBlockTypeCount.
+     * Returns the amount of different blocks the factory can create
+     *
+     * @return amount of block symbols
+     */
+    public int getBlockTypeCount() {
+        return this.blockCreators.size();
+    }
 }
@@ -0,0 +1,96 @@
+package levelsdata;
+
+import gameobjects.Block;
+import gameobjects.BlockType;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The blocks of a level, compiled once into plain arrays - the position of every block, the index of its type in
+ * a table of the block types the level uses and the hit points it starts with. Creating the blocks of the level again
+ * (every time the level is played) is a single pass over the arrays that stamps the blocks into a list, instead of
+ * reading the layout of the level and looking up the symbols again. The stamped blocks are created straight from
+ * the numbers, without the corner points a block created from a point has.
+ * A prototype doesn't change after it's compiled, so the blocks can be created from it by any thread.
+ *
+ * @author Ariel Fenster
+ */
+public class BlocksPrototype {
+
+    // members
+    private int size;
+    private int[] xs;
+    private int[] ys;
+    private int[] typeIds;
+    private double[] hitPoints;
+    private BlockType[] types;
+
+    /**
+     * Function name: BlocksPrototype.
+     * Constructor - compiles the given blocks into a prototype.
+     *
+     * @param blocks - the blocks of the level, in the order they will be created
+     */
+    public BlocksPrototype(List<Block> blocks) {
+        this.size = blocks.size();
+        this.xs = new int[this.size];
+        this.ys = new int[this.size];
+        this.typeIds = new int[this.size];
+        this.hitPoints = new double[this.size];
+        // the types are shared, so the same type object is the same type
+        Map<BlockType, Integer> ids = new IdentityHashMap<>();
+        List<BlockType> typeList = new ArrayList<>();
+        for (int i = 0; i < this.size; i++) {
+            Block block = blocks.get(i);
+            Integer id = ids.get(block.getType());
+            if (id == null) {
+                id = typeList.size();
+                ids.put(block.getType(), id);
+                typeList.add(block.getType());
+            }
+            this.xs[i] = (int) block.getCollisionRectangle().getLeft();
+            this.ys[i] = (int) block.getCollisionRectangle().getTop();
+            this.typeIds[i] = id;
+            this.hitPoints[i] = block.getHitPoints();
+        }
+        this.types = typeList.toArray(new BlockType[typeList.size()]);
+    }
+
+    /**
+     * Function name: size.
+     * Returns the amount of blocks in the prototype
+     *
+     * @return amount of blocks
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Function name: getTypeCount.
+     * Returns the amount of distinct block types the blocks use
+     *
+     * @return amount of block types
+     */
+    public int getTypeCount() {
+        return this.types.length;
+    }
+
+    /**
+     * Function name: createBlocks.
+     * Creates new blocks, with the hit points they started with, at the positions of the prototype.
+     *
+     * @return a list of the created blocks
+     */
+    public List<Block> createBlocks() {
+        // the list has room for all the blocks, so the blocks are stamped straight into its array
+        List<Block> blocks = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            blocks.add(new Block(this.xs[i], this.ys[i], this.types[this.typeIds[i]], this.hitPoints[i]));
+        }
+        return blocks;
+    }
+}
@@ -1,8 +1,6 @@
 package levelsdata;
 
 import java.awt.Color;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Creates a color for the game.
@@ -10,82 +8,110 @@ import java.util.regex.Pattern;
  * @author Ariel Fenster
  */
 public class ColorsParser {
+    // the names of the colors that can be written in the files, and their colors
+    private static final String[] NAMES = {"black", "blue", "cyan", "gray", "lightGray", "green", "orange", "pink",
+            "red", "white", "yellow"};
+    private static final Color[] COLORS = {Color.BLACK, Color.BLUE, Color.CYAN, Color.GRAY, Color.LIGHT_GRAY,
+            Color.GREEN, Color.ORANGE, Color.PINK, Color.RED, Color.WHITE, Color.YELLOW};
 
     /**
      * Function name: colorFromString.
-     * Returns a color by checking if it is an RGB color or the name of the color
+     * Returns a color by checking if it is an RGB color or the name of the color. The text can be a string, or a
+     * token of the definitions lexer that wasn't copied to a string.
      *
-     * @param s - string representation of the color
+     * @param s - string representation of the color, like 'color(red)' or 'color(RGB(1,2,3))'
      * @return string-based color
      */
-    public java.awt.Color colorFromString(String s) {
+    public java.awt.Color colorFromString(CharSequence s) {
         if (s == null) {
             return null;
         }
-        // get the specific characters of the color type
-        String colorAsString = s.substring(s.indexOf('(') + 1, s.length() - 1);
-        if (colorAsString.startsWith("RGB")) {
-            return this.colorByRGBValues(colorAsString);
+        // the specific characters of the color type are between the first '(' and the last character
+        int start = 0;
+        while (start < s.length() && s.charAt(start) != '(') {
+            start++;
+        }
+        start = start == s.length() ? 0 : start + 1;
+        int end = s.length() - 1;
+        if (regionEquals(s, start, end, "RGB", false)) {
+            return this.colorByRGBValues(s, start, end);
         } else {
-            return this.colorByName(colorAsString);
+            return this.colorByName(s, start, end);
         }
     }
 
     /**
      * Function name: colorByRGBValues.
-     * Returns a color based on the r,g,b values in the given string
+     * Returns a color based on the r,g,b values in the given part of a text - the first three numbers in it
      *
-     * @param colorAsString - string representation of the color
+     * @param s     - text representation of the color
+     * @param start - where the RGB values start in the text
+     * @param end   - where the RGB values end in the text
      * @return rgb-based color
+     * @throws IllegalArgumentException if there are less than three numbers
      */
-    private java.awt.Color colorByRGBValues(String colorAsString) {
-        Pattern pattern = Pattern.compile("\\d+");
-        Matcher matcher = pattern.matcher(colorAsString);
-
-        // get the r,g,b values from the string
-        matcher.find();
-        int r = Integer.parseInt(colorAsString.substring(matcher.start(), matcher.end()));
-        matcher.find();
-        int g = Integer.parseInt(colorAsString.substring(matcher.start(), matcher.end()));
-        matcher.find();
-        int b = Integer.parseInt(colorAsString.substring(matcher.start(), matcher.end()));
-        return new Color(r, g, b);
+    private java.awt.Color colorByRGBValues(CharSequence s, int start, int end) throws IllegalArgumentException {
+        int[] values = new int[3];
+        int found = 0;
+        int i = start;
+        while (i < end && found < values.length) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                // read the whole number
+                int value = 0;
+                while (i < end && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                    value = value * 10 + (s.charAt(i) - '0');
+                    i++;
+                }
+                values[found++] = value;
+            } else {
+                i++;
+            }
+        }
+        if (found < values.length) {
+            throw new IllegalArgumentException("Missing RGB values in " + s);
+        }
+        return new Color(values[0], values[1], values[2]);
     }
 
     /**
      * Function name: colorByName.
      * Returns a color based on its name
      *
-     * @param name - the name of the color
-     * @return word-based color
+     * @param s     - text representation of the color
+     * @param start - where the name starts in the text
+     * @param end   - where the name ends in the text
+     * @return word-based color, or null if the name isn't of a known color
      */
-    private java.awt.Color colorByName(String name) {
-        switch (name) {
-            case ("black"):
-                return Color.BLACK;
-            case ("blue"):
-                return Color.BLUE;
-            case ("cyan"):
-                return Color.CYAN;
-            case ("gray"):
-                return Color.GRAY;
-            case ("lightGray"):
-                return Color.LIGHT_GRAY;
-            case ("green"):
-                return Color.GREEN;
-            case ("orange"):
-                return Color.ORANGE;
-            case ("pink"):
-                return Color.PINK;
-            case ("red"):
-                return Color.RED;
-            case ("white"):
-                return Color.WHITE;
-            case ("yellow"):
-                return Color.YELLOW;
-            default:
-                return null;
+    private java.awt.Color colorByName(CharSequence s, int start, int end) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (regionEquals(s, start, end, NAMES[i], true)) {
+                return COLORS[i];
+            }
         }
+        return null;
     }
 
+    /**
+     * Function name: regionEquals.
+     * Checks whether a part of a text is the given word, or starts with it
+     *
+     * @param s      - the text
+     * @param start  - where the part starts in the text
+     * @param end    - where the part ends in the text
+     * @param word   - the word to compare to
+     * @param wholly - true if the part must be exactly the word, false if it may only start with it
+     * @return true if the part of the text is (or starts with) the word
+     */
+    private static boolean regionEquals(CharSequence s, int start, int end, String word, boolean wholly) {
+        if (end - start < word.length() || (wholly && end - start != word.length())) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (s.charAt(start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,85 @@
+package levelsdata;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that counts the bytes read through it, to know how much of a file was read.
+ *
+ * @author Ariel Fenster
+ */
+public class CountingInputStream extends FilterInputStream {
+    // member
+    private long count;
+
+    /**
+     * Function name: CountingInputStream.
+     * Constructor - counts the bytes read from the given stream.
+     *
+     * @param in - the stream to read from
+     */
+    public CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    /**
+     * Function name: read.
+     * Reads a single byte
+     *
+     * @return the byte, or -1 at the end of the stream
+     * @throws IOException if the stream can't be read
+     */
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            this.count++;
+        }
+        return b;
+    }
+
+    /**
+     * Function name: read.
+     * Reads bytes into a part of the given array
+     *
+     * @param b      - the array to read into
+     * @param offset - the index in the array of the first byte read
+     * @param length - the maximal amount of bytes to read
+     * @return the amount of bytes read, or -1 at the end of the stream
+     * @throws IOException if the stream can't be read
+     */
+    @Override
+    public int read(byte[] b, int offset, int length) throws IOException {
+        int read = super.read(b, offset, length);
+        if (read > 0) {
+            this.count += read;
+        }
+        return read;
+    }
+
+    /**
+     * Function name: skip.
+     * Skips over bytes of the stream (they are counted as read)
+     *
+     * @param n - the amount of bytes to skip
+     * @return the amount of bytes skipped
+     * @throws IOException if the stream can't be read
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        this.count += skipped;
+        return skipped;
+    }
+
+    /**
+     * Function name: getCount.
+     * Returns the amount of bytes read so far
+     *
+     * @return amount of bytes read
+     */
+    public long getCount() {
+        return this.count;
+    }
+}
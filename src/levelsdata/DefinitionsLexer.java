@@ -0,0 +1,610 @@
+package levelsdata;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits the text of a level definitions file or a block definitions file into tokens, in a single pass over a
+ * reader. The definitions files are made of lines: words (like 'START_LEVEL' or 'bdef'), settings written as
+ * 'key:value' (the key and the value are tokens of their own), and lines that are read as they are (like the rows
+ * of a blocks layout, or the value of a level detail, which can have spaces). Anything from a '#' where a word or a
+ * key could start to the end of the line is a comment, and is skipped.
+ * <p>
+ * The lexer doesn't create a string for every token, and doesn't copy the lines: a line is found in the buffer the
+ * reader fills, and the text of the current token stays there - it can be compared or read as a number in place.
+ * Every token knows its line and column, for error messages.
+ *
+ * @author Ariel Fenster
+ */
+public class DefinitionsLexer {
+
+    /**
+     * The types of the tokens.
+     */
+    public enum Token {
+        // a run of characters without spaces or a colon
+        WORD,
+        // the part of a 'key:value' setting before the colon
+        KEY,
+        // the part of a 'key:value' setting after the colon, up to the next space (can be empty)
+        VALUE,
+        // the rest of a line, as it is
+        TEXT,
+        END_OF_LINE,
+        END_OF_FILE
+    }
+
+    // the lines of the definitions files are short, the buffer grows if a line doesn't fit in it
+    private static final int BUFFER_SIZE = 256;
+
+    // members
+    private Reader reader;
+    private String source;
+    // the characters read from the reader - the current line and the lines after it that were already read
+    private char[] buffer;
+    private int bufferLength;
+    private boolean endOfInput;
+    // where the current line starts and ends (without its line break) in the buffer, and where the next one starts
+    private int lineStart;
+    private int lineEnd;
+    private int nextLineStart;
+    private int lineNumber;
+    private boolean inLine;
+    private int position;
+    // whether the last line ended with '\r', so a '\n' right after it doesn't start another line
+    private boolean skipNewLine;
+    // whether the last token was a key, so the next token is its value
+    private boolean afterKey;
+    // the current token, and where its text is in the line
+    private Token token;
+    private int tokenStart;
+    private int tokenEnd;
+    // the view of the text of the current token, shared by all the tokens
+    private TokenText tokenText;
+
+    /**
+     * Function name: DefinitionsLexer.
+     * Constructor.
+     *
+     * @param reader - the object that is linked to the definitions file
+     * @param source - the name of the file, for error messages
+     */
+    public DefinitionsLexer(Reader reader, String source) {
+        this.reader = reader;
+        this.source = source;
+        this.buffer = new char[BUFFER_SIZE];
+        this.tokenText = new TokenText();
+    }
+
+    /**
+     * Function name: next.
+     * Reads the next token - a word, a key, the value after a key, or the end of the line or of the file. Spaces
+     * and comments are skipped.
+     *
+     * @return the type of the token
+     * @throws IOException if the reader fails
+     */
+    public Token next() throws IOException {
+        if (!this.inLine && !this.startLine()) {
+            return this.setToken(Token.END_OF_FILE, 0, 0);
+        }
+        char[] chars = this.buffer;
+        int length = this.lineEnd;
+        int i = this.position;
+        // the value of a key starts right after the colon
+        if (this.afterKey) {
+            this.afterKey = false;
+            while (i < length && (chars[i] > ' ' || (chars[i] != ' ' && chars[i] != '\t'))) {
+                i++;
+            }
+            return this.advance(Token.VALUE, i);
+        }
+        while (i < length && (chars[i] == ' ' || chars[i] == '\t')) {
+            i++;
+        }
+        if (i == length || chars[i] == '#') {
+            this.inLine = false;
+            this.position = length;
+            return this.setToken(Token.END_OF_LINE, length, length);
+        }
+        this.position = i;
+        // the characters that end a word come before the letters, so most characters take a single comparison
+        while (i < length && (chars[i] > ':' || (chars[i] != ' ' && chars[i] != '\t' && chars[i] != ':'))) {
+            i++;
+        }
+        if (i < length && chars[i] == ':') {
+            this.advance(Token.KEY, i);
+            // skipping the colon
+            this.position++;
+            this.afterKey = true;
+            return Token.KEY;
+        }
+        return this.advance(Token.WORD, i);
+    }
+
+    /**
+     * Function name: nextText.
+     * Reads the rest of the line as it is, spaces included, as a single token. At the start of a line, the token is
+     * the whole line.
+     *
+     * @return the type of the token - text, or the end of the file
+     * @throws IOException if the reader fails
+     */
+    public Token nextText() throws IOException {
+        if (!this.inLine && !this.startLine()) {
+            return this.setToken(Token.END_OF_FILE, 0, 0);
+        }
+        this.afterKey = false;
+        return this.advance(Token.TEXT, this.lineEnd);
+    }
+
+    /**
+     * Function name: skipLine.
+     * Skips the rest of the current line, so the next token is read from the next line.
+     */
+    public void skipLine() {
+        this.inLine = false;
+        this.afterKey = false;
+        this.position = this.lineEnd;
+    }
+
+    /**
+     * Function name: getToken.
+     * Returns the type of the current token
+     *
+     * @return the type of the token
+     */
+    public Token getToken() {
+        return this.token;
+    }
+
+    /**
+     * Function name: getText.
+     * Returns the text of the current token
+     *
+     * @return the text of the token
+     */
+    public String getText() {
+        return new String(this.buffer, this.tokenStart, this.tokenEnd - this.tokenStart);
+    }
+
+    /**
+     * Function name: getCharSequence.
+     * Returns the text of the current token without copying it - the view is only valid until the next token is
+     * read, and is the same object for all the tokens
+     *
+     * @return a view of the text of the token
+     */
+    public CharSequence getCharSequence() {
+        return this.tokenText;
+    }
+
+    /**
+     * Function name: textEquals.
+     * Checks whether the text of the current token is the given text, without creating a string
+     *
+     * @param text - the text to compare to
+     * @return true if the text of the token is the same
+     */
+    public boolean textEquals(String text) {
+        if (text.length() != this.tokenEnd - this.tokenStart) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (this.buffer[this.tokenStart + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Function name: textStartsWith.
+     * Checks whether the text of the current token starts with the given text, without creating a string
+     *
+     * @param prefix - the text to compare to
+     * @return true if the text of the token starts with the given text
+     */
+    public boolean textStartsWith(String prefix) {
+        if (prefix.length() > this.tokenEnd - this.tokenStart) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (this.buffer[this.tokenStart + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Function name: textContains.
+     * Checks whether the text of the current token contains the given text, without creating a string
+     *
+     * @param part - the text to look for
+     * @return true if the text of the token contains the given text
+     */
+    public boolean textContains(String part) {
+        for (int start = this.tokenStart; start + part.length() <= this.tokenEnd; start++) {
+            int i = 0;
+            while (i < part.length() && this.buffer[start + i] == part.charAt(i)) {
+                i++;
+            }
+            if (i == part.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Function name: isEmpty.
+     * Checks whether the current token has no text
+     *
+     * @return true if the token is empty
+     */
+    public boolean isEmpty() {
+        return this.tokenEnd == this.tokenStart;
+    }
+
+    /**
+     * Function name: getChar.
+     * Returns a character of the text of the current token
+     *
+     * @param index - the index of the character in the token
+     * @return the character
+     */
+    public char getChar(int index) {
+        return this.buffer[this.tokenStart + index];
+    }
+
+    /**
+     * Function name: getLength.
+     * Returns the length of the text of the current token
+     *
+     * @return the amount of characters in the token
+     */
+    public int getLength() {
+        return this.tokenEnd - this.tokenStart;
+    }
+
+    /**
+     * Function name: getChars.
+     * Returns a copy of the text of the current token
+     *
+     * @return the characters of the token
+     */
+    public char[] getChars() {
+        char[] chars = new char[this.tokenEnd - this.tokenStart];
+        System.arraycopy(this.buffer, this.tokenStart, chars, 0, chars.length);
+        return chars;
+    }
+
+    /**
+     * Function name: indexOf.
+     * Finds the first place of a character in the text of the current token
+     *
+     * @param c - the character to look for
+     * @return the index of the character in the token, or -1 if the token doesn't have it
+     */
+    public int indexOf(char c) {
+        for (int i = this.tokenStart; i < this.tokenEnd; i++) {
+            if (this.buffer[i] == c) {
+                return i - this.tokenStart;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Function name: getInt.
+     * Reads the text of the current token as a whole number
+     *
+     * @return the number
+     * @throws DefinitionsSyntaxException if the token isn't a whole number
+     */
+    public int getInt() throws DefinitionsSyntaxException {
+        return this.getInt(0, this.getLength());
+    }
+
+    /**
+     * Function name: getInt (#2).
+     * Reads a part of the text of the current token as a whole number
+     *
+     * @param from - the index of the first character of the number in the token
+     * @param to   - the index after the last character of the number in the token
+     * @return the number
+     * @throws DefinitionsSyntaxException if the part isn't a whole number
+     */
+    public int getInt(int from, int to) throws DefinitionsSyntaxException {
+        return (int) this.readWhole(this.tokenStart + from, this.tokenStart + to, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Function name: getLong.
+     * Reads the text of the current token as a whole number, which can be bigger than an int
+     *
+     * @return the number
+     * @throws DefinitionsSyntaxException if the token isn't a whole number
+     */
+    public long getLong() throws DefinitionsSyntaxException {
+        return this.readWhole(this.tokenStart, this.tokenEnd, Long.MAX_VALUE);
+    }
+
+    /**
+     * Function name: getDouble.
+     * Reads the text of the current token as a number
+     *
+     * @return the number
+     * @throws DefinitionsSyntaxException if the token isn't a number
+     */
+    public double getDouble() throws DefinitionsSyntaxException {
+        return this.getDouble(0, this.getLength());
+    }
+
+    /**
+     * Function name: getDouble (#2).
+     * Reads a part of the text of the current token as a number, like the speed in a velocity written as
+     * 'angle,speed'
+     *
+     * @param from - the index of the first character of the number in the token
+     * @param to   - the index after the last character of the number in the token
+     * @return the number
+     * @throws DefinitionsSyntaxException if the part isn't a number
+     */
+    public double getDouble(int from, int to) throws DefinitionsSyntaxException {
+        int start = this.tokenStart + from;
+        int end = this.tokenStart + to;
+        // whole numbers, like all the numbers in the game's files, are read without creating a string
+        for (int i = start; i < end; i++) {
+            char c = this.buffer[i];
+            if ((c < '0' || c > '9') && !(c == '-' && i == start)) {
+                String text = new String(this.buffer, start, end - start);
+                try {
+                    return Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    throw this.error("expected a number, found '" + text + "'");
+                }
+            }
+        }
+        return this.readWhole(start, end, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Function name: getLine.
+     * Returns the line of the current token
+     *
+     * @return the number of the line, starting from 1
+     */
+    public int getLine() {
+        return this.lineNumber;
+    }
+
+    /**
+     * Function name: getColumn.
+     * Returns the column where the current token starts
+     *
+     * @return the number of the column, starting from 1
+     */
+    public int getColumn() {
+        return this.tokenStart - this.lineStart + 1;
+    }
+
+    /**
+     * Function name: error.
+     * Creates an exception about the current token, with its position in the file.
+     *
+     * @param message - what is wrong
+     * @return the exception, to be thrown by the caller
+     */
+    public DefinitionsSyntaxException error(String message) {
+        return new DefinitionsSyntaxException(this.source, this.lineNumber, this.getColumn(), message);
+    }
+
+    /**
+     * Function name: close.
+     * Closes the reader.
+     *
+     * @throws IOException if the reader fails to close
+     */
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    /**
+     * Function name: readWhole.
+     * Reads a part of the line as a whole number, without creating a string.
+     *
+     * @param start - where the number starts in the line
+     * @param end   - where the number ends in the line
+     * @param limit - the biggest number allowed
+     * @return the number
+     * @throws DefinitionsSyntaxException if the part isn't a whole number, or is too big
+     */
+    private long readWhole(int start, int end, long limit) throws DefinitionsSyntaxException {
+        int i = start;
+        boolean negative = i < end && this.buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        if (i == end) {
+            throw this.error("expected a number");
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = this.buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw this.error("expected a number, found '" + new String(this.buffer, start, end - start) + "'");
+            }
+            if (value > (limit - digit) / 10) {
+                throw this.error("the number '" + new String(this.buffer, start, end - start) + "' is too big");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Function name: setToken.
+     * Sets the current token.
+     *
+     * @param type  - the type of the token
+     * @param start - where its text starts in the line
+     * @param end   - where its text ends in the line
+     * @return the type of the token
+     */
+    private Token setToken(Token type, int start, int end) {
+        this.token = type;
+        this.tokenStart = start;
+        this.tokenEnd = end;
+        return type;
+    }
+
+    /**
+     * Function name: advance.
+     * Sets the current token from the current position to the given end, and moves the position to its end.
+     *
+     * @param type - the type of the token
+     * @param end  - where its text ends in the line
+     * @return the type of the token
+     */
+    private Token advance(Token type, int end) {
+        this.setToken(type, this.position, end);
+        this.position = end;
+        return type;
+    }
+
+    /**
+     * Function name: startLine.
+     * Finds the next line in the buffer, reading more of the reader when the buffer ends in the middle of it. A line
+     * ends with '\n', '\r' or "\r\n", like in a buffered reader.
+     *
+     * @return true if there is a line, false at the end of the file
+     * @throws IOException if the reader fails
+     */
+    private boolean startLine() throws IOException {
+        int start = this.nextLineStart;
+        if (this.skipNewLine) {
+            this.skipNewLine = false;
+            if (start == this.bufferLength) {
+                start = this.fill(start);
+            }
+            if (start < this.bufferLength && this.buffer[start] == '\n') {
+                start++;
+            }
+        }
+        int i = start;
+        while (true) {
+            char[] chars = this.buffer;
+            int length = this.bufferLength;
+            // the line breaks come before all the printable characters, like in the words above
+            while (i < length && (chars[i] > '\r' || (chars[i] != '\n' && chars[i] != '\r'))) {
+                i++;
+            }
+            if (i < length || this.endOfInput) {
+                break;
+            }
+            // the line goes on after the end of the buffer
+            int moved = this.fill(start);
+            i -= start - moved;
+            start = moved;
+        }
+        if (i == start && i == this.bufferLength) {
+            return false;
+        }
+        this.lineStart = start;
+        this.lineEnd = i;
+        // skipping the line break - a '\n' after a '\r' may still be unread
+        if (i < this.bufferLength) {
+            this.skipNewLine = this.buffer[i] == '\r';
+            i++;
+        }
+        this.nextLineStart = i;
+        this.lineNumber++;
+        this.position = start;
+        this.inLine = true;
+        this.afterKey = false;
+        return true;
+    }
+
+    /**
+     * Function name: fill.
+     * Moves the part of the buffer from the given position to its start, and fills the rest from the reader. The
+     * buffer grows if a single line fills it.
+     *
+     * @param keep - the position of the first character to keep
+     * @return the new position of the first character kept (always 0)
+     * @throws IOException if the reader fails
+     */
+    private int fill(int keep) throws IOException {
+        int kept = this.bufferLength - keep;
+        if (kept == this.buffer.length) {
+            char[] bigger = new char[this.buffer.length * 2];
+            System.arraycopy(this.buffer, keep, bigger, 0, kept);
+            this.buffer = bigger;
+        } else if (keep > 0) {
+            System.arraycopy(this.buffer, keep, this.buffer, 0, kept);
+        }
+        this.bufferLength = kept;
+        int read = this.reader.read(this.buffer, kept, this.buffer.length - kept);
+        if (read > 0) {
+            this.bufferLength += read;
+        } else {
+            this.endOfInput = true;
+        }
+        return 0;
+    }
+
+    /**
+     * A view of the text of the current token, that reads the characters straight from the buffer.
+     */
+    private class TokenText implements CharSequence {
+
+        /**
+         * Function name: length.
+         * Returns the length of the text of the current token
+         *
+         * @return the amount of characters in the token
+         */
+        @Override
+        public int length() {
+            return tokenEnd - tokenStart;
+        }
+
+        /**
+         * Function name: charAt.
+         * Returns a character of the text of the current token
+         *
+         * @param index - the index of the character in the token
+         * @return the character
+         */
+        @Override
+        public char charAt(int index) {
+            return buffer[tokenStart + index];
+        }
+
+        /**
+         * Function name: subSequence.
+         * Returns a copy of a part of the text of the current token
+         *
+         * @param start - the index of the first character of the part
+         * @param end   - the index after the last character of the part
+         * @return the part of the text
+         */
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(buffer, tokenStart + start, end - start);
+        }
+
+        /**
+         * Function name: toString.
+         * Returns a copy of the text of the current token
+         *
+         * @return the text of the token
+         */
+        @Override
+        public String toString() {
+            return getText();
+        }
+    }
+}
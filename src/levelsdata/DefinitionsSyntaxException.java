@@ -0,0 +1,51 @@
+package levelsdata;
+
+/**
+ * Thrown when a level definitions file or a block definitions file has a line that can't be read. The message tells
+ * the file, the line and the column of the problem.
+ *
+ * @author Ariel Fenster
+ */
+public class DefinitionsSyntaxException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    // members
+    private int line;
+    private int column;
+
+    /**
+     * Function name: DefinitionsSyntaxException.
+     * Constructor
+     *
+     * @param source  - the name of the file
+     * @param line    - the number of the line, starting from 1
+     * @param column  - the number of the column, starting from 1
+     * @param message - what is wrong
+     */
+    public DefinitionsSyntaxException(String source, int line, int column, String message) {
+        super(source + ", line " + line + ", column " + column + ": " + message);
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Function name: getLine.
+     * Returns the number of the line of the problem
+     *
+     * @return the number of the line, starting from 1
+     */
+    public int getLine() {
+        return this.line;
+    }
+
+    /**
+     * Function name: getColumn.
+     * Returns the number of the column of the problem
+     *
+     * @return the number of the column, starting from 1
+     */
+    public int getColumn() {
+        return this.column;
+    }
+}
@@ -0,0 +1,361 @@
+package levelsdata;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the definitions directory for the developers of the levels, and creates the levels again when a level
+ * definitions file or a block definitions file is saved - so a level can be tuned while it's played.
+ * Only the saved file is read again: the watcher keeps the specifications of the levels of every level definitions
+ * file and the blocks factory of every block definitions file, so a saved block definitions file creates again the
+ * levels that use it from their kept specifications, and a saved level definitions file creates its levels with the
+ * kept blocks factories.
+ * The files are read on the thread of the watcher. The created levels wait, by their names, until the game takes
+ * them (GameLevel takes the new version of the level it plays between two frames and patches its blocks). If a few
+ * level definitions files have levels with the same name, the level of the file that was saved last is used.
+ * What was reloaded (or why a file couldn't be) is reported the same way - the reports wait until the game takes
+ * them, and the game shows them in its frame stats overlay.
+ *
+ * @author Ariel Fenster
+ */
+public class DefinitionsWatcher {
+    // an editor can save a file in a few writes - the changes are read after the files are quiet for a while
+    private static final long QUIET_MILLIS = 50;
+    private static final String LEVELS_SUFFIX = "_level_definitions.txt";
+    private static final String LEVELS_FILE = "level_definitions.txt";
+    private static final String BLOCKS_SUFFIX = "_block_definitions.txt";
+
+    // members
+    private File directory;
+    // the directory the paths of the block definitions files in the level definitions files are relative to
+    private File root;
+    // the specifications of every level definitions file, in the order the files were read
+    private Map<String, List<LevelSpecification>> specifications;
+    private Map<String, BlocksFromSymbolsFactory> factories;
+    // the newest version of every level that was changed and not yet taken, by the name of the level
+    private Map<String, LevelInformation> changedLevels;
+    // the reports of the reloads that were not yet taken, oldest first
+    private Queue<String> reports;
+    private WatchService service;
+    private Thread thread;
+
+    /**
+     * Function name: DefinitionsWatcher.
+     * Constructor
+     *
+     * @param directory - the definitions directory, in the class path directory of the game
+     */
+    public DefinitionsWatcher(File directory) {
+        this.directory = directory;
+        this.root = directory.getAbsoluteFile().getParentFile();
+        this.specifications = new LinkedHashMap<>();
+        this.factories = new HashMap<>();
+        this.changedLevels = new ConcurrentHashMap<>();
+        this.reports = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Function name: start.
+     * Starts watching the directory. The files of the directory are read first (on the thread of the watcher), so
+     * later only the changed files are read.
+     *
+     * @throws IOException if the directory can't be watched
+     */
+    public void start() throws IOException {
+        this.service = FileSystems.getDefault().newWatchService();
+        this.directory.toPath().register(this.service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                DefinitionsWatcher.this.watch();
+            }
+        }, "definitions-watcher");
+        // the game can exit while the directory is watched
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Function name: stop.
+     * Stops watching the directory.
+     */
+    public void stop() {
+        try {
+            this.service.close();
+        } catch (IOException i) {
+            i.printStackTrace();
+        }
+    }
+
+    /**
+     * Function name: takeChangedLevel.
+     * Returns the newest version of a level, if one of its files changed since the level was last taken. Can be
+     * called from any thread.
+     *
+     * @param levelName - the name of the level
+     * @return the new version of the level, or null if its files didn't change
+     */
+    public LevelInformation takeChangedLevel(String levelName) {
+        if (levelName == null) {
+            return null;
+        }
+        return this.changedLevels.remove(levelName);
+    }
+
+    /**
+     * Function name: takeReport.
+     * Returns the oldest report of a reload that wasn't taken yet. Can be called from any thread.
+     *
+     * @return the report, or null if there are no new reports
+     */
+    public String takeReport() {
+        return this.reports.poll();
+    }
+
+    /**
+     * Function name: watch.
+     * Reads all the files of the directory, and then reads every file that changes, until the watcher is stopped.
+     */
+    private void watch() {
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            // the block definitions first, so the levels are created with them
+            for (File file : files) {
+                if (isBlocksFile(file.getName())) {
+                    this.readBlocks(file.getName(), false);
+                }
+            }
+            for (File file : files) {
+                if (isLevelsFile(file.getName())) {
+                    this.readLevels(file.getName(), false);
+                }
+            }
+        }
+        try {
+            while (true) {
+                WatchKey key = this.service.take();
+                Set<String> changed = new LinkedHashSet<>();
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path) {
+                            changed.add(event.context().toString());
+                        }
+                    }
+                    key.reset();
+                    key = this.service.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                for (String name : changed) {
+                    if (isBlocksFile(name)) {
+                        this.readBlocks(name, true);
+                    } else if (isLevelsFile(name)) {
+                        this.readLevels(name, true);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watcher was stopped
+            return;
+        }
+    }
+
+    /**
+     * Function name: readBlocks.
+     * Reads a block definitions file, and creates again the kept levels that use it.
+     *
+     * @param name    - the name of the file in the directory
+     * @param changed - true if the file changed, false if it's read for the first time
+     */
+    private void readBlocks(String name, boolean changed) {
+        String path = this.directory.getName() + "/" + name;
+        BlocksFromSymbolsFactory factory;
+        try {
+            Reader reader = this.open(name);
+            try {
+                factory = BlocksDefinitionReader.fromReader(reader, path);
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | DefinitionsSyntaxException e) {
+            // the file can be half-saved - keep the last version until it's saved again
+            this.reports.add("Can't reload " + path + ": " + e.getMessage());
+            return;
+        }
+        this.factories.put(path, factory);
+        if (!changed) {
+            return;
+        }
+        // the file read last is created last, so its levels replace the levels with the same names
+        Set<String> names = new LinkedHashSet<>();
+        boolean allCreated = true;
+        for (Map.Entry<String, List<LevelSpecification>> levels : this.specifications.entrySet()) {
+            for (LevelSpecification specification : levels.getValue()) {
+                if (path.equals(specification.getBlockDefinitions())) {
+                    allCreated &= this.createLevel(specification, levels.getKey(), names);
+                }
+            }
+        }
+        this.reportReloaded(path, names, allCreated);
+    }
+
+    /**
+     * Function name: readLevels.
+     * Reads a level definitions file, keeps its specifications and creates its levels again.
+     *
+     * @param name    - the name of the file in the directory
+     * @param changed - true if the file changed, false if it's read for the first time
+     */
+    private void readLevels(String name, boolean changed) {
+        String path = this.directory.getName() + "/" + name;
+        List<LevelSpecification> levels;
+        try {
+            Reader reader = this.open(name);
+            try {
+                levels = new LevelSpecificationReader().readSpecifications(reader, path);
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | DefinitionsSyntaxException e) {
+            this.reports.add("Can't reload " + path + ": " + e.getMessage());
+            return;
+        }
+        this.specifications.remove(path);
+        this.specifications.put(path, levels);
+        if (!changed) {
+            return;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        boolean allCreated = true;
+        for (LevelSpecification specification : levels) {
+            allCreated &= this.createLevel(specification, path, names);
+        }
+        this.reportReloaded(path, names, allCreated);
+    }
+
+    /**
+     * Function name: reportReloaded.
+     * Reports the levels that were created again after a file was read. A file whose levels all failed to be created
+     * isn't reported as reloaded - the reports of the failures tell why.
+     *
+     * @param path       - the path of the file that was read
+     * @param names      - the names of the levels that were created again
+     * @param allCreated - false if some of the levels couldn't be created
+     */
+    private void reportReloaded(String path, Set<String> names, boolean allCreated) {
+        if (allCreated || !names.isEmpty()) {
+            this.reports.add("Reloaded " + path + ": " + names);
+        }
+    }
+
+    /**
+     * Function name: createLevel.
+     * Creates a level from its specification with the kept blocks factory of its block definitions file, and keeps
+     * it until the game takes it. A level whose layout uses a block without all of its information is reported with
+     * the line of the symbol, and the game keeps its last version.
+     *
+     * @param specification - the specification of the level
+     * @param source        - the path of the level definitions file of the level
+     * @param names         - the names of the created levels, the name of the level is added to it
+     * @return false if the level couldn't be created, true otherwise
+     */
+    private boolean createLevel(LevelSpecification specification, String source, Set<String> names) {
+        String definitions = specification.getBlockDefinitions();
+        BlocksFromSymbolsFactory factory = definitions == null ? null : this.factories.get(definitions);
+        if (factory == null && definitions != null) {
+            // a block definitions file outside the directory is read every time
+            factory = this.readFactory(definitions);
+        }
+        if (factory == null) {
+            return definitions == null;
+        }
+        LevelInformation level = specification.createLevel(factory);
+        if (level == null) {
+            String missing = specification.describeMissingBlock(factory);
+            this.reports.add("Can't reload level '" + specification.getLevelName() + "': " + source + ", "
+                    + (missing != null ? missing : "missing block information"));
+            return false;
+        }
+        if (level.levelName() != null) {
+            this.changedLevels.put(level.levelName(), level);
+            names.add(level.levelName());
+        }
+        return true;
+    }
+
+    /**
+     * Function name: readFactory.
+     * Reads a block definitions file by its path in the class path directory of the game
+     *
+     * @param path - the path of the file
+     * @return the blocks factory of the file, or null if it can't be read
+     */
+    private BlocksFromSymbolsFactory readFactory(String path) {
+        try {
+            Reader reader = new InputStreamReader(new FileInputStream(new File(this.root, path)),
+                    StandardCharsets.UTF_8);
+            try {
+                return BlocksDefinitionReader.fromReader(reader, path);
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | DefinitionsSyntaxException e) {
+            this.reports.add("Can't reload " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Function name: open.
+     * Opens a file of the directory
+     *
+     * @param name - the name of the file
+     * @return a reader of the file
+     * @throws IOException if the file can't be opened
+     */
+    private Reader open(String name) throws IOException {
+        return new InputStreamReader(new FileInputStream(new File(this.directory, name)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Function name: isBlocksFile.
+     * Checks if a file of the directory is a block definitions file
+     *
+     * @param name - the name of the file
+     * @return true if it's a block definitions file
+     */
+    private static boolean isBlocksFile(String name) {
+        return name.endsWith(BLOCKS_SUFFIX);
+    }
+
+    /**
+     * Function name: isLevelsFile.
+     * Checks if a file of the directory is a level definitions file
+     *
+     * @param name - the name of the file
+     * @return true if it's a level definitions file
+     */
+    private static boolean isLevelsFile(String name) {
+        return name.endsWith(LEVELS_SUFFIX) || name.equals(LEVELS_FILE);
+    }
+}
@@ -0,0 +1,330 @@
+package levelsdata;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the images of the game after they are decoded, by the path of their file in the class path, so an image
+ * used by many blocks and levels (or by a level set that is read again) is only decoded once.
+ * A decoded image is converted once to the pixel format of the screen (or, without a screen, to plain int pixels),
+ * since drawing an image of another format converts every pixel every time it's drawn. An image can also be asked
+ * for in a given size - it's scaled once and the scaled image is kept in the cache as well.
+ * The cache is bounded by the memory of the decoded pixels: when the images in it take more than the limit, the
+ * images that weren't used for the longest time are removed from it (they stay in use by whoever holds them).
+ * The cache counts its hits, misses and removals, to see how well it works.
+ * A single cache is shared by the whole game, and it can be used from several threads at once.
+ *
+ * @author Ariel Fenster
+ */
+public class ImageCache {
+    // the default limit of the memory of the images in the shared cache
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final ImageCache SHARED = new ImageCache(DEFAULT_MAX_BYTES);
+
+    // members - the images in the order they were used, the oldest first
+    private LinkedHashMap<String, Image> images;
+    private Map<String, Long> sizes;
+    private long maxBytes;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long decodedImages;
+
+    /**
+     * Function name: ImageCache.
+     * Constructor - creates an empty cache.
+     *
+     * @param maxBytes - the limit of the memory of the decoded images in the cache
+     */
+    public ImageCache(long maxBytes) {
+        // ordered by access, so the first image is the one that wasn't used for the longest time
+        this.images = new LinkedHashMap<>(16, 0.75f, true);
+        this.sizes = new HashMap<>();
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Function name: getShared.
+     * Returns the cache shared by the whole game
+     *
+     * @return the shared cache
+     */
+    public static ImageCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Function name: getImage.
+     * Returns the image in the given file - from the cache if it's there, otherwise the file is decoded and the
+     * image is added to the cache. Threads that ask for different images decode them at the same time.
+     *
+     * @param path - the path of the image file in the class path
+     * @return the image in the file, or null if it can't be read
+     */
+    public Image getImage(String path) {
+        synchronized (this) {
+            Image cached = this.images.get(path);
+            if (cached != null) {
+                this.hits++;
+                return cached;
+            }
+            this.misses++;
+        }
+        Image decoded = decode(path);
+        if (decoded == null) {
+            return null;
+        }
+        decoded = convert(decoded, decoded.getWidth(null), decoded.getHeight(null));
+        synchronized (this) {
+            this.decodedImages++;
+            // another thread may have decoded the same image in the meantime - the first one is kept
+            Image cached = this.images.get(path);
+            if (cached != null) {
+                return cached;
+            }
+            this.add(path, decoded);
+        }
+        return decoded;
+    }
+
+    /**
+     * Function name: getImage.
+     * Returns the image in the given file, scaled to the given size. The scaled image is kept in the cache, so it's
+     * only scaled once.
+     *
+     * @param path   - the path of the image file in the class path
+     * @param width  - the width of the returned image
+     * @param height - the height of the returned image
+     * @return the image in the file in the given size, or null if it can't be read
+     */
+    public Image getImage(String path, int width, int height) {
+        Image original = this.getImage(path);
+        if (original == null || width <= 0 || height <= 0
+                || (original.getWidth(null) == width && original.getHeight(null) == height)) {
+            return original;
+        }
+        String key = path + "@" + width + "x" + height;
+        synchronized (this) {
+            Image cached = this.images.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Image scaled = convert(original, width, height);
+        synchronized (this) {
+            Image cached = this.images.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            this.add(key, scaled);
+        }
+        return scaled;
+    }
+
+    /**
+     * Function name: add.
+     * Adds an image to the cache and removes old images if the cache went over its limit.
+     *
+     * @param key   - the key of the image
+     * @param image - the image
+     */
+    private void add(String key, Image image) {
+        long size = sizeOf(image);
+        this.images.put(key, image);
+        this.sizes.put(key, size);
+        this.bytes += size;
+        this.evict(key);
+    }
+
+    /**
+     * Function name: convert.
+     * Draws an image into a new image of the given size, in the pixel format that is fastest to draw on the screen.
+     * Opaque images stay opaque; images with transparency get premultiplied alpha when there is no screen.
+     *
+     * @param image  - the image to convert
+     * @param width  - the width of the new image
+     * @param height - the height of the new image
+     * @return the converted image
+     */
+    private static BufferedImage convert(Image image, int width, int height) {
+        int transparency = image instanceof BufferedImage ? ((BufferedImage) image).getTransparency()
+                : Transparency.TRANSLUCENT;
+        BufferedImage converted;
+        if (GraphicsEnvironment.isHeadless()) {
+            converted = new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        } else {
+            converted = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+        }
+        Graphics2D g = converted.createGraphics();
+        if (width != image.getWidth(null) || height != image.getHeight(null)) {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        }
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return converted;
+    }
+
+    /**
+     * Function name: evict.
+     * Removes the images that weren't used for the longest time until the cache is within its limit. The given
+     * image is never removed, even if it's bigger than the limit by itself.
+     *
+     * @param keep - the path of the image to keep
+     */
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Image>> oldest = this.images.entrySet().iterator();
+        while (this.bytes > this.maxBytes && oldest.hasNext()) {
+            String path = oldest.next().getKey();
+            if (!path.equals(keep)) {
+                oldest.remove();
+                this.bytes -= this.sizes.remove(path);
+                this.evictions++;
+            }
+        }
+    }
+
+    /**
+     * Function name: decode.
+     * Reads and decodes the image in the given file.
+     *
+     * @param path - the path of the image file in the class path
+     * @return the image in the file, or null if it can't be read
+     */
+    private static Image decode(String path) {
+        InputStream is = null;
+        Image img = null;
+        try {
+            // read the image from the file
+            is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+            img = ImageIO.read(is);
+        } catch (IOException i) {
+            i.printStackTrace();
+        } finally {
+            if (is != null) {
+                try {
+                    is.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        return img;
+    }
+
+    /**
+     * Function name: sizeOf.
+     * Returns the memory taken by the pixels of a decoded image.
+     *
+     * @param image - the image
+     * @return the size of the pixels, in bytes
+     */
+    private static long sizeOf(Image image) {
+        if (image instanceof BufferedImage) {
+            DataBuffer buffer = ((BufferedImage) image).getRaster().getDataBuffer();
+            return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType())
+                    / 8;
+        }
+        // 4 bytes for every pixel
+        return 4L * Math.max(0, image.getWidth(null)) * Math.max(0, image.getHeight(null));
+    }
+
+    /**
+     * Function name: setMaxBytes.
+     * Sets the limit of the memory of the images in the cache, removing images if it's over the new limit.
+     *
+     * @param newMaxBytes - the limit of the memory of the decoded images in the cache
+     */
+    public synchronized void setMaxBytes(long newMaxBytes) {
+        this.maxBytes = newMaxBytes;
+        this.evict(null);
+    }
+
+    /**
+     * Function name: clear.
+     * Removes all the images from the cache (the counters aren't reset)
+     */
+    public synchronized void clear() {
+        this.images.clear();
+        this.sizes.clear();
+        this.bytes = 0;
+    }
+
+    /**
+     * Function name: getHits.
+     * Returns the amount of times an image was found in the cache
+     *
+     * @return amount of hits
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Function name: getMisses.
+     * Returns the amount of times an image wasn't in the cache and had to be decoded
+     *
+     * @return amount of misses
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Function name: getEvictions.
+     * Returns the amount of images removed from the cache to keep it within its limit
+     *
+     * @return amount of evictions
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Function name: getDecodedImages.
+     * Returns the amount of images decoded by the cache
+     *
+     * @return amount of decoded images
+     */
+    public synchronized long getDecodedImages() {
+        return this.decodedImages;
+    }
+
+    /**
+     * Function name: getBytes.
+     * Returns the memory taken by the images in the cache
+     *
+     * @return the size of the images in the cache, in bytes
+     */
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Function name: getStats.
+     * Describes the state of the cache and its counters, in a single line
+     *
+     * @return the description of the cache
+     */
+    public synchronized String getStats() {
+        long requests = this.hits + this.misses;
+        return String.format("image cache: %d images, %.1f of %.1f MB, hits: %d, misses: %d (%.1f%% hits), "
+                        + "evictions: %d", this.images.size(), this.bytes / 1048576.0, this.maxBytes / 1048576.0,
+                this.hits, this.misses, requests == 0 ? 0 : 100.0 * this.hits / requests, this.evictions);
+    }
+}
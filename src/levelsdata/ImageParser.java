@@ -1,12 +1,11 @@
 package levelsdata;
 
-import javax.imageio.ImageIO;
 import java.awt.Image;
-import java.io.IOException;
-import java.io.InputStream;
 
 /**
  * Creates an image for the game.
+ * The images are decoded once and kept in the game's shared image cache, so asking again for the same file returns
+ * the same image.
  *
  * @author Ariel Fenster
  */
@@ -20,25 +19,40 @@ public class ImageParser {
      * @return the image in the file
      */
     public Image imageFromString(String filePath) {
-        // adjust the file path to start from inside the resources directory
-        filePath = filePath.substring(filePath.indexOf('(') + 1, filePath.length() - 1);
-        InputStream is = null;
-        Image img = null;
-        try {
-            // read the image from the file
-            is = ClassLoader.getSystemClassLoader().getResourceAsStream(filePath);
-            img = ImageIO.read(is);
-        } catch (IOException i) {
-            i.printStackTrace();
-        } finally {
-            if (is != null) {
-                try {
-                    is.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-        return img;
+        return ImageCache.getShared().getImage(this.pathFromString(filePath));
+    }
+
+    /**
+     * Function name: imageFromString (#2).
+     * Returns the image written in the given file path, scaled to the given size
+     *
+     * @param filePath - the path of the image file
+     * @param width    - the width of the returned image
+     * @param height   - the height of the returned image
+     * @return the image in the file in the given size
+     */
+    public Image imageFromString(String filePath, int width, int height) {
+        return ImageCache.getShared().getImage(this.pathFromString(filePath), width, height);
+    }
+
+    /**
+     * Function name: pathFromString.
+     * Returns the path of the image file written in the given text, like 'image(path)'
+     *
+     * @param image - the image as it's written in the definitions files
+     * @return the path of the image file, inside the resources directory
+     */
+    public String pathFromString(String image) {
+        return image.substring(image.indexOf('(') + 1, image.length() - 1);
+    }
+
+    /**
+     * Function name: getDecodedImages.
+     * Returns the amount of images decoded since the game started
+     *
+     * @return amount of decoded images
+     */
+    public static int getDecodedImages() {
+        return (int) ImageCache.getShared().getDecodedImages();
     }
 }
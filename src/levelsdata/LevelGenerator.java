@@ -3,15 +3,13 @@ package levelsdata;
 import collidablesdata.Sprite;
 import collidablesdata.Velocity;
 import gameobjects.Block;
+import profiling.LevelLoadEvent;
 
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A level generator for the game.
@@ -20,25 +18,18 @@ import java.util.regex.Pattern;
  */
 public class LevelGenerator implements LevelInformation {
 
-    // the information about the level
-    private Map<String, String> levelDetails;
-
-    // the layout of the blocks in the level
-    private List<String> blocksLayout;
+    // the details of the level and the layout of its blocks
+    private LevelSpecification specification;
 
     // builds the level blocks based on the blocks definitions file
     private BlocksFromSymbolsFactory blocksFactory;
 
-    // all the level details separated into different variables
-    private String name;
+    // the blocks of the layout, compiled when the level is created
+    private BlocksPrototype blocksPrototype;
+
+    // the level details that are created from the specification
     private Sprite background;
     private List<Velocity> velocityList;
-    private int paddleSpeed;
-    private int paddleWidth;
-    private int blocksStartX;
-    private int blocksStartY;
-    private int rowHeight;
-    private int numBlocks;
 
     /**
      * Function name: LevelGenerator.
@@ -50,15 +41,27 @@ public class LevelGenerator implements LevelInformation {
 
     /**
      * Function name: createLevel.
-     * Creating a level based on the details in the mapped information maps.
+     * Creating a level based on the details in the specification of the level.
+     *
+     * @param levelSpecification - the details of the level and the layout of its blocks
+     * @return a level
+     */
+    public LevelInformation createLevel(LevelSpecification levelSpecification) {
+        return this.createLevel(levelSpecification, null);
+    }
+
+    /**
+     * Function name: createLevel (#2).
+     * Creating a level based on the details in the specification of the level, with the blocks of a blocks factory
+     * that was already read (its block definitions file isn't read again).
      *
-     * @param details    - general level details
-     * @param blocksInfo - blocks layout details
+     * @param levelSpecification - the details of the level and the layout of its blocks
+     * @param factory            - the factory of the blocks of the level, or null to read it from its file
      * @return a level
      */
-    public LevelInformation createLevel(Map<String, String> details, List<String> blocksInfo) {
-        this.levelDetails = details;
-        this.blocksLayout = blocksInfo;
+    public LevelInformation createLevel(LevelSpecification levelSpecification, BlocksFromSymbolsFactory factory) {
+        this.specification = levelSpecification;
+        this.blocksFactory = factory;
 
         // try to create a level. if there is missing data, catch the exception and return an empty level as error.
         try {
@@ -74,87 +77,40 @@ public class LevelGenerator implements LevelInformation {
      * Function name: setMembers.
      * Setting all the members in the class
      *
-     * @throws NullPointerException - if one of the maps don't contain the appropriate information
+     * @throws NullPointerException - if the blocks of the level are missing information
      */
     private void setMembers() throws NullPointerException {
-        this.setName();
-        this.setVelocityList();
-        this.setBackgroundDesign();
-        this.setPaddleInfo();
-        this.setBlocksFactory();
-        this.setBlocksStartPos();
-        this.setRowHeight();
-        this.setNumBlocks();
-    }
-
-    /**
-     * Function name: setName.
-     * Get the name of the level from the map and set as a member.
-     *
-     * @throws NullPointerException - if the map doesn't contain appropriate information
-     */
-    private void setName() throws NullPointerException {
-        this.name = this.levelDetails.get("level_name");
-    }
-
-    /**
-     * Function name: setBackgroundDesign.
-     * Get the background design data from the map and set a newly created background as a member
-     *
-     * @throws NullPointerException - if the map doesn't contain appropriate information
-     */
-    private void setBackgroundDesign() throws NullPointerException {
-        this.background = new BackgroundGenerator(this.levelDetails.get("background"));
-    }
-
-    /**
-     * Function name: setVelocityList.
-     * Get the velocities data from the map and add to the level's velocities list.
-     *
-     * @throws NullPointerException - if the map doesn't contain appropriate information
-     */
-    private void setVelocityList() throws NullPointerException {
-        String data = this.levelDetails.get("ball_velocities");
-        // using regex to retrieve the actual numbers in the string
-//        Pattern pattern = Pattern.compile("[-]?\\d+,\\d+");
-        Pattern pattern = Pattern.compile("[-]?\\d+");
-        Matcher matcher = pattern.matcher(data);
-
-        while (matcher.find()) {
-            double angle = Double.parseDouble(data.substring(matcher.start(), matcher.end()));
-            matcher.find();
-            double speed = Double.parseDouble(data.substring(matcher.start(), matcher.end()));
-            this.velocityList.add(Velocity.fromAngleAndSpeed(angle, speed));
+        // every level gets its own list, so a level created again from the same specification doesn't share it
+        this.velocityList.addAll(this.specification.getBallVelocities());
+        this.background = new BackgroundGenerator(this.specification.getBackground());
+        if (this.blocksFactory == null) {
+            this.setBlocksFactory();
         }
-    }
-
-    /**
-     * Function name: setPaddleInfo.
-     * Get the paddle's speed and width values from the map and set them as members
-     *
-     * @throws NullPointerException - if the map doesn't contain appropriate information
-     */
-    private void setPaddleInfo() throws NullPointerException {
-        this.paddleSpeed = Integer.parseInt(this.levelDetails.get("paddle_speed"));
-        this.paddleWidth = Integer.parseInt(this.levelDetails.get("paddle_width"));
+        this.setBlocksPrototype();
     }
 
     /**
      * Function name: setBlocksFactory.
-     * Get the path of the file specified in the information map and create a blocks creating factory
-     * based on the information written in that file
-     *
-     * @throws NullPointerException - if the map doesn't contain appropriate information
+     * Get the path of the block definitions file of the level and create a blocks creating factory based on the
+     * information written in that file
      */
-    private void setBlocksFactory() throws NullPointerException {
-        String path = this.levelDetails.get("block_definitions");
+    private void setBlocksFactory() {
+        String path = this.specification.getBlockDefinitions();
         InputStream is = null;
+        // the reading of the file is recorded for the flight recorder
+        LevelLoadEvent event = new LevelLoadEvent(path, "block definitions");
+        int imagesBefore = ImageParser.getDecodedImages();
+        event.begin();
         try {
             is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
-            this.blocksFactory = BlocksDefinitionReader.fromReader(new InputStreamReader(is));
+            CountingInputStream counter = new CountingInputStream(is);
+            this.blocksFactory = BlocksDefinitionReader.fromReader(new InputStreamReader(counter), path);
+            event.setResult(counter.getCount(), ImageParser.getDecodedImages() - imagesBefore,
+                    this.blocksFactory.getBlockTypeCount());
         } catch (Exception e) {
             e.printStackTrace();
         } finally {
+            event.commit();
             if (is != null) {
                 try {
                     is.close();
@@ -166,34 +122,14 @@ public class LevelGenerator implements LevelInformation {
     }
 
     /**
-     * Function name: setBlocksStartPos.
-     * Get the blocks starting position values from the map and set them as members
+     * Function name: setBlocksPrototype.
+     * Reads the layout of the blocks once and compiles the blocks into a prototype, which the blocks of the level
+     * are created from every time the level is played
      *
-     * @throws NullPointerException - if the map doesn't contain appropriate information
+     * @throws NullPointerException - if the layout uses a block whose information is missing
      */
-    private void setBlocksStartPos() throws NullPointerException {
-        this.blocksStartX = Integer.parseInt(this.levelDetails.get("blocks_start_x"));
-        this.blocksStartY = Integer.parseInt(this.levelDetails.get("blocks_start_y"));
-    }
-
-    /**
-     * Function name: setRowHeight.
-     * Get the row height value from the map and set it as a member
-     *
-     * @throws NullPointerException - if the map doesn't contain appropriate information
-     */
-    private void setRowHeight() throws NullPointerException {
-        this.rowHeight = Integer.parseInt(this.levelDetails.get("row_height"));
-    }
-
-    /**
-     * Function name: setNumBlocks.
-     * Get the amount of block to destroy to complete the level from the map and set it as a member
-     *
-     * @throws NullPointerException - if the map dos
-     */
-    private void setNumBlocks() throws NullPointerException {
-        this.numBlocks = Integer.parseInt(this.levelDetails.get("num_blocks"));
+    private void setBlocksPrototype() throws NullPointerException {
+        this.blocksPrototype = new BlocksPrototype(this.layOutBlocks());
     }
 
     /**
@@ -223,7 +159,7 @@ public class LevelGenerator implements LevelInformation {
      * @return paddle's speed
      */
     public int paddleSpeed() {
-        return this.paddleSpeed;
+        return this.specification.getPaddleSpeed();
     }
 
     /**
@@ -233,7 +169,7 @@ public class LevelGenerator implements LevelInformation {
      * @return paddle's width
      */
     public int paddleWidth() {
-        return this.paddleWidth;
+        return this.specification.getPaddleWidth();
     }
 
     /**
@@ -243,7 +179,7 @@ public class LevelGenerator implements LevelInformation {
      * @return level's name
      */
     public String levelName() {
-        return this.name;
+        return this.specification.getLevelName();
     }
 
     /**
@@ -258,27 +194,42 @@ public class LevelGenerator implements LevelInformation {
 
     /**
      * Function name: blocks.
-     * Creating the blocks that make up the specific level - each with a size, color and position.
+     * Creating the blocks that make up the specific level - each with a size, color and position - from the
+     * prototype compiled when the level was created.
      *
      * @return a list of the created blocks
      */
     public List<Block> blocks() {
-        List<Block> blocksList = new ArrayList<>(this.numBlocks);
+        return this.blocksPrototype.createBlocks();
+    }
 
-        for (int i = 0; i < this.blocksLayout.size(); i++) {
+    /**
+     * Function name: layOutBlocks.
+     * Creating the blocks of the level by reading its layout, symbol by symbol. The prototype of the level is
+     * compiled from these blocks.
+     *
+     * @return a list of the created blocks
+     * @throws NullPointerException - if the layout uses a block whose information is missing
+     */
+    private List<Block> layOutBlocks() throws NullPointerException {
+        List<Block> blocksList = new ArrayList<>(this.specification.getNumBlocks());
+        List<char[]> blocksLayout = this.specification.getBlocksLayout();
+
+        for (int i = 0; i < blocksLayout.size(); i++) {
             // get the current line of layout formation
-            char[] currentLine = this.blocksLayout.get(i).toCharArray();
+            char[] currentLine = blocksLayout.get(i);
             // set the initial position for each line of blocks
-            int currentX = this.blocksStartX;
-            int currentY = this.blocksStartY + (this.rowHeight * i);
+            int currentX = this.specification.getBlocksStartX();
+            int currentY = this.specification.getBlocksStartY() + (this.specification.getRowHeight() * i);
 
             // check each character if it's a space symbol or block symbol
-            for (char currentChar : currentLine) {
-                String symbol = Character.toString(currentChar);
-
+            for (char symbol : currentLine) {
                 // if the current character is a symbol of a block - create the appropriate block and add to the list
                 if (this.blocksFactory.isBlockSymbol(symbol)) {
                     Block block = this.blocksFactory.getBlock(symbol, currentX, currentY);
+                    if (block == null) {
+                        throw new NullPointerException("Missing block information: '" + symbol + "'");
+                    }
                     currentX = (int) block.getCollisionRectangle().getUpperRight().getX();
                     blocksList.add(block);
                     // if the character is a space symbol - advance the x position by that symbol's width setting
@@ -297,6 +248,6 @@ public class LevelGenerator implements LevelInformation {
      * @return numbers of blocks needed to remove to complete the level
      */
     public int numberOfBlocksToRemove() {
-        return this.numBlocks;
+        return this.specification.getNumBlocks();
     }
 }
@@ -0,0 +1,310 @@
+package levelsdata;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loads the levels of a level definitions file in the background, so the game can show the progress meanwhile.
+ * The loading is a pipeline of tasks on a small pool of threads shared by the game: first the specifications of the
+ * levels are read from the file, then every distinct image the levels use (as a background or in their block
+ * definitions) is decoded into the shared image cache, each image in a task of its own, and every level is created
+ * in a task of its own as soon as the images it uses are decoded. An image used by several levels is decoded once,
+ * instead of by every level that reaches it before it's in the cache.
+ * The levels of a compiled level pack are loaded the same way, except that nothing has to be read from text.
+ * The levels are returned in the order of the file.
+ *
+ * @author Ariel Fenster
+ */
+public class LevelLoader {
+    // the pool is bounded, since decoding images takes a lot of memory for a short time
+    private static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+        private AtomicInteger created = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "level-loader-" + this.created.incrementAndGet());
+            // the game can exit while levels are still loaded
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private static final Pattern IMAGE_PATTERN = Pattern.compile("image\\(([^)]*)\\)");
+
+    // members
+    private CompletableFuture<List<LevelInformation>> levels;
+    private volatile int tasks;
+    private AtomicInteger finishedTasks;
+
+    /**
+     * Function name: LevelLoader.
+     * Constructor - starts loading the levels in the background.
+     *
+     * @param reader - the object that is linked to the level definitions file (it's closed when it was read)
+     * @param source - the name of the file, for error messages
+     */
+    public LevelLoader(final Reader reader, final String source) {
+        this.finishedTasks = new AtomicInteger();
+        this.levels = CompletableFuture.supplyAsync(new Supplier<List<LevelSpecification>>() {
+            @Override
+            public List<LevelSpecification> get() {
+                return new LevelSpecificationReader().readSpecifications(reader, source);
+            }
+        }, POOL).thenCompose(new Function<List<LevelSpecification>, CompletionStage<List<LevelInformation>>>() {
+            @Override
+            public CompletionStage<List<LevelInformation>> apply(List<LevelSpecification> specifications) {
+                return LevelLoader.this.createLevels(specifications);
+            }
+        });
+    }
+
+    /**
+     * Function name: LevelLoader (#2).
+     * Constructor - starts loading the levels of a level set of a compiled level pack in the background.
+     *
+     * @param pack - the level pack
+     * @param set  - the index of the level set in the pack
+     */
+    public LevelLoader(final LevelPack pack, final int set) {
+        this.finishedTasks = new AtomicInteger();
+        // the images of the levels are listed in the pack, so the tasks can start right away
+        this.levels = this.createLevels(pack, set);
+    }
+
+    /**
+     * Function name: createLevels.
+     * Finds the images of the levels in the text and starts the tasks that decode the images and create the levels.
+     *
+     * @param specifications - the specifications of the levels
+     * @return the levels, when all of them are created
+     */
+    private CompletableFuture<List<LevelInformation>> createLevels(List<LevelSpecification> specifications) {
+        // the images of every level, and of every block definitions file (read once even if many levels use it)
+        List<Set<String>> levelImages = new ArrayList<>();
+        List<Supplier<LevelInformation>> creators = new ArrayList<>();
+        Map<String, Set<String>> definitionsImages = new HashMap<>();
+        for (final LevelSpecification specification : specifications) {
+            Set<String> images = new LinkedHashSet<>();
+            addImages(specification.getBackground(), images);
+            String definitions = specification.getBlockDefinitions();
+            if (definitions != null) {
+                if (!definitionsImages.containsKey(definitions)) {
+                    definitionsImages.put(definitions, readImages(definitions));
+                }
+                images.addAll(definitionsImages.get(definitions));
+            }
+            levelImages.add(images);
+            creators.add(new Supplier<LevelInformation>() {
+                @Override
+                public LevelInformation get() {
+                    return specification.createLevel();
+                }
+            });
+        }
+        return this.startTasks(levelImages, creators);
+    }
+
+    /**
+     * Function name: createLevels (#2).
+     * Starts the tasks that decode the images of the levels of a level set in a pack and create the levels.
+     *
+     * @param pack - the level pack
+     * @param set  - the index of the level set in the pack
+     * @return the levels, when all of them are created
+     */
+    private CompletableFuture<List<LevelInformation>> createLevels(final LevelPack pack, int set) {
+        List<Set<String>> levelImages = new ArrayList<>();
+        List<Supplier<LevelInformation>> creators = new ArrayList<>();
+        for (int i = 0; i < pack.getLevelCount(set); i++) {
+            final int level = pack.getFirstLevel(set) + i;
+            levelImages.add(pack.getLevelImages(level));
+            creators.add(new Supplier<LevelInformation>() {
+                @Override
+                public LevelInformation get() {
+                    return pack.getLevel(level);
+                }
+            });
+        }
+        return this.startTasks(levelImages, creators);
+    }
+
+    /**
+     * Function name: startTasks.
+     * Starts a task that decodes every distinct image the levels use, and a task that creates every level once its
+     * images are decoded.
+     *
+     * @param levelImages - the paths of the images of every level
+     * @param creators    - the creators of the levels
+     * @return the levels in the order of their creators, when all of them are created
+     */
+    private CompletableFuture<List<LevelInformation>> startTasks(List<Set<String>> levelImages,
+                                                                 List<Supplier<LevelInformation>> creators) {
+        Set<String> allImages = new LinkedHashSet<>();
+        for (Set<String> images : levelImages) {
+            allImages.addAll(images);
+        }
+        this.tasks = allImages.size() + creators.size();
+
+        // a decoding task for every distinct image
+        Map<String, CompletableFuture<Void>> decodings = new HashMap<>();
+        for (final String path : allImages) {
+            decodings.put(path, CompletableFuture.runAsync(new Runnable() {
+                @Override
+                public void run() {
+                    ImageCache.getShared().getImage(path);
+                    LevelLoader.this.finishedTasks.incrementAndGet();
+                }
+            }, POOL));
+        }
+
+        // a task for every level, started when its images are decoded
+        final List<CompletableFuture<LevelInformation>> created = new ArrayList<>();
+        for (int i = 0; i < creators.size(); i++) {
+            final Supplier<LevelInformation> creator = creators.get(i);
+            List<CompletableFuture<Void>> needed = new ArrayList<>();
+            for (String path : levelImages.get(i)) {
+                needed.add(decodings.get(path));
+            }
+            created.add(CompletableFuture.allOf(needed.toArray(new CompletableFuture<?>[needed.size()]))
+                    .thenApplyAsync(new Function<Void, LevelInformation>() {
+                        @Override
+                        public LevelInformation apply(Void ignored) {
+                            LevelInformation level = creator.get();
+                            LevelLoader.this.finishedTasks.incrementAndGet();
+                            return level;
+                        }
+                    }, POOL));
+        }
+
+        return CompletableFuture.allOf(created.toArray(new CompletableFuture<?>[created.size()]))
+                .thenApply(new Function<Void, List<LevelInformation>>() {
+                    @Override
+                    public List<LevelInformation> apply(Void ignored) {
+                        List<LevelInformation> levelsList = new ArrayList<>();
+                        for (CompletableFuture<LevelInformation> level : created) {
+                            levelsList.add(level.join());
+                        }
+                        return levelsList;
+                    }
+                });
+    }
+
+    /**
+     * Function name: addImages.
+     * Adds the paths of the images written in a text (like "image(path)") to a set
+     *
+     * @param text   - the text, or null
+     * @param images - the set of paths
+     */
+    private static void addImages(String text, Set<String> images) {
+        if (text == null) {
+            return;
+        }
+        Matcher matcher = IMAGE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            images.add(matcher.group(1));
+        }
+    }
+
+    /**
+     * Function name: readImages.
+     * Returns the paths of the images used in a block definitions file
+     *
+     * @param path - the path of the file in the class path
+     * @return the paths of the images, or an empty set if the file can't be read (the level will report it)
+     */
+    private static Set<String> readImages(String path) {
+        Set<String> images = new LinkedHashSet<>();
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            return images;
+        }
+        BufferedReader br = new BufferedReader(new InputStreamReader(is));
+        try {
+            String line = br.readLine();
+            while (line != null) {
+                addImages(line, images);
+                line = br.readLine();
+            }
+        } catch (IOException i) {
+            i.printStackTrace();
+        } finally {
+            try {
+                br.close();
+            } catch (IOException i) {
+                i.printStackTrace();
+            }
+        }
+        return images;
+    }
+
+    /**
+     * Function name: getLevels.
+     * Returns the levels that are loaded, when they are all created
+     *
+     * @return the levels in the order of the file
+     */
+    public CompletableFuture<List<LevelInformation>> getLevels() {
+        return this.levels;
+    }
+
+    /**
+     * Function name: isDone.
+     * Returns whether the loading ended (successfully or not)
+     *
+     * @return true if the loading ended
+     */
+    public boolean isDone() {
+        return this.levels.isDone();
+    }
+
+    /**
+     * Function name: getProgress.
+     * Returns the part of the loading tasks that finished
+     *
+     * @return a number between 0 and 1
+     */
+    public double getProgress() {
+        if (this.isDone()) {
+            return 1;
+        }
+        int total = this.tasks;
+        return total == 0 ? 0 : Math.min(1, (double) this.finishedTasks.get() / total);
+    }
+
+    /**
+     * Function name: join.
+     * Waits for the loading to end and returns the levels
+     *
+     * @return the levels in the order of the file, or null if there is missing information
+     */
+    public List<LevelInformation> join() {
+        try {
+            return this.levels.join();
+            // if there is missing information, an exception will be thrown. return null to notify so
+        } catch (CompletionException e) {
+            System.out.println(e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package levelsdata;
+
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A compiled level pack - the level sets of the game, their levels and the blocks of the levels, already parsed,
+ * in a binary file that is mapped to memory. Nothing in the pack is parsed from text: the numbers and colors are
+ * stored as numbers, the block definitions as templates with their sizes and fills, and the layout of the blocks as
+ * the position and template of every block. Only the names and the paths of the images are strings.
+ * A pack is created by the LevelPackCompiler.
+ * <p>
+ * The file is made of sections of fixed size records, all numbers in big endian:
+ * <pre>
+ * header      magic "ARKP", version, then the count and the offset of each of the sections below
+ * sets        key (string), description (string), first level, amount of levels
+ * levels      name (string), background color (ARGB, 0 if none), background image (image, -1 if none),
+ *             paddle speed, paddle width, blocks to remove, first velocity, amount of velocities,
+ *             first block, amount of blocks
+ * templates   width, height, hit points (doubles), stroke (ARGB, 0 if none), first fill, amount of fills
+ * fills       number of hit points, color (ARGB, 0 if none), image (image, -1 if none)
+ * blocks      x, y, template
+ * velocities  dx, dy (doubles)
+ * images      path in the class path (string)
+ * strings     the end offset of every string in the data that follows, then the UTF-8 data of the strings
+ * </pre>
+ * The records of a level are consecutive, so a level is read with a few absolute reads from the mapped file.
+ * A pack can be read from several threads at once.
+ *
+ * @author Ariel Fenster
+ */
+public class LevelPack {
+    // "ARKP"
+    public static final int MAGIC = 0x41524B50;
+    public static final int VERSION = 1;
+
+    // the sections of the pack, in the order of their counts and offsets in the header
+    static final int SETS = 0;
+    static final int LEVELS = 1;
+    static final int TEMPLATES = 2;
+    static final int FILLS = 3;
+    static final int BLOCKS = 4;
+    static final int VELOCITIES = 5;
+    static final int IMAGES = 6;
+    static final int STRINGS = 7;
+    static final int SECTION_COUNT = 8;
+    // the size of a record in each section (the strings section has an offset for every string)
+    static final int[] RECORD_SIZES = {16, 40, 36, 12, 12, 16, 4, 4};
+    // magic, version, then a count and an offset for every section
+    static final int HEADER_SIZE = 8 + SECTION_COUNT * 8;
+
+    // members
+    private String path;
+    private ByteBuffer buffer;
+    private int[] counts;
+    private int[] offsets;
+    private int stringData;
+
+    /**
+     * Function name: LevelPack.
+     * Constructor - reads the header of a pack and checks that its sections are within the file.
+     *
+     * @param path   - the path of the pack file
+     * @param buffer - the content of the file
+     * @throws IOException if the content isn't a level pack of this version
+     */
+    LevelPack(String path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a level pack");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException(path + " is a level pack of version " + buffer.getInt(4) + ", expected "
+                    + VERSION);
+        }
+        this.counts = new int[SECTION_COUNT];
+        this.offsets = new int[SECTION_COUNT];
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            this.counts[i] = buffer.getInt(8 + i * 8);
+            this.offsets[i] = buffer.getInt(12 + i * 8);
+            long end = (long) this.offsets[i] + (long) this.counts[i] * RECORD_SIZES[i];
+            if (this.counts[i] < 0 || this.offsets[i] < HEADER_SIZE || end > buffer.capacity()) {
+                throw new IOException(path + " is a malformed level pack");
+            }
+        }
+        // the offsets of the strings are followed by the data of the strings
+        this.stringData = this.offsets[STRINGS] + this.counts[STRINGS] * RECORD_SIZES[STRINGS];
+    }
+
+    /**
+     * Function name: open.
+     * Maps a level pack file to memory.
+     *
+     * @param path - the path of the pack file
+     * @return the level pack
+     * @throws IOException if the file can't be read or isn't a level pack
+     */
+    public static LevelPack open(String path) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        try {
+            // the mapping stays valid after the channel is closed
+            return new LevelPack(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Function name: isPack.
+     * Checks whether a file is a level pack, by its first bytes.
+     *
+     * @param path - the path of the file
+     * @return true if the file is a level pack, false if it isn't or can't be read
+     */
+    public static boolean isPack(String path) {
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new FileInputStream(path));
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException i) {
+                    i.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Function name: getPath.
+     * Returns the path of the pack file
+     *
+     * @return the path of the file
+     */
+    public String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Function name: getSize.
+     * Returns the size of the pack
+     *
+     * @return the size of the pack, in bytes
+     */
+    public int getSize() {
+        return this.buffer.capacity();
+    }
+
+    /**
+     * Function name: getSetCount.
+     * Returns the amount of level sets in the pack
+     *
+     * @return amount of level sets
+     */
+    public int getSetCount() {
+        return this.counts[SETS];
+    }
+
+    /**
+     * Function name: getSetKey.
+     * Returns the key the player chooses a level set with
+     *
+     * @param set - the index of the level set
+     * @return the key of the set
+     */
+    public String getSetKey(int set) {
+        return this.getString(this.field(SETS, set, 0));
+    }
+
+    /**
+     * Function name: getSetDescription.
+     * Returns the description of a level set
+     *
+     * @param set - the index of the level set
+     * @return the description of the set
+     */
+    public String getSetDescription(int set) {
+        return this.getString(this.field(SETS, set, 4));
+    }
+
+    /**
+     * Function name: findSet.
+     * Returns the index of the level set with the given key
+     *
+     * @param key - the key of the level set
+     * @return the index of the set, or -1 if the pack doesn't have it
+     */
+    public int findSet(String key) {
+        for (int set = 0; set < this.getSetCount(); set++) {
+            if (this.getSetKey(set).equals(key)) {
+                return set;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Function name: getFirstLevel.
+     * Returns the index of the first level of a level set
+     *
+     * @param set - the index of the level set
+     * @return the index of its first level
+     */
+    public int getFirstLevel(int set) {
+        return this.field(SETS, set, 8);
+    }
+
+    /**
+     * Function name: getLevelCount.
+     * Returns the amount of levels in a level set
+     *
+     * @param set - the index of the level set
+     * @return amount of levels
+     */
+    public int getLevelCount(int set) {
+        return this.field(SETS, set, 12);
+    }
+
+    /**
+     * Function name: getLevel.
+     * Creates a level of the pack
+     *
+     * @param level - the index of the level (in the whole pack)
+     * @return the level
+     */
+    public LevelInformation getLevel(int level) {
+        return new PackedLevel(this, level);
+    }
+
+    /**
+     * Function name: getLevelImages.
+     * Returns the paths of the images a level uses - its background and the fills of its blocks
+     *
+     * @param level - the index of the level
+     * @return the paths of the images in the class path
+     */
+    public Set<String> getLevelImages(int level) {
+        Set<String> images = new LinkedHashSet<>();
+        int background = this.field(LEVELS, level, 8);
+        if (background >= 0) {
+            images.add(this.getImagePath(background));
+        }
+        // the templates used by the level
+        Set<Integer> templates = new LinkedHashSet<>();
+        int firstBlock = this.field(LEVELS, level, 32);
+        int blockCount = this.field(LEVELS, level, 36);
+        for (int block = firstBlock; block < firstBlock + blockCount; block++) {
+            templates.add(this.field(BLOCKS, block, 8));
+        }
+        for (int template : templates) {
+            int firstFill = this.field(TEMPLATES, template, 28);
+            int fillCount = this.field(TEMPLATES, template, 32);
+            for (int fill = firstFill; fill < firstFill + fillCount; fill++) {
+                int image = this.field(FILLS, fill, 8);
+                if (image >= 0) {
+                    images.add(this.getImagePath(image));
+                }
+            }
+        }
+        return images;
+    }
+
+    /**
+     * Function name: field.
+     * Reads an int field of a record.
+     *
+     * @param section - the section of the record
+     * @param record  - the index of the record in its section
+     * @param offset  - the offset of the field in the record
+     * @return the value of the field
+     */
+    int field(int section, int record, int offset) {
+        return this.buffer.getInt(this.recordStart(section, record) + offset);
+    }
+
+    /**
+     * Function name: doubleField.
+     * Reads a double field of a record.
+     *
+     * @param section - the section of the record
+     * @param record  - the index of the record in its section
+     * @param offset  - the offset of the field in the record
+     * @return the value of the field
+     */
+    double doubleField(int section, int record, int offset) {
+        return this.buffer.getDouble(this.recordStart(section, record) + offset);
+    }
+
+    /**
+     * Function name: recordStart.
+     * Returns the position of a record in the pack.
+     *
+     * @param section - the section of the record
+     * @param record  - the index of the record in its section
+     * @return the position of the record
+     * @throws IndexOutOfBoundsException if the section doesn't have the record
+     */
+    private int recordStart(int section, int record) {
+        if (record < 0 || record >= this.counts[section]) {
+            throw new IndexOutOfBoundsException("Record " + record + " of section " + section + " in " + this.path);
+        }
+        return this.offsets[section] + record * RECORD_SIZES[section];
+    }
+
+    /**
+     * Function name: getImagePath.
+     * Returns the path of an image of the pack
+     *
+     * @param image - the index of the image
+     * @return the path of the image file in the class path
+     */
+    String getImagePath(int image) {
+        return this.getString(this.field(IMAGES, image, 0));
+    }
+
+    /**
+     * Function name: getString.
+     * Returns a string of the pack
+     *
+     * @param index - the index of the string
+     * @return the string
+     */
+    String getString(int index) {
+        int start = index == 0 ? 0 : this.field(STRINGS, index - 1, 0);
+        int end = this.field(STRINGS, index, 0);
+        if (start < 0 || end < start || this.stringData + end > this.buffer.capacity()) {
+            throw new IndexOutOfBoundsException("String " + index + " in " + this.path);
+        }
+        byte[] bytes = new byte[end - start];
+        this.buffer.get(this.stringData + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,395 @@
+package levelsdata;
+
+import collidablesdata.Velocity;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles level sets into a level pack (see LevelPack for the format of the pack).
+ * The levels are read with the same readers the game uses for the text files, so a level that can't be read from
+ * text can't be compiled either. The layout of the blocks is worked out at compile time - the pack has the position
+ * and template of every block.
+ * <p>
+ * Usage: java levelsdata.LevelPackCompiler [level sets file] [pack file]
+ * (the resources directory must be in the class path, like when running the game)
+ *
+ * @author Ariel Fenster
+ */
+public class LevelPackCompiler {
+
+    // members - the records of every section, as they will be written
+    private ByteArrayOutputStream[] sections;
+    private DataOutputStream[] writers;
+    private int[] counts;
+    private Map<String, Integer> strings;
+    private ByteArrayOutputStream stringData;
+    private Map<String, Integer> images;
+    // the template of every block symbol, by the block definitions file and the symbol
+    private Map<String, Integer> templates;
+    private Map<String, BlocksFromSymbolsFactory> factories;
+
+    /**
+     * Function name: LevelPackCompiler.
+     * Constructor - creates a compiler of an empty pack.
+     */
+    public LevelPackCompiler() {
+        this.sections = new ByteArrayOutputStream[LevelPack.SECTION_COUNT];
+        this.writers = new DataOutputStream[LevelPack.SECTION_COUNT];
+        for (int i = 0; i < LevelPack.SECTION_COUNT; i++) {
+            this.sections[i] = new ByteArrayOutputStream();
+            this.writers[i] = new DataOutputStream(this.sections[i]);
+        }
+        this.counts = new int[LevelPack.SECTION_COUNT];
+        this.strings = new HashMap<>();
+        this.stringData = new ByteArrayOutputStream();
+        this.images = new HashMap<>();
+        this.templates = new HashMap<>();
+        this.factories = new HashMap<>();
+    }
+
+    /**
+     * Function name: main.
+     * Compiles the level sets of a level sets file into a pack file.
+     *
+     * @param args - the level sets file and the pack file to write
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: java levelsdata.LevelPackCompiler [level sets file] [pack file]");
+            System.exit(1);
+        }
+        try {
+            LevelSetReader reader = new LevelSetReader(args[0]);
+            LevelPackCompiler compiler = new LevelPackCompiler();
+            int levels = 0;
+            for (Map.Entry<String, String> set : reader.getCharToLevelNameMap().entrySet()) {
+                String path = reader.getLevelsPath(set.getKey());
+                InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
+                if (is == null) {
+                    throw new IOException("Can't find " + path + " in the class path");
+                }
+                List<LevelSpecification> specifications = new LevelSpecificationReader()
+                        .readSpecifications(new InputStreamReader(is, StandardCharsets.UTF_8), path);
+                compiler.addSet(set.getKey(), set.getValue(), specifications);
+                levels += specifications.size();
+            }
+            compiler.write(args[1]);
+            System.out.println("compiled " + reader.getCharToLevelNameMap().size() + " level sets, " + levels
+                    + " levels, " + compiler.counts[LevelPack.BLOCKS] + " blocks into " + args[1]);
+        } catch (IOException | DefinitionsSyntaxException e) {
+            System.out.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Function name: addSet.
+     * Adds a level set and its levels to the pack.
+     *
+     * @param key            - the key the player chooses the set with
+     * @param description    - the description of the set
+     * @param specifications - the specifications of the levels of the set
+     * @throws IOException if a level has missing or wrong information
+     */
+    public void addSet(String key, String description, List<LevelSpecification> specifications)
+            throws IOException {
+        DataOutputStream out = this.startRecord(LevelPack.SETS);
+        out.writeInt(this.stringIndex(key));
+        out.writeInt(this.stringIndex(description));
+        out.writeInt(this.counts[LevelPack.LEVELS]);
+        out.writeInt(specifications.size());
+        for (LevelSpecification specification : specifications) {
+            this.addLevel(specification);
+        }
+    }
+
+    /**
+     * Function name: addLevel.
+     * Adds a level, its velocities and its blocks to the pack.
+     *
+     * @param specification - the specification of the level
+     * @throws IOException if the level has missing or wrong information
+     */
+    private void addLevel(LevelSpecification specification) throws IOException {
+        // the level is created like in the game, which checks its information
+        LevelInformation info = specification.createLevel();
+        if (info == null) {
+            throw new IOException("Missing level information in level '" + specification.getLevelName()
+                    + "'");
+        }
+        int firstVelocity = this.counts[LevelPack.VELOCITIES];
+        for (Velocity velocity : info.initialBallVelocities()) {
+            DataOutputStream out = this.startRecord(LevelPack.VELOCITIES);
+            out.writeDouble(velocity.getVelocityDx());
+            out.writeDouble(velocity.getVelocityDy());
+        }
+        int firstBlock = this.counts[LevelPack.BLOCKS];
+        this.addBlocks(specification);
+
+        String background = specification.getBackground();
+        Color backgroundColor = new ColorsParser().colorFromString(background);
+        DataOutputStream out = this.startRecord(LevelPack.LEVELS);
+        out.writeInt(this.stringIndex(info.levelName()));
+        out.writeInt(argbOf(backgroundColor));
+        out.writeInt(backgroundColor == null ? this.imageIndex(new ImageParser().pathFromString(background)) : -1);
+        out.writeInt(info.paddleSpeed());
+        out.writeInt(info.paddleWidth());
+        out.writeInt(info.numberOfBlocksToRemove());
+        out.writeInt(firstVelocity);
+        out.writeInt(info.initialBallVelocities().size());
+        out.writeInt(firstBlock);
+        out.writeInt(this.counts[LevelPack.BLOCKS] - firstBlock);
+    }
+
+    /**
+     * Function name: addBlocks.
+     * Adds the blocks of a level to the pack - goes over its layout like the level generator, and adds the position
+     * and template of every block.
+     *
+     * @param specification - the specification of the level
+     * @throws IOException if the layout uses a block with missing information
+     */
+    private void addBlocks(LevelSpecification specification) throws IOException {
+        String definitions = specification.getBlockDefinitions();
+        BlocksFromSymbolsFactory factory = this.factoryOf(definitions);
+        List<char[]> layout = specification.getBlocksLayout();
+        for (int i = 0; i < layout.size(); i++) {
+            int currentX = specification.getBlocksStartX();
+            int currentY = specification.getBlocksStartY() + specification.getRowHeight() * i;
+            for (char currentChar : layout.get(i)) {
+                String symbol = Character.toString(currentChar);
+                if (factory.isBlockSymbol(symbol)) {
+                    int template = this.templateIndex(definitions, symbol, factory);
+                    DataOutputStream out = this.startRecord(LevelPack.BLOCKS);
+                    out.writeInt(currentX);
+                    out.writeInt(currentY);
+                    out.writeInt(template);
+                    // the next block starts where this one ends, like in the level generator
+                    currentX = (int) (currentX + templateWidth(factory, symbol));
+                } else if (factory.isSpaceSymbol(symbol)) {
+                    currentX += factory.getSpaceWidth(symbol);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function name: factoryOf.
+     * Returns the blocks factory of a block definitions file, reading the file the first time it's used.
+     *
+     * @param definitions - the path of the block definitions file in the class path
+     * @return the blocks factory of the file
+     * @throws IOException if the file can't be found
+     */
+    private BlocksFromSymbolsFactory factoryOf(String definitions) throws IOException {
+        BlocksFromSymbolsFactory factory = this.factories.get(definitions);
+        if (factory == null) {
+            InputStream is = definitions == null ? null
+                    : ClassLoader.getSystemClassLoader().getResourceAsStream(definitions);
+            if (is == null) {
+                throw new IOException("Can't find the block definitions " + definitions + " in the class path");
+            }
+            factory = BlocksDefinitionReader.fromReader(new InputStreamReader(is, StandardCharsets.UTF_8),
+                    definitions);
+            this.factories.put(definitions, factory);
+        }
+        return factory;
+    }
+
+    /**
+     * Function name: templateWidth.
+     * Returns the width of the blocks of a symbol.
+     *
+     * @param factory - the blocks factory the symbol is defined in
+     * @param symbol  - the symbol of the block
+     * @return the width of the block
+     * @throws IOException if the block has no width
+     */
+    private static double templateWidth(BlocksFromSymbolsFactory factory, String symbol) throws IOException {
+        return numberOf(((BlockTemplateCreator) factory.getBlockCreator(symbol)).getWidth(), "width", symbol);
+    }
+
+    /**
+     * Function name: templateIndex.
+     * Returns the template of the blocks of a symbol, adding it and its fills to the pack the first time it's used.
+     *
+     * @param definitions - the path of the block definitions file the symbol is defined in
+     * @param symbol      - the symbol of the block
+     * @param factory     - the blocks factory of the file
+     * @return the index of the template
+     * @throws IOException if the block has missing information
+     */
+    private int templateIndex(String definitions, String symbol, BlocksFromSymbolsFactory factory)
+            throws IOException {
+        String key = definitions + ":" + symbol;
+        Integer index = this.templates.get(key);
+        if (index != null) {
+            return index;
+        }
+        BlockTemplateCreator creator = (BlockTemplateCreator) factory.getBlockCreator(symbol);
+        double width = numberOf(creator.getWidth(), "width", symbol);
+        double height = numberOf(creator.getHeight(), "height", symbol);
+        double hitPoints = numberOf(creator.getHitPoints(), "hit_points", symbol);
+        Map<Integer, Color> colors = creator.getFillColors();
+        Map<Integer, String> fillImages = creator.getFillImages();
+        if (colors.isEmpty() && fillImages.isEmpty()) {
+            throw new IOException("Missing block information: 'fill' of block '" + symbol + "'");
+        }
+
+        int firstFill = this.counts[LevelPack.FILLS];
+        for (Map.Entry<Integer, Color> fill : colors.entrySet()) {
+            DataOutputStream out = this.startRecord(LevelPack.FILLS);
+            out.writeInt(fill.getKey());
+            out.writeInt(argbOf(fill.getValue()));
+            out.writeInt(-1);
+        }
+        for (Map.Entry<Integer, String> fill : fillImages.entrySet()) {
+            DataOutputStream out = this.startRecord(LevelPack.FILLS);
+            out.writeInt(fill.getKey());
+            out.writeInt(0);
+            out.writeInt(this.imageIndex(fill.getValue()));
+        }
+
+        index = this.counts[LevelPack.TEMPLATES];
+        DataOutputStream out = this.startRecord(LevelPack.TEMPLATES);
+        out.writeDouble(width);
+        out.writeDouble(height);
+        out.writeDouble(hitPoints);
+        out.writeInt(argbOf(creator.getStroke()));
+        out.writeInt(firstFill);
+        out.writeInt(this.counts[LevelPack.FILLS] - firstFill);
+        this.templates.put(key, index);
+        return index;
+    }
+
+    /**
+     * Function name: numberOf.
+     * Returns the value of a numeric attribute of a block.
+     *
+     * @param value     - the value of the attribute, or NaN if the block doesn't have it
+     * @param attribute - the name of the attribute (for the error message)
+     * @param symbol    - the symbol of the block (for the error message)
+     * @return the value of the attribute
+     * @throws IOException if the attribute is missing
+     */
+    private static double numberOf(double value, String attribute, String symbol) throws IOException {
+        if (Double.isNaN(value)) {
+            throw new IOException("Missing block information: '" + attribute + "' of block '" + symbol + "'");
+        }
+        return value;
+    }
+
+    /**
+     * Function name: argbOf.
+     * Returns the ARGB value of a color, as it's written in the pack
+     *
+     * @param color - the color, or null
+     * @return the value of the color, or 0 if there is no color
+     */
+    private static int argbOf(Color color) {
+        return color == null ? 0 : color.getRGB();
+    }
+
+    /**
+     * Function name: imageIndex.
+     * Returns the index of an image in the pack, adding it the first time it's used.
+     *
+     * @param path - the path of the image in the class path
+     * @return the index of the image
+     * @throws IOException if the image can't be added
+     */
+    private int imageIndex(String path) throws IOException {
+        Integer index = this.images.get(path);
+        if (index == null) {
+            index = this.counts[LevelPack.IMAGES];
+            this.startRecord(LevelPack.IMAGES).writeInt(this.stringIndex(path));
+            this.images.put(path, index);
+        }
+        return index;
+    }
+
+    /**
+     * Function name: stringIndex.
+     * Returns the index of a string in the pack, adding it the first time it's used.
+     *
+     * @param s - the string
+     * @return the index of the string
+     * @throws IOException if the string can't be added
+     */
+    private int stringIndex(String s) throws IOException {
+        Integer index = this.strings.get(s);
+        if (index == null) {
+            index = this.counts[LevelPack.STRINGS];
+            this.stringData.write(s.getBytes(StandardCharsets.UTF_8));
+            // the offset of the end of the string in the data of the strings
+            this.startRecord(LevelPack.STRINGS).writeInt(this.stringData.size());
+            this.strings.put(s, index);
+        }
+        return index;
+    }
+
+    /**
+     * Function name: startRecord.
+     * Counts a new record of a section and returns the writer of the section, to write the record with.
+     *
+     * @param section - the section
+     * @return the writer of the section
+     */
+    private DataOutputStream startRecord(int section) {
+        this.counts[section]++;
+        return this.writers[section];
+    }
+
+    /**
+     * Function name: write.
+     * Writes the pack to a file.
+     *
+     * @param path - the path of the pack file
+     * @throws IOException if the file can't be written
+     */
+    public void write(String path) throws IOException {
+        OutputStream os = new FileOutputStream(path);
+        try {
+            this.writeTo(os);
+        } finally {
+            os.close();
+        }
+    }
+
+    /**
+     * Function name: writeTo.
+     * Writes the pack - the header, then the sections one after the other.
+     *
+     * @param os - the stream to write the pack to
+     * @throws IOException if the pack can't be written
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(LevelPack.MAGIC);
+        out.writeInt(LevelPack.VERSION);
+        int offset = LevelPack.HEADER_SIZE;
+        for (int i = 0; i < LevelPack.SECTION_COUNT; i++) {
+            this.writers[i].flush();
+            out.writeInt(this.counts[i]);
+            out.writeInt(offset);
+            offset += this.sections[i].size();
+        }
+        for (int i = 0; i < LevelPack.SECTION_COUNT; i++) {
+            this.sections[i].writeTo(out);
+        }
+        // the data of the strings follows their offsets
+        this.stringData.writeTo(out);
+        out.flush();
+    }
+}
@@ -1,13 +1,18 @@
 package levelsdata;
 
+import profiling.LevelLoadEvent;
+
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.BiConsumer;
 
 /**
  * An object that reads a level sets file and creates the levels described in all the files mentioned.
+ * The level sets can also be given as a compiled level pack (see LevelPack) - the file is recognized by its first
+ * bytes, and the levels are created from the pack instead of from the text files.
  *
  * @author Ariel Fenster
  */
@@ -18,6 +23,8 @@ public class LevelSetReader {
     private String levelsSet;
     private Map<String, String> charToLevelNameMap;
     private Map<String, String> charToLevelPathMap;
+    // the compiled level pack, if the level sets file is a pack
+    private LevelPack pack;
 
     /**
      * Function name: LevelSetReader.
@@ -41,21 +48,75 @@ public class LevelSetReader {
      * @return a list of levels to play
      */
     public List<LevelInformation> getLevels(String difficulty) {
-        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(this.charToLevelPathMap.get(difficulty));
+        List<LevelInformation> levels = this.loadLevels(difficulty).join();
+        return levels == null ? null : new ArrayList<>(levels);
+    }
+
+    /**
+     * Function name: loadLevels.
+     * Start reading a specific levels set file based on the requested difficulty and creating the levels described
+     * in the file, in the background
+     *
+     * @param difficulty - the type of levels to create
+     * @return the loader of the levels, that tells the progress and returns the levels when they are created
+     */
+    public LevelLoader loadLevels(String difficulty) {
+        if (this.pack != null) {
+            return this.loadPackedLevels(difficulty);
+        }
+        String path = this.charToLevelPathMap.get(difficulty);
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path);
         if (is == null) {
             System.out.println("Error reading from the file. Terminating");
             System.exit(1);
         }
-        java.io.Reader r = new InputStreamReader(is);
-        LevelSpecificationReader levelSpecsReader = new LevelSpecificationReader();
-        // return the levels generated by the reader
-        try {
-            return new ArrayList<>(levelSpecsReader.fromReader((r)));
-            // if there is missing information, an exception will be thrown. return null to notify so
-        } catch (NullPointerException e) {
-            System.out.println(e.getMessage());
-            return null;
+        final CountingInputStream counter = new CountingInputStream(is);
+
+        // the reading of the file is recorded for the flight recorder, until the last level is created
+        final LevelLoadEvent event = new LevelLoadEvent(path, "level definitions");
+        final int imagesBefore = ImageParser.getDecodedImages();
+        event.begin();
+        LevelLoader loader = new LevelLoader(new InputStreamReader(counter), path);
+        loader.getLevels().whenComplete(new BiConsumer<List<LevelInformation>, Throwable>() {
+            @Override
+            public void accept(List<LevelInformation> levels, Throwable error) {
+                event.setResult(counter.getCount(), ImageParser.getDecodedImages() - imagesBefore,
+                        levels == null ? 0 : levels.size());
+                event.commit();
+            }
+        });
+        return loader;
+    }
+
+    /**
+     * Function name: loadPackedLevels.
+     * Start creating the levels of a level set of the compiled level pack, in the background
+     *
+     * @param difficulty - the key of the level set
+     * @return the loader of the levels, that tells the progress and returns the levels when they are created
+     */
+    private LevelLoader loadPackedLevels(String difficulty) {
+        int set = this.pack.findSet(difficulty);
+        if (set < 0) {
+            System.out.println("Error reading from the file. Terminating");
+            System.exit(1);
         }
+
+        // the loading is recorded for the flight recorder, until the last level is created
+        final LevelLoadEvent event = new LevelLoadEvent(this.pack.getPath(), "level pack");
+        final int imagesBefore = ImageParser.getDecodedImages();
+        final int size = this.pack.getSize();
+        event.begin();
+        LevelLoader loader = new LevelLoader(this.pack, set);
+        loader.getLevels().whenComplete(new BiConsumer<List<LevelInformation>, Throwable>() {
+            @Override
+            public void accept(List<LevelInformation> levels, Throwable error) {
+                event.setResult(size, ImageParser.getDecodedImages() - imagesBefore,
+                        levels == null ? 0 : levels.size());
+                event.commit();
+            }
+        });
+        return loader;
     }
 
     /**
@@ -63,6 +124,10 @@ public class LevelSetReader {
      * Read a levels sets file and map the information to the appropriate maps
      */
     private void analyzeLevelSet() {
+        if (LevelPack.isPack(this.levelsSet)) {
+            this.analyzeLevelPack();
+            return;
+        }
         LineNumberReader lineReader = null;
         try {
             lineReader = new LineNumberReader(new FileReader(new File(this.levelsSet)));
@@ -104,6 +169,34 @@ public class LevelSetReader {
     }
 
 
+    /**
+     * Function name: analyzeLevelPack.
+     * Map the level sets of a compiled level pack to the appropriate map
+     */
+    private void analyzeLevelPack() {
+        try {
+            this.pack = LevelPack.open(this.levelsSet);
+        } catch (IOException i) {
+            i.printStackTrace();
+            return;
+        }
+        for (int set = 0; set < this.pack.getSetCount(); set++) {
+            this.charToLevelNameMap.put(this.pack.getSetKey(set), this.pack.getSetDescription(set));
+        }
+    }
+
+    /**
+     * Function name: getLevelsPath.
+     * Returns the path of the level definitions file of a level set (not of a set in a level pack)
+     *
+     * @param difficulty - the key of the level set
+     * @return the path of the file in the class path, or null if there is no such set
+     */
+    String getLevelsPath(String difficulty) {
+        this.getCharToLevelNameMap();
+        return this.charToLevelPathMap.get(difficulty);
+    }
+
     /**
      * Function name: getCharToLevelNameMap.
      * Return the mapped information of levels-set key and description
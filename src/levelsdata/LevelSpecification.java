@@ -0,0 +1,318 @@
+package levelsdata;
+
+import collidablesdata.Velocity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single level in a level definitions file, after it was read but before the level was created: the details of
+ * the level, already as numbers and velocities, and the layout of its blocks.
+ * Reading the specifications of a file is quick, while creating a level reads its block definitions and images -
+ * keeping them apart lets the levels of a file be created at the same time.
+ *
+ * @author Ariel Fenster
+ */
+public class LevelSpecification {
+
+    // members
+    private String levelName;
+    private List<Velocity> ballVelocities;
+    private String background;
+    private int paddleSpeed;
+    private int paddleWidth;
+    private String blockDefinitions;
+    private int blocksStartX;
+    private int blocksStartY;
+    private int rowHeight;
+    private int numBlocks;
+    // the rows of the layout - the symbols can only be read with the block definitions, when the level is created
+    private List<char[]> blocksLayout;
+    // the line of every row in its file, 0 if the row wasn't read from a file
+    private List<Integer> blocksRowLines;
+
+    /**
+     * Function name: LevelSpecification.
+     * Constructor - a level without details and blocks, they are set while the level is read.
+     */
+    public LevelSpecification() {
+        this.ballVelocities = new ArrayList<>();
+        this.blocksLayout = new ArrayList<>();
+        this.blocksRowLines = new ArrayList<>();
+    }
+
+    /**
+     * Function name: getLevelName.
+     * Returns the name of the level
+     *
+     * @return the name of the level, or null if the level doesn't have one
+     */
+    public String getLevelName() {
+        return this.levelName;
+    }
+
+    /**
+     * Function name: getBallVelocities.
+     * Returns the velocities the balls of the level start with
+     *
+     * @return the velocities of the balls
+     */
+    public List<Velocity> getBallVelocities() {
+        return this.ballVelocities;
+    }
+
+    /**
+     * Function name: getBackground.
+     * Returns the background of the level, as it's written in the file - 'color(...)' or 'image(...)'
+     *
+     * @return the background of the level
+     */
+    public String getBackground() {
+        return this.background;
+    }
+
+    /**
+     * Function name: getPaddleSpeed.
+     * Returns the speed of the paddle in the level
+     *
+     * @return the speed of the paddle
+     */
+    public int getPaddleSpeed() {
+        return this.paddleSpeed;
+    }
+
+    /**
+     * Function name: getPaddleWidth.
+     * Returns the width of the paddle in the level
+     *
+     * @return the width of the paddle
+     */
+    public int getPaddleWidth() {
+        return this.paddleWidth;
+    }
+
+    /**
+     * Function name: getBlockDefinitions.
+     * Returns the path of the block definitions file of the level, in the class path
+     *
+     * @return the path of the block definitions file
+     */
+    public String getBlockDefinitions() {
+        return this.blockDefinitions;
+    }
+
+    /**
+     * Function name: getBlocksStartX.
+     * Returns the X coordinate the rows of blocks start at
+     *
+     * @return the X coordinate of the first block of every row
+     */
+    public int getBlocksStartX() {
+        return this.blocksStartX;
+    }
+
+    /**
+     * Function name: getBlocksStartY.
+     * Returns the Y coordinate of the first row of blocks
+     *
+     * @return the Y coordinate of the first row
+     */
+    public int getBlocksStartY() {
+        return this.blocksStartY;
+    }
+
+    /**
+     * Function name: getRowHeight.
+     * Returns the height of every row of blocks
+     *
+     * @return the height of a row
+     */
+    public int getRowHeight() {
+        return this.rowHeight;
+    }
+
+    /**
+     * Function name: getNumBlocks.
+     * Returns the amount of blocks to remove to complete the level
+     *
+     * @return the amount of blocks to remove
+     */
+    public int getNumBlocks() {
+        return this.numBlocks;
+    }
+
+    /**
+     * Function name: getBlocksLayout.
+     * Returns the layout of the blocks in the level
+     *
+     * @return the rows of blocks - a symbol for every block or space
+     */
+    public List<char[]> getBlocksLayout() {
+        return this.blocksLayout;
+    }
+
+    /**
+     * Function name: setLevelName.
+     * Sets the name of the level
+     *
+     * @param name - the name of the level
+     */
+    void setLevelName(String name) {
+        this.levelName = name;
+    }
+
+    /**
+     * Function name: setBallVelocities.
+     * Sets the velocities the balls of the level start with
+     *
+     * @param velocities - the velocities of the balls
+     */
+    void setBallVelocities(List<Velocity> velocities) {
+        this.ballVelocities = velocities;
+    }
+
+    /**
+     * Function name: setBackground.
+     * Sets the background of the level
+     *
+     * @param newBackground - the background, as it's written in the file
+     */
+    void setBackground(String newBackground) {
+        this.background = newBackground;
+    }
+
+    /**
+     * Function name: setPaddleSpeed.
+     * Sets the speed of the paddle in the level
+     *
+     * @param speed - the speed of the paddle
+     */
+    void setPaddleSpeed(int speed) {
+        this.paddleSpeed = speed;
+    }
+
+    /**
+     * Function name: setPaddleWidth.
+     * Sets the width of the paddle in the level
+     *
+     * @param width - the width of the paddle
+     */
+    void setPaddleWidth(int width) {
+        this.paddleWidth = width;
+    }
+
+    /**
+     * Function name: setBlockDefinitions.
+     * Sets the path of the block definitions file of the level
+     *
+     * @param path - the path of the file in the class path
+     */
+    void setBlockDefinitions(String path) {
+        this.blockDefinitions = path;
+    }
+
+    /**
+     * Function name: setBlocksStartX.
+     * Sets the X coordinate the rows of blocks start at
+     *
+     * @param x - the X coordinate of the first block of every row
+     */
+    void setBlocksStartX(int x) {
+        this.blocksStartX = x;
+    }
+
+    /**
+     * Function name: setBlocksStartY.
+     * Sets the Y coordinate of the first row of blocks
+     *
+     * @param y - the Y coordinate of the first row
+     */
+    void setBlocksStartY(int y) {
+        this.blocksStartY = y;
+    }
+
+    /**
+     * Function name: setRowHeight.
+     * Sets the height of every row of blocks
+     *
+     * @param height - the height of a row
+     */
+    void setRowHeight(int height) {
+        this.rowHeight = height;
+    }
+
+    /**
+     * Function name: setNumBlocks.
+     * Sets the amount of blocks to remove to complete the level
+     *
+     * @param amount - the amount of blocks to remove
+     */
+    void setNumBlocks(int amount) {
+        this.numBlocks = amount;
+    }
+
+    /**
+     * Function name: addBlocksRow.
+     * Adds a row of blocks under the rows of the layout
+     *
+     * @param row - the symbols of the row
+     */
+    void addBlocksRow(char[] row) {
+        this.addBlocksRow(row, 0);
+    }
+
+    /**
+     * Function name: addBlocksRow (#2).
+     * Adds a row of blocks that was read from a file under the rows of the layout
+     *
+     * @param row  - the symbols of the row
+     * @param line - the line of the row in the file, starting from 1
+     */
+    void addBlocksRow(char[] row, int line) {
+        this.blocksLayout.add(row);
+        this.blocksRowLines.add(line);
+    }
+
+    /**
+     * Function name: describeMissingBlock.
+     * Finds the first symbol of the layout whose block is defined in the given blocks factory without all of its
+     * information, which is why the level can't be created.
+     *
+     * @param blocksFactory - the factory of the blocks of the level
+     * @return the line of the symbol and the symbol, like "line 12: missing block information for 'x'", or null if
+     * no block is missing information
+     */
+    public String describeMissingBlock(BlocksFromSymbolsFactory blocksFactory) {
+        for (int i = 0; i < this.blocksLayout.size(); i++) {
+            for (char symbol : this.blocksLayout.get(i)) {
+                if (blocksFactory.isBlockSymbol(symbol) && blocksFactory.getBlock(symbol, 0, 0) == null) {
+                    int line = this.blocksRowLines.get(i);
+                    return (line > 0 ? "line " + line + ": " : "") + "missing block information for '" + symbol
+                            + "'";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Function name: createLevel.
+     * Creates the level described by the specification
+     *
+     * @return the level, or null if there is missing information
+     */
+    public LevelInformation createLevel() {
+        return new LevelGenerator().createLevel(this);
+    }
+
+    /**
+     * Function name: createLevel (#2).
+     * Creates the level described by the specification, with the blocks of a blocks factory that was already read
+     *
+     * @param blocksFactory - the factory of the blocks of the level
+     * @return the level, or null if there is missing information
+     */
+    public LevelInformation createLevel(BlocksFromSymbolsFactory blocksFactory) {
+        return new LevelGenerator().createLevel(this, blocksFactory);
+    }
+}
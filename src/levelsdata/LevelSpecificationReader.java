@@ -1,20 +1,53 @@
 package levelsdata;
 
-import java.io.BufferedReader;
+import collidablesdata.Velocity;
+
 import java.io.IOException;
-import java.util.List;
 import java.util.ArrayList;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 /**
- * The class receives a file containing information regarding level construction and returns a mapped information of
- * the details in the file.
+ * The class receives a file containing information regarding level construction and returns the specifications of
+ * the levels in the file, with their details read as numbers and velocities.
  *
  * @author Ariel Fenster
  */
 public class LevelSpecificationReader {
 
+    /**
+     * The details of a level, with the names they are written with in the files.
+     */
+    private enum Detail {
+        LEVEL_NAME("level_name"),
+        BALL_VELOCITIES("ball_velocities"),
+        BACKGROUND("background"),
+        PADDLE_SPEED("paddle_speed"),
+        PADDLE_WIDTH("paddle_width"),
+        BLOCK_DEFINITIONS("block_definitions"),
+        BLOCKS_START_X("blocks_start_x"),
+        BLOCKS_START_Y("blocks_start_y"),
+        ROW_HEIGHT("row_height"),
+        NUM_BLOCKS("num_blocks");
+
+        // members
+        private final String key;
+
+        /**
+         * Function name: Detail.
+         * Constructor.
+         *
+         * @param key - the name of the detail in the files
+         */
+        Detail(String key) {
+            this.key = key;
+        }
+    }
+
+    // the details every level must have (a level without a name is allowed)
+    private static final Set<Detail> REQUIRED_DETAILS = EnumSet.range(Detail.BALL_VELOCITIES, Detail.NUM_BLOCKS);
+
     /**
      * Function name: fromReader.
      * Creates a list of levels based on the information written in a file linked by a given reader object
@@ -25,115 +58,239 @@ public class LevelSpecificationReader {
     public List<LevelInformation> fromReader(java.io.Reader reader) {
         // the list of levels that will be created from files
         List<LevelInformation> levelsList = new ArrayList<>();
+        for (LevelSpecification specification : this.readSpecifications(reader)) {
+            // create a level with the level generator and add it to the list of levels
+            levelsList.add(specification.createLevel());
+        }
+        return levelsList;
+    }
 
-        BufferedReader br = null;
-        try {
-            // get the current line from the text
-            br = new BufferedReader(reader);
-            String currLine = br.readLine();
+    /**
+     * Function name: readSpecifications.
+     * Reads the specifications of the levels written in a file linked by a given reader object, without creating
+     * the levels
+     *
+     * @param reader - the object that is linked to the information file
+     * @return a list of the specifications of the levels, in the order of the file
+     */
+    public List<LevelSpecification> readSpecifications(java.io.Reader reader) {
+        return this.readSpecifications(reader, "level definitions");
+    }
 
-            // go through the whole text
-            while (currLine != null) {
-                br = this.moveReaderToNextLevel(br, currLine);
+    /**
+     * Function name: readSpecifications (#2).
+     * Reads the specifications of the levels written in a file linked by a given reader object, without creating
+     * the levels. The file is read in a single pass, token by token.
+     *
+     * @param reader - the object that is linked to the information file
+     * @param source - the name of the file, for error messages
+     * @return a list of the specifications of the levels, in the order of the file
+     * @throws DefinitionsSyntaxException if a level in the file can't be read
+     */
+    public List<LevelSpecification> readSpecifications(java.io.Reader reader, String source)
+            throws DefinitionsSyntaxException {
+        List<LevelSpecification> specifications = new ArrayList<>();
 
-                // used to store all the level-specific details
-                Map<String, String> levelDetails = new TreeMap<>();
-                // used to store all the blocks information - each string is a row of information
-                List<String> blocksLayoutInfo = new ArrayList<>();
+        DefinitionsLexer lexer = new DefinitionsLexer(reader, source);
+        try {
+            // go through the whole text
+            while (this.moveLexerToNextLevel(lexer)) {
+                LevelSpecification specification = new LevelSpecification();
 
-                // retrieve each level settings and store them in the respective data holders
-                this.mapLevelSettings(br, levelDetails);
-                this.readBlocksSettings(br,blocksLayoutInfo);
+                // read the level details and the blocks layout straight into the specification
+                Set<Detail> details = this.readLevelSettings(lexer, specification);
+                for (Detail detail : REQUIRED_DETAILS) {
+                    if (!details.isEmpty() && !details.contains(detail)) {
+                        throw lexer.error("the level is missing the detail '" + detail.key + "'");
+                    }
+                }
+                this.readBlocksSettings(lexer, specification);
 
-                // if the new data bases are empty - meaning we reached the end of the file - end the reading
-                if (levelDetails.size() == 0 || blocksLayoutInfo.size() == 0) {
+                // if the level is empty - meaning we reached the end of the file - end the reading
+                if (details.isEmpty() || specification.getBlocksLayout().isEmpty()) {
                     break;
                 }
-                // create a level with the level generator and add it to the list of levels
-                levelsList.add(new LevelGenerator().createLevel(levelDetails, blocksLayoutInfo));
+                specifications.add(specification);
             }
         } catch (IOException i) {
             i.printStackTrace();
         } finally {
-            if (br != null) {
-                try {
-                    br.close();
-                } catch (IOException i) {
-                    i.printStackTrace();
-                }
+            try {
+                lexer.close();
+            } catch (IOException i) {
+                i.printStackTrace();
             }
         }
-        return levelsList;
+        return specifications;
     }
 
     /**
-     * Function name: mapLevelSettings.
-     * Mapping between a level setting to its value
+     * Function name: readLevelSettings.
+     * Reads a 'name:value' line for every level detail until the START_BLOCKS line, and sets the values on the
+     * specification. Details that levels don't have are ignored.
      *
-     * @param br           - reader object that reads through the file
-     * @param levelInfoMap - a map containing the level details
+     * @param lexer         - the lexer that reads through the file
+     * @param specification - the specification of the level
+     * @return the details that were read
+     * @throws IOException if the file can't be read
      */
-    private void mapLevelSettings(BufferedReader br, Map<String, String> levelInfoMap) {
-        try {
-            String line = br.readLine();
-            if (line == null) {
-                return;
+    private Set<Detail> readLevelSettings(DefinitionsLexer lexer, LevelSpecification specification)
+            throws IOException {
+        Set<Detail> details = EnumSet.noneOf(Detail.class);
+        while (true) {
+            DefinitionsLexer.Token token = lexer.next();
+            if (token == DefinitionsLexer.Token.KEY) {
+                Detail detail = this.readDetail(lexer, specification);
+                if (detail != null) {
+                    details.add(detail);
+                }
+            } else if (token == DefinitionsLexer.Token.WORD && lexer.textEquals("START_BLOCKS")) {
+                lexer.skipLine();
+                return details;
+            } else if (token == DefinitionsLexer.Token.WORD) {
+                throw lexer.error("expected a level detail like 'name:value' or START_BLOCKS, found '"
+                        + lexer.getText() + "'");
+            } else if (token == DefinitionsLexer.Token.END_OF_FILE) {
+                throw lexer.error("the file ended before START_BLOCKS");
             }
-            // getting all the general level details and mapping them to a map
-            while (!line.equals("START_BLOCKS")) {
-                // the name is from the start of the line to the colon symbol (excluding)
-                String detailName = line.substring(0, line.indexOf(':'));
-                // the value is from the colon symbol to the end of the line
-                String detailValue = line.substring(line.indexOf(':') + 1);
-                levelInfoMap.put(detailName, detailValue);
-                line = br.readLine();
+            // empty lines and comments are skipped
+        }
+    }
+
+    /**
+     * Function name: readDetail.
+     * Reads the value of a level detail and sets it on the specification. The name, the background and the block
+     * definitions are the rest of the line, as it is, and the other details are numbers.
+     *
+     * @param lexer         - the lexer, at the name of the detail
+     * @param specification - the specification of the level
+     * @return the detail, or null if levels don't have it
+     * @throws IOException if the file can't be read
+     */
+    private Detail readDetail(DefinitionsLexer lexer, LevelSpecification specification) throws IOException {
+        if (lexer.textEquals(Detail.LEVEL_NAME.key)) {
+            lexer.nextText();
+            specification.setLevelName(lexer.getText());
+            return Detail.LEVEL_NAME;
+        } else if (lexer.textEquals(Detail.BALL_VELOCITIES.key)) {
+            specification.setBallVelocities(this.readVelocities(lexer));
+            return Detail.BALL_VELOCITIES;
+        } else if (lexer.textEquals(Detail.BACKGROUND.key)) {
+            lexer.nextText();
+            specification.setBackground(lexer.getText());
+            return Detail.BACKGROUND;
+        } else if (lexer.textEquals(Detail.BLOCK_DEFINITIONS.key)) {
+            lexer.nextText();
+            specification.setBlockDefinitions(lexer.getText());
+            return Detail.BLOCK_DEFINITIONS;
+        } else if (lexer.textEquals(Detail.PADDLE_SPEED.key)) {
+            specification.setPaddleSpeed(this.readNumber(lexer));
+            return Detail.PADDLE_SPEED;
+        } else if (lexer.textEquals(Detail.PADDLE_WIDTH.key)) {
+            specification.setPaddleWidth(this.readNumber(lexer));
+            return Detail.PADDLE_WIDTH;
+        } else if (lexer.textEquals(Detail.BLOCKS_START_X.key)) {
+            specification.setBlocksStartX(this.readNumber(lexer));
+            return Detail.BLOCKS_START_X;
+        } else if (lexer.textEquals(Detail.BLOCKS_START_Y.key)) {
+            specification.setBlocksStartY(this.readNumber(lexer));
+            return Detail.BLOCKS_START_Y;
+        } else if (lexer.textEquals(Detail.ROW_HEIGHT.key)) {
+            specification.setRowHeight(this.readNumber(lexer));
+            return Detail.ROW_HEIGHT;
+        } else if (lexer.textEquals(Detail.NUM_BLOCKS.key)) {
+            specification.setNumBlocks(this.readNumber(lexer));
+            return Detail.NUM_BLOCKS;
+        }
+        lexer.skipLine();
+        return null;
+    }
+
+    /**
+     * Function name: readNumber.
+     * Reads the value of a detail as a whole number - the only thing in the rest of the line
+     *
+     * @param lexer - the lexer, at the name of the detail
+     * @return the number
+     * @throws IOException if the file can't be read
+     */
+    private int readNumber(DefinitionsLexer lexer) throws IOException {
+        lexer.next();
+        int number = lexer.getInt();
+        if (lexer.next() != DefinitionsLexer.Token.END_OF_LINE) {
+            throw lexer.error("expected the end of the line after the number, found '" + lexer.getText() + "'");
+        }
+        return number;
+    }
+
+    /**
+     * Function name: readVelocities.
+     * Reads the velocities of the balls - an 'angle,speed' pair for every ball, separated by spaces
+     *
+     * @param lexer - the lexer, at the name of the detail
+     * @return the velocities of the balls
+     * @throws IOException if the file can't be read
+     */
+    private List<Velocity> readVelocities(DefinitionsLexer lexer) throws IOException {
+        List<Velocity> velocities = new ArrayList<>();
+        DefinitionsLexer.Token token = lexer.next();
+        while (token == DefinitionsLexer.Token.VALUE || token == DefinitionsLexer.Token.WORD) {
+            // the value right after the colon is empty if a space comes first
+            if (!lexer.isEmpty()) {
+                int comma = lexer.indexOf(',');
+                if (comma < 0) {
+                    throw lexer.error("expected a velocity like 'angle,speed', found '" + lexer.getText() + "'");
+                }
+                double angle = lexer.getDouble(0, comma);
+                double speed = lexer.getDouble(comma + 1, lexer.getLength());
+                velocities.add(Velocity.fromAngleAndSpeed(angle, speed));
             }
-        } catch (IOException i) {
-            i.printStackTrace();
+            token = lexer.next();
+        }
+        if (token == DefinitionsLexer.Token.KEY) {
+            throw lexer.error("expected a velocity like 'angle,speed', found '" + lexer.getText() + ":'");
         }
+        return velocities;
     }
 
     /**
      * Function name: readBlocksSettings.
-     * Reads the blocks settings section of the level description and adds the settings to a list
+     * Reads the blocks settings section of the level description and adds its rows to the layout of the level
      *
-     * @param br         - reader object that reads through the file
-     * @param blocksInfo - a list containing the layout of the blocks in the level
+     * @param lexer         - the lexer that reads through the file
+     * @param specification - the specification of the level
+     * @throws IOException if the file can't be read
      */
-    private void readBlocksSettings(BufferedReader br, List<String> blocksInfo) {
-        try {
-            String line = br.readLine();
-            if (line == null) {
+    private void readBlocksSettings(DefinitionsLexer lexer, LevelSpecification specification) throws IOException {
+        while (lexer.nextText() != DefinitionsLexer.Token.END_OF_FILE) {
+            if (lexer.textEquals("END_BLOCKS")) {
                 return;
             }
-            while (!line.equals("END_BLOCKS")) {
-                // ignore all empty lines
-                if (line.length() != 0) {
-                    blocksInfo.add(line);
-                }
-                line = br.readLine();
+            // ignore all empty lines
+            if (!lexer.isEmpty()) {
+                specification.addBlocksRow(lexer.getChars(), lexer.getLine());
             }
-        } catch (IOException i) {
-            i.printStackTrace();
+            lexer.skipLine();
         }
+        throw lexer.error("the file ended before END_BLOCKS");
     }
 
     /**
-     * Function name: moveReaderToNextLevel.
-     * Advance the reader object to the next level written in the file
+     * Function name: moveLexerToNextLevel.
+     * Advance the lexer to the line after the next START_LEVEL line in the file
      *
-     * @param br          - the reader object that reads through the file
-     * @param currentLine - the current line the reader points to
-     * @return advanced position of the reader
+     * @param lexer - the lexer that reads through the file
+     * @return true if there is another level, false if the file ended
+     * @throws IOException if the file can't be read
      */
-    private BufferedReader moveReaderToNextLevel(BufferedReader br, String currentLine) {
-        try {
-            while (currentLine != null && !currentLine.equals("START_LEVEL")) {
-                currentLine = br.readLine();
+    private boolean moveLexerToNextLevel(DefinitionsLexer lexer) throws IOException {
+        while (lexer.nextText() != DefinitionsLexer.Token.END_OF_FILE) {
+            boolean found = lexer.textEquals("START_LEVEL");
+            lexer.skipLine();
+            if (found) {
+                return true;
             }
-        } catch (IOException i) {
-            i.printStackTrace();
         }
-        return br;
+        return false;
     }
-}
\ No newline at end of file
+}
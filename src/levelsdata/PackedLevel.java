@@ -0,0 +1,211 @@
+package levelsdata;
+
+import collidablesdata.Sprite;
+import collidablesdata.Velocity;
+import gameobjects.Block;
+import gameobjects.BlockType;
+import gameobjects.Point;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A level of a compiled level pack. The details of the level are read from the pack when the level is created, and
+ * so are the positions and templates of its blocks, into a prototype the blocks are created from every time they are
+ * asked for.
+ *
+ * @author Ariel Fenster
+ */
+public class PackedLevel implements LevelInformation {
+
+    // members
+    private LevelPack pack;
+    private int level;
+    private String name;
+    private Sprite background;
+    private List<Velocity> velocityList;
+    private int paddleSpeed;
+    private int paddleWidth;
+    private int numBlocks;
+    private BlocksPrototype blocksPrototype;
+
+    /**
+     * Function name: PackedLevel.
+     * Constructor - reads the details of a level from a pack.
+     *
+     * @param pack  - the level pack
+     * @param level - the index of the level in the pack
+     */
+    public PackedLevel(LevelPack pack, int level) {
+        this.pack = pack;
+        this.level = level;
+        this.name = pack.getString(pack.field(LevelPack.LEVELS, level, 0));
+        int backgroundImage = pack.field(LevelPack.LEVELS, level, 8);
+        this.background = new BackgroundGenerator(colorOf(pack.field(LevelPack.LEVELS, level, 4)),
+                backgroundImage < 0 ? null : pack.getImagePath(backgroundImage));
+        this.paddleSpeed = pack.field(LevelPack.LEVELS, level, 12);
+        this.paddleWidth = pack.field(LevelPack.LEVELS, level, 16);
+        this.numBlocks = pack.field(LevelPack.LEVELS, level, 20);
+
+        int firstVelocity = pack.field(LevelPack.LEVELS, level, 24);
+        int velocityCount = pack.field(LevelPack.LEVELS, level, 28);
+        this.velocityList = new ArrayList<>(velocityCount);
+        for (int i = firstVelocity; i < firstVelocity + velocityCount; i++) {
+            this.velocityList.add(new Velocity(pack.doubleField(LevelPack.VELOCITIES, i, 0),
+                    pack.doubleField(LevelPack.VELOCITIES, i, 8)));
+        }
+        this.blocksPrototype = new BlocksPrototype(this.readBlocks());
+    }
+
+    /**
+     * Function name: colorOf.
+     * Returns the color of an ARGB value of the pack
+     *
+     * @param argb - the value of the color, 0 if there is no color
+     * @return the color, or null if there is no color
+     */
+    private static Color colorOf(int argb) {
+        return argb == 0 ? null : new Color(argb, true);
+    }
+
+    /**
+     * Function name: readType.
+     * Reads a template from the pack into the block type its blocks share, with its images scaled to the size of
+     * its blocks
+     *
+     * @param template - the index of the template
+     * @return the block type of the template
+     */
+    private BlockType readType(int template) {
+        Map<Integer, Color> colors = new TreeMap<>();
+        Map<Integer, Image> images = new TreeMap<>();
+        int width = (int) this.pack.doubleField(LevelPack.TEMPLATES, template, 0);
+        int height = (int) this.pack.doubleField(LevelPack.TEMPLATES, template, 8);
+        int firstFill = this.pack.field(LevelPack.TEMPLATES, template, 28);
+        int fillCount = this.pack.field(LevelPack.TEMPLATES, template, 32);
+        for (int fill = firstFill; fill < firstFill + fillCount; fill++) {
+            int number = this.pack.field(LevelPack.FILLS, fill, 0);
+            int image = this.pack.field(LevelPack.FILLS, fill, 8);
+            if (image >= 0) {
+                images.put(number, ImageCache.getShared().getImage(this.pack.getImagePath(image), width, height));
+            } else {
+                colors.put(number, colorOf(this.pack.field(LevelPack.FILLS, fill, 4)));
+            }
+        }
+        return new BlockType(this.pack.doubleField(LevelPack.TEMPLATES, template, 0),
+                this.pack.doubleField(LevelPack.TEMPLATES, template, 8), colors, images,
+                colorOf(this.pack.field(LevelPack.TEMPLATES, template, 24)),
+                this.pack.doubleField(LevelPack.TEMPLATES, template, 16));
+    }
+
+    /**
+     * Function name: readBlocks.
+     * Creating the blocks of the level from their positions and templates in the pack, with a block type for every
+     * template the level uses.
+     *
+     * @return a list of the created blocks
+     */
+    private List<Block> readBlocks() {
+        int firstBlock = this.pack.field(LevelPack.LEVELS, this.level, 32);
+        int blockCount = this.pack.field(LevelPack.LEVELS, this.level, 36);
+        Map<Integer, BlockType> templateTypes = new HashMap<>();
+        List<Block> blocksList = new ArrayList<>(blockCount);
+        for (int block = firstBlock; block < firstBlock + blockCount; block++) {
+            int template = this.pack.field(LevelPack.BLOCKS, block, 8);
+            BlockType type = templateTypes.get(template);
+            if (type == null) {
+                type = this.readType(template);
+                templateTypes.put(template, type);
+            }
+            Point p = new Point(this.pack.field(LevelPack.BLOCKS, block, 0),
+                    this.pack.field(LevelPack.BLOCKS, block, 4));
+            blocksList.add(new Block(p, type));
+        }
+        return blocksList;
+    }
+
+    /**
+     * Function name: numberOfBalls.
+     * Return the number of balls in the current level
+     *
+     * @return amount of balls in the level
+     */
+    public int numberOfBalls() {
+        return this.velocityList.size();
+    }
+
+    /**
+     * Function name: initialBallVelocities.
+     * Returns the velocities of the balls of the level
+     *
+     * @return a list of velocities
+     */
+    public List<Velocity> initialBallVelocities() {
+        return this.velocityList;
+    }
+
+    /**
+     * Function name: paddleSpeed.
+     * Return the speed of the paddle in the current level
+     *
+     * @return paddle's speed
+     */
+    public int paddleSpeed() {
+        return this.paddleSpeed;
+    }
+
+    /**
+     * Function name: paddleWidth.
+     * Return the width of the paddle in the current level
+     *
+     * @return paddle's width
+     */
+    public int paddleWidth() {
+        return this.paddleWidth;
+    }
+
+    /**
+     * Function name: levelName.
+     * Return the name of the current level which will be displayed at the top of the screen
+     *
+     * @return level's name
+     */
+    public String levelName() {
+        return this.name;
+    }
+
+    /**
+     * Function name: getBackground.
+     * Returns a sprite with the background of the level
+     *
+     * @return a sprite object with the background design of the level
+     */
+    public Sprite getBackground() {
+        return this.background;
+    }
+
+    /**
+     * Function name: blocks.
+     * Creating the blocks of the level from the prototype read from the pack.
+     *
+     * @return a list of the created blocks
+     */
+    public List<Block> blocks() {
+        return this.blocksPrototype.createBlocks();
+    }
+
+    /**
+     * Function name: numberOfBlocksToRemove.
+     * Returns the number of blocks that should be removed before the level is complete.
+     *
+     * @return numbers of blocks needed to remove to complete the level
+     */
+    public int numberOfBlocksToRemove() {
+        return this.numBlocks;
+    }
+}
@@ -0,0 +1,365 @@
+package levelsdata;
+
+import collidablesdata.GameEnvironment;
+import collidablesdata.Velocity;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates big levels for testing how the game scales - a grid of up to hundreds of thousands of blocks and up to
+ * thousands of balls. The level is generated as the specification of a level and the text of a block definitions
+ * file, and created by the level generator and the blocks factory, like the levels of the definitions files.
+ * The hit points of every block (or an empty place instead of the block) are drawn at random by their weights, from
+ * a seeded random generator - the same settings always generate the same level.
+ * The settings can be read from a line like the lines of the definitions files, for example
+ * "rows:200 columns:250 width:3 height:2 hit_points:1/4/2/1 balls:1000 seed:7" (the hit points weights are of an
+ * empty place, of 1 hit point, of 2 hit points and so on). A 'sub_steps' setting limits the collisions a ball resolves
+ * in a step while the level is played.
+ *
+ * @author Ariel Fenster
+ */
+public class StressLevelGenerator {
+    // the blocks start after the left edge and under the level name
+    private static final int START_X = 25;
+    private static final int START_Y = 50;
+    // the game is played in an 800x600 field, with walls of 25 pixels on its sides - the rows must end before the
+    // right wall, and the grid must end above the balls, which start right above the paddle
+    private static final int FIELD_RIGHT = 775;
+    private static final int PADDLE_ZONE_TOP = 540;
+    private static final int BALL_SPEED = 400;
+    // the balls leave the paddle at up to this angle to the left or to the right
+    private static final int MAX_ANGLE = 60;
+    // a block is drawn with an outline only if it's wide and high enough for its fill to show
+    private static final int MIN_STROKE_SIZE = 5;
+    // the symbols of the blocks, by their hit points
+    private static final String SYMBOLS = "123456789";
+    private static final char SPACER = '-';
+
+    // members
+    private int rows;
+    private int columns;
+    private int blockWidth;
+    private int blockHeight;
+    // the weight of an empty place, then the weights of 1, 2, 3... hit points
+    private int[] hitPointsWeights;
+    private int balls;
+    private long seed;
+    // the maximal amount of collisions a ball resolves in a step, when the level is played
+    private int maxSubSteps;
+
+    /**
+     * Function name: StressLevelGenerator.
+     * Constructor - the settings start as a level of 20 rows of 30 blocks, 10 balls and blocks of 1 to 3 hit points.
+     */
+    public StressLevelGenerator() {
+        this.rows = 20;
+        this.columns = 30;
+        this.blockWidth = 25;
+        this.blockHeight = 10;
+        this.hitPointsWeights = new int[] {0, 3, 2, 1};
+        this.balls = 10;
+        this.seed = 1;
+        this.maxSubSteps = GameEnvironment.DEFAULT_MAX_SUB_STEPS;
+    }
+
+    /**
+     * Function name: fromSettings.
+     * Creates a generator with the settings written in a line like 'rows:200 columns:250 width:3 height:2'.
+     * Settings that aren't written keep their starting values.
+     *
+     * @param settings - the settings line
+     * @return the generator
+     * @throws DefinitionsSyntaxException if the line has an unknown or a wrong setting, or if the grid of the blocks
+     *                                    doesn't fit in the field of the game
+     */
+    public static StressLevelGenerator fromSettings(String settings) throws DefinitionsSyntaxException {
+        StressLevelGenerator generator = new StressLevelGenerator();
+        DefinitionsLexer lexer = new DefinitionsLexer(new StringReader(settings), "stress level settings");
+        try {
+            DefinitionsLexer.Token token = lexer.next();
+            while (token == DefinitionsLexer.Token.KEY) {
+                String key = lexer.getText();
+                lexer.next();
+                if (key.equals("rows")) {
+                    generator.setGrid(lexer.getInt(), generator.columns);
+                } else if (key.equals("columns")) {
+                    generator.setGrid(generator.rows, lexer.getInt());
+                } else if (key.equals("width")) {
+                    generator.setBlockSize(lexer.getInt(), generator.blockHeight);
+                } else if (key.equals("height")) {
+                    generator.setBlockSize(generator.blockWidth, lexer.getInt());
+                } else if (key.equals("hit_points")) {
+                    generator.setHitPointsWeights(weightsOf(lexer));
+                } else if (key.equals("balls")) {
+                    generator.setBalls(lexer.getInt());
+                } else if (key.equals("seed")) {
+                    generator.setSeed(lexer.getLong());
+                } else if (key.equals("sub_steps")) {
+                    generator.setMaxSubSteps(lexer.getInt());
+                } else {
+                    throw lexer.error("unknown setting '" + key + "'");
+                }
+                token = lexer.next();
+            }
+            if (token == DefinitionsLexer.Token.WORD) {
+                throw lexer.error("expected a setting like 'name:value', found '" + lexer.getText() + "'");
+            }
+            // the size of the grid is checked once all its settings are read
+            generator.checkGridFits();
+        } catch (IOException | IllegalArgumentException e) {
+            throw lexer.error(e.getMessage());
+        }
+        return generator;
+    }
+
+    /**
+     * Function name: setGrid.
+     * Sets the size of the grid of the blocks
+     *
+     * @param newRows    - the amount of rows
+     * @param newColumns - the amount of blocks in a row
+     */
+    public void setGrid(int newRows, int newColumns) {
+        if (newRows < 1 || newColumns < 1) {
+            throw new IllegalArgumentException("the grid must have at least one row and one column");
+        }
+        this.rows = newRows;
+        this.columns = newColumns;
+    }
+
+    /**
+     * Function name: checkGridFits.
+     * Checks that the grid of the blocks fits in the field of the game - between the walls, and above the paddle
+     */
+    private void checkGridFits() {
+        long right = START_X + (long) this.columns * this.blockWidth;
+        long bottom = START_Y + (long) this.rows * this.blockHeight;
+        if (right > FIELD_RIGHT) {
+            throw new IllegalArgumentException(this.columns + " columns of width " + this.blockWidth
+                    + " end at x=" + right + ", after the right wall at x=" + FIELD_RIGHT);
+        }
+        if (bottom > PADDLE_ZONE_TOP) {
+            throw new IllegalArgumentException(this.rows + " rows of height " + this.blockHeight + " end at y="
+                    + bottom + ", in the zone of the paddle from y=" + PADDLE_ZONE_TOP);
+        }
+    }
+
+    /**
+     * Function name: setBlockSize.
+     * Sets the size of every block (the blocks are placed without gaps)
+     *
+     * @param width  - the width of a block, in pixels
+     * @param height - the height of a block, in pixels
+     */
+    public void setBlockSize(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("a block must be at least 1 pixel wide and high");
+        }
+        this.blockWidth = width;
+        this.blockHeight = height;
+    }
+
+    /**
+     * Function name: setHitPointsWeights.
+     * Sets how often every number of hit points is drawn - the first weight is of an empty place, the next are of
+     * 1, 2, 3... hit points (up to 9)
+     *
+     * @param weights - the weights
+     */
+    public void setHitPointsWeights(int[] weights) {
+        if (weights.length < 2 || weights.length > SYMBOLS.length() + 1) {
+            throw new IllegalArgumentException("expected the weights of an empty place and of 1 to "
+                    + SYMBOLS.length() + " hit points");
+        }
+        int blocksWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("a weight can't be negative");
+            }
+            blocksWeight += i == 0 ? 0 : weights[i];
+        }
+        if (blocksWeight == 0) {
+            throw new IllegalArgumentException("at least one number of hit points must have a weight");
+        }
+        this.hitPointsWeights = weights.clone();
+    }
+
+    /**
+     * Function name: setBalls.
+     * Sets the amount of balls of the level
+     *
+     * @param amount - the amount of balls
+     */
+    public void setBalls(int amount) {
+        if (amount < 1) {
+            throw new IllegalArgumentException("the level must have at least one ball");
+        }
+        this.balls = amount;
+    }
+
+    /**
+     * Function name: setSeed.
+     * Sets the seed of the random generator the level is drawn with
+     *
+     * @param newSeed - the seed
+     */
+    public void setSeed(long newSeed) {
+        this.seed = newSeed;
+    }
+
+    /**
+     * Function name: setMaxSubSteps.
+     * Sets the maximal amount of collisions a ball resolves in a step, when the level is played - a setting of the
+     * game and not of the level, which is kept here so the stress test can tune it against the time of a frame
+     *
+     * @param amount - the maximal amount of sub-steps per ball per step
+     */
+    public void setMaxSubSteps(int amount) {
+        if (amount < 1) {
+            throw new IllegalArgumentException("a ball must be allowed at least one sub-step");
+        }
+        this.maxSubSteps = amount;
+    }
+
+    /**
+     * Function name: getMaxSubSteps.
+     * Returns the maximal amount of collisions a ball resolves in a step, when the level is played
+     *
+     * @return maximal amount of sub-steps per ball per step
+     */
+    public int getMaxSubSteps() {
+        return this.maxSubSteps;
+    }
+
+    /**
+     * Function name: getName.
+     * Returns the name of the generated level, with its main settings
+     *
+     * @return the name of the level
+     */
+    public String getName() {
+        return "Stress " + this.rows + "x" + this.columns + ", " + this.balls + " balls";
+    }
+
+    /**
+     * Function name: createLevel.
+     * Generates the level. Every call generates the same level, as long as the settings don't change.
+     *
+     * @return the level
+     */
+    public LevelInformation createLevel() {
+        Random random = new Random(this.seed);
+
+        // the layout of the blocks, a symbol for every block or empty place
+        int totalWeight = 0;
+        for (int weight : this.hitPointsWeights) {
+            totalWeight += weight;
+        }
+        LevelSpecification specification = new LevelSpecification();
+        int blocks = 0;
+        for (int r = 0; r < this.rows; r++) {
+            char[] row = new char[this.columns];
+            for (int c = 0; c < this.columns; c++) {
+                int hitPoints = drawIndex(this.hitPointsWeights, random.nextInt(totalWeight));
+                if (hitPoints == 0) {
+                    row[c] = SPACER;
+                } else {
+                    row[c] = SYMBOLS.charAt(hitPoints - 1);
+                    blocks++;
+                }
+            }
+            specification.addBlocksRow(row);
+        }
+
+        // the balls leave the paddle at random angles
+        List<Velocity> velocities = new ArrayList<>(this.balls);
+        for (int i = 0; i < this.balls; i++) {
+            int angle = random.nextInt(2 * MAX_ANGLE + 1) - MAX_ANGLE;
+            velocities.add(Velocity.fromAngleAndSpeed(angle, BALL_SPEED));
+        }
+
+        specification.setLevelName(this.getName());
+        specification.setBallVelocities(velocities);
+        specification.setBackground("color(black)");
+        specification.setPaddleSpeed(650);
+        specification.setPaddleWidth(160);
+        specification.setBlockDefinitions("generated");
+        specification.setBlocksStartX(START_X);
+        specification.setBlocksStartY(START_Y);
+        specification.setRowHeight(this.blockHeight);
+        specification.setNumBlocks(blocks);
+        BlocksFromSymbolsFactory factory = BlocksDefinitionReader.fromReader(
+                new StringReader(this.blockDefinitions()), "generated block definitions");
+        return new LevelGenerator().createLevel(specification, factory);
+    }
+
+    /**
+     * Function name: blockDefinitions.
+     * Returns the text of the block definitions of the level - a block for every number of hit points, with a fill
+     * for every number of hit points it has left
+     *
+     * @return the block definitions
+     */
+    private String blockDefinitions() {
+        StringBuilder text = new StringBuilder();
+        text.append("default width:").append(this.blockWidth).append(" height:").append(this.blockHeight);
+        if (this.blockWidth >= MIN_STROKE_SIZE && this.blockHeight >= MIN_STROKE_SIZE) {
+            text.append(" stroke:color(black)");
+        }
+        text.append('\n');
+        for (int hitPoints = 1; hitPoints < this.hitPointsWeights.length; hitPoints++) {
+            text.append("bdef symbol:").append(SYMBOLS.charAt(hitPoints - 1)).append(" hit_points:")
+                    .append(hitPoints);
+            for (int fill = 1; fill <= hitPoints; fill++) {
+                // from green at the last hit point to red at the ninth
+                int red = 255 * (fill - 1) / (SYMBOLS.length() - 1);
+                text.append(" fill-").append(fill).append(":color(RGB(").append(red).append(',')
+                        .append(255 - red).append(",60))");
+            }
+            text.append('\n');
+        }
+        text.append("sdef symbol:").append(SPACER).append(" width:").append(this.blockWidth).append('\n');
+        return text.toString();
+    }
+
+    /**
+     * Function name: drawIndex.
+     * Returns the index a random number falls in, when every index covers as many numbers as its weight
+     *
+     * @param weights - the weights of the indexes
+     * @param number  - a random number, from 0 to the total of the weights (not included)
+     * @return the index
+     */
+    private static int drawIndex(int[] weights, int number) {
+        int i = 0;
+        while (number >= weights[i]) {
+            number -= weights[i];
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Function name: weightsOf.
+     * Reads weights written like '1/4/2/1'
+     *
+     * @param lexer - the lexer, at the value of the weights
+     * @return the weights
+     */
+    private static int[] weightsOf(DefinitionsLexer lexer) {
+        String[] parts = lexer.getText().split("/");
+        int[] weights = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                weights[i] = Integer.parseInt(parts[i]);
+            } catch (NumberFormatException e) {
+                throw lexer.error("expected weights like '1/4/2/1'");
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,59 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for every time a ball hits a collidable object.
+ *
+ * @author Ariel Fenster
+ */
+@Name("arkanoid.Collision")
+@Label("Collision")
+@Category({"Arkanoid", "Physics"})
+@Description("A ball hit a collidable object")
+public class CollisionEvent extends Event {
+    // an event that is never committed - it is only asked whether the events are recorded, so no event has to be
+    // created when they aren't
+    private static final CollisionEvent PROBE = new CollisionEvent();
+
+    // members - the fields of the event
+    @Label("Collidable")
+    @Description("The class of the object that was hit")
+    private String collidable;
+
+    @Label("Sub-step")
+    @Description("The sub-step of the ball's movement in which the hit happened (the first is 1)")
+    private int subStep;
+
+    @Label("Max Sub-steps")
+    @Description("The maximal amount of sub-steps a ball can do in a step")
+    private int maxSubSteps;
+
+    /**
+     * Function name: isRecorded.
+     * Checks whether the flight recorder is recording these events. Only then is an event worth creating.
+     *
+     * @return true if the events are recorded
+     */
+    public static boolean isRecorded() {
+        return PROBE.isEnabled();
+    }
+
+    /**
+     * Function name: set.
+     * Sets the fields of the event.
+     *
+     * @param collidable  - the object that was hit
+     * @param subStep     - the sub-step in which the hit happened
+     * @param maxSubSteps - the maximal amount of sub-steps in a step
+     */
+    public void set(Object collidable, int subStep, int maxSubSteps) {
+        this.collidable = collidable.getClass().getSimpleName();
+        this.subStep = subStep;
+        this.maxSubSteps = maxSubSteps;
+    }
+}
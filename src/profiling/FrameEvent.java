@@ -0,0 +1,95 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A Java Flight Recorder event for every frame the animation runner shows, with the time of each phase of the frame.
+ * The event itself lasts from the start of the frame until it was shown, so it can be lined up with garbage
+ * collections and other pauses of the JVM.
+ *
+ * @author Ariel Fenster
+ */
+@Name("arkanoid.Frame")
+@Label("Frame")
+@Category({"Arkanoid", "Animation"})
+@Description("A frame shown by the animation runner")
+public class FrameEvent extends Event {
+    // an event that is never committed - it is only asked whether the events are recorded, so no event has to be
+    // created when they aren't
+    private static final FrameEvent PROBE = new FrameEvent();
+
+    // members - the fields of the event
+    @Label("Animation")
+    @Description("The class of the animation the frame belongs to")
+    private String animation;
+
+    @Label("Steps")
+    @Description("The amount of simulation steps done for the frame")
+    private int steps;
+
+    @Label("Sub-Steps")
+    @Description("The total amount of sub-steps all the balls did in the simulation steps of the frame")
+    private int subSteps;
+
+    @Label("Update Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long update;
+
+    @Label("Draw Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long draw;
+
+    @Label("Show Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long show;
+
+    @Label("Sleep Time")
+    @Description("The time spent waiting for the frame to be due")
+    @Timespan(Timespan.NANOSECONDS)
+    private long sleep;
+
+    /**
+     * Function name: isRecorded.
+     * Checks whether the flight recorder is recording these events. Only then is an event worth creating.
+     *
+     * @return true if the events are recorded
+     */
+    public static boolean isRecorded() {
+        return PROBE.isEnabled();
+    }
+
+    /**
+     * Function name: setAnimation.
+     * Sets the animation the frame belongs to.
+     *
+     * @param animation - the animation
+     */
+    public void setAnimation(Object animation) {
+        this.animation = animation.getClass().getSimpleName();
+    }
+
+    /**
+     * Function name: setPhases.
+     * Sets the amount of simulation steps and ball sub-steps and the time of each phase of the frame.
+     *
+     * @param steps    - the amount of simulation steps done for the frame
+     * @param subSteps - the total amount of sub-steps the balls did in those steps
+     * @param update   - the time spent advancing the simulation, in nanoseconds
+     * @param draw     - the time spent drawing the frame, in nanoseconds
+     * @param show     - the time spent showing the frame, in nanoseconds
+     * @param sleep    - the time spent waiting for the frame, in nanoseconds
+     */
+    public void setPhases(int steps, int subSteps, long update, long draw, long show, long sleep) {
+        this.steps = steps;
+        this.subSteps = subSteps;
+        this.update = update;
+        this.draw = draw;
+        this.show = show;
+        this.sleep = sleep;
+    }
+}
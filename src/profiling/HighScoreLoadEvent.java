@@ -0,0 +1,64 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for loading the high scores table from its file. The event lasts as long as the load
+ * (including the migration of a table saved in the old format).
+ *
+ * @author Ariel Fenster
+ */
+@Name("arkanoid.HighScoreLoad")
+@Label("High Score Load")
+@Category({"Arkanoid", "Scores"})
+@Description("The high scores table was loaded")
+public class HighScoreLoadEvent extends Event {
+    // members - the fields of the event
+    @Label("File")
+    private String file;
+
+    @Label("Entries")
+    private int entries;
+
+    @Label("Bytes Read")
+    @DataAmount
+    private long bytesRead;
+
+    @Label("Migrated")
+    @Description("The file was in the old format and was saved again in the new format")
+    private boolean migrated;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    /**
+     * Function name: HighScoreLoadEvent.
+     * Constructor - creates an event for loading from the given file.
+     *
+     * @param file - the path of the file
+     */
+    public HighScoreLoadEvent(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Function name: setResult.
+     * Sets what was loaded.
+     *
+     * @param entries   - the amount of scores in the table
+     * @param bytesRead - the size of the file
+     * @param migrated  - whether the file was in the old format
+     * @param succeeded - whether the table was loaded
+     */
+    public void setResult(int entries, long bytesRead, boolean migrated, boolean succeeded) {
+        this.entries = entries;
+        this.bytesRead = bytesRead;
+        this.migrated = migrated;
+        this.succeeded = succeeded;
+    }
+}
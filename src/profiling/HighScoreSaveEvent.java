@@ -0,0 +1,57 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for saving the high scores table to its file. The event lasts as long as the save.
+ *
+ * @author Ariel Fenster
+ */
+@Name("arkanoid.HighScoreSave")
+@Label("High Score Save")
+@Category({"Arkanoid", "Scores"})
+@Description("The high scores table was saved")
+public class HighScoreSaveEvent extends Event {
+    // members - the fields of the event
+    @Label("File")
+    private String file;
+
+    @Label("Entries")
+    private int entries;
+
+    @Label("Bytes Written")
+    @DataAmount
+    private long bytesWritten;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    /**
+     * Function name: HighScoreSaveEvent.
+     * Constructor - creates an event for saving to the given file.
+     *
+     * @param file - the path of the file
+     */
+    public HighScoreSaveEvent(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Function name: setResult.
+     * Sets what was saved.
+     *
+     * @param entries      - the amount of scores in the table
+     * @param bytesWritten - the size of the saved file
+     * @param succeeded    - whether the table was saved
+     */
+    public void setResult(int entries, long bytesWritten, boolean succeeded) {
+        this.entries = entries;
+        this.bytesWritten = bytesWritten;
+        this.succeeded = succeeded;
+    }
+}
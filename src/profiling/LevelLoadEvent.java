@@ -0,0 +1,66 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for reading a file of the levels - a level definitions file, or a block definitions
+ * file it uses. The event lasts as long as reading the file and creating what it describes (including decoding its
+ * images), so a block definitions event is nested in the event of the level definitions file that uses it.
+ *
+ * @author Ariel Fenster
+ */
+@Name("arkanoid.LevelLoad")
+@Label("Level Load")
+@Category({"Arkanoid", "Loading"})
+@Description("A level definitions or block definitions file was read")
+public class LevelLoadEvent extends Event {
+    // members - the fields of the event
+    @Label("File")
+    private String file;
+
+    @Label("Kind")
+    @Description("Level definitions or block definitions")
+    private String kind;
+
+    @Label("Bytes Read")
+    @DataAmount
+    private long bytesRead;
+
+    @Label("Images Decoded")
+    private int imagesDecoded;
+
+    @Label("Items")
+    @Description("The amount of levels or block types created")
+    private int items;
+
+    /**
+     * Function name: LevelLoadEvent.
+     * Constructor - creates an event for reading the given file.
+     *
+     * @param file - the path of the file
+     * @param kind - what the file defines
+     */
+    public LevelLoadEvent(String file, String kind) {
+        this.file = file;
+        this.kind = kind;
+    }
+
+    /**
+     * Function name: setResult.
+     * Sets what was read from the file.
+     *
+     * @param bytesRead     - the amount of bytes read from the file
+     * @param imagesDecoded - the amount of images decoded while creating what the file describes
+     * @param items         - the amount of levels or block types created
+     */
+    public void setResult(long bytesRead, int imagesDecoded, int items) {
+        this.bytesRead = bytesRead;
+        this.imagesDecoded = imagesDecoded;
+        this.items = items;
+    }
+}
@@ -1,20 +1,41 @@
 package scoredata;
 
 
+import profiling.HighScoreLoadEvent;
+import profiling.HighScoreSaveEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.ObjectInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.ObjectOutputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.io.IOException;
-import java.io.FileNotFoundException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.zip.CRC32;
 
 /**
  * A high scores table class.
+ * The table is saved in a small binary file: a header (a magic number, the version of the format, the size of the
+ * table and the amount of scores), then every score as its name (its length and its UTF-8 bytes) and its value, with
+ * the numbers written in as few bytes as they need, and a CRC32 of everything before it at the end. A file is saved
+ * to a temporary file first and then renamed over the old one, so a failed save never leaves a broken table.
+ * Tables saved with Java serialization by older versions of the game are still read (only the classes of a table
+ * are allowed in them), and saved again in the binary format the first time they're read - this is the only reason
+ * the table is still Serializable.
  *
  * @author Ariel Fenster
  */
@@ -22,6 +43,14 @@ public class HighScoresTable implements Serializable {
 
     private static final long serialVersionUID = 1L;
     private static final int DEFAULT_TABLE_SIZE = 10;
+    // "ARKS"
+    private static final int MAGIC = 0x41524B53;
+    private static final int VERSION = 1;
+    // the first bytes of a file written with Java serialization
+    private static final int SERIALIZATION_MAGIC = 0xACED;
+    // the classes a table written with Java serialization is made of - anything else is rejected
+    private static final String SERIALIZATION_FILTER = "maxdepth=5;maxrefs=1000000;scoredata.HighScoresTable;"
+            + "scoredata.ScoreInfo;java.util.ArrayList;java.lang.String;java.lang.Object;!*";
 
     // members
     private int size;
@@ -158,44 +187,53 @@ public class HighScoresTable implements Serializable {
      * @throws IOException - if an error occurs during the load process
      */
     public void load(File filename) throws IOException {
-        ObjectInputStream objectInputStream = null;
         try {
-            objectInputStream = new ObjectInputStream(new FileInputStream(filename));
-            HighScoresTable loadedScores = (HighScoresTable) objectInputStream.readObject();
+            HighScoresTable loadedScores = read(filename);
             this.size = loadedScores.size();
             this.highScores = loadedScores.getHighScores();
-        } catch (FileNotFoundException | ClassNotFoundException e) {
+        } catch (FileNotFoundException e) {
             e.printStackTrace();
-        } finally {
-            if (objectInputStream != null) {
-                try {
-                    objectInputStream.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
         }
     }
 
     /**
      * Function name: save.
-     * Save table data to the given file.
+     * Save table data to the given file. The table is written to a temporary file next to it, which then replaces
+     * the file.
      *
      * @param filename - the file to save the table to
      * @throws IOException - if an error occurs during the save process
      */
     public void save(File filename) throws IOException {
-        ObjectOutputStream objectOutputStream = null;
+        // the save is recorded for the flight recorder
+        HighScoreSaveEvent event = new HighScoreSaveEvent(filename.getPath());
+        boolean saved = false;
+        event.begin();
+        File temporary = new File(filename.getPath() + ".tmp");
         try {
-            objectOutputStream = new ObjectOutputStream(new FileOutputStream(filename));
-            objectOutputStream.writeObject(this);
+            FileOutputStream out = new FileOutputStream(temporary);
+            try {
+                out.write(this.toBytes());
+                // the data must be on the disk before the rename makes it the table
+                out.getFD().sync();
+            } finally {
+                out.close();
+            }
+            try {
+                Files.move(temporary.toPath(), filename.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary.toPath(), filename.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            saved = true;
         } catch (IOException i) {
             i.printStackTrace();
         } finally {
-            // if the file didn't close successfully - an exception will be thrown
-            if (objectOutputStream != null) {
-                objectOutputStream.close();
+            if (!saved) {
+                Files.deleteIfExists(temporary.toPath());
             }
+            event.setResult(this.highScores.size(), filename.length(), saved);
+            event.commit();
         }
     }
 
@@ -208,21 +246,201 @@ public class HighScoresTable implements Serializable {
      * @return a high scores table
      */
     public static HighScoresTable loadFromFile(File filename) {
-        ObjectInputStream objectInputStream = null;
         try {
-            // try to return the object in the file
-            objectInputStream = new ObjectInputStream(new FileInputStream(filename));
-            return (HighScoresTable) objectInputStream.readObject();
-        } catch (ClassNotFoundException | IOException f) {
+            return read(filename);
+        } catch (IOException f) {
             return new HighScoresTable(DEFAULT_TABLE_SIZE);
+        }
+    }
+
+    /**
+     * Function name: read.
+     * Reads a table from a file. A table written with Java serialization is saved again in the binary format (the
+     * old file is kept with an '.old' extension).
+     *
+     * @param filename - the file to read the table from
+     * @return the table in the file
+     * @throws IOException if the file can't be read or isn't a high scores table
+     */
+    private static HighScoresTable read(File filename) throws IOException {
+        // the load is recorded for the flight recorder
+        HighScoreLoadEvent event = new HighScoreLoadEvent(filename.getPath());
+        event.begin();
+        HighScoresTable table = null;
+        boolean migrated = false;
+        byte[] data = null;
+        try {
+            // without the file system classes of java.nio, which take a while to load when the game starts
+            FileInputStream in = new FileInputStream(filename);
+            try {
+                data = in.readAllBytes();
+            } finally {
+                in.close();
+            }
+            if (data.length >= 2 && ((data[0] & 0xFF) << 8 | (data[1] & 0xFF)) == SERIALIZATION_MAGIC) {
+                table = fromSerialized(data, filename);
+                Files.write(new File(filename.getPath() + ".old").toPath(), data);
+                table.save(filename);
+                migrated = true;
+            } else {
+                table = fromBytes(data, filename);
+            }
+            return table;
         } finally {
-            if (objectInputStream != null) {
-                try {
-                    objectInputStream.close();
-                } catch (IOException i) {
-                    i.printStackTrace();
+            event.setResult(table == null ? 0 : table.highScores.size(), data == null ? 0 : data.length, migrated,
+                    table != null);
+            event.commit();
+        }
+    }
+
+    /**
+     * Function name: toBytes.
+     * Writes the table in the binary format
+     *
+     * @return the bytes of the table
+     * @throws IOException if the table can't be written
+     */
+    private byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + this.highScores.size() * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        writeVarInt(out, this.size);
+        List<ScoreInfo> scores = this.getHighScores();
+        writeVarInt(out, scores.size());
+        for (ScoreInfo info : scores) {
+            // the length is written plus one, so 0 is a score without a name
+            if (info.getName() == null) {
+                writeVarInt(out, 0);
+            } else {
+                byte[] name = info.getName().getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, name.length + 1);
+                out.write(name);
+            }
+            // a negative score takes as few bytes as the positive one
+            writeVarInt(out, (info.getScore() << 1) ^ (info.getScore() >> 31));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Function name: fromBytes.
+     * Reads a table written in the binary format
+     *
+     * @param data     - the bytes of the table
+     * @param filename - the file the bytes were read from, for error messages
+     * @return the table
+     * @throws IOException if the bytes aren't a valid high scores table
+     */
+    private static HighScoresTable fromBytes(byte[] data, File filename) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        try {
+            // the magic number, the version and the CRC are the smallest table
+            if (data.length < 9 || in.getInt() != MAGIC) {
+                throw new IOException(filename + " is not a high scores table");
+            }
+            int version = in.get() & 0xFF;
+            if (version != VERSION) {
+                throw new IOException("Unsupported high scores version " + version + " in " + filename);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length - 4);
+            if ((int) crc.getValue() != ByteBuffer.wrap(data, data.length - 4, 4).getInt()) {
+                throw new IOException("The high scores table in " + filename + " is damaged");
+            }
+            int size = readVarInt(in);
+            int count = readVarInt(in);
+            // every score takes at least 2 bytes
+            if (size < 0 || count < 0 || count > size || count > in.remaining() / 2) {
+                throw new IOException("Malformed high scores table " + filename);
+            }
+            HighScoresTable table = new HighScoresTable(count);
+            table.size = size;
+            for (int i = 0; i < count; i++) {
+                int length = readVarInt(in) - 1;
+                if (length < -1 || length > in.remaining() - 4) {
+                    throw new IOException("Malformed high scores table " + filename);
                 }
+                String name = null;
+                if (length >= 0) {
+                    name = new String(data, in.position(), length, StandardCharsets.UTF_8);
+                    in.position(in.position() + length);
+                }
+                int score = readVarInt(in);
+                table.highScores.add(new ScoreInfo(name, (score >>> 1) ^ -(score & 1)));
+            }
+            if (in.position() != data.length - 4) {
+                throw new IOException("Malformed high scores table " + filename);
+            }
+            return table;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("The high scores table in " + filename + " is cut short");
+        }
+    }
+
+    /**
+     * Function name: fromSerialized.
+     * Reads a table written with Java serialization by an older version of the game. Only the classes of a table are
+     * allowed in the file.
+     *
+     * @param data     - the bytes of the file
+     * @param filename - the file the bytes were read from, for error messages
+     * @return the table
+     * @throws IOException if the bytes aren't a valid high scores table
+     */
+    private static HighScoresTable fromSerialized(byte[] data, File filename) throws IOException {
+        ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(data));
+        try {
+            objectInputStream.setObjectInputFilter(ObjectInputFilter.Config.createFilter(SERIALIZATION_FILTER));
+            Object table = objectInputStream.readObject();
+            if (!(table instanceof HighScoresTable) || ((HighScoresTable) table).highScores == null) {
+                throw new IOException(filename + " is not a high scores table");
+            }
+            return (HighScoresTable) table;
+        } catch (ClassNotFoundException | InvalidClassException | ClassCastException e) {
+            throw new IOException(filename + " is not a high scores table", e);
+        } finally {
+            objectInputStream.close();
+        }
+    }
+
+    /**
+     * Function name: writeVarInt.
+     * Writes a non-negative number in as few bytes as it needs - 7 bits in each byte, starting from the lowest bits.
+     *
+     * @param out   - the stream to write to
+     * @param value - the number to write
+     * @throws IOException if the stream can't be written
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Function name: readVarInt.
+     * Reads a number written by writeVarInt.
+     *
+     * @param in - the buffer to read from
+     * @return the number that was read
+     * @throws IOException if the number is too long
+     */
+    private static int readVarInt(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
             }
         }
+        throw new IOException("Malformed number in high scores table");
     }
-}
\ No newline at end of file
+}